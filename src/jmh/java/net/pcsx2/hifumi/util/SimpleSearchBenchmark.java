@@ -0,0 +1,65 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A /cpu lookup with the legacy search against the indexed one, each taking the five results
+ * the command shows.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleSearchBenchmark {
+
+    private static final int MAX_RESULTS = 5;
+
+    @Param({ "5800x3d", "i5 12400f", "xeon e5 2680 v4", "amd ryzen" })
+    public String query;
+
+    private List<String> names;
+    private SimpleSearch search;
+
+    @Setup
+    public void setup() {
+        this.names = PassmarkNames.cpus();
+        this.search = new SimpleSearch(this.names);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Float>> legacy() {
+        HashMap<String, Float> results = LegacySimpleSearch.search(this.names, this.query);
+
+        return results.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .limit(MAX_RESULTS)
+                .toList();
+    }
+
+    @Benchmark
+    public List<SimpleSearch.Result> indexed() {
+        return this.search.search(this.query, MAX_RESULTS);
+    }
+}
@@ -4,8 +4,8 @@ package net.pcsx2.hifumi;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 import net.dv8tion.jda.api.components.buttons.Button;
 import net.dv8tion.jda.api.components.buttons.ButtonStyle;
@@ -13,27 +13,53 @@ import net.dv8tion.jda.api.entities.MessageEmbed;
 
 public class BrowsableEmbed {
 
-    public static ConcurrentHashMap<Long, BrowsableEmbed> embedCache = new ConcurrentHashMap<Long, BrowsableEmbed>();
-    
+    /**
+     * Renders pages as they are browsed to, so an embed does not have to hold every page it can show.
+     */
+    public interface PageSupplier {
+
+        /**
+         * Render a page. May be asked for the same page again when browsing back to it, and
+         * pages are only asked for one step from a page which has already been rendered.
+         * @param index Starts at 0.
+         * @return The page, or empty if there is no page at index.
+         */
+        Optional<MessageEmbed> render(int index);
+
+        /**
+         * Supply pages which were all built up front.
+         */
+        static PageSupplier of(List<MessageEmbed> embeds) {
+            List<MessageEmbed> pages = List.copyOf(embeds);
+            return index -> (index >= 0 && index < pages.size() ? Optional.of(pages.get(index)) : Optional.empty());
+        }
+    }
+
     private String sourceSlug;
     private long eventIdLong;
     private long userIdLong;
     private long createdTimestamp;
-    private ArrayList<MessageEmbed> pages;
+    private PageSupplier supplier;
     private int currentPage;
-    
+    // Only the current page and those either side of it are held, the buttons need their titles
+    private Optional<MessageEmbed> previous;
+    private Optional<MessageEmbed> current;
+    private Optional<MessageEmbed> next;
+
     public BrowsableEmbed(String sourceSlug, long eventIdLong, long userIdLong, ArrayList<MessageEmbed> embeds) {
+        this(sourceSlug, eventIdLong, userIdLong, PageSupplier.of(embeds));
+    }
+
+    public BrowsableEmbed(String sourceSlug, long eventIdLong, long userIdLong, PageSupplier supplier) {
         this.sourceSlug = sourceSlug;
         this.eventIdLong = eventIdLong;
         this.userIdLong = userIdLong;
         this.createdTimestamp = OffsetDateTime.now().toEpochSecond();
-        this.pages = new ArrayList<MessageEmbed>();
-
-        for (MessageEmbed embed : embeds) {
-            this.pages.add(embed);
-        }
-
-        this.currentPage = (this.pages.isEmpty() ? -1 : 0);
+        this.supplier = supplier;
+        this.previous = Optional.empty();
+        this.current = supplier.render(0);
+        this.next = (this.current.isPresent() ? supplier.render(1) : Optional.empty());
+        this.currentPage = (this.current.isEmpty() ? -1 : 0);
     }
 
     public long getEventIdLong() {
@@ -52,33 +78,27 @@ public class BrowsableEmbed {
      * Get the current page. Starts at position 0.
      * @return Optional containing a MessageEmbed, if a page exists.
      */
-    public Optional<MessageEmbed> getCurrentPage() {
-        if (this.pages.isEmpty() || this.currentPage < 0) {
-            return Optional.empty();
-        }
-
-        return Optional.of(this.pages.get(this.currentPage));
+    public synchronized Optional<MessageEmbed> getCurrentPage() {
+        return this.current;
     }
 
     /**
      * Fetch a copy of the next page without advancing to it.
      * @return The next page, if one exists.
      */
-    public Optional<MessageEmbed> previewNextPage() {
-        if (this.currentPage + 1 >= this.pages.size()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(this.pages.get(this.currentPage + 1));
+    public synchronized Optional<MessageEmbed> previewNextPage() {
+        return this.next;
     }
 
     /**
      * Advance to and return a copy of the next page.
      * @return The next page, or if no further page exists, the same page.
      */
-    public Optional<MessageEmbed> nextPage() {
-        if (++this.currentPage >= this.pages.size()) {
-            --this.currentPage;
+    public synchronized Optional<MessageEmbed> nextPage() {
+        if (this.next.isPresent()) {
+            this.previous = this.current;
+            this.current = this.next;
+            this.next = this.supplier.render(++this.currentPage + 1);
         }
 
         return this.getCurrentPage();
@@ -88,31 +108,29 @@ public class BrowsableEmbed {
      * Fetch a copy of the previous page without advancing to it.
      * @return The previous page, if one exists.
      */
-    public Optional<MessageEmbed> previewPreviousPage() {
-        if (this.currentPage - 1 < 0) {
-            return Optional.empty();
-        }
-
-        return Optional.of(this.pages.get(this.currentPage - 1));
+    public synchronized Optional<MessageEmbed> previewPreviousPage() {
+        return this.previous;
     }
 
     /**
      * Back up to and return a copy of the previous page.
      * @return The previous page, or if at the first page, the same page.
      */
-    public Optional<MessageEmbed> prevPage() {
-        if (--this.currentPage < 0) {
-            ++this.currentPage;
+    public synchronized Optional<MessageEmbed> prevPage() {
+        if (this.previous.isPresent()) {
+            this.next = this.current;
+            this.current = this.previous;
+            this.previous = (--this.currentPage > 0 ? this.supplier.render(this.currentPage - 1) : Optional.empty());
         }
 
         return this.getCurrentPage();
     }
 
-    public ArrayList<Button> refreshButtonOptions() {
+    public synchronized ArrayList<Button> refreshButtonOptions() {
         ArrayList<Button> buttons = new ArrayList<Button>();
         Optional<MessageEmbed> prevPreview = this.previewPreviousPage();
         Optional<MessageEmbed> nextPreview = this.previewNextPage();
-        
+
         if (prevPreview.isPresent()) {
             buttons.add(
                 Button.of(ButtonStyle.SECONDARY, sourceSlug + ":prev:" + this.getEventIdLong() + ":" + this.getUserIdLong(), prevPreview.get().getTitle())
@@ -0,0 +1,111 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Browsable embeds whose buttons can still be clicked, by the ID of the command event which
+ * created them.
+ *
+ * Bounded by count, least recently browsed first. Each embed also expires on its own once nobody
+ * has browsed it for a while, checked as the cache is used rather than by scanning it on a timer.
+ */
+public class BrowsableEmbedCache {
+
+    private static class Entry {
+        private final BrowsableEmbed embed;
+        private long expiresAtNanos;
+
+        private Entry(BrowsableEmbed embed) {
+            this.embed = embed;
+        }
+    }
+
+    private final int maxEntries;
+    private final long expiryNanos;
+    private final LinkedHashMap<Long, Entry> embeds = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public BrowsableEmbedCache(int maxEntries, long expiryMinutes) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.expiryNanos = TimeUnit.MINUTES.toNanos(expiryMinutes);
+    }
+
+    public synchronized void put(BrowsableEmbed embed) {
+        long now = System.nanoTime();
+        this.evictExpired(now);
+
+        if (this.maxEntries == 0) {
+            return;
+        }
+
+        Entry entry = new Entry(embed);
+        entry.expiresAtNanos = now + this.expiryNanos;
+        this.embeds.put(embed.getEventIdLong(), entry);
+        Iterator<Map.Entry<Long, Entry>> iterator = this.embeds.entrySet().iterator();
+
+        // Eldest first, which is least recently browsed in access order
+        while (this.embeds.size() > this.maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Look up an embed and push back when it expires.
+     * @return The embed, or null if it was never cached or has since expired or been evicted.
+     */
+    public synchronized BrowsableEmbed get(long eventIdLong) {
+        long now = System.nanoTime();
+        this.evictExpired(now);
+        Entry entry = this.embeds.get(eventIdLong);
+
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+
+        entry.expiresAtNanos = now + this.expiryNanos;
+        this.hits.increment();
+        return entry.embed;
+    }
+
+    /**
+     * Drop expired embeds. Done on every use anyway, this is for freeing memory while idle.
+     */
+    public synchronized void evictExpired() {
+        this.evictExpired(System.nanoTime());
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<Long, Entry>> iterator = this.embeds.entrySet().iterator();
+
+        // Every embed gets the same expiry from its last use, so least recently used also expires
+        // first and the first one still live ends the search
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue().expiresAtNanos < 0) {
+                break;
+            }
+
+            iterator.remove();
+            this.expirations.increment();
+        }
+    }
+
+    public synchronized String getStats() {
+        long hitCount = this.hits.sum();
+        long total = hitCount + this.misses.sum();
+        return String.format("embeds: %d of %d | hits: %d of %d (%.1f%%) | evictions: %d | expired: %d",
+            this.embeds.size(), this.maxEntries, hitCount, total, total > 0 ? hitCount * 100.0 / total : 0.0, this.evictions.sum(), this.expirations.sum());
+    }
+}
@@ -0,0 +1,618 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.pcsx2.hifumi.util.EmbedUtil;
+import net.pcsx2.hifumi.util.SnapshotFile;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+/**
+ * One game from GameIndex.yaml. Built once per refresh and never modified after, so entries
+ * can be shared between threads freely.
+ *
+ * Numeric settings (rounding and clamping modes, speed hacks and GS hardware fixes) are kept
+ * in a single int array indexed by {@link Setting}, which is only allocated for the minority
+ * of games that have any.
+ */
+public class GameEntry {
+
+    public enum Compat {
+        UNKNOWN("Unknown"),
+        NOTHING("Nothing"),
+        INTRO("Intro"),
+        MENU("Menu"),
+        IN_GAME("In-game"),
+        PLAYABLE("Playable"),
+        PERFECT("Perfect");
+
+        private final String label;
+
+        private Compat(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return this.label;
+        }
+
+        public static Compat fromId(int id) {
+            return id >= 0 && id < values().length ? values()[id] : UNKNOWN;
+        }
+    }
+
+    public enum Section {
+        ROUND_MODES("roundModes"),
+        SPEED_HACKS("speedHacks"),
+        CLAMP_MODES("clampModes"),
+        GS_HW_FIXES("gsHWFixes");
+
+        private final String yamlKey;
+
+        private Section(String yamlKey) {
+            this.yamlKey = yamlKey;
+        }
+    }
+
+    /**
+     * Every numeric setting a game can have, in the order they are shown.
+     */
+    public enum Setting {
+        EE_ROUND_MODE(Section.ROUND_MODES, "eeRoundMode", "EE Rounding Mode", Labels.ROUNDING),
+        VU_ROUND_MODE(Section.ROUND_MODES, "vuRoundMode", "VU0 + VU1 Rounding Mode", Labels.ROUNDING),
+        VU0_ROUND_MODE(Section.ROUND_MODES, "vu0RoundMode", "VU0 Rounding Mode", Labels.ROUNDING),
+        VU1_ROUND_MODE(Section.ROUND_MODES, "vu1RoundMode", "VU1 Rounding Mode", Labels.ROUNDING),
+        MVU_FLAG(Section.SPEED_HACKS, "mvuFlag", "MicroVU Flag Hack", Labels.GENERIC_BOOLEAN),
+        INSTANT_VU1(Section.SPEED_HACKS, "instantVU1", "Instant VU1", Labels.GENERIC_BOOLEAN),
+        MTVU(Section.SPEED_HACKS, "mtvu", "Multi-Threaded VU1 (MTVU)", Labels.GENERIC_BOOLEAN),
+        EE_CYCLE_RATE(Section.SPEED_HACKS, "eeCycleRate", "EE Cycle Rate", Labels.EE_CYCLE_RATE),
+        EE_CLAMP_MODE(Section.CLAMP_MODES, "eeClampMode", "EE Clamping Mode", Labels.EE_CLAMPING),
+        VU_CLAMP_MODE(Section.CLAMP_MODES, "vuClampMode", "VU0 + VU1 Clamping Mode", Labels.VU_CLAMPING),
+        VU0_CLAMP_MODE(Section.CLAMP_MODES, "vu0ClampMode", "VU0 Clamping Mode", Labels.VU_CLAMPING),
+        VU1_CLAMP_MODE(Section.CLAMP_MODES, "vu1ClampMode", "VU1 Clamping Mode", Labels.VU_CLAMPING),
+        AUTO_FLUSH(Section.GS_HW_FIXES, "autoFlush", "Auto Flush", Labels.AUTO_FLUSH),
+        CONSERVATIVE_FRAMEBUFFER(Section.GS_HW_FIXES, "conservativeFramebuffer", "Conservative Framebuffer", Labels.GENERIC_BOOLEAN),
+        CPU_FRAMEBUFFER_CONVERSION(Section.GS_HW_FIXES, "cpuFramebufferConversion", "Frame Buffer Conversion", Labels.GENERIC_BOOLEAN),
+        DISABLE_DEPTH_SUPPORT(Section.GS_HW_FIXES, "disableDepthSupport", "Disable Depth Emulation", Labels.GENERIC_BOOLEAN),
+        WRAP_GS_MEM(Section.GS_HW_FIXES, "wrapGSMem", "Memory Wrapping", Labels.GENERIC_BOOLEAN),
+        PRELOAD_FRAME_DATA(Section.GS_HW_FIXES, "preloadFrameData", "Preload Frame Data", Labels.GENERIC_BOOLEAN),
+        DISABLE_PARTIAL_INVALIDATION(Section.GS_HW_FIXES, "disablePartialInvalidation", "Disable Partial Invalidation", Labels.GENERIC_BOOLEAN),
+        TEXTURE_INSIDE_RT(Section.GS_HW_FIXES, "textureInsideRT", "Texture Inside RT", Labels.GENERIC_BOOLEAN),
+        ALIGN_SPRITE(Section.GS_HW_FIXES, "alignSprite", "Align Sprite", Labels.GENERIC_BOOLEAN),
+        MERGE_SPRITE(Section.GS_HW_FIXES, "mergeSprite", "Merge Sprite", Labels.GENERIC_BOOLEAN),
+        WILD_ARMS_HACK(Section.GS_HW_FIXES, "wildArmsHack", "Wild Arms Hack", Labels.GENERIC_BOOLEAN),
+        POINT_LIST_PALETTE(Section.GS_HW_FIXES, "pointListPalette", "Disable Safe Features", Labels.GENERIC_BOOLEAN),
+        MIPMAP(Section.GS_HW_FIXES, "mipmap", "Mipmapping", Labels.MIPMAP),
+        TRILINEAR_FILTERING(Section.GS_HW_FIXES, "trilinearFiltering", "Trilinear Filtering", Labels.TRILINEAR),
+        SKIP_DRAW_START(Section.GS_HW_FIXES, "skipDrawStart", "Skipdraw Range (Start)", null),
+        SKIP_DRAW_END(Section.GS_HW_FIXES, "skipDrawEnd", "Skipdraw Range (End)", null),
+        HALF_BOTTOM_OVERRIDE(Section.GS_HW_FIXES, "halfBottomOverride", "Half Screen Fix", Labels.HALF_BOTTOM),
+        HALF_PIXEL_OFFSET(Section.GS_HW_FIXES, "halfPixelOffset", "Half Pixel Offset", Labels.HALF_PIXEL_OFFSET),
+        ROUND_SPRITE(Section.GS_HW_FIXES, "roundSprite", "Round Sprite", Labels.ROUND_SPRITE),
+        TEXTURE_PRELOADING(Section.GS_HW_FIXES, "texturePreloading", "Texture Preloading", Labels.TEXTURE_PRELOADING),
+        DEINTERLACE(Section.GS_HW_FIXES, "deinterlace", "Deinterlacing", Labels.DEINTERLACING),
+        CPU_SPRITE_RENDER_BW(Section.GS_HW_FIXES, "cpuSpriteRenderBW", "CPU Sprite Render Size", null),
+        CPU_CLUT_RENDER(Section.GS_HW_FIXES, "cpuCLUTRender", "Software CLUT Render", null),
+        GPU_TARGET_CLUT(Section.GS_HW_FIXES, "gpuTargetCLUT", "GPU Target CLUT", Labels.GPU_TARGET_CLUT),
+        GPU_PALETTE_CONVERSION(Section.GS_HW_FIXES, "gpuPaletteConversion", "GPU Palette Conversion", Labels.GPU_PALETTE_CONVERSION),
+        RECOMMENDED_BLENDING_LEVEL(Section.GS_HW_FIXES, "recommendedBlendingLevel", "Blending Accuracy (Recommended)", Labels.BLENDING_ACCURACY),
+        MAXIMUM_BLENDING_LEVEL(Section.GS_HW_FIXES, "maximumBlendingLevel", "Blending Accuracy (Maximum)", Labels.BLENDING_ACCURACY),
+        MINIMUM_BLENDING_LEVEL(Section.GS_HW_FIXES, "minimumBlendingLevel", "Blending Accuracy (Minimum)", Labels.BLENDING_ACCURACY),
+        PCRTC_OFFSETS(Section.GS_HW_FIXES, "PCRTCOffsets", "Screen Offsets", Labels.GENERIC_BOOLEAN),
+        PCRTC_OVERSCAN(Section.GS_HW_FIXES, "PCRTCOverscan", "Show Overscan", Labels.GENERIC_BOOLEAN),
+        CPU_SPRITE_RENDER_LEVEL(Section.GS_HW_FIXES, "cpuSpriteRenderLevel", "CPU Sprite Render Level", Labels.CPU_SPRITE_RENDER_LEVEL),
+        NATIVE_PALETTE_DRAW(Section.GS_HW_FIXES, "nativePaletteDraw", "Unscaled Palette Texture Draws", Labels.GENERIC_BOOLEAN),
+        BILINEAR_UPSCALE(Section.GS_HW_FIXES, "bilinearUpscale", "Bilinear Dirty Upscale", Labels.GENERIC_BOOLEAN),
+        NATIVE_SCALING(Section.GS_HW_FIXES, "nativeScaling", "Native Scaling", Labels.NATIVE_SCALING);
+
+        private final Section section;
+        private final String yamlKey;
+        private final String title;
+        private final Map<Integer, String> labels;
+
+        private Setting(Section section, String yamlKey, String title, Map<Integer, String> labels) {
+            this.section = section;
+            this.yamlKey = yamlKey;
+            this.title = title;
+            this.labels = labels;
+        }
+
+        public String getTitle() {
+            return this.title;
+        }
+
+        /**
+         * @param value
+         * @return What the value means, or the number itself for settings which are just a number.
+         */
+        public String describe(int value) {
+            return this.labels != null ? this.labels.get(value) : String.valueOf(value);
+        }
+    }
+
+    private static class Labels {
+        private static final Map<Integer, String> ROUNDING = Map.of(
+            0, "Nearest",
+            1, "Negative Infinity",
+            2, "Positive Infinity",
+            3, "Chop (Zero)");
+
+        private static final Map<Integer, String> EE_CLAMPING = Map.of(
+            0, "Disable",
+            1, "Normal",
+            2, "Extra + Preserve Sign",
+            3, "Full Clamping");
+
+        private static final Map<Integer, String> VU_CLAMPING = Map.of(
+            0, "Disable",
+            1, "Normal",
+            2, "Extra",
+            3, "Extra + Preserve Sign");
+
+        private static final Map<Integer, String> MIPMAP = Map.of(
+            0, "Off",
+            1, "Basic",
+            2, "Full");
+
+        private static final Map<Integer, String> TRILINEAR = Map.of(
+            0, "None",
+            1, "Trilinear",
+            2, "Trilinear Ultra");
+
+        private static final Map<Integer, String> TEXTURE_PRELOADING = Map.of(
+            0, "None",
+            1, "Partial",
+            2, "Full (Hash Cache)");
+
+        private static final Map<Integer, String> DEINTERLACING = Map.of(
+            0, "Automatic",
+            1, "None",
+            2, "Weave (TFF)",
+            3, "Weave (BFF)",
+            4, "Bob (TFF)",
+            5, "Bob (BFF)",
+            6, "Blend (TFF)",
+            7, "Blend (BFF)",
+            8, "Adaptive (TFF)",
+            9, "Adaptive (BFF)");
+
+        private static final Map<Integer, String> GENERIC_BOOLEAN = Map.of(
+            0, "Off",
+            1, "On");
+
+        private static final Map<Integer, String> HALF_PIXEL_OFFSET = Map.of(
+            0, "Off",
+            1, "Normal (Vertex)",
+            2, "Special (Texture)",
+            3, "Special (Texture - Aggressive)",
+            4, "Align to Native",
+            5, "Align to Native with Texture Offset");
+
+        private static final Map<Integer, String> ROUND_SPRITE = Map.of(
+            0, "Off",
+            1, "Half",
+            2, "Full");
+
+        private static final Map<Integer, String> HALF_BOTTOM = Map.of(
+            0, "Force Disabled",
+            1, "Force Enabled");
+
+        private static final Map<Integer, String> GPU_PALETTE_CONVERSION = Map.of(
+            0, "Off",
+            1, "On",
+            2, "On + Restrict paltex");
+
+        private static final Map<Integer, String> BLENDING_ACCURACY = Map.of(
+            0, "Minimum",
+            1, "Basic",
+            2, "Medium",
+            3, "High",
+            4, "Full",
+            5, "Maximum");
+
+        private static final Map<Integer, String> GPU_TARGET_CLUT = Map.of(
+            0, "Disabled",
+            1, "Enabled (Exact Match)",
+            2, "Enabled (Check Inside Target)");
+
+        private static final Map<Integer, String> AUTO_FLUSH = Map.of(
+            0, "Off",
+            1, "Sprites Only",
+            2, "All Primitives");
+
+        private static final Map<Integer, String> CPU_SPRITE_RENDER_LEVEL = Map.of(
+            0, "Sprites Only",
+            1, "Sprites/Triangles",
+            2, "Blended Sprites/Triangles");
+
+        private static final Map<Integer, String> EE_CYCLE_RATE = Map.of(
+            -3, "50%",
+            -2, "60%",
+            -1, "75%",
+            0, "100%",
+            1, "130%",
+            2, "180%",
+            3, "300%");
+
+        private static final Map<Integer, String> NATIVE_SCALING = Map.of(
+            0, "Off",
+            1, "Normal",
+            2, "Aggressive",
+            3, "Normal (Maintain Upscale)",
+            4, "Aggressive (Maintain Upscale)");
+    }
+
+    public record Patch(String crc, String content) { }
+
+    private static final int ABSENT = Integer.MIN_VALUE;
+    private static final Setting[] SETTINGS = Setting.values();
+
+    private final String serial;
+    private final String name;
+    private final String nameSort;
+    private final String nameEn;
+    private final String region;
+    private final Compat compat;
+    private final List<String> memcardFilters;
+    private final List<String> gameFixes;
+    private final int[] settings;
+    private final String getSkipCount;
+    private final String beforeDraw;
+    private final List<Patch> patches;
+
+    private volatile MessageEmbed embed;
+
+    private GameEntry(String serial, String name, String nameSort, String nameEn, String region, Compat compat, List<String> memcardFilters, List<String> gameFixes, int[] settings, String getSkipCount, String beforeDraw, List<Patch> patches) {
+        this.serial = serial;
+        this.name = name;
+        this.nameSort = nameSort;
+        this.nameEn = nameEn;
+        this.region = region;
+        this.compat = compat;
+        this.memcardFilters = memcardFilters;
+        this.gameFixes = gameFixes;
+        this.settings = settings;
+        this.getSkipCount = getSkipCount;
+        this.beforeDraw = beforeDraw;
+        this.patches = patches;
+    }
+
+    /**
+     * Build an entry from its parsed YAML.
+     * @param serial
+     * @param yaml The map under the serial's key.
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static GameEntry fromYaml(String serial, Map<String, Object> yaml) {
+        int[] settings = null;
+
+        for (Setting setting : SETTINGS) {
+            Object sectionObj = yaml.get(setting.section.yamlKey);
+
+            if (sectionObj instanceof Map && ((Map<String, Object>) sectionObj).get(setting.yamlKey) instanceof Number value) {
+                if (settings == null) {
+                    settings = new int[SETTINGS.length];
+                    Arrays.fill(settings, ABSENT);
+                }
+
+                settings[setting.ordinal()] = value.intValue();
+            }
+        }
+
+        String getSkipCount = null;
+        String beforeDraw = null;
+
+        if (yaml.get(Section.GS_HW_FIXES.yamlKey) instanceof Map<?, ?> gsHWFixes) {
+            getSkipCount = (String) gsHWFixes.get("getSkipCount");
+            beforeDraw = (String) gsHWFixes.get("beforeDraw");
+        }
+
+        ArrayList<Patch> patches = new ArrayList<Patch>();
+
+        if (yaml.get("patches") instanceof Map<?, ?> patchesMap) {
+            // CRCs made only of digits are parsed as numbers
+            for (Map.Entry<?, ?> patch : patchesMap.entrySet()) {
+                if (patch.getValue() instanceof Map<?, ?> patchMap && patchMap.get("content") instanceof String content) {
+                    patches.add(new Patch(String.valueOf(patch.getKey()), content));
+                }
+            }
+        }
+
+        Compat compat = yaml.get("compat") instanceof Number compatId ? Compat.fromId(compatId.intValue()) : null;
+        String region = (String) yaml.get("region");
+
+        return new GameEntry(
+            serial,
+            (String) yaml.get("name"),
+            (String) yaml.get("name-sort"),
+            (String) yaml.get("name-en"),
+            // Only a handful of distinct regions exist, don't keep thousands of copies
+            region != null ? region.intern() : null,
+            compat,
+            yaml.containsKey("memcardFilters") ? List.copyOf((List<String>) yaml.get("memcardFilters")) : null,
+            yaml.containsKey("gameFixes") ? List.copyOf((List<String>) yaml.get("gameFixes")) : null,
+            settings,
+            getSkipCount,
+            beforeDraw,
+            patches.isEmpty() ? List.of() : List.copyOf(patches)
+        );
+    }
+
+    /**
+     * Write this entry for {@link #read(ByteBuffer)}. Settings and compat are written by name,
+     * so a snapshot survives those enums being reordered.
+     * @param out
+     * @throws IOException
+     */
+    public void write(DataOutputStream out) throws IOException {
+        SnapshotFile.writeString(out, this.serial);
+        SnapshotFile.writeString(out, this.name);
+        SnapshotFile.writeString(out, this.nameSort);
+        SnapshotFile.writeString(out, this.nameEn);
+        SnapshotFile.writeString(out, this.region);
+        SnapshotFile.writeString(out, this.compat != null ? this.compat.name() : null);
+        writeStrings(out, this.memcardFilters);
+        writeStrings(out, this.gameFixes);
+        int settingCount = 0;
+
+        for (Setting setting : SETTINGS) {
+            if (this.has(setting)) {
+                settingCount++;
+            }
+        }
+
+        out.writeInt(settingCount);
+
+        for (Setting setting : SETTINGS) {
+            if (this.has(setting)) {
+                SnapshotFile.writeString(out, setting.yamlKey);
+                out.writeInt(this.get(setting));
+            }
+        }
+
+        SnapshotFile.writeString(out, this.getSkipCount);
+        SnapshotFile.writeString(out, this.beforeDraw);
+        out.writeInt(this.patches.size());
+
+        for (Patch patch : this.patches) {
+            SnapshotFile.writeString(out, patch.crc());
+            SnapshotFile.writeString(out, patch.content());
+        }
+    }
+
+    /**
+     * Read an entry written by {@link #write(DataOutputStream)}.
+     * @param in Positioned at the start of the entry, and left just after it.
+     * @return
+     * @throws BufferUnderflowException If the buffer ends early.
+     * @throws IllegalArgumentException If the buffer doesn't hold an entry.
+     */
+    public static GameEntry read(ByteBuffer in) {
+        String serial = SnapshotFile.readString(in);
+        String name = SnapshotFile.readString(in);
+        String nameSort = SnapshotFile.readString(in);
+        String nameEn = SnapshotFile.readString(in);
+        String region = SnapshotFile.readString(in);
+        String compatName = SnapshotFile.readString(in);
+        List<String> memcardFilters = readStrings(in);
+        List<String> gameFixes = readStrings(in);
+        int settingCount = SnapshotFile.readCount(in);
+        int[] settings = null;
+
+        for (int i = 0; i < settingCount; i++) {
+            String yamlKey = SnapshotFile.readString(in);
+            int value = in.getInt();
+
+            for (Setting setting : SETTINGS) {
+                if (setting.yamlKey.equals(yamlKey)) {
+                    if (settings == null) {
+                        settings = new int[SETTINGS.length];
+                        Arrays.fill(settings, ABSENT);
+                    }
+
+                    settings[setting.ordinal()] = value;
+                }
+            }
+        }
+
+        String getSkipCount = SnapshotFile.readString(in);
+        String beforeDraw = SnapshotFile.readString(in);
+        int patchCount = SnapshotFile.readCount(in);
+        ArrayList<Patch> patches = new ArrayList<Patch>(patchCount);
+
+        for (int i = 0; i < patchCount; i++) {
+            patches.add(new Patch(SnapshotFile.readString(in), SnapshotFile.readString(in)));
+        }
+
+        return new GameEntry(
+            serial,
+            name,
+            nameSort,
+            nameEn,
+            region != null ? region.intern() : null,
+            compatName != null ? Compat.valueOf(compatName) : null,
+            memcardFilters,
+            gameFixes,
+            settings,
+            getSkipCount,
+            beforeDraw,
+            patches.isEmpty() ? List.of() : List.copyOf(patches)
+        );
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strs) throws IOException {
+        if (strs == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(strs.size());
+
+        for (String str : strs) {
+            SnapshotFile.writeString(out, str);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+
+        if (size < 0) {
+            return null;
+        }
+
+        ArrayList<String> ret = new ArrayList<String>(SnapshotFile.checkCount(size, in));
+
+        for (int i = 0; i < size; i++) {
+            ret.add(SnapshotFile.readString(in));
+        }
+
+        return List.copyOf(ret);
+    }
+
+    public String getSerial() {
+        return this.serial;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getNameSort() {
+        return this.nameSort;
+    }
+
+    public String getNameEn() {
+        return this.nameEn;
+    }
+
+    public String getRegion() {
+        return this.region;
+    }
+
+    /**
+     * @param regionPrefix e.g. "NTSC-U" or "PAL", in either case. Null matches any region.
+     * @return True if this game's region starts with the prefix.
+     */
+    public boolean isInRegion(String regionPrefix) {
+        return regionPrefix == null || (this.region != null && this.region.regionMatches(true, 0, regionPrefix, 0, regionPrefix.length()));
+    }
+
+    public Compat getCompat() {
+        return this.compat;
+    }
+
+    /**
+     * @param setting
+     * @return True if the game sets this setting.
+     */
+    public boolean has(Setting setting) {
+        return this.settings != null && this.settings[setting.ordinal()] != ABSENT;
+    }
+
+    /**
+     * @param setting
+     * @return The value, only meaningful if {@link #has(Setting)} is true.
+     */
+    public int get(Setting setting) {
+        return this.settings != null ? this.settings[setting.ordinal()] : ABSENT;
+    }
+
+    /**
+     * @return The embed showing everything about this game. Built on first use and then reused.
+     */
+    public MessageEmbed getEmbed() {
+        MessageEmbed ret = this.embed;
+
+        if (ret == null) {
+            ret = this.embed = this.buildEmbed();
+        }
+
+        return ret;
+    }
+
+    private MessageEmbed buildEmbed() {
+        EmbedBuilder eb = new EmbedBuilder();
+        eb.setTitle(this.name);
+
+        if (this.nameSort != null) {
+            eb.appendDescription("Sorting Name: " + this.nameSort + "\n");
+        }
+
+        if (this.nameEn != null) {
+            eb.appendDescription("English Name: " + this.nameEn + "\n");
+        }
+
+        if (this.region != null) {
+            eb.appendDescription("Region: " + this.region + "\n");
+        }
+
+        if (this.compat != null) {
+            eb.appendDescription("Compatibility: " + this.compat.getLabel());
+        }
+
+        if (this.memcardFilters != null) {
+            eb.addField(EmbedUtil.prebuildField(
+                "Memcard Filters",
+                StringUtils.joinWith("\n", this.memcardFilters.toArray()),
+                true));
+        }
+
+        this.addSettingFields(eb, Section.ROUND_MODES);
+        this.addSettingFields(eb, Section.SPEED_HACKS);
+        this.addSettingFields(eb, Section.CLAMP_MODES);
+
+        if (this.gameFixes != null) {
+            eb.addField(EmbedUtil.prebuildField(
+                "Game Fixes",
+                StringUtils.joinWith("\n", this.gameFixes.toArray()),
+                true));
+        }
+
+        this.addSettingFields(eb, Section.GS_HW_FIXES);
+
+        if (this.getSkipCount != null) {
+            eb.addField(EmbedUtil.prebuildField("Get Skip Count", this.getSkipCount, true));
+        }
+
+        if (this.beforeDraw != null) {
+            eb.addField(EmbedUtil.prebuildField("Before Draw", this.beforeDraw, true));
+        }
+
+        for (Patch patch : this.patches) {
+            eb.addField(EmbedUtil.prebuildField(
+                "Patch (" + patch.crc() + ")",
+                patch.content(),
+                false));
+        }
+
+        return eb.build();
+    }
+
+    private void addSettingFields(EmbedBuilder eb, Section section) {
+        if (this.settings == null) {
+            return;
+        }
+
+        for (Setting setting : SETTINGS) {
+            if (setting.section == section && this.has(setting)) {
+                eb.addField(EmbedUtil.prebuildField(
+                    setting.getTitle(),
+                    setting.describe(this.get(setting)),
+                    true));
+            }
+        }
+    }
+}
@@ -3,16 +3,22 @@
 package net.pcsx2.hifumi;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
-import org.apache.commons.lang3.StringUtils;
 import org.yaml.snakeyaml.Yaml;
 
-import net.pcsx2.hifumi.util.EmbedUtil;
+import net.pcsx2.hifumi.command.PrefixIndex;
+import net.pcsx2.hifumi.util.Log;
 import net.pcsx2.hifumi.util.Messaging;
 import net.pcsx2.hifumi.util.Refreshable;
+import net.pcsx2.hifumi.util.SnapshotFile;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
@@ -22,162 +28,85 @@ import okhttp3.Response;
 public class GameIndex implements Refreshable {
 
     private static final String GAMEINDEX_LOCATION = "https://raw.githubusercontent.com/PCSX2/pcsx2/master/bin/resources/GameIndex.yaml";
+    private static final String SNAPSHOT_FILE_NAME = "gameindex.bin";
+    // "HGIX", then a format version to bump whenever GameEntry's binary layout changes
+    private static final int SNAPSHOT_MAGIC = 0x48474958;
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    /**
+     * Everything derived from one copy of GameIndex.yaml, along with the ETag and Last-Modified
+     * headers it came with so the next refresh can ask whether it changed.
+     */
+    private record Snapshot(Map<String, GameEntry> entries, GameSearchIndex searchIndex, PrefixIndex<GameEntry> serialCompletions, PrefixIndex<GameEntry> nameCompletions, String etag, String lastModified) { }
+    
+    private final Path snapshotPath;
+    private volatile boolean isInitialized = false;
+    private volatile Snapshot snapshot = newSnapshot(Map.of(), null, null);
+    
+    public GameIndex(String dataDirectory) {
+        this.snapshotPath = Path.of(dataDirectory, SNAPSHOT_FILE_NAME);
+    }
     
-    private static final HashMap<Integer, String> COMPAT = new HashMap<Integer, String>() {{
-        put(0, "Unknown");
-        put(1, "Nothing");
-        put(2, "Intro");
-        put(3, "Menu");
-        put(4, "In-game");
-        put(5, "Playable");
-        put(6, "Perfect");
-    }};
-    
-    private static final HashMap<Integer, String> ROUNDING = new HashMap<Integer, String>() {{
-        put(0, "Nearest");
-        put(1, "Negative Infinity");
-        put(2, "Positive Infinity");
-        put(3, "Chop (Zero)");
-    }};
-    
-    private static final HashMap<Integer, String> EE_CLAMPING = new HashMap<Integer, String>() {{
-        put(0, "Disable");
-        put(1, "Normal");
-        put(2, "Extra + Preserve Sign");
-        put(3, "Full Clamping");
-    }};
-    
-    private static final HashMap<Integer, String> VU_CLAMPING = new HashMap<Integer, String>() {{
-        put(0, "Disable");
-        put(1, "Normal");
-        put(2, "Extra");
-        put(3, "Extra + Preserve Sign");
-    }};
-    
-    private static final HashMap<Integer, String> MIPMAP = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "Basic");
-        put(2, "Full");
-    }};
-    
-    private static final HashMap<Integer, String> TRILINEAR = new HashMap<Integer, String>() {{
-        put(0, "None");
-        put(1, "Trilinear");
-        put(2, "Trilinear Ultra");
-    }};
-    
-    private static final HashMap<Integer, String> TEXTURE_PRELOADING = new HashMap<Integer, String>() {{
-        put(0, "None");
-        put(1, "Partial");
-        put(2, "Full (Hash Cache)");
-    }};
-    
-    private static final HashMap<Integer, String> DEINTERLACING = new HashMap<Integer, String>() {{
-        put(0, "Automatic");
-        put(1, "None");
-        put(2, "Weave (TFF)");
-        put(3, "Weave (BFF)");
-        put(4, "Bob (TFF)");
-        put(5, "Bob (BFF)");
-        put(6, "Blend (TFF)");
-        put(7, "Blend (BFF)");
-        put(8, "Adaptive (TFF)");
-        put(9, "Adaptive (BFF)");
-    }};
-    
-    private static final HashMap<Integer, String> GENERIC_BOOLEAN = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "On");
-    }};
-    
-    private static final HashMap<Integer, String> HALF_PIXEL_OFFSET = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "Normal (Vertex)");
-        put(2, "Special (Texture)");
-        put(3, "Special (Texture - Aggressive)");
-        put(4, "Align to Native");
-        put(5, "Align to Native with Texture Offset");
-    }};
-    
-    private static final HashMap<Integer, String> ROUND_SPRITE = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "Half");
-        put(2, "Full");
-    }};
-    
-    private static final HashMap<Integer, String> HALF_BOTTOM = new HashMap<Integer, String>() {{
-        put(0, "Force Disabled");
-        put(1, "Force Enabled");
-    }};
-    
-    private static final HashMap<Integer, String> GPU_PALETTE_CONVERSION = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "On");
-        put(2, "On + Restrict paltex");
-    }};
-
-    private static final HashMap<Integer, String> BLENDING_ACCURACY = new HashMap<Integer, String>() {{
-        put(0, "Minimum");
-        put(1, "Basic");
-        put(2, "Medium");
-        put(3, "High");
-        put(4, "Full");
-        put(5, "Maximum");
-    }};
-
-    private static final HashMap<Integer, String> GPU_TARGET_CLUT = new HashMap<Integer, String>() {{
-        put(0, "Disabled");
-        put(1, "Enabled (Exact Match)");
-        put(2, "Enabled (Check Inside Target)");
-    }};
-
-    private static final HashMap<Integer, String> AUTO_FLUSH = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "Sprites Only");
-        put(2, "All Primitives");
-    }};
-
-    private static final HashMap<Integer, String> CPU_SPRITE_RENDER_LEVEL = new HashMap<Integer, String>() {{
-        put(0, "Sprites Only");
-        put(1, "Sprites/Triangles");
-        put(2, "Blended Sprites/Triangles");
-    }};
-
-    private static final HashMap<Integer, String> EE_CYCLE_RATE = new HashMap<Integer, String>() {{
-        put(-3, "50%");
-        put(-2, "60%");
-        put(-1, "75%");
-        put(0, "100%");
-        put(1, "130%");
-        put(2, "180%");
-        put(3, "300%");
-    }};
-
-    private static final HashMap<Integer, String> NATIVE_SCALING = new HashMap<Integer, String>() {{
-        put(0, "Off");
-        put(1, "Normal");
-        put(2, "Aggressive");
-        put(3, "Normal (Maintain Upscale)");
-        put(4, "Aggressive (Maintain Upscale)");
-    }};
-    
-    private boolean isInitialized = false;
-    private Map<String, Object> map;
-    
-    public GameIndex() {
+    /**
+     * Load the copy saved by the last successful refresh, so lookups work right away instead
+     * of waiting on the download. The next refresh then only asks GitHub whether it changed.
+     * @return True if a snapshot was loaded.
+     */
+    public synchronized boolean loadSnapshot() {
+        try {
+            ByteBuffer buf = SnapshotFile.map(this.snapshotPath, SNAPSHOT_MAGIC, SNAPSHOT_VERSION);
+            
+            if (buf == null) {
+                return false;
+            }
+            
+            String etag = SnapshotFile.readString(buf);
+            String lastModified = SnapshotFile.readString(buf);
+            int count = SnapshotFile.readCount(buf);
+            HashMap<String, GameEntry> entries = new HashMap<String, GameEntry>(count * 2);
+            
+            for (int i = 0; i < count; i++) {
+                GameEntry entry = GameEntry.read(buf);
+                entries.put(entry.getSerial(), entry);
+            }
+            
+            this.snapshot = newSnapshot(Map.copyOf(entries), etag, lastModified);
+            this.isInitialized = true;
+            Log.info("Loaded " + count + " GameIndex entries from snapshot");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupt snapshot just means waiting on the download like before
+            Log.warn("Could not load GameIndex snapshot: " + e.getMessage());
+        }
         
+        return false;
     }
     
     @Override
-    public void refresh() {
-        Request req = new Request.Builder().url(GAMEINDEX_LOCATION).get().build();
+    public synchronized void refresh() {
+        Snapshot current = this.snapshot;
+        Request.Builder builder = new Request.Builder().url(GAMEINDEX_LOCATION).get();
         
-        try {
-            Response res = HifumiBot.getSelf().getHttpClient().newCall(req).execute();
+        // Only ask whether it changed if we actually hold the copy those headers describe
+        if (!current.entries().isEmpty()) {
+            if (current.etag() != null) {
+                builder.header("If-None-Match", current.etag());
+            }
             
+            if (current.lastModified() != null) {
+                builder.header("If-Modified-Since", current.lastModified());
+            }
+        }
+        
+        try (Response res = HifumiBot.getSelf().getHttpClient().newCall(builder.build()).execute()) {
+            // 304 Not Modified doesn't count as successful, so an unchanged file is never parsed
             if (res.isSuccessful()) {
                 Yaml yaml = new Yaml();
-                map = yaml.load(res.body().charStream());
+                Map<String, Object> map = yaml.load(res.body().charStream());
+                Map<String, GameEntry> entries = this.buildEntries(map);
+                Snapshot updated = newSnapshot(entries, res.header("ETag"), res.header("Last-Modified"));
+                this.snapshot = updated;
+                this.writeSnapshot(updated);
             }
 
             this.isInitialized = true;
@@ -185,453 +114,105 @@ public class GameIndex implements Refreshable {
             Messaging.logException("GameIndex", "refresh", e);
         }
     }
+    
+    /**
+     * Save a snapshot for {@link #loadSnapshot()}.
+     * @param snapshot
+     */
+    private void writeSnapshot(Snapshot snapshot) {
+        try {
+            SnapshotFile.write(this.snapshotPath, SNAPSHOT_MAGIC, SNAPSHOT_VERSION, out -> {
+                SnapshotFile.writeString(out, snapshot.etag());
+                SnapshotFile.writeString(out, snapshot.lastModified());
+                out.writeInt(snapshot.entries().size());
+                
+                for (GameEntry entry : snapshot.entries().values()) {
+                    entry.write(out);
+                }
+            });
+        } catch (IOException e) {
+            Messaging.logException("GameIndex", "writeSnapshot", e);
+        }
+    }
+    
+    private static Snapshot newSnapshot(Map<String, GameEntry> entries, String etag, String lastModified) {
+        return new Snapshot(
+            entries, 
+            new GameSearchIndex(entries.values()), 
+            new PrefixIndex<GameEntry>(entries.values(), entry -> List.of(entry.getSerial())),
+            new PrefixIndex<GameEntry>(entries.values(), entry -> Arrays.asList(entry.getName(), entry.getNameSort(), entry.getNameEn())),
+            etag,
+            lastModified
+        );
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, GameEntry> buildEntries(Map<String, Object> map) {
+        HashMap<String, GameEntry> ret = new HashMap<String, GameEntry>(map.size() * 2);
+        int skipped = 0;
+        
+        for (Map.Entry<String, Object> yamlEntry : map.entrySet()) {
+            String serial = String.valueOf(yamlEntry.getKey()).toUpperCase(Locale.ROOT);
+            
+            try {
+                ret.put(serial, GameEntry.fromYaml(serial, (Map<String, Object>) yamlEntry.getValue()));
+            } catch (RuntimeException e) {
+                // One malformed entry shouldn't cost us the rest of the index
+                skipped++;
+            }
+        }
+        
+        if (skipped > 0) {
+            Log.warn("Skipped " + skipped + " malformed GameIndex.yaml entries");
+        }
+        
+        return Map.copyOf(ret);
+    }
 
     public boolean isInitialized() {
         return this.isInitialized;
     }
 
-    public Map<String, Object> getMap() {
-        return map;
+    /**
+     * @param serial In either case.
+     * @return The entry, or null if there is none.
+     */
+    public GameEntry getEntry(String serial) {
+        return this.snapshot.entries().get(serial.toUpperCase(Locale.ROOT));
+    }
+    
+    public Collection<GameEntry> getEntries() {
+        return this.snapshot.entries().values();
+    }
+    
+    public GameSearchIndex getSearchIndex() {
+        return this.snapshot.searchIndex();
+    }
+    
+    /**
+     * @return Entries by serial prefix, for autocomplete.
+     */
+    public PrefixIndex<GameEntry> getSerialCompletions() {
+        return this.snapshot.serialCompletions();
+    }
+    
+    /**
+     * @return Entries by name prefix, for autocomplete.
+     */
+    public PrefixIndex<GameEntry> getNameCompletions() {
+        return this.snapshot.nameCompletions();
     }
     
-    @SuppressWarnings("unchecked")
     public MessageEmbed present(String serial) {
-        EmbedBuilder eb = new EmbedBuilder();
-        boolean entryFound = false;
+        GameEntry entry = this.getEntry(serial);
         
-        for (String key : map.keySet()) {
-            if (key.equals(serial.toUpperCase())) {
-                entryFound = true;
-                Map<String, Object> entry = (Map<String, Object>) map.get(key);
-                
-                eb.setTitle((String) entry.get("name"));
-
-                if (entry.containsKey("name-sort")) {
-                    eb.appendDescription("Sorting Name: " + (String) entry.get("name-sort") + "\n");
-                }
-
-                if (entry.containsKey("name-en")) {
-                    eb.appendDescription("English Name: " + (String) entry.get("name-en") + "\n");
-                }
-                
-                if (entry.containsKey("region")) {
-                    eb.appendDescription("Region: " + (String) entry.get("region") + "\n");
-                }
-                
-                if (entry.containsKey("compat")) {
-                    eb.appendDescription("Compatibility: " + COMPAT.get((int) entry.get("compat")));
-                }
-                
-                if (entry.containsKey("memcardFilters")) {
-                    List<String> memcardFilters = (List<String>) entry.get("memcardFilters");
-                    
-                    eb.addField(EmbedUtil.prebuildField(
-                        "Memcard Filters", 
-                        StringUtils.joinWith("\n", memcardFilters.toArray()), 
-                        true));
-                }
-                
-                if (entry.containsKey("roundModes")) {
-                    Map<String, Object> roundModes = (Map<String, Object>) entry.get("roundModes");
-                    
-                    if (roundModes.containsKey("eeRoundMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "EE Rounding Mode", 
-                            ROUNDING.get((int) roundModes.get("eeRoundMode")), 
-                            true));
-                    }
-
-                    if (roundModes.containsKey("vuRoundMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU0 + VU1 Rounding Mode", 
-                            ROUNDING.get((int) roundModes.get("vuRoundMode")), 
-                            true));
-                    }
-                    
-                    if (roundModes.containsKey("vu0RoundMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU1 Rounding Mode", 
-                            ROUNDING.get((int) roundModes.get("vu0RoundMode")), 
-                            true));
-                    }
-
-                    if (roundModes.containsKey("vu1RoundMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU1 Rounding Mode", 
-                            ROUNDING.get((int) roundModes.get("vu1RoundMode")), 
-                            true));
-                    }
-                }
-                
-                if (entry.containsKey("speedHacks")) {
-                    Map<String, Object> speedhacks = (Map<String, Object>) entry.get("speedHacks");
-
-                    if (speedhacks.containsKey("mvuFlag")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "MicroVU Flag Hack", 
-                            GENERIC_BOOLEAN.get((int) speedhacks.get("mvuFlag")), 
-                            true));
-                    }
-                    
-                    if (speedhacks.containsKey("instantVU1")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Instant VU1", 
-                            GENERIC_BOOLEAN.get((int) speedhacks.get("instantVU1")), 
-                            true));
-                    }
-                    
-                    if (speedhacks.containsKey("mtvu")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Multi-Threaded VU1 (MTVU)", 
-                            GENERIC_BOOLEAN.get((int) speedhacks.get("mtvu")), 
-                            true));
-                    }
-
-                    if (speedhacks.containsKey("eeCycleRate")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "EE Cycle Rate", 
-                            EE_CYCLE_RATE.get((int) speedhacks.get("eeCycleRate")), 
-                            true));
-                    }
-                }
-                
-                if (entry.containsKey("clampModes")) {
-                    Map<String, Object> clampModes = (Map<String, Object>) entry.get("clampModes");
-                    
-                    if (clampModes.containsKey("eeClampMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "EE Clamping Mode", 
-                            EE_CLAMPING.get((int) clampModes.get("eeClampMode")), 
-                            true));
-                    }
-                    
-                    if (clampModes.containsKey("vuClampMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU0 + VU1 Clamping Mode", 
-                            VU_CLAMPING.get((int) clampModes.get("vuClampMode")), 
-                            true));
-                    }
-
-                    if (clampModes.containsKey("vu0ClampMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU0 Clamping Mode", 
-                            VU_CLAMPING.get((int) clampModes.get("vu0ClampMode")), 
-                            true));
-                    }
-                    
-                    if (clampModes.containsKey("vu1ClampMode")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "VU1 Clamping Mode", 
-                            VU_CLAMPING.get((int) clampModes.get("vu1ClampMode")), 
-                            true));
-                    }
-                }
-                
-                if (entry.containsKey("gameFixes")) {
-                    List<String> gameFixes = (List<String>) entry.get("gameFixes");
-                    
-                    eb.addField(EmbedUtil.prebuildField(
-                        "Game Fixes", 
-                        StringUtils.joinWith("\n", gameFixes.toArray()), 
-                        true));
-                }
-                
-                if (entry.containsKey("gsHWFixes")) {
-                    Map<String, Object> gsHWFixes = (Map<String, Object>) entry.get("gsHWFixes");
-                    
-                    if (gsHWFixes.containsKey("autoFlush")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Auto Flush", 
-                            AUTO_FLUSH.get((int) gsHWFixes.get("autoFlush")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("conservativeFramebuffer")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Conservative Framebuffer", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("conservativeFramebuffer")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("cpuFramebufferConversion")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Frame Buffer Conversion", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("cpuFramebufferConversion")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("disableDepthSupport")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Disable Depth Emulation", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("disableDepthSupport")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("wrapGSMem")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Memory Wrapping", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("wrapGSMem")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("preloadFrameData")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Preload Frame Data", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("preloadFrameData")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("disablePartialInvalidation")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Disable Partial Invalidation", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("disablePartialInvalidation")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("textureInsideRT")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Texture Inside RT", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("textureInsideRT")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("alignSprite")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Align Sprite", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("alignSprite")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("mergeSprite")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Merge Sprite", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("mergeSprite")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("wildArmsHack")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Wild Arms Hack", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("wildArmsHack")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("pointListPalette")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Disable Safe Features", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("pointListPalette")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("mipmap")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Mipmapping", 
-                            MIPMAP.get((int) gsHWFixes.get("mipmap")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("trilinearFiltering")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Trilinear Filtering", 
-                            TRILINEAR.get((int) gsHWFixes.get("trilinearFiltering")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("skipDrawStart")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Skipdraw Range (Start)", 
-                            String.valueOf((int) gsHWFixes.get("skipDrawStart")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("skipDrawEnd")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Skipdraw Range (End)",
-                            String.valueOf((int) gsHWFixes.get("skipDrawEnd")),
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("getSkipCount")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Get Skip Count",
-                            (String) gsHWFixes.get("getSkipCount"),
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("beforeDraw")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Before Draw",
-                            (String) gsHWFixes.get("beforeDraw"),
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("halfBottomOverride")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Half Screen Fix", 
-                            HALF_BOTTOM.get((int) gsHWFixes.get("halfBottomOverride")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("halfPixelOffset")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Half Pixel Offset", 
-                            HALF_PIXEL_OFFSET.get((int) gsHWFixes.get("halfPixelOffset")), true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("roundSprite")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Round Sprite", 
-                            ROUND_SPRITE.get((int) gsHWFixes.get("roundSprite")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("texturePreloading")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Texture Preloading", 
-                            TEXTURE_PRELOADING.get((int) gsHWFixes.get("texturePreloading")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("deinterlace")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Deinterlacing",
-                            DEINTERLACING.get((int) gsHWFixes.get("deinterlace")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("cpuSpriteRenderBW")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "CPU Sprite Render Size", 
-                            String.valueOf((int) gsHWFixes.get("cpuSpriteRenderBW")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("cpuCLUTRender")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Software CLUT Render", 
-                            String.valueOf((int) gsHWFixes.get("cpuCLUTRender")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("gpuTargetCLUT")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "GPU Target CLUT", 
-                            GPU_TARGET_CLUT.get((int) gsHWFixes.get("gpuTargetCLUT")),
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("gpuPaletteConversion")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "GPU Palette Conversion",
-                            GPU_PALETTE_CONVERSION.get((int) gsHWFixes.get("gpuPaletteConversion")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("recommendedBlendingLevel")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Blending Accuracy (Recommended)",
-                            BLENDING_ACCURACY.get((int) gsHWFixes.get("recommendedBlendingLevel")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("maximumBlendingLevel")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Blending Accuracy (Maximum)",
-                            BLENDING_ACCURACY.get((int) gsHWFixes.get("maximumBlendingLevel")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("minimumBlendingLevel")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Blending Accuracy (Minimum)",
-                            BLENDING_ACCURACY.get((int) gsHWFixes.get("minimumBlendingLevel")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("PCRTCOffsets")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Screen Offsets", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("PCRTCOffsets")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("PCRTCOverscan")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Show Overscan", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("PCRTCOverscan")), 
-                            true));
-                    }
-                    
-                    if (gsHWFixes.containsKey("cpuSpriteRenderLevel")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "CPU Sprite Render Level", 
-                            CPU_SPRITE_RENDER_LEVEL.get((int) gsHWFixes.get("cpuSpriteRenderLevel")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("nativePaletteDraw")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Unscaled Palette Texture Draws", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("nativePaletteDraw")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("bilinearUpscale")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Bilinear Dirty Upscale", 
-                            GENERIC_BOOLEAN.get((int) gsHWFixes.get("bilinearUpscale")), 
-                            true));
-                    }
-
-                    if (gsHWFixes.containsKey("nativeScaling")) {
-                        eb.addField(EmbedUtil.prebuildField(
-                            "Native Scaling", 
-                            NATIVE_SCALING.get((int) gsHWFixes.get("nativeScaling")), 
-                            true));
-                    }
-                }
-                
-                if (entry.containsKey("patches")) {
-                    Object patchesObj = entry.get("patches");
-
-                    try {
-                        Map<String, Object> patches = (Map<String, Object>) patchesObj;    
-
-                        for (String crcName : patches.keySet()) {
-                            Map<String, Object> patch = (Map<String, Object>) patches.get(crcName);
-                            
-                            if (patch.containsKey("content")) {
-                                String content = (String) patch.get("content");
-                                eb.addField(EmbedUtil.prebuildField(
-                                    "Patch (" + crcName + ")", 
-                                    content, 
-                                    false));
-                            }
-                        }
-                    } catch (Exception e) {
-                        Map<Integer, Object> patches = (Map<Integer, Object>) patchesObj;    
-
-                        for (Integer crcName : patches.keySet()) {
-                            Map<String, Object> patch = (Map<String, Object>) patches.get(crcName);
-                            
-                            if (patch.containsKey("content")) {
-                                String content = (String) patch.get("content");
-                                eb.addField(EmbedUtil.prebuildField(
-                                    "Patch (" + crcName + ")", 
-                                    content, 
-                                    false));
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        if (!entryFound) {
-            eb.setTitle("No GameIndex Entry Found");
-            eb.setDescription("Serial `" + serial + "` did not appear anywhere in GameIndex.yaml - Verify spelling and try again.");
+        if (entry != null) {
+            return entry.getEmbed();
         }
         
+        EmbedBuilder eb = new EmbedBuilder();
+        eb.setTitle("No GameIndex Entry Found");
+        eb.setDescription("Serial `" + serial + "` did not appear anywhere in GameIndex.yaml - Verify spelling and try again.");
         return eb.build();
     }
 }
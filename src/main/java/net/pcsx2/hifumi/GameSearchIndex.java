@@ -0,0 +1,254 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import net.pcsx2.hifumi.util.Strings;
+
+/**
+ * Title search over GameIndex entries, built once per refresh.
+ *
+ * Each entry's name, sorting name and English name are normalized (lowercase, accents and
+ * punctuation removed) and split into overlapping three character grams. A query is split the
+ * same way, and only entries sharing grams with it are ever looked at. Ranking uses how many
+ * grams a name shares with the query relative to both their lengths, so a typo or two only
+ * costs a few grams instead of the whole match.
+ */
+public class GameSearchIndex {
+
+    public record Result(GameEntry entry, double score, boolean containsQuery) { }
+
+    private static final int GRAM_LENGTH = 3;
+    // Every entry has up to this many searchable names: name, name-sort, name-en
+    private static final int FIELDS = 3;
+    // Fuzzy results which share less than this much with the query are noise
+    private static final double MIN_SIMILARITY = 0.3;
+    // Worst first, so a bounded heap can drop its head
+    private static final Comparator<Result> RESULT_ORDER = Comparator
+            .comparing(Result::containsQuery)
+            .thenComparingDouble(Result::score)
+            .thenComparing(result -> result.entry().getSerial(), Comparator.reverseOrder());
+
+    private final GameEntry[] entries;
+    private final String[] regions;
+    // Indexed by slot = entry index * FIELDS + field
+    private final String[] names;
+    private final int[] gramCounts;
+    private final HashMap<Long, int[]> postings;
+
+    public GameSearchIndex(Collection<GameEntry> gameEntries) {
+        this.entries = gameEntries.toArray(new GameEntry[0]);
+        // Stable order, so equally good results always come back the same way
+        Arrays.sort(this.entries, Comparator.comparing(GameEntry::getSerial));
+        this.regions = new String[this.entries.length];
+        this.names = new String[this.entries.length * FIELDS];
+        this.gramCounts = new int[this.names.length];
+
+        HashMap<Long, int[]> building = new HashMap<Long, int[]>();
+
+        for (int i = 0; i < this.entries.length; i++) {
+            GameEntry entry = this.entries[i];
+            this.regions[i] = entry.getRegion() != null ? entry.getRegion().toUpperCase(Locale.ROOT) : "";
+            String[] fields = { entry.getName(), entry.getNameSort(), entry.getNameEn() };
+
+            for (int field = 0; field < FIELDS; field++) {
+                String normalized = fields[field] != null ? Strings.normalizeSearchText(fields[field]) : "";
+
+                // Sorting and English names are often the same as the name, don't count them twice
+                if (normalized.isEmpty() || (field > 0 && normalized.equals(this.names[i * FIELDS]))) {
+                    continue;
+                }
+
+                int slot = i * FIELDS + field;
+                long[] grams = grams(" " + normalized + " ");
+                this.names[slot] = normalized;
+                this.gramCounts[slot] = grams.length;
+
+                for (long gram : grams) {
+                    int[] list = building.get(gram);
+
+                    if (list == null) {
+                        list = new int[4];
+                        building.put(gram, list);
+                    } else if (list[0] + 1 == list.length) {
+                        list = Arrays.copyOf(list, list.length * 2);
+                        building.put(gram, list);
+                    }
+
+                    list[++list[0]] = slot;
+                }
+            }
+        }
+
+        // Trim to size, dropping the length prefix
+        this.postings = new HashMap<Long, int[]>(building.size() * 2);
+
+        for (HashMap.Entry<Long, int[]> posting : building.entrySet()) {
+            int[] list = posting.getValue();
+            this.postings.put(posting.getKey(), Arrays.copyOfRange(list, 1, list[0] + 1));
+        }
+    }
+
+    /**
+     * Rank entries by how closely any of their names match the query, tolerating typos.
+     * Names which contain the query outright always rank above those which don't.
+     * @param query
+     * @param regionPrefix Only return entries whose region starts with this (e.g. "NTSC-U" or "PAL"), or null for any.
+     * @param limit Most results to return.
+     * @return Best match first.
+     */
+    public List<Result> search(String query, String regionPrefix, int limit) {
+        String normalized = Strings.normalizeSearchText(query);
+
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        long[] queryGrams = grams(" " + normalized + " ");
+        int[] shared = new int[this.names.length];
+        int[] touched = this.countSharedGrams(queryGrams, shared);
+        double[] bestScore = new double[this.entries.length];
+        boolean[] bestContains = new boolean[this.entries.length];
+        PriorityQueue<Result> top = new PriorityQueue<Result>(limit + 1, RESULT_ORDER);
+        String region = regionPrefix != null ? regionPrefix.toUpperCase(Locale.ROOT) : null;
+
+        for (int slot : touched) {
+            int entryIdx = slot / FIELDS;
+            double similarity = 2.0 * shared[slot] / (queryGrams.length + this.gramCounts[slot]);
+            boolean contains = this.names[slot].contains(normalized);
+
+            if (contains || similarity >= MIN_SIMILARITY) {
+                if ((contains && !bestContains[entryIdx]) || (contains == bestContains[entryIdx] && similarity > bestScore[entryIdx])) {
+                    bestScore[entryIdx] = similarity;
+                    bestContains[entryIdx] = contains;
+                }
+            }
+        }
+
+        for (int entryIdx = 0; entryIdx < this.entries.length; entryIdx++) {
+            if (bestScore[entryIdx] == 0 || !this.isInRegion(entryIdx, region)) {
+                continue;
+            }
+
+            top.add(new Result(this.entries[entryIdx], bestScore[entryIdx], bestContains[entryIdx]));
+
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        ArrayList<Result> ret = new ArrayList<Result>(top);
+        ret.sort(RESULT_ORDER.reversed());
+        return ret;
+    }
+
+    /**
+     * Find every entry with a name containing the query, ignoring case, accents and punctuation.
+     * @param query
+     * @param regionPrefix Only return entries whose region starts with this, or null for any.
+     * @return In serial order.
+     */
+    public List<GameEntry> findContaining(String query, String regionPrefix) {
+        String normalized = Strings.normalizeSearchText(query);
+        String region = regionPrefix != null ? regionPrefix.toUpperCase(Locale.ROOT) : null;
+        ArrayList<GameEntry> ret = new ArrayList<GameEntry>();
+
+        if (normalized.isEmpty()) {
+            return ret;
+        }
+
+        long[] queryGrams = grams(normalized);
+        boolean[] matched = new boolean[this.entries.length];
+
+        if (queryGrams.length == 0) {
+            // Too short to have any grams, just check everything
+            for (int slot = 0; slot < this.names.length; slot++) {
+                if (this.names[slot] != null && this.names[slot].contains(normalized)) {
+                    matched[slot / FIELDS] = true;
+                }
+            }
+        } else {
+            int[] shared = new int[this.names.length];
+
+            for (int slot : this.countSharedGrams(queryGrams, shared)) {
+                // A name can only contain the query if it has every one of the query's grams
+                if (shared[slot] == queryGrams.length && this.names[slot].contains(normalized)) {
+                    matched[slot / FIELDS] = true;
+                }
+            }
+        }
+
+        for (int entryIdx = 0; entryIdx < this.entries.length; entryIdx++) {
+            if (matched[entryIdx] && this.isInRegion(entryIdx, region)) {
+                ret.add(this.entries[entryIdx]);
+            }
+        }
+
+        return ret;
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * Count, for every name, how many of the query's grams it has.
+     * @param queryGrams Distinct grams.
+     * @param shared Filled in, indexed by slot.
+     * @return The slots with at least one gram in common.
+     */
+    private int[] countSharedGrams(long[] queryGrams, int[] shared) {
+        int[] touched = new int[64];
+        int touchedCount = 0;
+
+        for (long gram : queryGrams) {
+            int[] slots = this.postings.get(gram);
+
+            if (slots == null) {
+                continue;
+            }
+
+            for (int slot : slots) {
+                if (shared[slot]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+
+                    touched[touchedCount++] = slot;
+                }
+            }
+        }
+
+        return Arrays.copyOf(touched, touchedCount);
+    }
+
+    private boolean isInRegion(int entryIdx, String regionPrefix) {
+        return regionPrefix == null || this.regions[entryIdx].startsWith(regionPrefix);
+    }
+
+    /**
+     * @param text
+     * @return The distinct grams of the text, each packed into a long.
+     */
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+
+        long[] ret = new long[text.length() - GRAM_LENGTH + 1];
+
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+
+        return Arrays.stream(ret).distinct().toArray();
+    }
+}
@@ -2,9 +2,6 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi;
 
-import java.time.Duration;
-import java.time.Instant;
-
 import com.deepl.api.DeepLClient;
 
 import net.dv8tion.jda.api.JDA;
@@ -16,10 +13,12 @@ import net.pcsx2.hifumi.command.CommandIndex;
 import net.pcsx2.hifumi.config.Config;
 import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.config.ConfigType;
+import net.pcsx2.hifumi.config.CrashParserConfig;
 import net.pcsx2.hifumi.config.DynCmdConfig;
 import net.pcsx2.hifumi.config.EmulogParserConfig;
 import net.pcsx2.hifumi.config.SettingsIniParserConfig;
 import net.pcsx2.hifumi.database.SQLite;
+import net.pcsx2.hifumi.event.AutoCompleteListener;
 import net.pcsx2.hifumi.event.AutoModEventListener;
 import net.pcsx2.hifumi.event.ButtonEventListener;
 import net.pcsx2.hifumi.event.MemberEventListener;
@@ -30,7 +29,13 @@ import net.pcsx2.hifumi.event.RoleEventListener;
 import net.pcsx2.hifumi.event.SelectMenuEventListener;
 import net.pcsx2.hifumi.event.SlashCommandListener;
 import net.pcsx2.hifumi.event.UserEventListener;
+import net.pcsx2.hifumi.filter.ChannelActivityTracker;
+import net.pcsx2.hifumi.filter.DuplicateMessageDetector;
+import net.pcsx2.hifumi.filter.ScamHashIndex;
 import net.pcsx2.hifumi.permissions.PermissionManager;
+import net.pcsx2.hifumi.parse.CrashSignatureSet;
+import net.pcsx2.hifumi.parse.EmulogRuleSet;
+import net.pcsx2.hifumi.parse.ParseResultCache;
 import net.pcsx2.hifumi.util.Log;
 import net.pcsx2.hifumi.util.Messaging;
 import net.pcsx2.hifumi.util.Strings;
@@ -54,6 +59,8 @@ public class HifumiBot {
         ConfigManager.dataDirectory = dataDirectory;
 
         System.setProperty("org.slf4j.simpleLogger.logFile", String.format("%s/trace.log", dataDirectory));
+        // Charts are drawn with AWT, which must not go looking for a display
+        System.setProperty("java.awt.headless", "true");
 
         if (System.getenv().containsKey("HIFUMI_TRACE")) {
             traceLogs = Boolean.parseBoolean(System.getenv("HIFUMI_TRACE").toLowerCase());
@@ -79,6 +86,9 @@ public class HifumiBot {
     private Config config;
     private DynCmdConfig dynCmdConfig;
     private EmulogParserConfig emulogParserConfig;
+    private volatile EmulogRuleSet emulogRuleSet;
+    private CrashParserConfig crashParserConfig;
+    private volatile CrashSignatureSet crashSignatureSet;
     private SettingsIniParserConfig settingsIniParserConfig;
     private final OkHttpClient http;
     private SQLite sqlite;
@@ -88,6 +98,11 @@ public class HifumiBot {
     private GpuIndex gpuIndex;
     private CommandIndex commandIndex;
     private PermissionManager permissionManager;
+    private ChannelActivityTracker channelActivityTracker;
+    private DuplicateMessageDetector duplicateMessageDetector;
+    private ScamHashIndex scamHashIndex;
+    private ParseResultCache parseResultCache;
+    private BrowsableEmbedCache browsableEmbedCache;
     
     private GameIndex gameIndex;
     private DeepLClient deepL;
@@ -135,6 +150,13 @@ public class HifumiBot {
             ConfigManager.createConfigIfNotExists(ConfigType.EMULOG_PARSER);
             emulogParserConfig = (EmulogParserConfig) ConfigManager.read(ConfigType.EMULOG_PARSER);
             ConfigManager.write(emulogParserConfig);
+            rebuildEmulogRuleSet();
+
+            Log.info("Initializing crash parser config");
+            ConfigManager.createConfigIfNotExists(ConfigType.CRASH_PARSER);
+            crashParserConfig = (CrashParserConfig) ConfigManager.read(ConfigType.CRASH_PARSER);
+            ConfigManager.write(crashParserConfig);
+            rebuildCrashSignatureSet();
 
             Log.info("Initializing settings ini config");
             ConfigManager.createConfigIfNotExists(ConfigType.SETTINGS_PARSER);
@@ -143,13 +165,21 @@ public class HifumiBot {
             
             updateStatus("Initializing subsystems...");
             Log.info("Calling constructors");
-            sqlite = new SQLite(dataDirectory);
+            sqlite = new SQLite(dataDirectory, config.databaseOptions);
             deepL = new DeepLClient(deepLKey);
-            scheduler = new Scheduler();
-            cpuIndex = new CpuIndex();
-            gpuIndex = new GpuIndex();
+            scheduler = new Scheduler(config.filterOptions.parallelism, config.filterOptions.queueCapacity, config.parserOptions, config.chartOptions);
+            cpuIndex = new CpuIndex(dataDirectory);
+            cpuIndex.loadSnapshot();
+            gpuIndex = new GpuIndex(dataDirectory);
+            gpuIndex.loadSnapshot();
             commandIndex = new CommandIndex();
             permissionManager = new PermissionManager(superuserId);
+            channelActivityTracker = new ChannelActivityTracker(config.spamOptions.cooldownSeconds);
+            duplicateMessageDetector = new DuplicateMessageDetector(config.duplicateMessageOptions);
+            scamHashIndex = new ScamHashIndex();
+            scamHashIndex.refresh();
+            parseResultCache = new ParseResultCache(config.parserOptions.resultCacheMaxBytes);
+            browsableEmbedCache = new BrowsableEmbedCache(config.slashCommands.browsableEmbedMaxEntries, config.slashCommands.browsableEmbedExpiryMinutes);
             jda.addEventListener(new RoleEventListener());
             jda.addEventListener(new MessageEventListener());
             jda.addEventListener(new MemberEventListener());
@@ -157,10 +187,12 @@ public class HifumiBot {
             jda.addEventListener(new ButtonEventListener());
             jda.addEventListener(new SelectMenuEventListener());
             jda.addEventListener(new SlashCommandListener());
+            jda.addEventListener(new AutoCompleteListener());
             jda.addEventListener(new MessageContextCommandListener());
             jda.addEventListener(new ModalEventListener());
             jda.addEventListener(new AutoModEventListener());
-            gameIndex = new GameIndex();
+            gameIndex = new GameIndex(dataDirectory);
+            gameIndex.loadSnapshot();
 
             updateStatus("Scheduling tasks...");
             Log.info("Refreshing anything refreshable");
@@ -186,17 +218,13 @@ public class HifumiBot {
             }, 1000 * 60 * 60 * 4);
 
             scheduler.scheduleRepeating("beb", () -> {
-                Instant currentTime = Instant.now();
-
-                for (Long eventIdLong : BrowsableEmbed.embedCache.keySet()) {
-                    BrowsableEmbed embed = BrowsableEmbed.embedCache.get(eventIdLong);
-                    Instant createdTime = Instant.ofEpochSecond(embed.getCreatedTimestamp());
+                HifumiBot.getSelf().getBrowsableEmbedCache().evictExpired();
+            }, 1000 * 60 * 10);
 
-                    if (Duration.between(createdTime, currentTime).toHours() > 6) {
-                        BrowsableEmbed.embedCache.remove(eventIdLong);
-                    }
-                }
-            }, 1000 * 60 * 60 * 6);
+            scheduler.scheduleRepeating("act", () -> {
+                HifumiBot.getSelf().getChannelActivityTracker().evictIdle();
+                HifumiBot.getSelf().getDuplicateMessageDetector().evictExpired();
+            }, 1000 * 60);
 
             Log.info("Setting status to New Game!");
             updateStatus("New Game!");
@@ -218,6 +246,32 @@ public class HifumiBot {
         return emulogParserConfig;
     }
 
+    public EmulogRuleSet getEmulogRuleSet() {
+        return emulogRuleSet;
+    }
+
+    /**
+     * Compile the emulog parser rules again, after they have been changed.
+     */
+    public void rebuildEmulogRuleSet() {
+        emulogRuleSet = new EmulogRuleSet(emulogParserConfig.rules);
+    }
+
+    public CrashParserConfig getCrashParserConfig() {
+        return crashParserConfig;
+    }
+
+    public CrashSignatureSet getCrashSignatureSet() {
+        return crashSignatureSet;
+    }
+
+    /**
+     * Compile the crash parser signatures again, after they have been changed.
+     */
+    public void rebuildCrashSignatureSet() {
+        crashSignatureSet = new CrashSignatureSet(crashParserConfig.signatures);
+    }
+
     public SettingsIniParserConfig getSettingsIniParserConfig() {
         return settingsIniParserConfig;
     }
@@ -257,7 +311,27 @@ public class HifumiBot {
     public PermissionManager getPermissionManager() {
         return permissionManager;
     }
+
+    public ChannelActivityTracker getChannelActivityTracker() {
+        return channelActivityTracker;
+    }
+
+    public DuplicateMessageDetector getDuplicateMessageDetector() {
+        return duplicateMessageDetector;
+    }
+
+    public ScamHashIndex getScamHashIndex() {
+        return scamHashIndex;
+    }
+
+    public ParseResultCache getParseResultCache() {
+        return parseResultCache;
+    }
     
+    public BrowsableEmbedCache getBrowsableEmbedCache() {
+        return browsableEmbedCache;
+    }
+
     public GameIndex getGameIndex() {
         return gameIndex;
     }
@@ -270,6 +344,8 @@ public class HifumiBot {
         this.getJDA().getPresence().setActivity(Activity.watching("Shutting Down..."));
         this.getScheduler().shutdown();
         jda.shutdown();
+        // Flush pending event writes while the writer is still open
+        this.getSQLite().getWriteBehindQueue().shutdown();
         this.getSQLite().shutdown();
 
         if (reload)
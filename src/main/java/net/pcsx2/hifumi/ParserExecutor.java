@@ -0,0 +1,195 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.config.Config.ParserOptions;
+import net.pcsx2.hifumi.parse.AbstractParser;
+import net.pcsx2.hifumi.util.Messaging;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.Attachment;
+
+/**
+ * Runs attachment parsers on their own threads, so a burst of big logs in the support channels
+ * never holds up commands and moderation on the main pool.
+ *
+ * Parsers are turned away rather than queued without limit: attachments over the size limit are
+ * never downloaded unless the parser only reads the start of them, each user can only have a few
+ * files being checked at once, and once the queue is full new files are refused until it drains.
+ * A parser which runs past the time limit is interrupted, which its download notices on the next
+ * read.
+ */
+public class ParserExecutor {
+
+    private final String name;
+    private final ThreadPoolExecutor pool;
+    private final ScheduledExecutorService watchdog;
+    private final int queueCapacity;
+    private final int maxPerUser;
+    private final long maxAttachmentBytes;
+    private final long timeoutSeconds;
+    private final ConcurrentHashMap<Long, Integer> inFlight = new ConcurrentHashMap<Long, Integer>();
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder tooLargeCount = new LongAdder();
+    private final LongAdder userLimitedCount = new LongAdder();
+    private final LongAdder queueFullCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+
+    public ParserExecutor(String name, ParserOptions options, ThreadFactory threadFactory) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, options.queueCapacity);
+        this.maxPerUser = Math.max(1, options.maxPerUser);
+        this.maxAttachmentBytes = options.maxAttachmentBytes;
+        this.timeoutSeconds = options.timeoutSeconds;
+        int parallelism = Math.max(1, options.parallelism);
+        this.pool = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(this.queueCapacity), threadFactory);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Queue a parser, or tell the user why it was turned away.
+     * @param parser
+     * @return True if the parser was queued.
+     */
+    public boolean submit(AbstractParser parser) {
+        Message message = parser.getMessage();
+        Attachment attachment = parser.getAttachment();
+
+        if (attachment == null) {
+            return false;
+        }
+
+        // A parser which stops reading part way checks the start of a big file instead of refusing it
+        if (parser.getMaxReadBytes() < 0 && attachment.getSize() > this.maxAttachmentBytes) {
+            this.tooLargeCount.increment();
+            Messaging.sendMessage(message.getChannel(), ":warning: " + attachment.getFileName() + " is too big for me to check (over " + (this.maxAttachmentBytes / 1024 / 1024) + " MB). A human is gonna have to read through it manually.");
+            return false;
+        }
+
+        long userId = message.getAuthor().getIdLong();
+
+        if (!this.acquire(userId)) {
+            this.userLimitedCount.increment();
+            Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " I'm still checking your other files, please wait for those before sending " + attachment.getFileName() + " again.");
+            return false;
+        }
+
+        long queuedAt = System.nanoTime();
+        this.submittedCount.increment();
+
+        try {
+            this.pool.execute(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                this.totalWaitNanos.add(waited);
+                this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+                try {
+                    this.runWithTimeout(parser, message, attachment);
+                } finally {
+                    this.release(userId);
+                    this.completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.submittedCount.decrement();
+            this.release(userId);
+            this.queueFullCount.increment();
+            Messaging.sendMessage(message.getChannel(), ":x: I'm too busy to check " + attachment.getFileName() + " right now. Try again in a few minutes?");
+            return false;
+        }
+
+        this.peakQueued.accumulateAndGet(this.pool.getQueue().size(), Math::max);
+        return true;
+    }
+
+    private void runWithTimeout(AbstractParser parser, Message message, Attachment attachment) {
+        Thread runner = Thread.currentThread();
+        // Held while deciding whether the parser finished or timed out, so the interrupt can
+        // never land after the parser is done and leak into the next one on this thread.
+        Object lock = new Object();
+        boolean[] finished = new boolean[1];
+
+        ScheduledFuture<?> timeout = this.watchdog.schedule(() -> {
+            synchronized (lock) {
+                if (finished[0]) {
+                    return;
+                }
+
+                finished[0] = true;
+                runner.interrupt();
+            }
+
+            this.timedOutCount.increment();
+            Messaging.sendMessage(message.getChannel(), ":x: Checking " + attachment.getFileName() + " took too long, so I gave up. A human is gonna have to read through it manually.");
+        }, this.timeoutSeconds, TimeUnit.SECONDS);
+
+        try {
+            parser.run();
+        } finally {
+            timeout.cancel(false);
+
+            synchronized (lock) {
+                finished[0] = true;
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private boolean acquire(long userId) {
+        boolean[] acquired = new boolean[1];
+        this.inFlight.compute(userId, (k, count) -> {
+            int current = count != null ? count : 0;
+            acquired[0] = current < this.maxPerUser;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+
+    private void release(long userId) {
+        this.inFlight.computeIfPresent(userId, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Stop accepting parsers and interrupt any still running after a few seconds.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+
+        try {
+            if (!this.pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        this.watchdog.shutdownNow();
+    }
+
+    public String getStats() {
+        long completed = this.completedCount.sum();
+        return String.format("%s: %d threads, %d active | queued: %d (peak %d, cap %d) | done: %d of %d | waits: avg %d ms, max %d ms | refused: %d too large, %d per user, %d queue full | timed out: %d",
+            this.name, this.pool.getMaximumPoolSize(), this.pool.getActiveCount(), this.pool.getQueue().size(), this.peakQueued.get(), this.queueCapacity, completed, this.submittedCount.sum(),
+            completed > 0 ? TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.sum() / completed) : 0, TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get()),
+            this.tooLargeCount.sum(), this.userLimitedCount.sum(), this.queueFullCount.sum(), this.timedOutCount.sum());
+    }
+}
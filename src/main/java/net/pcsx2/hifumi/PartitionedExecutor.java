@@ -0,0 +1,145 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs tasks on a fixed number of single threaded partitions. Tasks with the same key always
+ * land on the same partition, so they run one at a time and in the order they were submitted,
+ * while tasks with different keys can run in parallel.
+ *
+ * Each partition has a bounded queue. Once a partition's queue is full, submitting to it blocks
+ * until there is room again.
+ */
+public class PartitionedExecutor {
+
+    private final String name;
+    private final ArrayList<ThreadPoolExecutor> partitions = new ArrayList<ThreadPoolExecutor>();
+    private final int queueCapacity;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+
+    public PartitionedExecutor(String name, int parallelism, int queueCapacity, ThreadFactory threadFactory) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            ThreadPoolExecutor partition = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(this.queueCapacity), threadFactory, (runnable, executor) -> {
+                if (executor.isShutdown()) {
+                    throw new RejectedExecutionException("Executor '" + this.name + "' is shut down");
+                }
+
+                // Backpressure; wait for this partition to catch up rather than dropping the task.
+                this.blockedCount.increment();
+
+                try {
+                    executor.getQueue().put(runnable);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for room in executor '" + this.name + "'", e);
+                }
+            });
+            this.partitions.add(partition);
+        }
+    }
+
+    /**
+     * Queue a task on the partition belonging to this key.
+     * @param key Tasks with the same key run in order, one at a time.
+     * @param runnable
+     */
+    public void execute(long key, Runnable runnable) {
+        ThreadPoolExecutor partition = this.partitions.get(this.getPartitionIndex(key));
+        long queuedAt = System.nanoTime();
+        this.submittedCount.increment();
+
+        partition.execute(() -> {
+            long waited = System.nanoTime() - queuedAt;
+            this.totalWaitNanos.add(waited);
+            this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            try {
+                runnable.run();
+            } finally {
+                this.completedCount.increment();
+            }
+        });
+
+        this.peakQueued.accumulateAndGet(this.getQueuedCount(), Math::max);
+    }
+
+    private int getPartitionIndex(long key) {
+        // Spread the bits; Discord snowflakes have very regular low bits.
+        long mixed = key * 0x9e3779b97f4a7c15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) this.partitions.size());
+    }
+
+    /**
+     * Stop accepting tasks, and give already queued ones a few seconds to finish.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : this.partitions) {
+            partition.shutdown();
+        }
+
+        for (ThreadPoolExecutor partition : this.partitions) {
+            try {
+                partition.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int getParallelism() {
+        return this.partitions.size();
+    }
+
+    public int getQueuedCount() {
+        int ret = 0;
+
+        for (ThreadPoolExecutor partition : this.partitions) {
+            ret += partition.getQueue().size();
+        }
+
+        return ret;
+    }
+
+    public int getActiveCount() {
+        int ret = 0;
+
+        for (ThreadPoolExecutor partition : this.partitions) {
+            ret += partition.getActiveCount();
+        }
+
+        return ret;
+    }
+
+    public String getStats() {
+        long completed = this.completedCount.sum();
+        StringBuilder depths = new StringBuilder();
+
+        for (ThreadPoolExecutor partition : this.partitions) {
+            depths.append(depths.isEmpty() ? "" : "/").append(partition.getQueue().size());
+        }
+
+        return String.format("%s: %d partitions, %d active | queued: %s (peak %d, cap %d each) | done: %d of %d | waits: avg %d ms, max %d ms | producer waits: %d",
+            this.name, this.partitions.size(), this.getActiveCount(), depths, this.peakQueued.get(), this.queueCapacity, completed, this.submittedCount.sum(),
+            completed > 0 ? TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.sum() / completed) : 0, TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get()), this.blockedCount.sum());
+    }
+}
@@ -0,0 +1,213 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import net.pcsx2.hifumi.command.PrefixIndex;
+import net.pcsx2.hifumi.util.Log;
+import net.pcsx2.hifumi.util.Messaging;
+import net.pcsx2.hifumi.util.Refreshable;
+import net.pcsx2.hifumi.util.SimpleSearch;
+import net.pcsx2.hifumi.util.SnapshotFile;
+
+/**
+ * Ratings scraped from one or more Passmark chart pages.
+ *
+ * A refresh downloads every page at once and only replaces the current ratings if all of them
+ * came back with data, so lookups never see an empty or half filled index. The ratings, the
+ * search and the autocomplete index are swapped in together. The last good set is also saved
+ * to the data directory and loaded at boot, so the commands work before Passmark answers.
+ */
+public abstract class PassmarkIndex implements Refreshable {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Pattern RATING_SEPARATOR_PATTERN = Pattern.compile("[,. ]");
+
+    private record Snapshot(Map<String, Integer> ratings, SimpleSearch search, PrefixIndex<String> completions) { }
+
+    private final String className;
+    private final Path snapshotPath;
+    private final int snapshotMagic;
+    private final List<String> urls;
+    private volatile boolean isInitialized = false;
+    private volatile Snapshot snapshot = newSnapshot(Map.of());
+
+    /**
+     * @param className For log messages.
+     * @param dataDirectory
+     * @param snapshotFileName
+     * @param snapshotMagic Identifies this index's snapshot files.
+     * @param urls Chart pages, in order. Names found on later pages replace the same names on earlier ones.
+     */
+    protected PassmarkIndex(String className, String dataDirectory, String snapshotFileName, int snapshotMagic, String... urls) {
+        this.className = className;
+        this.snapshotPath = Path.of(dataDirectory, snapshotFileName);
+        this.snapshotMagic = snapshotMagic;
+        this.urls = List.of(urls);
+    }
+
+    /**
+     * @param doc
+     * @return The chart lists on a page, each holding one li per product.
+     */
+    protected abstract Elements getCharts(Document doc);
+
+    /**
+     * Load the ratings saved by the last successful refresh.
+     * @return True if a snapshot was loaded.
+     */
+    public synchronized boolean loadSnapshot() {
+        try {
+            ByteBuffer buf = SnapshotFile.map(this.snapshotPath, this.snapshotMagic, SNAPSHOT_VERSION);
+
+            if (buf == null) {
+                return false;
+            }
+
+            int count = SnapshotFile.readCount(buf);
+            HashMap<String, Integer> ratings = new HashMap<String, Integer>(count * 2);
+
+            for (int i = 0; i < count; i++) {
+                ratings.put(SnapshotFile.readString(buf), buf.getInt());
+            }
+
+            this.snapshot = newSnapshot(Map.copyOf(ratings));
+            this.isInitialized = true;
+            Log.info("Loaded " + count + " " + this.className + " ratings from snapshot");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.warn("Could not load " + this.className + " snapshot: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        ArrayList<Future<Map<String, Integer>>> pages = new ArrayList<Future<Map<String, Integer>>>();
+
+        // Almost all of the time is spent waiting on Passmark, so one virtual thread per page
+        try (ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String url : this.urls) {
+                pages.add(fetchers.submit(() -> this.fetch(url)));
+            }
+        }
+
+        HashMap<String, Integer> ratings = new HashMap<String, Integer>();
+
+        for (int i = 0; i < pages.size(); i++) {
+            try {
+                Map<String, Integer> page = pages.get(i).get();
+
+                if (page.isEmpty()) {
+                    Messaging.logInfo(this.className, "refresh", "No ratings found on " + this.urls.get(i) + ", keeping the previous ratings. Did the page layout change?");
+                    return;
+                }
+
+                ratings.putAll(page);
+            } catch (ExecutionException e) {
+                Messaging.logException(this.className, "refresh", e.getCause());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        Snapshot updated = newSnapshot(Map.copyOf(ratings));
+        this.snapshot = updated;
+        this.isInitialized = true;
+        this.writeSnapshot(updated);
+    }
+
+    private Map<String, Integer> fetch(String url) throws IOException {
+        Document doc = Jsoup.connect(url).maxBodySize(0).get();
+        HashMap<String, Integer> ret = new HashMap<String, Integer>();
+
+        for (Element chart : this.getCharts(doc)) {
+            for (Element row : chart.getElementsByTag("li")) {
+                Element name = row.getElementsByClass("prdname").first();
+                Element rating = row.getElementsByClass("count").first();
+
+                if (name == null || rating == null) {
+                    continue;
+                }
+
+                try {
+                    ret.put(name.text(), Integer.parseInt(RATING_SEPARATOR_PATTERN.matcher(rating.text()).replaceAll("")));
+                } catch (NumberFormatException e) {
+                    // Squelch, a product without a number has nothing to show
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private void writeSnapshot(Snapshot snapshot) {
+        try {
+            SnapshotFile.write(this.snapshotPath, this.snapshotMagic, SNAPSHOT_VERSION, out -> {
+                out.writeInt(snapshot.ratings().size());
+
+                for (Map.Entry<String, Integer> rating : snapshot.ratings().entrySet()) {
+                    SnapshotFile.writeString(out, rating.getKey());
+                    out.writeInt(rating.getValue());
+                }
+            });
+        } catch (IOException e) {
+            Messaging.logException(this.className, "writeSnapshot", e);
+        }
+    }
+
+    private static Snapshot newSnapshot(Map<String, Integer> ratings) {
+        List<String> names = List.copyOf(ratings.keySet());
+        return new Snapshot(ratings, new SimpleSearch(names), new PrefixIndex<String>(names, List::of));
+    }
+
+    public boolean isInitialized() {
+        return this.isInitialized;
+    }
+
+    /**
+     * @param name Exactly as Passmark lists it.
+     * @return The rating, or empty if there is no such product.
+     */
+    public OptionalInt getRating(String name) {
+        Integer rating = this.snapshot.ratings().get(name);
+        return rating != null ? OptionalInt.of(rating) : OptionalInt.empty();
+    }
+
+    public Set<String> getNames() {
+        return this.snapshot.ratings().keySet();
+    }
+
+    public SimpleSearch getSearch() {
+        return this.snapshot.search();
+    }
+
+    /**
+     * @return Names by prefix, for autocomplete.
+     */
+    public PrefixIndex<String> getCompletions() {
+        return this.snapshot.completions();
+    }
+}
@@ -11,29 +11,69 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import net.pcsx2.hifumi.charting.ChartRenderer;
+import net.pcsx2.hifumi.config.Config.ChartOptions;
+import net.pcsx2.hifumi.config.Config.ParserOptions;
 import net.pcsx2.hifumi.filter.MessageFilteringRunnable;
+import net.pcsx2.hifumi.parse.AbstractParser;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class Scheduler {
 
     private ScheduledExecutorService threadPool;
     private ExecutorService messageEventFIFO;
-    private ExecutorService messageFilterFIFO;
+    private PartitionedExecutor messageFilterExecutor;
+    private ParserExecutor parserExecutor;
+    private ChartRenderer chartRenderer;
     private HashMap<String, Runnable> runnables = new HashMap<String, Runnable>();
     private HashMap<String, ScheduledFuture<?>> statuses = new HashMap<String, ScheduledFuture<?>>();
 
-    public Scheduler() {
+    /**
+     * @param filterParallelism Number of users whose messages can be filtered at the same time.
+     * @param filterQueueCapacity Messages which can wait to be filtered, per partition.
+     * @param parserOptions Limits for the attachment parsers.
+     * @param chartOptions Limits for rendering charts.
+     */
+    public Scheduler(int filterParallelism, int filterQueueCapacity, ParserOptions parserOptions, ChartOptions chartOptions) {
         this.threadPool = Executors.newScheduledThreadPool(6, new SchedulerThreadFactory("pool"));
         this.messageEventFIFO = Executors.newSingleThreadExecutor(new SchedulerThreadFactory("msg-evt-fifo"));
-        this.messageFilterFIFO = Executors.newSingleThreadExecutor(new SchedulerThreadFactory("msg-flt-fifo"));
+        this.messageFilterExecutor = new PartitionedExecutor("msg-flt", filterParallelism, filterQueueCapacity, new SchedulerThreadFactory("msg-flt"));
+        this.parserExecutor = new ParserExecutor("parse", parserOptions, new SchedulerThreadFactory("parse"));
+        this.chartRenderer = new ChartRenderer(chartOptions, new SchedulerThreadFactory("chart"));
     }
 
     public void addToMessageEventFIFO(Runnable runnable) {
         this.messageEventFIFO.execute(runnable);
     }
     
-    public void addToMessageFilterFIFO(MessageFilteringRunnable runnable) {
-        this.messageFilterFIFO.execute(runnable);
+    /**
+     * Queue a message for filtering. Messages from the same user are filtered one at a time, in order;
+     * messages from different users may be filtered in parallel.
+     * @param runnable
+     */
+    public void addToMessageFilterQueue(MessageFilteringRunnable runnable) {
+        this.messageFilterExecutor.execute(runnable.getAuthorIdLong(), runnable);
+    }
+
+    public PartitionedExecutor getMessageFilterExecutor() {
+        return this.messageFilterExecutor;
+    }
+
+    /**
+     * Queue an attachment parser on the parser threads, unless it is turned away.
+     * @param parser
+     * @return True if the parser was queued; if not, the user has already been told why.
+     */
+    public boolean runParser(AbstractParser parser) {
+        return this.parserExecutor.submit(parser);
+    }
+
+    public ParserExecutor getParserExecutor() {
+        return this.parserExecutor;
+    }
+
+    public ChartRenderer getChartRenderer() {
+        return this.chartRenderer;
     }
 
     /**
@@ -79,6 +119,9 @@ public class Scheduler {
      */
     public void shutdown() {
         threadPool.shutdown();
+        messageFilterExecutor.shutdown();
+        parserExecutor.shutdown();
+        chartRenderer.shutdown();
 
         try {
             threadPool.awaitTermination(5, TimeUnit.SECONDS);
@@ -3,11 +3,17 @@
 package net.pcsx2.hifumi.charting;
 
 import java.awt.Color;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
 import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.CategoryLabelPositions;
 import org.jfree.chart.plot.CategoryPlot;
@@ -19,116 +25,130 @@ import org.jfree.data.category.DefaultCategoryDataset;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.util.Messaging;
 
+/**
+ * Builds the /chartgen charts. Loading a chart's data is kept apart from drawing it, so
+ * {@link ChartRenderer} can tell from the data alone whether a cached image is still current.
+ */
 public class ChartGenerator {
 
-    public static byte[] buildWarezChart(long startTimestamp, long endTimestamp, String timeUnit) {
-        ArrayList<WarezChartData> warezDataList = Database.getWarezAssignmentsBetween(startTimestamp, endTimestamp, timeUnit);
+    public static final int WIDTH = 1280;
+    public static final int HEIGHT = 720;
+
+    /**
+     * @param type "warez", "member", "automod" or "spamkick".
+     * @return The data to chart, or null if type is not a chart.
+     */
+    public static DefaultCategoryDataset buildDataset(String type, long startTimestamp, long endTimestamp, String timeUnit) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        for (WarezChartData data : warezDataList) {
-            dataset.addValue(data.events, data.action, data.timeUnit);
-        }
 
-        JFreeChart chart = ChartFactory.createBarChart("Warez Events (by " + timeUnit + ")", timeUnit, "Warez Events", dataset, PlotOrientation.VERTICAL, true, true, false);
-        CategoryPlot plot = (CategoryPlot) chart.getPlot();
-        plot.getDomainAxis().setCategoryLabelPositions(CategoryLabelPositions.UP_45);
-        BarRenderer renderer = (BarRenderer) plot.getRenderer();
-        renderer.setBarPainter(new StandardBarPainter());
-        renderer.setDrawBarOutline(true);
-        renderer.setSeriesPaint(0, Color.RED);
-        renderer.setSeriesPaint(1, Color.GREEN);
+        switch (type) {
+            case "warez": {
+                for (WarezChartData data : Database.getWarezAssignmentsBetween(startTimestamp, endTimestamp, timeUnit)) {
+                    dataset.addValue(data.events, data.action, data.timeUnit);
+                }
 
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(out, chart, 1280, 720);
-            return out.toByteArray();
-        } catch (Exception e) {
-            Messaging.logException("ChartGenerator", "buildWarezChart", e);
-        }
-        
-        return null;
-    }
+                return dataset;
+            }
+            case "member": {
+                for (MemberChartData data : Database.getMemberEventsBetween(startTimestamp, endTimestamp, timeUnit)) {
+                    dataset.addValue(data.events, data.action, data.timeUnit);
+                }
 
-    public static byte[] buildMemberChart(long startTimestamp, long endTimestamp, String timeUnit) {
-        ArrayList<MemberChartData> memberDataList = Database.getMemberEventsBetween(startTimestamp, endTimestamp, timeUnit);
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        for (MemberChartData data : memberDataList) {
-            dataset.addValue(data.events, data.action, data.timeUnit);
-        }
+                return dataset;
+            }
+            case "automod": {
+                for (AutomodChartData data : Database.getAutomodEventsBetween(startTimestamp, endTimestamp, timeUnit)) {
+                    dataset.addValue(data.events, data.trigger, data.timeUnit);
+                }
 
-        JFreeChart chart = ChartFactory.createBarChart("Member Events (by " + timeUnit + ")", timeUnit, "Member Events", dataset, PlotOrientation.VERTICAL, true, true, false);
-        CategoryPlot plot = (CategoryPlot) chart.getPlot();
-        plot.getDomainAxis().setCategoryLabelPositions(CategoryLabelPositions.UP_45);
-        BarRenderer renderer = (BarRenderer) plot.getRenderer();
-        renderer.setBarPainter(new StandardBarPainter());
-        renderer.setDrawBarOutline(true);
-        renderer.setSeriesPaint(0, Color.GREEN);
-        renderer.setSeriesPaint(1, Color.YELLOW);
-        renderer.setSeriesPaint(2, Color.RED);
-        
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(out, chart, 1280, 720);
-            return out.toByteArray();
-        } catch (Exception e) {
-            Messaging.logException("ChartGenerator", "buildMemberChart", e);
+                return dataset;
+            }
+            case "spamkick": {
+                ArrayList<SpamkickChartData> spamkickDataList = new ArrayList<SpamkickChartData>();
+                spamkickDataList.addAll(Database.getSpamkickEventsBetween(startTimestamp, endTimestamp, timeUnit));
+
+                for (SpamkickChartData data : spamkickDataList) {
+                    dataset.addValue(data.events, data.trigger, data.timeUnit);
+                }
+
+                return dataset;
+            }
+            default: {
+                return null;
+            }
         }
-        
-        return null;
     }
 
-    public static byte[] buildAutomodChart(long startTimestamp, long endTimestamp, String timeUnit) {
-        ArrayList<AutomodChartData> automodDataList = Database.getAutomodEventsBetween(startTimestamp, endTimestamp, timeUnit);
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        for (AutomodChartData data : automodDataList) {
-            dataset.addValue(data.events, data.trigger, data.timeUnit);
+    /**
+     * @param type "warez", "member", "automod" or "spamkick".
+     * @param dataset From {@link #buildDataset(String, long, long, String)} for the same type.
+     */
+    public static JFreeChart buildChart(String type, String timeUnit, DefaultCategoryDataset dataset) {
+        switch (type) {
+            case "warez": {
+                JFreeChart chart = createBarChart("Warez Events (by " + timeUnit + ")", timeUnit, "Warez Events", dataset);
+                BarRenderer renderer = (BarRenderer) ((CategoryPlot) chart.getPlot()).getRenderer();
+                renderer.setSeriesPaint(0, Color.RED);
+                renderer.setSeriesPaint(1, Color.GREEN);
+                return chart;
+            }
+            case "member": {
+                JFreeChart chart = createBarChart("Member Events (by " + timeUnit + ")", timeUnit, "Member Events", dataset);
+                BarRenderer renderer = (BarRenderer) ((CategoryPlot) chart.getPlot()).getRenderer();
+                renderer.setSeriesPaint(0, Color.GREEN);
+                renderer.setSeriesPaint(1, Color.YELLOW);
+                renderer.setSeriesPaint(2, Color.RED);
+                return chart;
+            }
+            case "automod": {
+                return createBarChart("Automod Events (by " + timeUnit + ")", timeUnit, "Automod Events", dataset);
+            }
+            case "spamkick": {
+                return createBarChart("Spamkick Events (by " + timeUnit + ")", timeUnit, "Spamkick Events", dataset);
+            }
+            default: {
+                throw new IllegalArgumentException("Unknown chart type " + type);
+            }
         }
+    }
 
-        JFreeChart chart = ChartFactory.createBarChart("Automod Events (by " + timeUnit + ")", timeUnit, "Automod Events", dataset, PlotOrientation.VERTICAL, true, true, false);
+    private static JFreeChart createBarChart(String title, String timeUnit, String valueAxisLabel, DefaultCategoryDataset dataset) {
+        JFreeChart chart = ChartFactory.createBarChart(title, timeUnit, valueAxisLabel, dataset, PlotOrientation.VERTICAL, true, true, false);
         CategoryPlot plot = (CategoryPlot) chart.getPlot();
         plot.getDomainAxis().setCategoryLabelPositions(CategoryLabelPositions.UP_45);
         BarRenderer renderer = (BarRenderer) plot.getRenderer();
         renderer.setBarPainter(new StandardBarPainter());
         renderer.setDrawBarOutline(true);
-        
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(out, chart, 1280, 720);
-            return out.toByteArray();
-        } catch (Exception e) {
-            Messaging.logException("ChartGenerator", "buildAutomodChart", e);
-        }
-        
-        return null;
+        return chart;
     }
-    
-    public static byte[] buildSpamkickLineChart(long startTimestamp, long endTimestamp, String timeUnit) {
-        ArrayList<SpamkickChartData> spamkickDataList = new ArrayList<SpamkickChartData>();
-        spamkickDataList.addAll(Database.getSpamkickEventsBetween(startTimestamp, endTimestamp, timeUnit));
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        for (SpamkickChartData data : spamkickDataList) {
-            dataset.addValue(data.events, data.trigger, data.timeUnit);
-        }
 
-        JFreeChart chart = ChartFactory.createBarChart("Spamkick Events (by " + timeUnit + ")", timeUnit, "Spamkick Events", dataset, PlotOrientation.VERTICAL, true, true, false);
-        
-        CategoryPlot plot = (CategoryPlot) chart.getPlot();
-        plot.getDomainAxis().setCategoryLabelPositions(CategoryLabelPositions.UP_45);
-        BarRenderer renderer = (BarRenderer) plot.getRenderer();
-        renderer.setBarPainter(new StandardBarPainter());
-        renderer.setDrawBarOutline(true);
-        
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(out, chart, 1280, 720);
+    /**
+     * Draw a chart and encode it as a PNG.
+     * @param compressionLevel 0 (fastest, biggest file) to 9 (slowest, smallest file).
+     * @return The PNG, or null if it could not be encoded.
+     */
+    public static byte[] writePNG(JFreeChart chart, int compressionLevel) {
+        // Charts are opaque, so there is no alpha channel worth encoding
+        BufferedImage image = chart.createBufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB, null);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            // The PNG writer picks its deflate level as 9 * (1 - quality), rounded down
+            int level = Math.max(0, Math.min(9, compressionLevel));
+            param.setCompressionQuality(Math.max(0.0f, 1.0f - (level + 0.5f) / 9.0f));
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+            imageOut.flush();
             return out.toByteArray();
         } catch (Exception e) {
-            Messaging.logException("ChartGenerator", "buildSpamkickLineChart", e);
+            Messaging.logException("ChartGenerator", "writePNG", e);
+        } finally {
+            writer.dispose();
         }
-        
+
         return null;
     }
 }
@@ -0,0 +1,173 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.charting;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.category.DefaultCategoryDataset;
+
+import net.pcsx2.hifumi.config.Config.ChartOptions;
+
+/**
+ * Renders /chartgen charts on their own few threads, and keeps recent ones so the same chart asked
+ * for again is not drawn again.
+ *
+ * Charts are cached by type, time unit and the days their range covers. Loading a chart's data
+ * from the rollups is cheap next to drawing it, so every request still loads the data, and the
+ * cached image is only reused if the data is identical. New events landing in a chart's range
+ * change its data, which makes the cached image stale, without the insert paths having to know
+ * which charts they touch. Requests for a chart already being rendered wait for that render
+ * rather than starting another.
+ */
+public class ChartRenderer {
+
+    private static final long SECONDS_PER_DAY = 60 * 60 * 24;
+
+    private record Key(String type, String timeUnit, long startDay, long endDay) { }
+
+    private record Rendered(DefaultCategoryDataset dataset, byte[] png) { }
+
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final int maxEntries;
+    private final int compressionLevel;
+    private final LinkedHashMap<Key, Rendered> rendered = new LinkedHashMap<Key, Rendered>(16, 0.75f, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<Key, CompletableFuture<byte[]>>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder totalRenderNanos = new LongAdder();
+
+    public ChartRenderer(ChartOptions options, ThreadFactory threadFactory) {
+        int parallelism = Math.max(1, options.renderParallelism);
+        this.queueCapacity = Math.max(1, options.renderQueueCapacity);
+        this.maxEntries = Math.max(0, options.renderCacheMaxEntries);
+        this.compressionLevel = options.pngCompressionLevel;
+        this.pool = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(this.queueCapacity), threadFactory);
+    }
+
+    /**
+     * Queue a chart to be rendered, or join a render of the same chart already queued.
+     * @param type "warez", "member", "automod" or "spamkick".
+     * @return Future of the PNG. Completes with null if the chart could not be drawn, or
+     * exceptionally with a RejectedExecutionException if too many charts are already queued.
+     */
+    public CompletableFuture<byte[]> render(String type, long startTimestamp, long endTimestamp, String timeUnit) {
+        Key key = new Key(type, timeUnit, Math.floorDiv(startTimestamp, SECONDS_PER_DAY), Math.floorDiv(endTimestamp, SECONDS_PER_DAY));
+        CompletableFuture<byte[]> future = new CompletableFuture<byte[]>();
+        CompletableFuture<byte[]> existing = this.inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            this.joined.increment();
+            return existing;
+        }
+
+        try {
+            this.pool.execute(() -> {
+                try {
+                    future.complete(this.renderNow(key, startTimestamp, endTimestamp));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    this.inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.inFlight.remove(key, future);
+            this.refused.increment();
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private byte[] renderNow(Key key, long startTimestamp, long endTimestamp) {
+        DefaultCategoryDataset dataset = ChartGenerator.buildDataset(key.type(), startTimestamp, endTimestamp, key.timeUnit());
+
+        if (dataset == null) {
+            return null;
+        }
+
+        synchronized (this.rendered) {
+            Rendered cached = this.rendered.get(key);
+
+            if (cached != null && cached.dataset().equals(dataset)) {
+                this.hits.increment();
+                return cached.png();
+            }
+
+            if (cached != null) {
+                this.stale.increment();
+            }
+        }
+
+        long start = System.nanoTime();
+        JFreeChart chart = ChartGenerator.buildChart(key.type(), key.timeUnit(), dataset);
+        byte[] png = ChartGenerator.writePNG(chart, this.compressionLevel);
+        this.totalRenderNanos.add(System.nanoTime() - start);
+        this.renders.increment();
+
+        if (png != null && this.maxEntries > 0) {
+            synchronized (this.rendered) {
+                this.rendered.put(key, new Rendered(dataset, png));
+                Iterator<Map.Entry<Key, Rendered>> iterator = this.rendered.entrySet().iterator();
+
+                // Eldest first, which is least recently requested in access order
+                while (this.rendered.size() > this.maxEntries && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+
+        return png;
+    }
+
+    /**
+     * Stop accepting charts and wait a few seconds for those already queued.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+
+        try {
+            if (!this.pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getStats() {
+        long renderCount = this.renders.sum();
+        long bytes = 0;
+        int entries = 0;
+
+        synchronized (this.rendered) {
+            entries = this.rendered.size();
+
+            for (Rendered cached : this.rendered.values()) {
+                bytes += cached.png().length;
+            }
+        }
+
+        return String.format("%d threads, %d active | queued: %d (cap %d) | cached: %d of %d (%d KB) | served from cache: %d, joined: %d | rendered: %d (avg %d ms, %d stale) | refused: %d",
+            this.pool.getMaximumPoolSize(), this.pool.getActiveCount(), this.pool.getQueue().size(), this.queueCapacity, entries, this.maxEntries, bytes / 1024,
+            this.hits.sum(), this.joined.sum(), renderCount, renderCount > 0 ? TimeUnit.NANOSECONDS.toMillis(this.totalRenderNanos.sum() / renderCount) : 0, this.stale.sum(), this.refused.sum());
+    }
+}
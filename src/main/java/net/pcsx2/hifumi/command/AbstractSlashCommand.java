@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
@@ -15,5 +16,6 @@ public abstract class AbstractSlashCommand {
     public abstract void onExecute(SlashCommandInteractionEvent event);
     public void handleButtonEvent(ButtonInteractionEvent event) { }
     public void handleStringSelectEvent(StringSelectInteractionEvent event) { }
+    public void handleAutoCompleteEvent(CommandAutoCompleteInteractionEvent event) { }
     protected abstract CommandData defineSlashCommand();
 }
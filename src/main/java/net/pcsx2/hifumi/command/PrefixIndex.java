@@ -0,0 +1,205 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import net.pcsx2.hifumi.util.Strings;
+
+/**
+ * Prefix lookups for slash command autocomplete, built once whenever the data behind a command
+ * is refreshed.
+ *
+ * Every word of every searchable text is a key, running from that word to the end of the text,
+ * so "fantasy x" finds "Final Fantasy X". The keys are kept sorted, which makes the keys sharing
+ * any prefix one contiguous run; this is the same thing a trie's subtree gives, found with two
+ * binary searches and without a node per character. Keys are stored as positions in the
+ * normalized texts rather than as copies of them.
+ *
+ * Immutable once built, so any number of threads can use it.
+ */
+public class PrefixIndex<T> {
+
+    private final Object[] items;
+    private final String[] texts;
+    private final int[] textItems;
+    // Sorted by the text they point at. High half is the text index, low half the offset into it.
+    private final long[] keys;
+
+    /**
+     * @param items
+     * @param textsOf Texts each item should be found by. Nulls and repeats are skipped.
+     */
+    public PrefixIndex(Collection<T> items, Function<T, List<String>> textsOf) {
+        this.items = items.toArray();
+        ArrayList<String> texts = new ArrayList<String>();
+        ArrayList<Integer> textItems = new ArrayList<Integer>();
+        int keyCount = 0;
+
+        for (int itemIdx = 0; itemIdx < this.items.length; itemIdx++) {
+            @SuppressWarnings("unchecked")
+            List<String> itemTexts = textsOf.apply((T) this.items[itemIdx]);
+            int firstText = texts.size();
+
+            for (String text : itemTexts) {
+                if (text == null) {
+                    continue;
+                }
+
+                String normalized = Strings.normalizeSearchText(text);
+
+                if (normalized.isEmpty() || texts.subList(firstText, texts.size()).contains(normalized)) {
+                    continue;
+                }
+
+                texts.add(normalized);
+                textItems.add(itemIdx);
+                keyCount += wordCount(normalized);
+            }
+        }
+
+        this.texts = texts.toArray(new String[0]);
+        this.textItems = textItems.stream().mapToInt(Integer::intValue).toArray();
+        Long[] building = new Long[keyCount];
+        int keyIdx = 0;
+
+        for (int textIdx = 0; textIdx < this.texts.length; textIdx++) {
+            String text = this.texts[textIdx];
+
+            for (int offset = 0; offset < text.length(); offset++) {
+                if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                    building[keyIdx++] = key(textIdx, offset);
+                }
+            }
+        }
+
+        Arrays.sort(building, this::compareKeys);
+        this.keys = Arrays.stream(building).mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Find items with a word starting with the query. Items whose whole text starts with the
+     * query come first, then items where a later word does, each alphabetically.
+     * @param query Normalized the same way as the texts, so case, accents and punctuation don't matter.
+     * @param limit Most items to return.
+     * @param filter Only items this accepts are returned, or null for all.
+     * @return
+     */
+    public List<T> complete(String query, int limit, Predicate<T> filter) {
+        String prefix = Strings.normalizeSearchText(query);
+        int from = this.lowerBound(prefix, false);
+        int to = this.lowerBound(prefix, true);
+        ArrayList<T> ret = new ArrayList<T>(limit);
+
+        // First pass takes only keys at the start of a text, second pass takes the rest
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = from; i < to && ret.size() < limit; i++) {
+                if ((offsetOf(this.keys[i]) == 0) != (pass == 0)) {
+                    continue;
+                }
+
+                @SuppressWarnings("unchecked")
+                T item = (T) this.items[this.textItems[textOf(this.keys[i])]];
+
+                // Several texts or words of one item can share a prefix, only list it once
+                if (!ret.contains(item) && (filter == null || filter.test(item))) {
+                    ret.add(item);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public int size() {
+        return this.items.length;
+    }
+
+    /**
+     * @param prefix
+     * @param after If true, skip over keys starting with the prefix too.
+     * @return Index of the first key not below the prefix.
+     */
+    private int lowerBound(String prefix, boolean after) {
+        int lo = 0, hi = this.keys.length;
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = this.comparePrefix(this.keys[mid], prefix);
+
+            if (cmp < 0 || (after && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
+    /**
+     * Compare a key against a prefix, without copying the key's text.
+     * @return Zero if the key starts with the prefix, otherwise which side of it the key sorts on.
+     */
+    private int comparePrefix(long key, String prefix) {
+        String text = this.texts[textOf(key)];
+        int offset = offsetOf(key);
+        int length = Math.min(text.length() - offset, prefix.length());
+
+        for (int i = 0; i < length; i++) {
+            int diff = text.charAt(offset + i) - prefix.charAt(i);
+
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        // Ran out of key before running out of prefix
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    private int compareKeys(long a, long b) {
+        String textA = this.texts[textOf(a)], textB = this.texts[textOf(b)];
+        int offsetA = offsetOf(a), offsetB = offsetOf(b);
+        int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+
+        for (int i = 0; i < length; i++) {
+            int diff = textA.charAt(offsetA + i) - textB.charAt(offsetB + i);
+
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        return (textA.length() - offsetA) - (textB.length() - offsetB);
+    }
+
+    private static int wordCount(String normalized) {
+        int ret = 1;
+
+        for (int i = 0; i < normalized.length(); i++) {
+            if (normalized.charAt(i) == ' ') {
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+
+    private static long key(int textIdx, int offset) {
+        return ((long) textIdx << 32) | offset;
+    }
+
+    private static int textOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int offsetOf(long key) {
+        return (int) key;
+    }
+}
@@ -7,6 +7,9 @@ import net.pcsx2.hifumi.Scheduler.NoSuchRunnableException;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.config.ConfigType;
+import net.pcsx2.hifumi.database.StatementCache;
+import net.pcsx2.hifumi.database.StatementCache.StatementStats;
+import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -37,6 +40,29 @@ public class CommandAbout extends AbstractSlashCommand {
         storageBuilder.append("DynCmd: ").append((ConfigManager.getSizeBytes(ConfigType.DYNCMD) / 1024) + " KB | ");
         storageBuilder.append("Emulog: ").append((ConfigManager.getSizeBytes(ConfigType.EMULOG_PARSER) / 1024) + " KB | ");
         eb.addField("Storage Size", storageBuilder.toString(), false);
+
+        StringBuilder poolBuilder = new StringBuilder();
+        poolBuilder.append(HifumiBot.getSelf().getSQLite().getWritePool().getStats()).append("\n");
+        poolBuilder.append(HifumiBot.getSelf().getSQLite().getReadPool().getStats());
+        eb.addField("Database Connections", poolBuilder.toString(), false);
+        eb.addField("Database Write Queue", HifumiBot.getSelf().getSQLite().getWriteBehindQueue().getStats(), false);
+        eb.addField("Message Cache", HifumiBot.getSelf().getSQLite().getMessageCache().getStats(), false);
+
+        StatementCache statementCache = HifumiBot.getSelf().getSQLite().getStatementCache();
+        StringBuilder statementBuilder = new StringBuilder(statementCache.getStats());
+
+        for (StatementStats stats : statementCache.getTopStatements(3)) {
+            statementBuilder.append(String.format("\n`%s` %d hits / %d misses", StatementCache.summarize(stats.getSql(), 60), stats.getHits(), stats.getMisses()));
+        }
+
+        eb.addField("Database Statements", statementBuilder.toString(), false);
+
+        eb.addField("Message Filters", HifumiBot.getSelf().getScheduler().getMessageFilterExecutor().getStats(), false);
+        eb.addField("Scam Hashes", HifumiBot.getSelf().getScamHashIndex().getActiveCount() + " active (" + HifumiBot.getSelf().getScamHashIndex().getPerceptualCount() + " perceptual) | " + AttachmentUtils.getHashCacheStats(), false);
+        eb.addField("Parsers", HifumiBot.getSelf().getScheduler().getParserExecutor().getStats() + "\n" + HifumiBot.getSelf().getParseResultCache().getStats(), false);
+        eb.addField("Browsable Embeds", HifumiBot.getSelf().getBrowsableEmbedCache().getStats(), false);
+        eb.addField("Charts", HifumiBot.getSelf().getScheduler().getChartRenderer().getStats(), false);
+
         StringBuilder runnableBuilder = new StringBuilder("| ");
 
         for (String runnableName : HifumiBot.getSelf().getScheduler().getRunnableNames()) {
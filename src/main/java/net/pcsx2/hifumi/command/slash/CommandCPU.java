@@ -2,7 +2,9 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,15 +13,19 @@ import net.pcsx2.hifumi.CpuIndex;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.permissions.PermissionLevel;
-import net.pcsx2.hifumi.util.SimpleSearch;
+import net.pcsx2.hifumi.util.CommandUtils;
+import net.pcsx2.hifumi.util.SimpleSearch.Result;
 
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 public class CommandCPU extends AbstractSlashCommand {
     
@@ -83,27 +89,17 @@ public class CommandCPU extends AbstractSlashCommand {
             return;
         }
 
-        HashMap<String, Float> results = SimpleSearch.search(cpuIndex.getAllCpus(), StringUtils.join(name, " "));
+        List<Result> results = cpuIndex.getSearch().search(StringUtils.join(name, " "), MAX_RESULTS);
 
         if (results.size() > 0) {
             eb.setAuthor("Passmark CPU Single Thread Performance", "https://www.cpubenchmark.net/singleThread.html");
             eb.setTitle("Search results for '" + StringUtils.join(name, " ").trim() + "'");
             eb.setDescription(":warning: Some games may have unusually high CPU requirements! If in doubt, ask!\n:potato: Some CPUs have design flaws. The percentage is what we think is representative of their true PCSX2 performance.");
-            String highestName = null;
-            float highestWeight = 0;
             String footerStr = "";
 
-            while (!results.isEmpty() && eb.getFields().size() < MAX_RESULTS) {
-                for (String cpuName : results.keySet()) {
-                    if (results.get(cpuName) > highestWeight) {
-                        highestName = cpuName;
-                        highestWeight = results.get(cpuName);
-                    }
-                }
-
-                results.remove(highestName);
-                highestWeight = 0;
-                int highestScore = Integer.parseInt(cpuIndex.getCpuRating(highestName).replaceAll("[,. ]", ""));
+            for (Result result : results) {
+                String cpuName = result.name();
+                int highestScore = cpuIndex.getRating(cpuName).orElse(-1);
                 String highestScoreDescription = "";
 
                 for (int i = 0; i < CPURating.values().length; i++) {
@@ -116,7 +112,7 @@ public class CommandCPU extends AbstractSlashCommand {
                 String scoreStr = "";
 
                 for (String key : this.badArchMap.keySet()) {
-                    if (Pattern.matches(".*" + key + ".*", highestName)) {
+                    if (Pattern.matches(".*" + key + ".*", cpuName)) {
                         scoreStr += highestScore + " (" + highestScoreDescription + ") :potato: (" + String.format("%.0f%%", this.badArchMap.get(key) * 100) + ")";
                     }
                 }
@@ -125,7 +121,7 @@ public class CommandCPU extends AbstractSlashCommand {
                     scoreStr += highestScore + " (" + highestScoreDescription + ")";
                 }
 
-                eb.addField(highestName, scoreStr, false);
+                eb.addField(cpuName, scoreStr, false);
             }
 
             eb.setColor(0x00ff00);
@@ -138,10 +134,26 @@ public class CommandCPU extends AbstractSlashCommand {
         event.replyEmbeds(eb.build()).queue();
     }
 
+    @Override
+    public void handleAutoCompleteEvent(CommandAutoCompleteInteractionEvent event) {
+        if (!event.getFocusedOption().getName().equals("name")) {
+            return;
+        }
+
+        List<String> names = HifumiBot.getSelf().getCpuIndex().getCompletions().complete(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES, null);
+        ArrayList<Command.Choice> choices = new ArrayList<Command.Choice>(names.size());
+
+        for (String name : names) {
+            choices.add(CommandUtils.newChoice(name, name));
+        }
+
+        event.replyChoices(choices).queue();
+    }
+
     @Override
     protected CommandData defineSlashCommand() {
         return Commands.slash("cpu", "Look up the single thread rating of a CPU")
-                .addOption(OptionType.STRING, "name", "Name of the CPU to look up", true)
+                .addOption(OptionType.STRING, "name", "Name of the CPU to look up", true, true)
                 .setDefaultPermissions(DefaultMemberPermissions.ENABLED);
     }
 }
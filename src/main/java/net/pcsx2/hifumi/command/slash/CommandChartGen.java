@@ -6,9 +6,11 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.concurrent.RejectedExecutionException;
 
-import net.pcsx2.hifumi.charting.ChartGenerator;
+import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
@@ -56,35 +58,57 @@ public class CommandChartGen extends AbstractSlashCommand {
             return;
         }
 
-        event.deferReply().queue();
-        FileUpload file = null;
+        String fileName = null;
 
         switch (typeOpt.getAsString()) {
             case "warez": {
-                file = FileUpload.fromData(ChartGenerator.buildWarezChart(startDate.toEpochSecond(), endDate.toEpochSecond(), timeUnitOpt.getAsString()), "warez.png");
+                fileName = "warez.png";
                 break;
             }
             case "member": {
-                file = FileUpload.fromData(ChartGenerator.buildMemberChart(startDate.toEpochSecond(), endDate.toEpochSecond(), timeUnitOpt.getAsString()), "member.png"); 
+                fileName = "member.png";
                 break;
             }
             case "automod": {
-                file = FileUpload.fromData(ChartGenerator.buildAutomodChart(startDate.toEpochSecond(), endDate.toEpochSecond(), timeUnitOpt.getAsString()), "auutomod.png"); 
+                fileName = "auutomod.png";
                 break;
             }
             case "spamkick": {
-                file = FileUpload.fromData(ChartGenerator.buildSpamkickLineChart(startDate.toEpochSecond(), endDate.toEpochSecond(), timeUnitOpt.getAsString()), "spamkick.png");
+                fileName = "spamkick.png";
                 break;
             }
             default: {
-                event.getHook().sendMessage("Unknown chart type").setEphemeral(true).queue();
+                event.reply("Unknown chart type").setEphemeral(true).queue();
                 return;
             }
         }
 
-        MessageCreateBuilder mb = new MessageCreateBuilder();
-        mb.addFiles(file);
-        event.getHook().sendMessage(mb.build()).queue();
+        event.deferReply().queue();
+        String chartFileName = fileName;
+
+        // Rendered on the chart threads, the reply is sent from there once it is ready
+        HifumiBot.getSelf().getScheduler().getChartRenderer().render(typeOpt.getAsString(), startDate.toEpochSecond(), endDate.toEpochSecond(), timeUnitOpt.getAsString())
+            .whenComplete((png, e) -> {
+                if (e != null) {
+                    if (e instanceof RejectedExecutionException) {
+                        event.getHook().sendMessage(":x: Too many charts are being drawn right now. Try again in a minute?").setEphemeral(true).queue();
+                    } else {
+                        Messaging.logException("CommandChartGen", "onExecute", e);
+                        event.getHook().sendMessage("An internal exception occurred and has been reported to admins.").setEphemeral(true).queue();
+                    }
+
+                    return;
+                }
+
+                if (png == null) {
+                    event.getHook().sendMessage("Failed to generate chart").setEphemeral(true).queue();
+                    return;
+                }
+
+                MessageCreateBuilder mb = new MessageCreateBuilder();
+                mb.addFiles(FileUpload.fromData(png, chartFileName));
+                event.getHook().sendMessage(mb.build()).queue();
+            });
     }
 
     @Override
@@ -0,0 +1,357 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.command.slash;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.config.ConfigManager;
+import net.pcsx2.hifumi.config.CrashParserConfig.Signature;
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.objects.CrashSignatureHitsObject;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
+import net.pcsx2.hifumi.util.CommandUtils;
+import net.pcsx2.hifumi.util.Messaging;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.components.actionrow.ActionRow;
+import net.dv8tion.jda.api.components.buttons.Button;
+import net.dv8tion.jda.api.components.buttons.ButtonStyle;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+
+public class CommandCrashLog extends AbstractSlashCommand {
+
+    private static final int SIGNATURES_PER_PAGE = 5;
+    private static final int BROWSE_HIT_DAYS = 30;
+    private static final int MAX_TREND_LINES = 25;
+
+    private ArrayList<MessageEmbed> signaturePages;
+
+    public CommandCrashLog() {
+        signaturePages = new ArrayList<MessageEmbed>();
+    }
+
+    @Override
+    public void onExecute(SlashCommandInteractionEvent event) {
+        event.deferReply(true).queue();
+
+        if (CommandUtils.replyIfBadSubcommand(event, "browse", "trends", "new", "update", "delete")) {
+            return;
+        }
+
+        switch (event.getSubcommandName()) {
+        case "browse":
+            browse(event);
+            break;
+        case "trends":
+            trends(event);
+            break;
+        case "new":
+            newSignature(event);
+            break;
+        case "update":
+            update(event);
+            break;
+        case "delete":
+            delete(event);
+            break;
+        }
+    }
+
+    private void signaturesChanged() {
+        ConfigManager.write(HifumiBot.getSelf().getCrashParserConfig());
+        HifumiBot.getSelf().rebuildCrashSignatureSet();
+        HifumiBot.getSelf().getParseResultCache().invalidate(Kind.CRASH);
+    }
+
+    private void rebuildSignaturePages() {
+        ArrayList<Signature> signatures = HifumiBot.getSelf().getCrashParserConfig().signatures;
+        HashMap<String, Long> hits = new HashMap<String, Long>();
+
+        for (CrashSignatureHitsObject hitsObj : Database.getCrashSignatureHits(BROWSE_HIT_DAYS)) {
+            hits.put(hitsObj.getName(), hitsObj.getRecentHits());
+        }
+
+        ArrayList<MessageEmbed> pages = new ArrayList<MessageEmbed>();
+        int pageCount = Math.max(1, (int) Math.ceil((double) signatures.size() / SIGNATURES_PER_PAGE));
+        EmbedBuilder eb = new EmbedBuilder();
+
+        for (Signature signature : signatures) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Matches: `").append(String.join("`, `", signature.toMatch)).append("`\n");
+            sb.append("Message: `").append(signature.message).append("`\n");
+            sb.append("Include line: `").append(signature.includeLine).append("`\n");
+            sb.append("Hits (last ").append(BROWSE_HIT_DAYS).append(" days): `").append(hits.getOrDefault(signature.name, 0L)).append("`");
+            eb.addField(signature.name, sb.toString(), false);
+
+            if (eb.getFields().size() >= SIGNATURES_PER_PAGE) {
+                addToPages(pages, eb, pageCount);
+                eb = new EmbedBuilder();
+            }
+        }
+
+        if (eb.getFields().size() > 0 || pages.isEmpty()) {
+            addToPages(pages, eb, pageCount);
+        }
+
+        signaturePages = pages;
+    }
+
+    @Override
+    public void handleButtonEvent(ButtonInteractionEvent event) {
+        try {
+            if (event.getMessage().getEmbeds().isEmpty()) {
+                event.getHook().sendMessage("It looks like the crash log signatures embed was deleted. Try using the crashlog command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            if (event.getMessage().getEmbeds().size() > 1) {
+                event.getHook().sendMessage("Embed error. Try using the crashlog command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            MessageEmbed embed = event.getMessage().getEmbeds().get(0);
+            String[] pageParts = embed.getFooter().getText().split(" / ");
+
+            if (pageParts.length != 2) {
+                event.getHook().sendMessage("Page error. Try using the crashlog command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            int currentPage = 1;
+
+            try {
+                currentPage = Integer.valueOf(pageParts[0]);
+            } catch (NumberFormatException e) {
+                event.getHook().sendMessage("Page number error. Try using the crashlog command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            String buttonValue = event.getComponentId().split(":")[0];
+
+            switch (buttonValue) {
+            case "crashlog_prev":
+                 currentPage--;
+                 break;
+            case "crashlog_next":
+                currentPage++;
+                break;
+            }
+
+            // Nothing browsed since a restart
+            if (signaturePages.isEmpty()) {
+                rebuildSignaturePages();
+            }
+
+            // Signatures may have been added or removed since this embed was sent
+            ArrayList<MessageEmbed> pages = signaturePages;
+
+            if (currentPage < 1) {
+                currentPage = 1;
+            } else if (currentPage > pages.size()) {
+                currentPage = pages.size();
+            }
+
+            event.getHook().editOriginalEmbeds(pages.get(currentPage - 1)).setComponents(
+                ActionRow.of(
+                    Button.of(ButtonStyle.SECONDARY, "crashlog_prev:" + event.getMember().getId(), "Previous"),
+                    Button.of(ButtonStyle.PRIMARY, "crashlog_next:" + event.getMember().getId(), "Next")
+                )
+            ).queue();
+        } catch (Exception e) {
+            event.getHook().editOriginal("An internal error occurred, aborting.").queue();
+            Messaging.logException("CommandCrashLog", "onButtonEvent", e);
+        }
+    }
+
+    private void addToPages(ArrayList<MessageEmbed> pages, EmbedBuilder eb, int pageCount) {
+        eb.setTitle("Crash Log Parser Signatures");
+        eb.setDescription("A signature matches any line of a crash log containing one of its match strings, ignoring case.\n");
+        eb.appendDescription("============================ ============================");
+        eb.setFooter((pages.size() + 1) + " / " + pageCount);
+        pages.add(eb.build());
+    }
+
+    private void browse(SlashCommandInteractionEvent event) {
+        // Built fresh each time so the hit counts are current
+        rebuildSignaturePages();
+        event.getHook().sendMessageEmbeds(signaturePages.get(0)).setComponents(
+            ActionRow.of(
+                Button.of(ButtonStyle.SECONDARY, "crashlog_prev:" + event.getMember().getId(), "Previous"),
+                Button.of(ButtonStyle.PRIMARY, "crashlog_next:" + event.getMember().getId(), "Next")
+            )
+        ).queue();
+    }
+
+    private void trends(SlashCommandInteractionEvent event) {
+        OptionMapping daysOpt = event.getOption("days");
+        int days = daysOpt != null ? daysOpt.getAsInt() : BROWSE_HIT_DAYS;
+        ArrayList<CrashSignatureHitsObject> hits = Database.getCrashSignatureHits(days);
+
+        EmbedBuilder eb = new EmbedBuilder();
+        eb.setTitle("Crash Log Signature Trends");
+        eb.setFooter("Hits in the last " + days + " days (the " + days + " days before that)");
+
+        if (hits.isEmpty()) {
+            eb.setDescription("No signatures were hit in this time.");
+        }
+
+        for (int i = 0; i < hits.size() && i < MAX_TREND_LINES; i++) {
+            CrashSignatureHitsObject hitsObj = hits.get(i);
+            String trend = hitsObj.getRecentHits() > hitsObj.getPreviousHits() ? ":arrow_up:" : hitsObj.getRecentHits() < hitsObj.getPreviousHits() ? ":arrow_down:" : ":left_right_arrow:";
+            eb.appendDescription(trend + " `" + hitsObj.getName() + "`: " + hitsObj.getRecentHits() + " (" + hitsObj.getPreviousHits() + ")\n");
+        }
+
+        event.getHook().sendMessageEmbeds(eb.build()).queue();
+    }
+
+    private void newSignature(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name", "match", "message")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+        ArrayList<String> toMatch = splitMatches(event.getOption("match").getAsString());
+        String message = event.getOption("message").getAsString();
+        OptionMapping includeLineOpt = event.getOption("include-line");
+
+        if (findSignature(name) != null) {
+            event.getHook().sendMessage("A signature named `" + name + "` already exists").setEphemeral(true).queue();
+            return;
+        }
+
+        if (toMatch.isEmpty()) {
+            event.getHook().sendMessage("A signature needs at least one string to match").setEphemeral(true).queue();
+            return;
+        }
+
+        Signature signature = HifumiBot.getSelf().getCrashParserConfig().new Signature();
+        signature.name = name;
+        signature.toMatch = toMatch;
+        signature.message = message;
+        signature.includeLine = includeLineOpt != null && includeLineOpt.getAsBoolean();
+
+        HifumiBot.getSelf().getCrashParserConfig().signatures.add(signature);
+        signaturesChanged();
+
+        event.getHook().sendMessage("Added signature `" + name + "`").setEphemeral(true).queue();
+    }
+
+    private void update(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+        Signature signature = findSignature(name);
+
+        if (signature == null) {
+            event.getHook().sendMessage("No signature `" + name + "` found").setEphemeral(true).queue();
+            return;
+        }
+
+        OptionMapping matchOpt = event.getOption("match");
+
+        if (matchOpt != null) {
+            ArrayList<String> toMatch = splitMatches(matchOpt.getAsString());
+
+            if (toMatch.isEmpty()) {
+                event.getHook().sendMessage("A signature needs at least one string to match").setEphemeral(true).queue();
+                return;
+            }
+
+            signature.toMatch = toMatch;
+        }
+
+        OptionMapping messageOpt = event.getOption("message");
+
+        if (messageOpt != null) {
+            signature.message = messageOpt.getAsString();
+        }
+
+        OptionMapping includeLineOpt = event.getOption("include-line");
+
+        if (includeLineOpt != null) {
+            signature.includeLine = includeLineOpt.getAsBoolean();
+        }
+
+        signaturesChanged();
+        event.getHook().sendMessage("Updated signature `" + name + "`").setEphemeral(true).queue();
+    }
+
+    private void delete(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+        ArrayList<Signature> signatures = HifumiBot.getSelf().getCrashParserConfig().signatures;
+
+        for (int i = 0; i < signatures.size(); i++) {
+            if (signatures.get(i).name.equals(name)) {
+                signatures.remove(i);
+                signaturesChanged();
+                event.getHook().sendMessage("Deleted signature `" + name + "`").setEphemeral(true).queue();
+                return;
+            }
+        }
+
+        event.getHook().sendMessage("No signature `" + name + "` found").setEphemeral(true).queue();
+    }
+
+    private Signature findSignature(String name) {
+        for (Signature signature : HifumiBot.getSelf().getCrashParserConfig().signatures) {
+            if (signature.name.equals(name)) {
+                return signature;
+            }
+        }
+
+        return null;
+    }
+
+    private ArrayList<String> splitMatches(String matches) {
+        ArrayList<String> ret = new ArrayList<String>();
+
+        for (String match : matches.split(",")) {
+            if (!match.isBlank()) {
+                ret.add(match.strip());
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    protected CommandData defineSlashCommand() {
+        SubcommandData browse = new SubcommandData("browse", "Browse an interactive list of all crash log parser signatures");
+        SubcommandData trends = new SubcommandData("trends", "Show which crash log signatures are being hit more or less often")
+                .addOptions(new OptionData(OptionType.INTEGER, "days", "(Default " + BROWSE_HIT_DAYS + ") Number of days to compare with the same number of days before", false).setRequiredRange(1, 365));
+        SubcommandData newSignature = new SubcommandData("new", "Create a crash log parser signature")
+                .addOption(OptionType.STRING, "name", "Unique name of the crash log signature", true)
+                .addOption(OptionType.STRING, "match", "Comma separated text to search for in each line of the crash log, such as DLL names", true)
+                .addOption(OptionType.STRING, "message", "Message to print in the crash log parser results, if this signature is matched.", true)
+                .addOption(OptionType.BOOLEAN, "include-line", "(Default false) Print the matching line under the message", false);
+        SubcommandData update = new SubcommandData("update", "Update a crash log parser signature")
+                .addOption(OptionType.STRING, "name", "Unique name of the crash log signature", true)
+                .addOption(OptionType.STRING, "match", "Comma separated text to search for in each line of the crash log, such as DLL names")
+                .addOption(OptionType.STRING, "message", "Message to print in the crash log parser results, if this signature is matched.")
+                .addOption(OptionType.BOOLEAN, "include-line", "Print the matching line under the message");
+        SubcommandData delete = new SubcommandData("delete", "Delete a crash log parser signature")
+                .addOption(OptionType.STRING, "name", "Name of the crash log signature to delete", true);
+        return Commands.slash("crashlog", "Configure crash log parser signatures")
+                .addSubcommands(browse, trends, newSignature, update, delete)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER));
+    }
+}
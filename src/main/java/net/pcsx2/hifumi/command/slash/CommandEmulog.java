@@ -3,11 +3,14 @@
 package net.pcsx2.hifumi.command.slash;
 
 import java.util.ArrayList;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
 import net.pcsx2.hifumi.util.CommandUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
@@ -61,6 +64,13 @@ public class CommandEmulog extends AbstractSlashCommand {
         }
     }
 
+    private void rulesChanged() {
+        ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
+        HifumiBot.getSelf().rebuildEmulogRuleSet();
+        HifumiBot.getSelf().getParseResultCache().invalidate(Kind.EMULOG);
+        rebuildRulePages();
+    }
+
     private void rebuildRulePages() {
         rulePages = new ArrayList<MessageEmbed>();
         int pageCount = (int) Math.ceil((double) HifumiBot.getSelf().getEmulogParserConfig().rules.size() / RULES_PER_PAGE);
@@ -172,6 +182,10 @@ public class CommandEmulog extends AbstractSlashCommand {
         String message = event.getOption("message").getAsString();
         Integer severity = event.getOption("severity").getAsInt();
         
+        if (replyIfBadPattern(event, match)) {
+            return;
+        }
+        
         Rule rule = HifumiBot.getSelf().getEmulogParserConfig().new Rule(); 
         rule.name = name;
         rule.toMatch = match;
@@ -179,8 +193,7 @@ public class CommandEmulog extends AbstractSlashCommand {
         rule.severity = severity;
         
         HifumiBot.getSelf().getEmulogParserConfig().rules.add(rule);
-        ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
-        rebuildRulePages();
+        rulesChanged();
         
         event.getHook().sendMessage("Added rule `" + name + "`").setEphemeral(true).queue();
     }
@@ -208,6 +221,10 @@ public class CommandEmulog extends AbstractSlashCommand {
         OptionMapping matchOpt = event.getOption("match");
 
         if (matchOpt != null) {
+            if (replyIfBadPattern(event, matchOpt.getAsString())) {
+                return;
+            }
+            
             rule.toMatch = matchOpt.getAsString();
         }
         
@@ -223,8 +240,7 @@ public class CommandEmulog extends AbstractSlashCommand {
             rule.severity = severityOpt.getAsInt();
         }
         
-        ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
-        rebuildRulePages();
+        rulesChanged();
         event.getHook().sendMessage("Updated rule `" + name + "`").setEphemeral(true).queue();
     }
     
@@ -239,8 +255,7 @@ public class CommandEmulog extends AbstractSlashCommand {
         for (int i = 0; i < rules.size(); i++) {
             if (rules.get(i).name.equals(name)) {
                 rules.remove(i);
-                ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
-                rebuildRulePages();
+                rulesChanged();
                 event.getHook().sendMessage("Deleted rule `" + name + "`").setEphemeral(true).queue();
                 return;
             }
@@ -249,6 +264,17 @@ public class CommandEmulog extends AbstractSlashCommand {
         event.getHook().sendMessage("No rule `" + name + "` found").setEphemeral(true).queue();
     }
     
+    private boolean replyIfBadPattern(SlashCommandInteractionEvent event, String match) {
+        try {
+            // Compiled the same way the parser will
+            Pattern.compile(match.toLowerCase());
+            return false;
+        } catch (PatternSyntaxException e) {
+            event.getHook().sendMessage("That match is not a valid regular expression: `" + e.getDescription() + "`").setEphemeral(true).queue();
+            return true;
+        }
+    }
+    
     @Override
     protected CommandData defineSlashCommand() {
         SubcommandData browse = new SubcommandData("browse", "Browse an interactive list of all emulog parser rules");
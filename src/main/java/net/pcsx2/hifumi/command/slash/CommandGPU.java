@@ -2,7 +2,8 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -10,18 +11,24 @@ import net.pcsx2.hifumi.GpuIndex;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.permissions.PermissionLevel;
-import net.pcsx2.hifumi.util.SimpleSearch;
+import net.pcsx2.hifumi.util.CommandUtils;
+import net.pcsx2.hifumi.util.SimpleSearch.Result;
 
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 public class CommandGPU extends AbstractSlashCommand {
     
+    private static final int MAX_RESULTS = 5;
+
     private enum GPURating {    
         x8NATIVE("8x Native (~5K)", 13030), 
         x6NATIVE("6x Native (~4K)", 8660), 
@@ -73,30 +80,16 @@ public class CommandGPU extends AbstractSlashCommand {
             return;
         }
 
-        HashMap<String, Float> results = SimpleSearch.search(gpuIndex.getAllGpus(), StringUtils.join(name, " "));
+        List<Result> results = gpuIndex.getSearch().search(StringUtils.join(name, " "), MAX_RESULTS);
         
         if (results.size() > 0) {
             eb.setAuthor("Passmark GPU Performance", "https://www.videocardbenchmark.net/");
             eb.setTitle("Search results for '" + StringUtils.join(name, " ").trim() + "'");
             eb.setDescription(":warning: Some games may have unusually high GPU requirements! If in doubt, ask!");
-            String highestName = null;
-            float highestWeight = 0;
-
-            while (!results.isEmpty() && eb.getFields().size() < 5) {
-                for (String gpuName : results.keySet()) {
-                    if (results.get(gpuName) > highestWeight) {
-                        highestName = gpuName;
-                        highestWeight = results.get(gpuName);
-                    }
-                }
-
-                results.remove(highestName);
-                highestWeight = 0;
-                int highestScore = -1;
 
-                try {
-                    highestScore = Integer.parseInt(gpuIndex.getGpuRating(highestName).replaceAll("[,. ]", ""));
-                } catch (NumberFormatException e) { }
+            for (Result result : results) {
+                String gpuName = result.name();
+                int highestScore = gpuIndex.getRating(gpuName).orElse(-1);
 
                 String highestScoreDescription = "";
 
@@ -107,7 +100,7 @@ public class CommandGPU extends AbstractSlashCommand {
                     }
                 }
 
-                eb.addField(highestName, highestScore + " - " + highestScoreDescription, false);
+                eb.addField(gpuName, highestScore + " - " + highestScoreDescription, false);
             }
 
             eb.setColor(0x00ff00);
@@ -119,10 +112,26 @@ public class CommandGPU extends AbstractSlashCommand {
         event.replyEmbeds(eb.build()).queue();
     }
 
+    @Override
+    public void handleAutoCompleteEvent(CommandAutoCompleteInteractionEvent event) {
+        if (!event.getFocusedOption().getName().equals("name")) {
+            return;
+        }
+
+        List<String> names = HifumiBot.getSelf().getGpuIndex().getCompletions().complete(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES, null);
+        ArrayList<Command.Choice> choices = new ArrayList<Command.Choice>(names.size());
+
+        for (String name : names) {
+            choices.add(CommandUtils.newChoice(name, name));
+        }
+
+        event.replyChoices(choices).queue();
+    }
+
     @Override
     protected CommandData defineSlashCommand() {
         return Commands.slash("gpu", "Look up the rating of a GPU")
-                .addOption(OptionType.STRING, "name", "Name of the GPU to look up", true)
+                .addOption(OptionType.STRING, "name", "Name of the GPU to look up", true, true)
                 .setDefaultPermissions(DefaultMemberPermissions.ENABLED);
     }
 }
@@ -3,21 +3,19 @@
 package net.pcsx2.hifumi.command.slash;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.similarity.FuzzyScore;
 
+import net.pcsx2.hifumi.GameEntry;
+import net.pcsx2.hifumi.GameIndex;
+import net.pcsx2.hifumi.GameSearchIndex.Result;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.command.PrefixIndex;
+import net.pcsx2.hifumi.util.CommandUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -25,17 +23,22 @@ import net.dv8tion.jda.api.components.selections.SelectMenu;
 import net.dv8tion.jda.api.components.selections.SelectOption;
 import net.dv8tion.jda.api.components.selections.StringSelectMenu;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 public class CommandGameIndex extends AbstractSlashCommand {
 
     private static final Pattern GAMEINDEX_SERIAL_PATTERN = Pattern.compile("^[A-Z]{4}-[0-9]{5}$");
+    // Four letters then a digit is far more likely the start of a serial than of a name
+    private static final Pattern PARTIAL_SERIAL_PATTERN = Pattern.compile("^\\s*([A-Za-z]{4})[-_ ]?(?=[0-9])");
     
     @Override
     public void onExecute(SlashCommandInteractionEvent event) {
@@ -65,105 +68,43 @@ public class CommandGameIndex extends AbstractSlashCommand {
             MessageEmbed embed = HifumiBot.getSelf().getGameIndex().present(normalized);
             event.replyEmbeds(embed).queue();
         } else {
-            event.deferReply().queue();
-            event.getHook().editOriginal(":information_source: Checking GameIndex.yaml for game by name, this might take a moment...").queue();
-            FuzzyScore fuzz = new FuzzyScore(Locale.US);
-
-            HashMap<String, Integer> highScores = new HashMap<String, Integer>();
-
-            Map<String, Object> mainGameIndexMap = HifumiBot.getSelf().getGameIndex().getMap();
-
-            for (String serial : mainGameIndexMap.keySet()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> gameEntry = (Map<String, Object>) mainGameIndexMap.get(serial);
-                String name = (String) gameEntry.get("name");            
-                Integer nameScore = fuzz.fuzzyScore(normalized, name.toUpperCase());
-                
-                // Compare name-en if present
-                if (gameEntry.containsKey("name-en")) {
-                    String nameEnglish = (String) gameEntry.get("name-en");
-                    Integer nameEnglishScore = fuzz.fuzzyScore(normalized, nameEnglish);
-
-                    // If name-en was better, use it instead.
-                    if (nameEnglishScore > nameScore) {
-                        nameScore = nameEnglishScore;
-                    }
-                }
-
-                // If score is horribly low, move on.
-                if (nameScore < 10) {
-                    continue;
-                }
-
-                // If at capacity already, compare scores. If higher score, make room. Else, skip.
-                if (highScores.size() >= SelectMenu.OPTIONS_MAX_AMOUNT) {
-                    String lowestSerial = null;
-                    Integer lowestScore = Integer.MAX_VALUE;
-
-                    for (String serialAgain : highScores.keySet()) {
-                        Integer thisScore = highScores.get(serialAgain);
-
-                        if (thisScore < lowestScore) {
-                            lowestSerial = serialAgain;
-                            lowestScore = thisScore;
-                        }
-                    }
-
-                    if (nameScore > lowestScore) {
-                        highScores.remove(lowestSerial);
-                    } else {
-                        continue;
-                    }
-                }
-
-                highScores.put(serial, nameScore);
-            }
+            OptionMapping regionOpt = event.getOption("region");
+            String region = regionOpt != null ? regionOpt.getAsString() : null;
+            List<Result> results = HifumiBot.getSelf().getGameIndex().getSearchIndex().search(searchOpt.getAsString(), region, SelectMenu.OPTIONS_MAX_AMOUNT);
 
-            if (highScores.isEmpty()) {
-                event.getHook().sendMessage("No results found, please check spelling and refine your search, or use a serial number to search by.").queue();
+            if (results.isEmpty()) {
+                event.reply("No results found, please check spelling and refine your search, or use a serial number to search by.").queue();
                 return;
             }
 
-            // Sort the high scores so we can present them from closest to farthest.
-            ArrayList<Entry<String, Integer>> entryList = new ArrayList<Entry<String, Integer>>(highScores.entrySet());
-            entryList.sort(Entry.comparingByValue(Comparator.reverseOrder()));
-            LinkedHashMap<String, Integer> sortedHighScores = new LinkedHashMap<String, Integer>();
-
-            for (Entry<String, Integer> entry : entryList) {
-                sortedHighScores.put(entry.getKey(), entry.getValue());
-            }
-
-            // Cull anything that isn't at least half the score of the highest result
-            Iterator<Entry<String, Integer>> iter = sortedHighScores.entrySet().iterator();
-            Integer highestScore = iter.next().getValue();
-
-            while (iter.hasNext()) {
-                Entry<String, Integer> entry = iter.next();
-                Integer score = entry.getValue();
+            // If anything contains the search outright, only show those. Otherwise,
+            // cull anything that isn't at least half the score of the highest result.
+            Result best = results.get(0);
+            ArrayList<GameEntry> gameEntries = new ArrayList<GameEntry>();
 
-                if (score < Math.ceil(highestScore / 2)) {
-                    iter.remove();
+            for (Result result : results) {
+                if (best.containsQuery() ? result.containsQuery() : result.score() >= best.score() / 2) {
+                    gameEntries.add(result.entry());
                 }
             }
 
             StringSelectMenu.Builder selectMenu = StringSelectMenu.create("gameindex:select:" + event.getId() + ":" + event.getUser().getId());
             
-            for (String serial : sortedHighScores.keySet()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> gameEntry = (Map<String, Object>) mainGameIndexMap.get(serial);
+            for (GameEntry gameEntry : gameEntries) {
+                String serial = gameEntry.getSerial();
                 String label = serial + " / ";
 
-                if (gameEntry.containsKey("name-en") && preferEnglish) {
-                    label += StringUtils.abbreviate((String) gameEntry.get("name-en"), 80);
+                if (gameEntry.getNameEn() != null && preferEnglish) {
+                    label += StringUtils.abbreviate(gameEntry.getNameEn(), 80);
                 } else {
-                    label += StringUtils.abbreviate(((String) gameEntry.get("name")), 80);
+                    label += StringUtils.abbreviate(gameEntry.getName(), 80);
                 }
 
                 selectMenu.addOption(label, serial);
             }
 
             selectMenu.setPlaceholder("Select a game");
-            event.getHook().editOriginal("Search results are below; select the entry which matches the desired game and region:")
+            event.reply("Search results are below; select the entry which matches the desired game and region:")
                 .setComponents(ActionRow.of(selectMenu.build()))
                 .queue();
         }
@@ -172,11 +113,44 @@ public class CommandGameIndex extends AbstractSlashCommand {
     @Override
     protected CommandData defineSlashCommand() {
         return Commands.slash("gameindex", "Look up information stored in GameIndex.yaml (otherwise known as 'GameDB')")
-                .addOption(OptionType.STRING, "search", "Serial number or name to search for (e.g. 'SLUS-12345' or 'my game name')", true)
+                .addOption(OptionType.STRING, "search", "Serial number or name to search for (e.g. 'SLUS-12345' or 'my game name')", true, true)
                 .addOption(OptionType.BOOLEAN, "prefer-english", "(Default false) Prefer English names for non-English results, when available", false)
+                .addOptions(CommandUtils.newGameRegionOption())
                 .setDefaultPermissions(DefaultMemberPermissions.ENABLED);
     }
 
+    @Override
+    public void handleAutoCompleteEvent(CommandAutoCompleteInteractionEvent event) {
+        if (!event.getFocusedOption().getName().equals("search")) {
+            return;
+        }
+
+        String query = event.getFocusedOption().getValue();
+        OptionMapping preferEnglishOpt = event.getOption("prefer-english");
+        boolean preferEnglish = preferEnglishOpt != null && preferEnglishOpt.getAsBoolean();
+        OptionMapping regionOpt = event.getOption("region");
+        String region = regionOpt != null ? regionOpt.getAsString() : null;
+        GameIndex gameIndex = HifumiBot.getSelf().getGameIndex();
+        PrefixIndex<GameEntry> completions = gameIndex.getNameCompletions();
+        Matcher serialMatcher = PARTIAL_SERIAL_PATTERN.matcher(query);
+
+        if (serialMatcher.find()) {
+            completions = gameIndex.getSerialCompletions();
+            // Serials are indexed as "slus 12345", so put back a separator left out of "SLUS12"
+            query = serialMatcher.group(1) + " " + query.substring(serialMatcher.end());
+        }
+
+        ArrayList<Command.Choice> choices = new ArrayList<Command.Choice>(OptionData.MAX_CHOICES);
+
+        // Filled in with the serial, so picking one goes straight to its entry
+        for (GameEntry gameEntry : completions.complete(query, OptionData.MAX_CHOICES, entry -> entry.isInRegion(region))) {
+            String name = gameEntry.getNameEn() != null && preferEnglish ? gameEntry.getNameEn() : gameEntry.getName();
+            choices.add(CommandUtils.newChoice(gameEntry.getSerial() + " / " + name, gameEntry.getSerial()));
+        }
+
+        event.replyChoices(choices).queue();
+    }
+
     @Override 
     public void handleStringSelectEvent(StringSelectInteractionEvent event) {
         String componentId = event.getComponentId();
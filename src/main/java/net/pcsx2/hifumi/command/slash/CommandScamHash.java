@@ -3,10 +3,12 @@
 package net.pcsx2.hifumi.command.slash;
 
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
@@ -15,9 +17,12 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.ScamHashObject;
+import net.pcsx2.hifumi.util.AttachmentUtils;
+import net.pcsx2.hifumi.util.AttachmentUtils.ImageHashes;
 
 public class CommandScamHash extends AbstractSlashCommand {
 
@@ -33,32 +38,79 @@ public class CommandScamHash extends AbstractSlashCommand {
     public void onExecute(SlashCommandInteractionEvent event) {
         switch (event.getSubcommandName()) {
             case "add" -> {
+                event.deferReply(true).queue();
                 OptionMapping shaOpt = event.getOption("sha3-256");
+                OptionMapping imageOpt = event.getOption("image");
                 OptionMapping descriptionOpt = event.getOption("description");
                 
-                if (shaOpt == null || descriptionOpt == null) {
-                    event.reply("Missing required params").setEphemeral(true).queue();
+                if ((shaOpt == null && imageOpt == null) || descriptionOpt == null) {
+                    event.getHook().sendMessage("Missing required params, provide a description and either a SHA3-256 sum or an image").setEphemeral(true).queue();
                     return;
                 }
                 
-                String sha256 = shaOpt.getAsString();
-                Matcher m = shaPattern.matcher(sha256);
+                String sha256 = null;
+                OptionalLong dHash = OptionalLong.empty();
+                
+                if (shaOpt != null) {
+                    sha256 = shaOpt.getAsString();
+                    Matcher m = shaPattern.matcher(sha256);
+                    
+                    if (!m.matches()) {
+                        event.getHook().sendMessage("Not a valid SHA3-256 sum").setEphemeral(true).queue();
+                        return;
+                    }
+                }
                 
-                if (!m.matches()) {
-                    event.reply("Not a valid SHA3-256 sum").setEphemeral(true).queue();
-                    return;
+                if (imageOpt != null) {
+                    Attachment image = imageOpt.getAsAttachment();
+                    
+                    if (!image.isImage()) {
+                        event.getHook().sendMessage("Attachment is not an image").setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    Optional<ImageHashes> hashesOpt = AttachmentUtils.generateImageHashes(image);
+                    
+                    if (hashesOpt.isEmpty()) {
+                        event.getHook().sendMessage("Could not read the image, it may be larger than " + (AttachmentUtils.MAX_HASH_BYTES / 1024 / 1024) + " MB").setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    if (sha256 != null && !sha256.equalsIgnoreCase(hashesOpt.get().sha256())) {
+                        event.getHook().sendMessage("The image's SHA3-256 sum is " + hashesOpt.get().sha256() + ", which does not match the sum given").setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    sha256 = hashesOpt.get().sha256();
+                    dHash = hashesOpt.get().dHash();
                 }
                 
                 Optional<ScamHashObject> existing = Database.getScamHash(sha256);
                 
                 if (existing.isPresent()) {
-                    event.reply("Matching hash already exists, use deactivate or reactivate to make changes").setEphemeral(true).queue();
+                    if (dHash.isPresent() && existing.get().getDHash().isEmpty()) {
+                        Database.updateScamHashDHash(sha256, dHash.getAsLong());
+                        HifumiBot.getSelf().getScamHashIndex().refresh();
+                        event.getHook().sendMessage("Matching hash already exists, added a perceptual hash to it so edited copies of the image will match too").setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    event.getHook().sendMessage("Matching hash already exists, use deactivate or reactivate to make changes").setEphemeral(true).queue();
                     return;
                 }
                 
                 String description = descriptionOpt.getAsString();
-                Database.insertScamHash(sha256, description);
-                event.reply("Added SHA3-256 sum").setEphemeral(true).queue();
+                Database.insertScamHash(sha256, description, dHash);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
+                
+                if (dHash.isPresent()) {
+                    event.getHook().sendMessage("Added SHA3-256 sum " + sha256 + " with a perceptual hash, edited copies of the image will match too").setEphemeral(true).queue();
+                } else if (imageOpt != null) {
+                    event.getHook().sendMessage("Added SHA3-256 sum " + sha256 + ". The image is too plain for a perceptual hash, only exact copies will match").setEphemeral(true).queue();
+                } else {
+                    event.getHook().sendMessage("Added SHA3-256 sum " + sha256 + ". Add it with an image instead to also match edited copies").setEphemeral(true).queue();
+                }
+                
                 break;
             }
             case "deactivate" -> {
@@ -78,6 +130,7 @@ public class CommandScamHash extends AbstractSlashCommand {
                 }
                 
                 Database.updateScamHash(sha256, false);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
                 event.reply("Deactivated SHA3-256 sum " + sha256).setEphemeral(true).queue();
                 break;
             }
@@ -100,6 +153,7 @@ public class CommandScamHash extends AbstractSlashCommand {
                 
                 String description = descriptionOpt.getAsString();
                 Database.updateScamHash(sha256, true, description);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
                 event.reply("Reactivated SHA3-256 sum " + sha256).setEphemeral(true).queue();
                 break;
             }
@@ -149,9 +203,11 @@ public class CommandScamHash extends AbstractSlashCommand {
     protected CommandData defineSlashCommand() {
         OptionData sha256 = new OptionData(OptionType.STRING, "sha3-256", "SHA-256 sum of the image file", true);
         OptionData description = new OptionData(OptionType.STRING, "description", "A text descriptor of what the image content is", true);
+        OptionData addSha256 = new OptionData(OptionType.STRING, "sha3-256", "SHA-256 sum of the image file, not needed if the image is attached", false);
+        OptionData image = new OptionData(OptionType.ATTACHMENT, "image", "The image itself, so that edited copies of it are matched too", false);
         
-        SubcommandData add = new SubcommandData("add", "Add a new hash in SHA3-256 format")
-                .addOptions(sha256, description);
+        SubcommandData add = new SubcommandData("add", "Add a new hash in SHA3-256 format, or from an image")
+                .addOptions(description, addSha256, image);
         
         SubcommandData deactivate = new SubcommandData("deactivate", "Deactivate a hash so it will no longer trigger")
                 .addOptions(sha256);
@@ -2,29 +2,32 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-
-import org.apache.commons.lang3.Strings;
+import java.util.ArrayList;
+import java.util.List;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.pcsx2.hifumi.GameEntry;
+import net.pcsx2.hifumi.GameSearchIndex;
+import net.pcsx2.hifumi.GameSearchIndex.Result;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.util.CommandUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class CommandSerial extends AbstractSlashCommand {
 
-    @SuppressWarnings("unchecked")
+    private static final int MAX_RESULTS = 25;
+
     @Override
     public void onExecute(SlashCommandInteractionEvent event) {
         OptionMapping opt = event.getOption("name");
@@ -41,62 +44,43 @@ public class CommandSerial extends AbstractSlashCommand {
         }
 
         String normalized = opt.getAsString().toLowerCase();
-
-        event.deferReply().setEphemeral(true).queue();
-        event.getHook().editOriginal(":information_source: Checking GameIndex.yaml for serials matching name `" + normalized + "`, this might take a moment...").queue();
+        OptionMapping regionOpt = event.getOption("region");
+        String region = regionOpt != null ? regionOpt.getAsString() : null;
+        GameSearchIndex searchIndex = HifumiBot.getSelf().getGameIndex().getSearchIndex();
+        List<GameEntry> results = searchIndex.findContaining(normalized, region);
+        boolean fuzzy = false;
         
-        Map<String, Object> indexMap = HifumiBot.getSelf().getGameIndex().getMap();
-        HashMap<String, LinkedHashMap<String, String>> results = new HashMap<String, LinkedHashMap<String, String>>();
-
-        for (String serial : indexMap.keySet()) {
-            Map<String, Object> entryMap = (Map<String, Object>) indexMap.get(serial);
-
-            String name = ((String) entryMap.get("name"));
-            String nameSort = null;
-            String nameEn = null;
-            String region = ((String) entryMap.get("region"));
+        // Nothing contains it literally, it might be misspelled
+        if (results.isEmpty()) {
+            fuzzy = true;
+            results = new ArrayList<GameEntry>();
             
-            if (entryMap.containsKey("name-sort")) {
-                nameSort = ((String) entryMap.get("name-sort"));
-            }
-
-            if (entryMap.containsKey("name-en")) {
-                nameEn = ((String) entryMap.get("name-en"));
-            }
-            
-            if (Strings.CI.contains(name, normalized) || Strings.CI.contains(nameSort, normalized) || Strings.CI.contains(nameEn, normalized)) {
-                LinkedHashMap<String, String> attributes = new LinkedHashMap<String, String>();
-                attributes.put("Name", name);
-
-                if (nameEn != null) {
-                    attributes.put("EN", nameEn);
-                }
-                
-                attributes.put("Region", region);
-                
-                results.put(serial, attributes);
+            for (Result result : searchIndex.search(normalized, region, MAX_RESULTS)) {
+                results.add(result.entry());
             }
         }
         
         EmbedBuilder eb = new EmbedBuilder();
         eb.setTitle("Search Results for \"" + normalized + "\"");
-        Set<String> serials = results.keySet();
-        TreeSet<String> orderedSerials = new TreeSet<String>(serials);
         
-        for (String serial : orderedSerials) {
+        if (results.isEmpty()) {
+            eb.setDescription("No results found, please check spelling and refine your search.");
+        } else if (fuzzy) {
+            eb.setDescription("No names contain that exactly, these are the closest matches.");
+        } else if (results.size() > MAX_RESULTS) {
+            eb.setDescription("More than " + MAX_RESULTS + " results found. Consider using a more specific search term if what you need is not here.");
+        }
+        
+        for (GameEntry entry : results.subList(0, Math.min(MAX_RESULTS, results.size()))) {
             StringBuilder sb = new StringBuilder();
-            LinkedHashMap<String, String> attributes = results.get(serial);
+            sb.append("* ").append(entry.getName()).append("\n");
 
-            for (String key : attributes.keySet()) {
-                sb.append("* ").append(attributes.get(key)).append("\n");
+            if (entry.getNameEn() != null) {
+                sb.append("* ").append(entry.getNameEn()).append("\n");
             }
 
-            eb.addField(serial, sb.toString().trim(), true);
-
-            if (eb.getFields().size() >= 25) {
-                eb.setDescription("More than 25 results found. Consider using a more specific search term if what you need is not here.");
-                break;
-            }
+            sb.append("* ").append(entry.getRegion());
+            eb.addField(entry.getSerial(), sb.toString(), true);
         }
         
         MessageEmbed embed = null;
@@ -107,13 +91,32 @@ public class CommandSerial extends AbstractSlashCommand {
             embed = new EmbedBuilder().setTitle("Too many results").setDescription("Your search returned too many results, it cannot be displayed. Please use a more concise search term.").build();
         }
 
-        event.getHook().editOriginal("Done!").setEmbeds(embed).queue();
+        event.replyEmbeds(embed).setEphemeral(true).queue();
+    }
+
+    @Override
+    public void handleAutoCompleteEvent(CommandAutoCompleteInteractionEvent event) {
+        if (!event.getFocusedOption().getName().equals("name")) {
+            return;
+        }
+
+        OptionMapping regionOpt = event.getOption("region");
+        String region = regionOpt != null ? regionOpt.getAsString() : null;
+        List<GameEntry> entries = HifumiBot.getSelf().getGameIndex().getNameCompletions().complete(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES, entry -> entry.isInRegion(region));
+        ArrayList<Command.Choice> choices = new ArrayList<Command.Choice>(entries.size());
+
+        for (GameEntry entry : entries) {
+            choices.add(CommandUtils.newChoice(entry.getName() + " (" + entry.getRegion() + ")", entry.getName()));
+        }
+
+        event.replyChoices(choices).queue();
     }
 
     @Override
     protected CommandData defineSlashCommand() {
         return Commands.slash("serial", "Look up serial numbers by providing part of a game name")
-                .addOption(OptionType.STRING, "name", "Part of a game name to search for. Search will do a literal string compare.", true)
+                .addOption(OptionType.STRING, "name", "Part of a game name to search for. Falls back to the closest names if none contain it.", true, true)
+                .addOptions(CommandUtils.newGameRegionOption())
                 .setDefaultPermissions(DefaultMemberPermissions.ENABLED);
     }
 }
@@ -27,74 +27,72 @@ import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
 public class CommandServerMetadata extends AbstractSlashCommand {
 
+    private static final int CHANNELS_PER_PAGE = 8;
+
     @Override 
     public void onExecute(SlashCommandInteractionEvent event) {
         event.deferReply().setEphemeral(true).queue();
 
-        ArrayList<MessageEmbed> pages = new ArrayList<MessageEmbed>();
-        Guild server = HifumiBot.getSelf().getJDA().getGuildById(event.getGuild().getIdLong());
+        long serverId = event.getGuild().getIdLong();
+        BrowsableEmbed embed = new BrowsableEmbed(this.defineSlashCommand().getName(), event.getIdLong(), event.getUser().getIdLong(), index -> renderPage(serverId, index));
 
-        // General info page
-        EmbedBuilder generalEmbedBuilder;
-        generalEmbedBuilder = new EmbedBuilder();
-        generalEmbedBuilder.setColor(Color.BLUE);
-        generalEmbedBuilder.setTitle("General Info");
-        generalEmbedBuilder.setImage(server.getIconUrl());
-        generalEmbedBuilder.addField("Server ID", server.getId(), true);
-        generalEmbedBuilder.addField("Server Name", server.getName(), true);
-        generalEmbedBuilder.addField("Created", server.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
-        generalEmbedBuilder.addField("Members", String.valueOf(server.getMemberCount()), true);
-        pages.add(generalEmbedBuilder.build());
-
-        // Channel list page
-        List<GuildChannel> channels = server.getChannels();
+        Optional<MessageEmbed> firstPageOpt = embed.getCurrentPage();
 
-        ArrayList<ArrayList<GuildChannel>> channelsPaginated = new ArrayList<ArrayList<GuildChannel>>();
-        ArrayList<GuildChannel> buildingPage =  new ArrayList<GuildChannel>();
+        if (firstPageOpt.isPresent()) {
+            ArrayList<Button> buttons = embed.refreshButtonOptions();
+            HifumiBot.getSelf().getBrowsableEmbedCache().put(embed);
+            event.getHook().sendMessageEmbeds(firstPageOpt.get())
+                    .addComponents(ActionRow.of(buttons))
+                    .queue();
+        } else {
+            event.getHook().editOriginal("Failed to generate embeds").queue();
+        }
+    }
 
-        for (GuildChannel channel : channels) {
-            buildingPage.add(channel);
+    /**
+     * Render a page from what JDA has cached for the server, rather than keeping every channel page around.
+     */
+    private static Optional<MessageEmbed> renderPage(long serverId, int index) {
+        Guild server = HifumiBot.getSelf().getJDA().getGuildById(serverId);
 
-            if (buildingPage.size() >= 8) {
-                channelsPaginated.add(buildingPage);
-                buildingPage = new ArrayList<GuildChannel>();
-            }
+        if (server == null) {
+            return Optional.empty();
         }
 
-        if (!buildingPage.isEmpty()) {
-            channelsPaginated.add(buildingPage);
+        // General info page
+        if (index == 0) {
+            EmbedBuilder generalEmbedBuilder;
+            generalEmbedBuilder = new EmbedBuilder();
+            generalEmbedBuilder.setColor(Color.BLUE);
+            generalEmbedBuilder.setTitle("General Info");
+            generalEmbedBuilder.setImage(server.getIconUrl());
+            generalEmbedBuilder.addField("Server ID", server.getId(), true);
+            generalEmbedBuilder.addField("Server Name", server.getName(), true);
+            generalEmbedBuilder.addField("Created", server.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
+            generalEmbedBuilder.addField("Members", String.valueOf(server.getMemberCount()), true);
+            return Optional.of(generalEmbedBuilder.build());
         }
 
-        int i = 1;
-
-        for (ArrayList<GuildChannel> channelPage : channelsPaginated) {
-            EmbedBuilder channelsEmbedBuilder = new EmbedBuilder();
-            channelsEmbedBuilder.setColor(Color.GREEN);
-            channelsEmbedBuilder.setTitle("Channels (Page " + i++ + ")");
-
-            for (GuildChannel channel : channelPage) {
-                channelsEmbedBuilder.addField("Name", channel.getName(), true);
-                channelsEmbedBuilder.addField("ID", channel.getId(), true);
-                channelsEmbedBuilder.addField("Created", channel.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
-            }
+        // Channel list pages
+        List<GuildChannel> channels = server.getChannels();
+        int start = (index - 1) * CHANNELS_PER_PAGE;
 
-            channelsEmbedBuilder.setFooter("Channels are listed in the order they are returned by Discord.");
-            pages.add(channelsEmbedBuilder.build());
+        if (start >= channels.size()) {
+            return Optional.empty();
         }
 
-        BrowsableEmbed embed = new BrowsableEmbed(this.defineSlashCommand().getName(), event.getIdLong(), event.getUser().getIdLong(), pages);
+        EmbedBuilder channelsEmbedBuilder = new EmbedBuilder();
+        channelsEmbedBuilder.setColor(Color.GREEN);
+        channelsEmbedBuilder.setTitle("Channels (Page " + index + ")");
 
-        Optional<MessageEmbed> firstPageOpt = embed.getCurrentPage();
-
-        if (firstPageOpt.isPresent()) {
-            ArrayList<Button> buttons = embed.refreshButtonOptions();
-            BrowsableEmbed.embedCache.put(event.getIdLong(), embed);
-            event.getHook().sendMessageEmbeds(firstPageOpt.get())
-                    .addComponents(ActionRow.of(buttons))
-                    .queue();
-        } else {
-            event.getHook().editOriginal("Failed to generate embeds").queue();
+        for (GuildChannel channel : channels.subList(start, Math.min(start + CHANNELS_PER_PAGE, channels.size()))) {
+            channelsEmbedBuilder.addField("Name", channel.getName(), true);
+            channelsEmbedBuilder.addField("ID", channel.getId(), true);
+            channelsEmbedBuilder.addField("Created", channel.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
         }
+
+        channelsEmbedBuilder.setFooter("Channels are listed in the order they are returned by Discord.");
+        return Optional.of(channelsEmbedBuilder.build());
     }
 
     @Override 
@@ -123,7 +121,7 @@ public class CommandServerMetadata extends AbstractSlashCommand {
         }
         
         // Test if the event that originally created the browsable embed is in memory.
-        BrowsableEmbed existingBrowsableEmbed = BrowsableEmbed.embedCache.get(eventId);
+        BrowsableEmbed existingBrowsableEmbed = HifumiBot.getSelf().getBrowsableEmbedCache().get(eventId);
 
         if (existingBrowsableEmbed == null) {
             event.getHook().sendMessage("This embed has expired, you should re-run the original command instead").setEphemeral(true).queue();
@@ -6,13 +6,19 @@ import java.awt.Color;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 
 import net.pcsx2.hifumi.BrowsableEmbed;
+import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.Page;
 import net.pcsx2.hifumi.database.objects.AutoModEventObject;
 import net.pcsx2.hifumi.database.objects.MemberEventObject;
 import net.pcsx2.hifumi.database.objects.WarezEventObject;
@@ -38,6 +44,117 @@ import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
 public class CommandWhois extends AbstractSlashCommand {
 
+    private static final int EVENTS_PER_PAGE = 10;
+
+    /**
+     * One of a user's histories. Only where each page starts is kept, and a page is read from the
+     * database again whenever it is browsed to.
+     */
+    private static class EventPages<T> {
+        private final String title;
+        private final Color color;
+        private final String footer;
+        private final Function<Page.Cursor, Page<T>> fetch;
+        private final BiConsumer<EmbedBuilder, T> addField;
+        private final ArrayList<Page.Cursor> starts = new ArrayList<Page.Cursor>(List.of(Page.FIRST));
+        private boolean complete = false;
+
+        public EventPages(String title, Color color, String footer, Function<Page.Cursor, Page<T>> fetch, BiConsumer<EmbedBuilder, T> addField) {
+            this.title = title;
+            this.color = color;
+            this.footer = footer;
+            this.fetch = fetch;
+            this.addField = addField;
+        }
+
+        /**
+         * @return The number of pages, or -1 if the last page has not been read yet.
+         */
+        public int getPageCount() {
+            return (this.complete ? this.starts.size() : -1);
+        }
+
+        public Optional<MessageEmbed> render(int index) {
+            if (index >= this.starts.size()) {
+                return Optional.empty();
+            }
+
+            Page<T> page = this.fetch.apply(this.starts.get(index));
+
+            if (page.isEmpty()) {
+                this.starts.subList(index, this.starts.size()).clear();
+                this.complete = true;
+                return Optional.empty();
+            }
+
+            if (page.next().isEmpty()) {
+                this.starts.subList(index + 1, this.starts.size()).clear();
+                this.complete = true;
+            } else if (index + 1 < this.starts.size()) {
+                this.starts.set(index + 1, page.next().get());
+            } else {
+                this.starts.add(page.next().get());
+                this.complete = false;
+            }
+
+            EmbedBuilder builder = new EmbedBuilder();
+            builder.setColor(this.color);
+            builder.setTitle(this.title + " (Page " + (index + 1) + ")");
+            builder.setFooter(this.footer);
+
+            for (T item : page.items()) {
+                this.addField.accept(builder, item);
+            }
+
+            return Optional.of(builder.build());
+        }
+    }
+
+    /**
+     * The profile pages, then each history in turn.
+     */
+    private static class WhoisPages implements BrowsableEmbed.PageSupplier {
+        private final List<Supplier<MessageEmbed>> profilePages;
+        private final List<EventPages<?>> histories;
+
+        public WhoisPages(List<Supplier<MessageEmbed>> profilePages, List<EventPages<?>> histories) {
+            this.profilePages = profilePages;
+            this.histories = histories;
+        }
+
+        @Override
+        public Optional<MessageEmbed> render(int index) {
+            if (index < this.profilePages.size()) {
+                return Optional.of(this.profilePages.get(index).get());
+            }
+
+            int historyIndex = index - this.profilePages.size();
+
+            for (EventPages<?> history : this.histories) {
+                int pageCount = history.getPageCount();
+
+                if (pageCount < 0 || historyIndex < pageCount) {
+                    Optional<MessageEmbed> page = history.render(historyIndex);
+
+                    if (page.isPresent()) {
+                        return page;
+                    }
+
+                    // Reading past its last page found how many it has
+                    pageCount = history.getPageCount();
+
+                    if (pageCount < 0) {
+                        return Optional.empty();
+                    }
+                }
+
+                historyIndex -= pageCount;
+            }
+
+            return Optional.empty();
+        }
+    }
+
     @Override
     public void onExecute(SlashCommandInteractionEvent event) {
         OptionMapping userIdOpt = event.getOption("user");
@@ -58,115 +175,66 @@ public class CommandWhois extends AbstractSlashCommand {
 
         event.deferReply().setEphemeral(true).queue();
 
-        ArrayList<MessageEmbed> pages = new ArrayList<MessageEmbed>();
+        ArrayList<Supplier<MessageEmbed>> profilePages = new ArrayList<Supplier<MessageEmbed>>();
 
         // User page
         User user = userOpt.get();
-        EmbedBuilder userEmbedBuilder = new EmbedBuilder();
-        userEmbedBuilder.setColor(Color.BLUE);
-        userEmbedBuilder.setTitle("General Info");
-        userEmbedBuilder.setImage(user.getEffectiveAvatarUrl());
-        userEmbedBuilder.addField("User ID", user.getId(), true);
-        userEmbedBuilder.addField("Username", user.getName(), true);
-        userEmbedBuilder.addField("Display Name", user.getEffectiveName(), true);
-        userEmbedBuilder.addField("User Mention", user.getAsMention(), true);
-        userEmbedBuilder.addBlankField(false);
-        userEmbedBuilder.addField("Created Date", user.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
-        userEmbedBuilder.addField("Account Age", UserUtils.getAgeOfUserAsPrettyString(user), true);
-        pages.add(userEmbedBuilder.build());
+        profilePages.add(() -> renderUserPage(user));
 
         // Member page
         Optional<Member> memberOpt = MemberUtils.forceRetrieveMember(event.getGuild(), userId);
-        boolean memberRetrievable = memberOpt.isPresent();
         
-        if (memberRetrievable) {
+        if (memberOpt.isPresent()) {
             Member member = memberOpt.get();
-            EmbedBuilder memberEmbedBuilder = new EmbedBuilder();
-            memberEmbedBuilder.setColor(Color.GREEN);
-            memberEmbedBuilder.setTitle("Server Profile");
-            memberEmbedBuilder.setImage(member.getEffectiveAvatarUrl());
-            memberEmbedBuilder.addField("Server Nickname", member.getEffectiveName(), true);
-            memberEmbedBuilder.addField("Server Mention", member.getAsMention(), true);
-            memberEmbedBuilder.addBlankField(false);
-            memberEmbedBuilder.addField("Active Client Types", member.getActiveClients().toString(), false);
-            memberEmbedBuilder.addField("Member Flags", member.getFlags().toString(), false);
-            
-            StringBuilder rolesBuilder = new StringBuilder();
-            
-            for (Role role : member.getRoles()) {
-                rolesBuilder.append(role.getAsMention());
-                rolesBuilder.append(" ");
-            }
-
-            memberEmbedBuilder.addField("Roles", rolesBuilder.toString().trim(), false);
-            memberEmbedBuilder.addField("Joined Date", member.getTimeJoined().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
-            pages.add(memberEmbedBuilder.build());
+            profilePages.add(() -> renderMemberPage(member));
         }
 
-        // Member event pages
-        ArrayList<ArrayList<MemberEventObject>> memberEventsPaginated = Database.getAllMemberEventsPaginated(userId);
-        int i = 1;
-        
-        for (ArrayList<MemberEventObject> memberEventList : memberEventsPaginated) {
-            EmbedBuilder memberEventEmbedBuilder = new EmbedBuilder();
-            memberEventEmbedBuilder.setColor(Color.YELLOW);
-            memberEventEmbedBuilder.setTitle("Joins, Leaves, Bans (Page " + i++ + ")");
-            memberEventEmbedBuilder.setFooter("Sorted most recent events first, 10 events per page.");
+        // History pages, each read from the database only when browsed to
+        ArrayList<EventPages<?>> histories = new ArrayList<EventPages<?>>();
 
-            for (MemberEventObject memberEvent : memberEventList) {
+        histories.add(new EventPages<MemberEventObject>(
+            "Joins, Leaves, Bans",
+            Color.YELLOW,
+            "Sorted most recent events first, 10 events per page.",
+            after -> Database.getMemberEventsPage(userId, after, EVENTS_PER_PAGE),
+            (builder, memberEvent) -> {
                 OffsetDateTime time = DateTimeUtils.longToOffsetDateTime(memberEvent.getTimestamp());
                 String formatStr = time.format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC";
-                memberEventEmbedBuilder.addField(formatStr, memberEvent.getAction().toString(), false);
+                builder.addField(formatStr, memberEvent.getAction().toString(), false);
             }
-
-            pages.add(memberEventEmbedBuilder.build());
-        }
-        
-        // Warez event pages
-        ArrayList<ArrayList<WarezEventObject>> warezEventsPaginated = Database.getAllWarezActionsForUserPaginated(userId);
-        int j = 1;
-
-        for (ArrayList<WarezEventObject> warezEventList : warezEventsPaginated) {
-            EmbedBuilder warezEventEmbedBuilder = new EmbedBuilder();
-            warezEventEmbedBuilder.setColor(Color.YELLOW);
-            warezEventEmbedBuilder.setTitle("Warez History (Page " + j++ + ")");
-            warezEventEmbedBuilder.setFooter("Sorted most recent events first, 10 events per page.");
-
-            for (WarezEventObject warezEvent : warezEventList) {
+        ));
+
+        histories.add(new EventPages<WarezEventObject>(
+            "Warez History",
+            Color.YELLOW,
+            "Sorted most recent events first, 10 events per page.",
+            after -> Database.getWarezActionsForUserPage(userId, after, EVENTS_PER_PAGE),
+            (builder, warezEvent) -> {
                 OffsetDateTime time = DateTimeUtils.longToOffsetDateTime(warezEvent.getTimestamp());
                 String formatStr = time.format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC";
-                warezEventEmbedBuilder.addField(formatStr, warezEvent.getAction().toString(), false);
+                builder.addField(formatStr, warezEvent.getAction().toString(), false);
             }
-
-            pages.add(warezEventEmbedBuilder.build());
-        }
-
-        // Automod event pages
-        ArrayList<ArrayList<AutoModEventObject>> autoModEventsPaginated = Database.getAllAutoModEventsPaginated(userId);
-        int k = 1;
-
-        for (ArrayList<AutoModEventObject> autoModEventList : autoModEventsPaginated) {
-            EmbedBuilder autoModEventEmbedBuilder = new EmbedBuilder();
-            autoModEventEmbedBuilder.setColor(Color.ORANGE);
-            autoModEventEmbedBuilder.setTitle("AutoMod History (Page " + k++ + ")");
-            autoModEventEmbedBuilder.setFooter("Sorted most recent events first, 10 events per page. Content truncated to 1000 chars.");
-
-            for (AutoModEventObject autoModEvent : autoModEventList) {
+        ));
+
+        histories.add(new EventPages<AutoModEventObject>(
+            "AutoMod History",
+            Color.ORANGE,
+            "Sorted most recent events first, 10 events per page. Content truncated to 1000 chars.",
+            after -> Database.getAutoModEventsPage(userId, after, EVENTS_PER_PAGE),
+            (builder, autoModEvent) -> {
                 OffsetDateTime time = DateTimeUtils.longToOffsetDateTime(autoModEvent.getTimestamp());
                 String formatStr = time.format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC";
                 String value = (autoModEvent.getMatchedContent() != null ? autoModEvent.getMatchedContent() : autoModEvent.getContent());
-                autoModEventEmbedBuilder.addField(formatStr, "```\n" + StringUtils.truncate(value, 1000) + "\n```", false);
+                builder.addField(formatStr, "```\n" + StringUtils.truncate(value, 1000) + "\n```", false);
             }
-
-            pages.add(autoModEventEmbedBuilder.build());
-        }
+        ));
         
-        BrowsableEmbed embed = new BrowsableEmbed(this.defineSlashCommand().getName(), event.getIdLong(), event.getUser().getIdLong(), pages);
+        BrowsableEmbed embed = new BrowsableEmbed(this.defineSlashCommand().getName(), event.getIdLong(), event.getUser().getIdLong(), new WhoisPages(profilePages, histories));
         Optional<MessageEmbed> firstPageOpt = embed.getCurrentPage();
 
         if (firstPageOpt.isPresent()) {
             ArrayList<Button> buttons = embed.refreshButtonOptions();
-            BrowsableEmbed.embedCache.put(event.getIdLong(), embed);
+            HifumiBot.getSelf().getBrowsableEmbedCache().put(embed);
             event.getHook().sendMessageEmbeds(firstPageOpt.get())
                     .addComponents(ActionRow.of(buttons))
                     .queue();
@@ -175,6 +243,44 @@ public class CommandWhois extends AbstractSlashCommand {
         }
     }
 
+    private static MessageEmbed renderUserPage(User user) {
+        EmbedBuilder userEmbedBuilder = new EmbedBuilder();
+        userEmbedBuilder.setColor(Color.BLUE);
+        userEmbedBuilder.setTitle("General Info");
+        userEmbedBuilder.setImage(user.getEffectiveAvatarUrl());
+        userEmbedBuilder.addField("User ID", user.getId(), true);
+        userEmbedBuilder.addField("Username", user.getName(), true);
+        userEmbedBuilder.addField("Display Name", user.getEffectiveName(), true);
+        userEmbedBuilder.addField("User Mention", user.getAsMention(), true);
+        userEmbedBuilder.addBlankField(false);
+        userEmbedBuilder.addField("Created Date", user.getTimeCreated().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
+        userEmbedBuilder.addField("Account Age", UserUtils.getAgeOfUserAsPrettyString(user), true);
+        return userEmbedBuilder.build();
+    }
+
+    private static MessageEmbed renderMemberPage(Member member) {
+        EmbedBuilder memberEmbedBuilder = new EmbedBuilder();
+        memberEmbedBuilder.setColor(Color.GREEN);
+        memberEmbedBuilder.setTitle("Server Profile");
+        memberEmbedBuilder.setImage(member.getEffectiveAvatarUrl());
+        memberEmbedBuilder.addField("Server Nickname", member.getEffectiveName(), true);
+        memberEmbedBuilder.addField("Server Mention", member.getAsMention(), true);
+        memberEmbedBuilder.addBlankField(false);
+        memberEmbedBuilder.addField("Active Client Types", member.getActiveClients().toString(), false);
+        memberEmbedBuilder.addField("Member Flags", member.getFlags().toString(), false);
+        
+        StringBuilder rolesBuilder = new StringBuilder();
+        
+        for (Role role : member.getRoles()) {
+            rolesBuilder.append(role.getAsMention());
+            rolesBuilder.append(" ");
+        }
+
+        memberEmbedBuilder.addField("Roles", rolesBuilder.toString().trim(), false);
+        memberEmbedBuilder.addField("Joined Date", member.getTimeJoined().format(DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm:ss")) + " UTC", true);
+        return memberEmbedBuilder.build();
+    }
+
     @Override
     protected CommandData defineSlashCommand() {
         return Commands.slash("whois", "Report of information on a user")
@@ -202,7 +308,7 @@ public class CommandWhois extends AbstractSlashCommand {
         }
         
         // Test if the event that originally created the browsable embed is in memory.
-        BrowsableEmbed existingBrowsableEmbed = BrowsableEmbed.embedCache.get(eventId);
+        BrowsableEmbed existingBrowsableEmbed = HifumiBot.getSelf().getBrowsableEmbedCache().get(eventId);
 
         if (existingBrowsableEmbed == null) {
             event.getHook().sendMessage("This embed has expired, you should re-run the original command instead").setEphemeral(true).queue();
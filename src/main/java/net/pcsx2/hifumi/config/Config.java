@@ -30,6 +30,12 @@ public class Config implements IConfig {
     public SerializedEmbed unwarezPrompt;
     public HoneypotOptions honeypotOptions;
     public AntiAttachmentOptions antiAttachmentOptions;
+    public DuplicateMessageOptions duplicateMessageOptions;
+    public FilterOptions filterOptions;
+    public DatabaseOptions databaseOptions;
+    public ScamHashOptions scamHashOptions;
+    public ParserOptions parserOptions;
+    public ChartOptions chartOptions;
 
     public Config() {
         channels = new Channels();
@@ -46,6 +52,12 @@ public class Config implements IConfig {
         unwarezPrompt = new SerializedEmbed();
         honeypotOptions = new HoneypotOptions();
         antiAttachmentOptions = new AntiAttachmentOptions();
+        duplicateMessageOptions = new DuplicateMessageOptions();
+        filterOptions = new FilterOptions();
+        databaseOptions = new DatabaseOptions();
+        scamHashOptions = new ScamHashOptions();
+        parserOptions = new ParserOptions();
+        chartOptions = new ChartOptions();
     }
 
     public class Logging {
@@ -84,9 +96,13 @@ public class Config implements IConfig {
     
     public class SlashCommands {
         public int timeoutSeconds;
+        public int browsableEmbedMaxEntries;
+        public int browsableEmbedExpiryMinutes;
         
         public SlashCommands() {
             timeoutSeconds = 60 * 15;
+            browsableEmbedMaxEntries = 500;
+            browsableEmbedExpiryMinutes = 60 * 6;
         }
     }
 
@@ -221,4 +237,104 @@ public class Config implements IConfig {
             maxMessages = 3;
         }
     }
+    
+    public class DuplicateMessageOptions {
+        public int windowMinutes;
+        public int minLength;
+        public boolean matchNormalized;
+        public int nearDuplicateMaxBits;
+
+        public DuplicateMessageOptions() {
+            windowMinutes = 5;
+            minLength = 10;
+            matchNormalized = false;
+            nearDuplicateMaxBits = 0;
+        }
+    }
+
+    public class FilterOptions {
+        public int parallelism;
+        public int queueCapacity;
+
+        public FilterOptions() {
+            parallelism = 4;
+            queueCapacity = 500;
+        }
+    }
+
+    public class DatabaseOptions {
+        public int readPoolSize;
+        public int acquireTimeoutMillis;
+        public int busyTimeoutMillis;
+        public String synchronous;
+        public int cacheSizeKiB;
+        public long mmapSizeBytes;
+        public int writeQueueCapacity;
+        public int writeBatchMaxRows;
+        public int writeBatchMaxDelayMillis;
+        public int statementCacheSize;
+        public int messageCacheMaxEntries;
+        public long messageCacheMaxBytes;
+        public long messageCacheIdleMinutes;
+        
+        public DatabaseOptions() {
+            readPoolSize = 4;
+            acquireTimeoutMillis = 10000;
+            busyTimeoutMillis = 5000;
+            synchronous = new String("NORMAL");
+            cacheSizeKiB = 1024 * 16;
+            mmapSizeBytes = 1024L * 1024 * 256;
+            writeQueueCapacity = 10000;
+            writeBatchMaxRows = 500;
+            writeBatchMaxDelayMillis = 100;
+            statementCacheSize = 64;
+            messageCacheMaxEntries = 20000;
+            messageCacheMaxBytes = 1024L * 1024 * 32;
+            messageCacheIdleMinutes = 60 * 6;
+        }
+    }
+
+    public class ScamHashOptions {
+        public int perceptualMaxDistance;
+
+        public ScamHashOptions() {
+            perceptualMaxDistance = 6;
+        }
+    }
+
+    public class ParserOptions {
+        public int parallelism;
+        public int queueCapacity;
+        public int maxPerUser;
+        public long maxAttachmentBytes;
+        public long timeoutSeconds;
+        public long emulogMaxBytes;
+        public int emulogMaxLinesPerRule;
+        public long resultCacheMaxBytes;
+
+        public ParserOptions() {
+            parallelism = 2;
+            queueCapacity = 20;
+            maxPerUser = 2;
+            maxAttachmentBytes = 1024L * 1024 * 50;
+            timeoutSeconds = 60;
+            emulogMaxBytes = 1024L * 1024 * 64;
+            emulogMaxLinesPerRule = 50;
+            resultCacheMaxBytes = 1024L * 1024 * 32;
+        }
+    }
+
+    public class ChartOptions {
+        public int renderParallelism;
+        public int renderQueueCapacity;
+        public int renderCacheMaxEntries;
+        public int pngCompressionLevel;
+
+        public ChartOptions() {
+            renderParallelism = 1;
+            renderQueueCapacity = 8;
+            renderCacheMaxEntries = 32;
+            pngCompressionLevel = 4;
+        }
+    }
 }
@@ -6,6 +6,7 @@ public enum ConfigType {
 
     CORE("hifumi-conf.json", Config.class),
     DYNCMD("dyncmd-config.json", DynCmdConfig.class),
+    CRASH_PARSER("crash-parser.json", CrashParserConfig.class),
     EMULOG_PARSER("emulog-parser.json", EmulogParserConfig.class),
     SETTINGS_PARSER("settings-ini-parser.json", SettingsIniParserConfig.class);
     
@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CrashParserConfig implements IConfig {
+
+    @Override
+    public ConfigType getConfigType() {
+        return ConfigType.CRASH_PARSER;
+    }
+
+    @Override
+    public boolean usePrettyPrint() {
+        return true;
+    }
+
+    public ArrayList<Signature> signatures;
+
+    public CrashParserConfig() {
+        signatures = new ArrayList<Signature>();
+
+        // The checks the crash parser always had, so a new config starts out doing the same
+        signatures.add(new Signature(
+            "vibration-driver",
+            List.of("fcvap32.dll", "fcvap64.dll", "ezfrd32.dll", "ezfrd64.dll", "ez6401.dll"),
+            "Bad USB gamepad vibration driver. This driver is known to cause most 64 bit applications to crash without warning.\n" +
+            "Go to the file referenced below, and delete it from your PC:",
+            true
+        ));
+        signatures.add(new Signature(
+            "oldnewexplorer",
+            List.of("oldnewexplorer.dll", "oldnewexplorer32.dll", "oldnewexplorer64.dll"),
+            "OldNewExplorer detected. OldNewExplorer causes many modern applications to crash, due to unsafe modifications to Windows' implementation of file and folder pickers.\n" +
+            "OldNewExplorer must be fully uninstalled and your system rebooted. PCSX2 will not function until the uninstall is fully complete and all Windows system files are restored to their proper states.",
+            true
+        ));
+        signatures.add(new Signature(
+            "vulkan-compat-pack",
+            List.of("vulkan_dzn.dll"),
+            "Vulkan Compatibility Pack detected. This app package uses a Vulkan on DX12 implementation which does not actually conform to Vulkan specifications. Using the Vulkan renderer or opening the Settings menu in PCSX2 will likely crash.\n" +
+            "Open your Start menu, hit Settings, Apps, then find `OpenCL™, OpenGL®, and Vulkan® Compatibility Pack` in the list and uninstall. Once uninstalled, reboot your PC.",
+            false
+        ));
+        signatures.add(new Signature(
+            "overwolf",
+            List.of("owclient.dll", "ow-graphics-vulkan.dll", "ow-graphics-hook64.dll"),
+            "Overwolf detected. This program's overlay hooks often crash the GPU driver.\n" +
+            "To avoid crashing, uninstall Overwolf.",
+            false
+        ));
+        signatures.add(new Signature(
+            "rivatuner",
+            List.of("rtsshooks64.dll"),
+            "RivaTuner statistics server detected. This program is known to cause memory leaks when using DX12 on certain hardware.\n" +
+            "If PCSX2 appears to be leaking memory, uninstall RivaTuner.",
+            false
+        ));
+    }
+
+    public class Signature {
+        public String name;
+        // Plain text, any one of which appearing in a line of the crash log is a match
+        public ArrayList<String> toMatch;
+        public String message;
+        // Whether to print the matching line under the message, such as to show where a file is
+        public boolean includeLine;
+
+        public Signature() {
+            name = new String("");
+            toMatch = new ArrayList<String>();
+            message = new String("");
+            includeLine = false;
+        }
+
+        public Signature(String name, List<String> toMatch, String message, boolean includeLine) {
+            this.name = name;
+            this.toMatch = new ArrayList<String>(toMatch);
+            this.message = message;
+            this.includeLine = includeLine;
+        }
+    }
+}
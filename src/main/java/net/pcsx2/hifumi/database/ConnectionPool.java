@@ -0,0 +1,238 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * A fixed size pool of already opened JDBC connections.
+ *
+ * Connections handed out by {@link ConnectionPool#borrow() borrow()} are thin wrappers
+ * around the pooled connection; calling close() on them returns the underlying connection
+ * to the pool instead of closing it, so callers can use them in try-with-resources blocks
+ * just like a regular connection.
+ *
+ * If the pool has a {@link StatementCache}, prepareStatement(String) calls on borrowed
+ * connections are served from it.
+ */
+public class ConnectionPool {
+
+    private final String name;
+    private final int size;
+    private final long acquireTimeoutMillis;
+    private final ArrayBlockingQueue<Connection> idle;
+    private final StatementCache statementCache;
+    private volatile boolean closed = false;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    /**
+     * @param name
+     * @param connections
+     * @param acquireTimeoutMillis
+     * @param statementCache Cache to prepare statements with, or null to always prepare them fresh.
+     */
+    public ConnectionPool(String name, List<Connection> connections, long acquireTimeoutMillis, StatementCache statementCache) {
+        this.name = name;
+        this.size = connections.size();
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCache = statementCache;
+        this.idle = new ArrayBlockingQueue<Connection>(Math.max(1, this.size));
+        this.idle.addAll(connections);
+    }
+
+    /**
+     * Take a connection out of the pool, waiting up to the configured acquire timeout if all
+     * connections are currently in use. The returned connection must be closed to give it back.
+     * @return A connection which returns itself to the pool when closed.
+     * @throws SQLException If the pool is shut down, or no connection became available in time.
+     */
+    public Connection borrow() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Connection pool '" + this.name + "' is shut down");
+        }
+
+        this.borrowCount.increment();
+        Connection conn = this.idle.poll();
+
+        if (conn == null) {
+            this.waitCount.increment();
+            long start = System.nanoTime();
+
+            try {
+                conn = this.idle.poll(this.acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection from pool '" + this.name + "'", e);
+            } finally {
+                long waited = System.nanoTime() - start;
+                this.totalWaitNanos.add(waited);
+                this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+            }
+
+            if (conn == null) {
+                this.timeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + this.acquireTimeoutMillis + " ms waiting for a connection from pool '" + this.name + "'");
+            }
+        }
+
+        this.peakInUse.accumulateAndGet(this.inUse.incrementAndGet(), Math::max);
+        return this.wrap(conn);
+    }
+
+    private Connection wrap(Connection pooled) {
+        AtomicBoolean returned = new AtomicBoolean(false);
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close": {
+                    if (returned.compareAndSet(false, true)) {
+                        this.release(pooled);
+                    }
+
+                    return null;
+                }
+                case "isClosed": {
+                    if (returned.get()) {
+                        return true;
+                    }
+
+                    break;
+                }
+                case "prepareStatement": {
+                    if (!returned.get() && this.statementCache != null && args.length == 1) {
+                        return this.statementCache.prepare(pooled, (String) args[0]);
+                    }
+
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection was already returned to pool '" + this.name + "'");
+            }
+
+            try {
+                return method.invoke(pooled, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void release(Connection pooled) {
+        this.inUse.decrementAndGet();
+
+        // Never hand out a connection with a half finished transaction on it.
+        try {
+            if (!pooled.getAutoCommit()) {
+                pooled.rollback();
+                pooled.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            Messaging.logException("ConnectionPool", "release", e);
+        }
+
+        if (this.closed) {
+            this.closeQuietly(pooled);
+            return;
+        }
+
+        this.idle.offer(pooled);
+    }
+
+    /**
+     * Close every connection in the pool. Connections which are still borrowed
+     * are closed as soon as they are returned.
+     */
+    public void shutdown() {
+        this.closed = true;
+        Connection conn;
+
+        while ((conn = this.idle.poll()) != null) {
+            this.closeQuietly(conn);
+        }
+    }
+
+    private void closeQuietly(Connection conn) {
+        if (this.statementCache != null) {
+            this.statementCache.closeAll(conn);
+        }
+
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            Messaging.logException("ConnectionPool", "closeQuietly", e);
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public int getIdleCount() {
+        return this.idle.size();
+    }
+
+    public int getInUseCount() {
+        return this.inUse.get();
+    }
+
+    public int getPeakInUseCount() {
+        return this.peakInUse.get();
+    }
+
+    public long getBorrowCount() {
+        return this.borrowCount.sum();
+    }
+
+    public long getWaitCount() {
+        return this.waitCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.sum());
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get());
+    }
+
+    public String getStats() {
+        long waits = this.getWaitCount();
+
+        return String.format("%s: %d/%d in use (peak %d) | borrows: %d | waits: %d (avg %d ms, max %d ms) | timeouts: %d",
+            this.name, this.getInUseCount(), this.size, this.getPeakInUseCount(), this.getBorrowCount(),
+            waits, waits > 0 ? this.getTotalWaitMillis() / waits : 0, this.getMaxWaitMillis(), this.getTimeoutCount());
+    }
+}
@@ -9,9 +9,12 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
@@ -32,10 +35,13 @@ import net.pcsx2.hifumi.charting.AutomodChartData;
 import net.pcsx2.hifumi.charting.MemberChartData;
 import net.pcsx2.hifumi.charting.SpamkickChartData;
 import net.pcsx2.hifumi.charting.WarezChartData;
+import net.pcsx2.hifumi.database.MessageCache.CachedMessage;
+import net.pcsx2.hifumi.database.MessageCache.Revision;
 import net.pcsx2.hifumi.database.objects.AttachmentObject;
 import net.pcsx2.hifumi.database.objects.AutoModEventObject;
 import net.pcsx2.hifumi.database.objects.CommandEventObject;
 import net.pcsx2.hifumi.database.objects.CounterObject;
+import net.pcsx2.hifumi.database.objects.CrashSignatureHitsObject;
 import net.pcsx2.hifumi.database.objects.InteractionEventObject;
 import net.pcsx2.hifumi.database.objects.MemberEventObject;
 import net.pcsx2.hifumi.database.objects.MessageObject;
@@ -47,177 +53,151 @@ import net.pcsx2.hifumi.util.TimeUtils;
 
 public class Database {
 
+    private static final long SECONDS_PER_DAY = 60 * 60 * 24;
+
     /**
      * Store user, channel, message, attachment, and event records
      */
-    public static void insertMessage(Message message) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+    public static CompletableFuture<Void> insertMessage(Message message) {
+        // Resolve anything that depends on live JDA state now, rather than when the write is flushed.
+        boolean logBypass = HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(message);
+        MessageCache cache = HifumiBot.getSelf().getSQLite().getMessageCache();
+        cache.beginWrite(message.getIdLong());
+
+        // Only messages with a send event stored have anything to look up later
+        if (!logBypass) {
+            ArrayList<AttachmentObject> attachmentList = new ArrayList<AttachmentObject>();
+
+            for (Attachment attachment : message.getAttachments()) {
+                attachmentList.add(new AttachmentObject(
+                    attachment.getId(),
+                    DateTimeUtils.longToOffsetDateTime(attachment.getTimeCreated().toEpochSecond()),
+                    message.getId(),
+                    attachment.getFileName(),
+                    attachment.getContentType(),
+                    attachment.getProxyUrl()
+                ));
+            }
 
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, message.getAuthor().getIdLong());
-            insertUser.setLong(2, message.getAuthor().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, message.getAuthor().getName());
-            insertUser.executeUpdate();
+            cache.putSent(new CachedMessage(
+                message.getIdLong(),
+                message.getAuthor().getIdLong(),
+                message.getChannel().getIdLong(),
+                message.getTimeCreated().toEpochSecond(),
+                message.getJumpUrl(),
+                message.getReferencedMessage() != null ? message.getReferencedMessage().getId() : null,
+                attachmentList,
+                List.of(new Revision(message.getTimeCreated().toEpochSecond(), false, message.getContentRaw()))
+            ));
+        }
 
-            try (PreparedStatement insertChannel = wConn.prepareStatement("""
-                    INSERT INTO channel (discord_id, name)
-                    VALUES (?, ?)
+        CompletableFuture<Void> stored = HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMessageReceivedEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertChannel.setLong(1, message.getChannel().getIdLong());
-                insertChannel.setString(2, message.getChannel().getName());
-                insertChannel.executeUpdate();
-
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel, jump_link, fk_reply_to_message, timestamp, fk_user)
-                        VALUES (?, ?, ?, ?, ?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
+                insertUser.setLong(1, message.getAuthor().getIdLong());
+                insertUser.setLong(2, message.getAuthor().getTimeCreated().toEpochSecond());
+                insertUser.setString(3, message.getAuthor().getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertChannel = wConn.prepareStatement("""
+                        INSERT INTO channel (discord_id, name)
+                        VALUES (?, ?)
+                        ON CONFLICT (discord_id) DO NOTHING;
                         """)) {
-                    insertMessage.setLong(1, message.getIdLong());
-                    insertMessage.setLong(2, message.getChannel().getIdLong());
-                    insertMessage.setString(3, message.getJumpUrl());
+                    insertChannel.setLong(1, message.getChannel().getIdLong());
+                    insertChannel.setString(2, message.getChannel().getName());
+                    insertChannel.executeUpdate();
+
+                    try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                            INSERT INTO message (message_id, fk_channel, jump_link, fk_reply_to_message, timestamp, fk_user)
+                            VALUES (?, ?, ?, ?, ?, ?)
+                            ON CONFLICT (message_id) DO NOTHING;
+                            """)) {
+                        insertMessage.setLong(1, message.getIdLong());
+                        insertMessage.setLong(2, message.getChannel().getIdLong());
+                        insertMessage.setString(3, message.getJumpUrl());
         
-                    if (message.getReferencedMessage() != null) {
-                        insertMessage.setLong(4, message.getReferencedMessage().getIdLong());
-                    } else {
-                        insertMessage.setNull(4, Types.BIGINT);
-                    }
+                        if (message.getReferencedMessage() != null) {
+                            insertMessage.setLong(4, message.getReferencedMessage().getIdLong());
+                        } else {
+                            insertMessage.setNull(4, Types.BIGINT);
+                        }
                     
-                    insertMessage.setLong(5, message.getTimeCreated().toEpochSecond());
-                    insertMessage.setLong(6, message.getAuthor().getIdLong());
-                    insertMessage.executeUpdate();
+                        insertMessage.setLong(5, message.getTimeCreated().toEpochSecond());
+                        insertMessage.setLong(6, message.getAuthor().getIdLong());
+                        insertMessage.executeUpdate();
         
-                    if (!HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(message)) {
-                        try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                                INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
-                                VALUES (?, ?, ?, ?, ?);
-                                """)) {
-                            insertEvent.setLong(1, message.getAuthor().getIdLong());
-                            insertEvent.setLong(2, message.getIdLong());
-                            insertEvent.setLong(3, message.getTimeCreated().toEpochSecond());
-                            insertEvent.setString(4, "send");
-                            insertEvent.setString(5, message.getContentRaw());
-                            insertEvent.executeUpdate();
+                        if (!logBypass) {
+                            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                                    INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
+                                    VALUES (?, ?, ?, ?, ?);
+                                    """)) {
+                                insertEvent.setLong(1, message.getAuthor().getIdLong());
+                                insertEvent.setLong(2, message.getIdLong());
+                                insertEvent.setLong(3, message.getTimeCreated().toEpochSecond());
+                                insertEvent.setString(4, "send");
+                                insertEvent.setString(5, message.getContentRaw());
+                                insertEvent.executeUpdate();
                             
-                            // Check if this message had any attachments. No need to continue if not.
-                            List<Attachment> attachments = message.getAttachments();
+                                // Check if this message had any attachments. No need to continue if not.
+                                List<Attachment> attachments = message.getAttachments();
             
-                            if (!attachments.isEmpty()) {
-                                try (PreparedStatement insertAttachments = wConn.prepareStatement("""
-                                        INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url, filename)
-                                        VALUES (?, ?, ?, ?, ?, ?)
-                                        ON CONFLICT (discord_id) DO NOTHING;
-                                        """)) {
-                                    for (Attachment attachment : attachments) {
-                                        insertAttachments.setLong(1, attachment.getIdLong());
-                                        insertAttachments.setLong(2, attachment.getTimeCreated().toEpochSecond());
-                                        insertAttachments.setLong(3, message.getIdLong());
-                                        insertAttachments.setString(4, attachment.getContentType());
-                                        insertAttachments.setString(5, attachment.getProxyUrl());
-                                        insertAttachments.setString(6, attachment.getFileName());
-                                        insertAttachments.addBatch();
-                                    }
+                                if (!attachments.isEmpty()) {
+                                    try (PreparedStatement insertAttachments = wConn.prepareStatement("""
+                                            INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url, filename)
+                                            VALUES (?, ?, ?, ?, ?, ?)
+                                            ON CONFLICT (discord_id) DO NOTHING;
+                                            """)) {
+                                        for (Attachment attachment : attachments) {
+                                            insertAttachments.setLong(1, attachment.getIdLong());
+                                            insertAttachments.setLong(2, attachment.getTimeCreated().toEpochSecond());
+                                            insertAttachments.setLong(3, message.getIdLong());
+                                            insertAttachments.setString(4, attachment.getContentType());
+                                            insertAttachments.setString(5, attachment.getProxyUrl());
+                                            insertAttachments.setString(6, attachment.getFileName());
+                                            insertAttachments.addBatch();
+                                        }
                                     
-                                    insertAttachments.executeBatch();
+                                        insertAttachments.executeBatch();
+                                    }
                                 }
                             }
                         }
                     }
                 }
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageReceivedEvent", e);
-        }
-    }
-
-    /**
-     * Store channel, message and event records
-     * @param event
-     */
-    public static void insertMessageDeleteEvent(MessageDeleteEvent event) {
-        OffsetDateTime now = OffsetDateTime.now();
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement getUser = wConn.prepareStatement("""
-                SELECT message_id, fk_user
-                FROM message
-                WHERE message_id = ?
-                LIMIT 1;
-                """)) {
-            getUser.setLong(1, event.getMessageIdLong());
-            
-            long userId = 0;
-            
-            try (ResultSet res = getUser.executeQuery()) {
-                if (res.next()) {
-                    userId = res.getLong("fk_user");
-                }
-            }
-            
-            try (PreparedStatement insertChannel = wConn.prepareStatement("""
-                    INSERT INTO channel (discord_id, name)
-                    VALUES (?, ?)
-                    ON CONFLICT (discord_id) DO NOTHING;
-                    """)) {
-                insertChannel.setLong(1, event.getChannel().getIdLong());
-                insertChannel.setString(2, event.getChannel().getName());
-                insertChannel.executeUpdate();
-    
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel)
-                        VALUES (?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
-                        """)) {
-                    insertMessage.setLong(1, event.getMessageIdLong());
-                    insertMessage.setLong(2, event.getChannel().getIdLong());
-                    insertMessage.executeUpdate();
-        
-                    try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                            INSERT INTO message_event (fk_user, fk_message, timestamp, action)
-                            VALUES (?, ?, ?, ?);
-                            """)) {
-                        insertEvent.setLong(1, userId);
-                        insertEvent.setLong(2, event.getMessageIdLong());
-                        insertEvent.setLong(3, now.toEpochSecond());
-                        insertEvent.setString(4, "delete");
-                        insertEvent.executeUpdate();
-                    }
-                }
-            }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageDeleteEvent", e);
-        }
+        });
+        stored.whenComplete((v, e) -> cache.endWrite(message.getIdLong(), e != null));
+        return stored;
     }
 
     /**
      * Store channel, message and event records
      * @param event
      */
-    public static void insertMessageBulkDeleteEvent(MessageBulkDeleteEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+    public static CompletableFuture<Void> insertMessageDeleteEvent(MessageDeleteEvent event) {
         OffsetDateTime now = OffsetDateTime.now();
         
-        for (String messageId : event.getMessageIds()) {
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMessageDeleteEvent", wConn -> {
             try (PreparedStatement getUser = wConn.prepareStatement("""
                     SELECT message_id, fk_user
                     FROM message
                     WHERE message_id = ?
                     LIMIT 1;
                     """)) {
-                getUser.setLong(1, Long.valueOf(messageId));
-                
+                getUser.setLong(1, event.getMessageIdLong());
+            
                 long userId = 0;
-                
+            
                 try (ResultSet res = getUser.executeQuery()) {
                     if (res.next()) {
                         userId = res.getLong("fk_user");
                     }
                 }
-                
+            
                 try (PreparedStatement insertChannel = wConn.prepareStatement("""
                         INSERT INTO channel (discord_id, name)
                         VALUES (?, ?)
@@ -232,7 +212,7 @@ public class Database {
                             VALUES (?, ?)
                             ON CONFLICT (message_id) DO NOTHING;
                             """)) {
-                        insertMessage.setLong(1, Long.valueOf(messageId));
+                        insertMessage.setLong(1, event.getMessageIdLong());
                         insertMessage.setLong(2, event.getChannel().getIdLong());
                         insertMessage.executeUpdate();
         
@@ -241,94 +221,178 @@ public class Database {
                                 VALUES (?, ?, ?, ?);
                                 """)) {
                             insertEvent.setLong(1, userId);
-                            insertEvent.setLong(2, Long.valueOf(messageId));
+                            insertEvent.setLong(2, event.getMessageIdLong());
                             insertEvent.setLong(3, now.toEpochSecond());
                             insertEvent.setString(4, "delete");
                             insertEvent.executeUpdate();
                         }
                     }
                 }
-            } catch (SQLException e) {
-                Messaging.logException("Database", "insertMessageBulkDeleteEvent", e);
             }
+        });
+    }
+
+    /**
+     * Store channel, message and event records
+     * @param event
+     */
+    public static CompletableFuture<Void> insertMessageBulkDeleteEvent(MessageBulkDeleteEvent event) {
+        OffsetDateTime now = OffsetDateTime.now();
+        ArrayList<CompletableFuture<Void>> writes = new ArrayList<CompletableFuture<Void>>();
+        
+        for (String messageId : event.getMessageIds()) {
+            writes.add(HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMessageBulkDeleteEvent", wConn -> {
+                try (PreparedStatement getUser = wConn.prepareStatement("""
+                        SELECT message_id, fk_user
+                        FROM message
+                        WHERE message_id = ?
+                        LIMIT 1;
+                        """)) {
+                    getUser.setLong(1, Long.valueOf(messageId));
+                
+                    long userId = 0;
+                
+                    try (ResultSet res = getUser.executeQuery()) {
+                        if (res.next()) {
+                            userId = res.getLong("fk_user");
+                        }
+                    }
+                
+                    try (PreparedStatement insertChannel = wConn.prepareStatement("""
+                            INSERT INTO channel (discord_id, name)
+                            VALUES (?, ?)
+                            ON CONFLICT (discord_id) DO NOTHING;
+                            """)) {
+                        insertChannel.setLong(1, event.getChannel().getIdLong());
+                        insertChannel.setString(2, event.getChannel().getName());
+                        insertChannel.executeUpdate();
+    
+                        try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                                INSERT INTO message (message_id, fk_channel)
+                                VALUES (?, ?)
+                                ON CONFLICT (message_id) DO NOTHING;
+                                """)) {
+                            insertMessage.setLong(1, Long.valueOf(messageId));
+                            insertMessage.setLong(2, event.getChannel().getIdLong());
+                            insertMessage.executeUpdate();
+        
+                            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                                    INSERT INTO message_event (fk_user, fk_message, timestamp, action)
+                                    VALUES (?, ?, ?, ?);
+                                    """)) {
+                                insertEvent.setLong(1, userId);
+                                insertEvent.setLong(2, Long.valueOf(messageId));
+                                insertEvent.setLong(3, now.toEpochSecond());
+                                insertEvent.setString(4, "delete");
+                                insertEvent.executeUpdate();
+                            }
+                        }
+                    }
+                }
+            }));
         }
+
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
     }
 
     /**
      * Store user, channel, message, attachment, and event records
      * @param event
      */
-    public static void insertMessageUpdateEvent(MessageUpdateEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+    public static CompletableFuture<Void> insertMessageUpdateEvent(MessageUpdateEvent event) {
+        boolean logBypass = HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(event.getMessage());
+        MessageCache cache = HifumiBot.getSelf().getSQLite().getMessageCache();
+        cache.beginWrite(event.getMessageIdLong());
+
+        // Only an edit event stored changes what the latest revision is
+        if (!logBypass) {
+            ArrayList<AttachmentObject> attachmentList = new ArrayList<AttachmentObject>();
+
+            for (Attachment attachment : event.getMessage().getAttachments()) {
+                attachmentList.add(new AttachmentObject(
+                    attachment.getId(),
+                    DateTimeUtils.longToOffsetDateTime(attachment.getTimeCreated().toEpochSecond()),
+                    event.getMessageId(),
+                    null,
+                    attachment.getContentType(),
+                    attachment.getProxyUrl()
+                ));
+            }
 
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, event.getAuthor().getIdLong());
-            insertUser.setLong(2, event.getAuthor().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, event.getAuthor().getName());
-            insertUser.executeUpdate();
+            OffsetDateTime edited = event.getMessage().getTimeEdited() != null ? event.getMessage().getTimeEdited() : event.getMessage().getTimeCreated();
+            cache.putEdited(event.getMessageIdLong(), new Revision(edited.toEpochSecond(), true, event.getMessage().getContentRaw()), attachmentList);
+        }
 
-            try (PreparedStatement insertChannel = wConn.prepareStatement("""
-                    INSERT INTO channel (discord_id, name)
-                    VALUES (?, ?)
+        CompletableFuture<Void> stored = HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMessageUpdateEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertChannel.setLong(1, event.getChannel().getIdLong());
-                insertChannel.setString(2, event.getChannel().getName());
-                insertChannel.executeUpdate();
-    
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel, fk_user)
-                        VALUES (?, ?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
+                insertUser.setLong(1, event.getAuthor().getIdLong());
+                insertUser.setLong(2, event.getAuthor().getTimeCreated().toEpochSecond());
+                insertUser.setString(3, event.getAuthor().getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertChannel = wConn.prepareStatement("""
+                        INSERT INTO channel (discord_id, name)
+                        VALUES (?, ?)
+                        ON CONFLICT (discord_id) DO NOTHING;
                         """)) {
-                    insertMessage.setLong(1, event.getMessageIdLong());
-                    insertMessage.setLong(2, event.getChannel().getIdLong());
-                    insertMessage.setLong(3, event.getAuthor().getIdLong());
-                    insertMessage.executeUpdate();
+                    insertChannel.setLong(1, event.getChannel().getIdLong());
+                    insertChannel.setString(2, event.getChannel().getName());
+                    insertChannel.executeUpdate();
+    
+                    try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                            INSERT INTO message (message_id, fk_channel, fk_user)
+                            VALUES (?, ?, ?)
+                            ON CONFLICT (message_id) DO NOTHING;
+                            """)) {
+                        insertMessage.setLong(1, event.getMessageIdLong());
+                        insertMessage.setLong(2, event.getChannel().getIdLong());
+                        insertMessage.setLong(3, event.getAuthor().getIdLong());
+                        insertMessage.executeUpdate();
         
-                    if (!HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(event.getMessage())) {
-                        List<Attachment> attachments = event.getMessage().getAttachments();
+                        if (!logBypass) {
+                            List<Attachment> attachments = event.getMessage().getAttachments();
         
-                        if (!attachments.isEmpty()) {
-                            try (PreparedStatement insertAttachment = wConn.prepareStatement("""
-                                    INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url)
-                                    VALUES (?, ?, ?, ?, ?)
-                                    ON CONFLICT (discord_id) DO NOTHING;
-                                    """)) {
-                                for (Attachment attachment : attachments) {
-                                    insertAttachment.setLong(1, attachment.getIdLong());
-                                    insertAttachment.setLong(2, attachment.getTimeCreated().toEpochSecond());
-                                    insertAttachment.setLong(3, event.getMessageIdLong());
-                                    insertAttachment.setString(4, attachment.getContentType());
-                                    insertAttachment.setString(5, attachment.getProxyUrl());
-                                    insertAttachment.addBatch();
-                                }
+                            if (!attachments.isEmpty()) {
+                                try (PreparedStatement insertAttachment = wConn.prepareStatement("""
+                                        INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url)
+                                        VALUES (?, ?, ?, ?, ?)
+                                        ON CONFLICT (discord_id) DO NOTHING;
+                                        """)) {
+                                    for (Attachment attachment : attachments) {
+                                        insertAttachment.setLong(1, attachment.getIdLong());
+                                        insertAttachment.setLong(2, attachment.getTimeCreated().toEpochSecond());
+                                        insertAttachment.setLong(3, event.getMessageIdLong());
+                                        insertAttachment.setString(4, attachment.getContentType());
+                                        insertAttachment.setString(5, attachment.getProxyUrl());
+                                        insertAttachment.addBatch();
+                                    }
                                 
-                                insertAttachment.executeBatch();
+                                    insertAttachment.executeBatch();
+                                }
                             }
-                        }
         
-                        try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                                INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
-                                VALUES (?, ?, ?, ?, ?);
-                                """)) {
-                            insertEvent.setLong(1, event.getAuthor().getIdLong());
-                            insertEvent.setLong(2, event.getMessageIdLong());
-                            insertEvent.setLong(3, (event.getMessage().getTimeEdited() != null ? event.getMessage().getTimeEdited() : event.getMessage().getTimeCreated()).toEpochSecond());
-                            insertEvent.setString(4, "edit");
-                            insertEvent.setString(5, event.getMessage().getContentRaw());
-                            insertEvent.executeUpdate();
+                            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                                    INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
+                                    VALUES (?, ?, ?, ?, ?);
+                                    """)) {
+                                insertEvent.setLong(1, event.getAuthor().getIdLong());
+                                insertEvent.setLong(2, event.getMessageIdLong());
+                                insertEvent.setLong(3, (event.getMessage().getTimeEdited() != null ? event.getMessage().getTimeEdited() : event.getMessage().getTimeCreated()).toEpochSecond());
+                                insertEvent.setString(4, "edit");
+                                insertEvent.setString(5, event.getMessage().getContentRaw());
+                                insertEvent.executeUpdate();
+                            }
                         }
                     }
                 }
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageUpdateEvent", e);
-        }
+        });
+        stored.whenComplete((v, e) -> cache.endWrite(event.getMessageIdLong(), e != null));
+        return stored;
     }
 
     public static MessageObject getOriginalMessage(String messageId) {
@@ -337,10 +401,10 @@ public class Database {
 
     public static MessageObject getOriginalMessage(long messageIdLong) {
         MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the original sent message
-        try (PreparedStatement getSendEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getSendEvent = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -407,165 +471,143 @@ public class Database {
     }
 
     public static MessageObject getLatestMessage(long messageIdLong) {
-        MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+        MessageCache cache = HifumiBot.getSelf().getSQLite().getMessageCache();
+        MessageObject cached = cache.getLatest(messageIdLong);
 
-        // First get the latest revision of the message
-        try (PreparedStatement getMessageEvent = rConn.prepareStatement("""
-                SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp, e.action,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_message = ?
-                AND (
-                    e.action = 'send'
-                    OR e.action = 'edit'
-                )
-                ORDER BY e.timestamp DESC
-                LIMIT 1;
-                """)) {
-            getMessageEvent.setLong(1, messageIdLong);
-            
-            try (ResultSet latestEvent = getMessageEvent.executeQuery()) {
-                // If we got a hit...
-                if (latestEvent.next()) {
-                    // ... then look for attachments
-                    try (PreparedStatement getAttachments = rConn.prepareStatement("""
-                            SELECT discord_id, timestamp, fk_message, content_type, proxy_url, filename
-                            FROM message_attachment
-                            WHERE fk_message = ?;
-                            """)) {
-                        getAttachments.setLong(1, messageIdLong);
-                        
-                        try (ResultSet attachments = getAttachments.executeQuery()) {
-                            ArrayList<AttachmentObject> attachmentList = new ArrayList<AttachmentObject>();
-                            
-                            while (attachments.next()) {
-                                AttachmentObject attachment = new AttachmentObject(
-                                    String.valueOf(attachments.getLong("discord_id")),
-                                    DateTimeUtils.longToOffsetDateTime(attachments.getLong("timestamp")), 
-                                    String.valueOf(messageIdLong),
-                                    attachments.getString("filename"),
-                                    attachments.getString("content_type"),
-                                    attachments.getString("proxy_url")
-                                );
-            
-                                attachmentList.add(attachment);
-                            }
-            
-                            String action = latestEvent.getString("action");
-            
-                            ret = new MessageObject(
-                                messageIdLong, 
-                                latestEvent.getLong("fk_user"), 
-                                DateTimeUtils.longToOffsetDateTime(latestEvent.getLong("timestamp")),
-                                (action != null && action.equals("edit") ? DateTimeUtils.longToOffsetDateTime(latestEvent.getLong("timestamp")) : null), 
-                                latestEvent.getLong("fk_channel"),
-                                latestEvent.getString("content"),
-                                latestEvent.getString("jump_link"), 
-                                latestEvent.getString("fk_reply_to_message"), 
-                                attachmentList
-                            );
-                        }
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            Messaging.logException("Database", "getLatestMessage", e);
+        if (cached != null) {
+            return cached;
         }
-        
-        return ret;
+
+        long generation = cache.beginLoad(messageIdLong);
+        CachedMessage loaded = Database.loadMessage(messageIdLong);
+        cache.putLoaded(messageIdLong, generation, loaded);
+
+        if (loaded == null) {
+            return null;
+        }
+
+        return loaded.toLatestMessage();
     }
 
     public static ArrayList<MessageObject> getAllMessageRevisions(long messageIdLong) {
-        ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+        MessageCache cache = HifumiBot.getSelf().getSQLite().getMessageCache();
+        ArrayList<MessageObject> cached = cache.getRevisions(messageIdLong);
 
-        // First get the latest revision of the message
-        try (PreparedStatement getMessageEvent = rConn.prepareStatement("""
-                SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp AS e_timestamp, e.action,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message, m.timestamp AS m_timestamp
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_message = ?
-                AND (
-                    e.action = 'send'
-                    OR e.action = 'edit'
-                )
-                ORDER BY e.timestamp DESC;
-                """)) {
-            getMessageEvent.setLong(1, messageIdLong);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = cache.beginLoad(messageIdLong);
+        CachedMessage loaded = Database.loadMessage(messageIdLong);
+        cache.putLoaded(messageIdLong, generation, loaded);
+
+        if (loaded == null) {
+            return new ArrayList<MessageObject>();
+        }
+
+        return loaded.toAllRevisions();
+    }
+
+    // The hot read queries are kept apart from their methods so QueryPlanTest can check their plans
+    static final String MESSAGE_REVISIONS_SQL = """
+        SELECT
+            e.id, e.fk_user, e.fk_message, e.content, e.timestamp AS e_timestamp, e.action,
+            m.fk_channel, m.jump_link, m.fk_reply_to_message, m.timestamp AS m_timestamp
+        FROM message_event AS e
+        INNER JOIN message AS m ON e.fk_message = m.message_id
+        WHERE e.fk_message = ?
+        AND (
+            e.action = 'send'
+            OR e.action = 'edit'
+        )
+        ORDER BY e.timestamp DESC;
+        """;
+
+    static final String MESSAGE_ATTACHMENTS_SQL = """
+        SELECT discord_id, timestamp, fk_message, content_type, proxy_url, filename
+        FROM message_attachment
+        WHERE fk_message = ?;
+        """;
+
+    /**
+     * Read a message and all of its sends and edits, for the message cache.
+     * @param messageIdLong
+     * @return The message, or null if it has no sends or edits stored.
+     */
+    private static CachedMessage loadMessage(long messageIdLong) {
+        CachedMessage ret = null;
+
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getMessageEvents = rConn.prepareStatement(MESSAGE_REVISIONS_SQL)) {
+            getMessageEvents.setLong(1, messageIdLong);
             
-            try (ResultSet latestEvent = getMessageEvent.executeQuery()) {
-                // If we got a hit...
-                while (latestEvent.next()) {
-                    // ... then look for attachments
-                    try (PreparedStatement getAttachments = rConn.prepareStatement("""
-                            SELECT discord_id, timestamp, fk_message, content_type, proxy_url, filename
-                            FROM message_attachment
-                            WHERE fk_message = ?;
-                            """)) {
-                        getAttachments.setLong(1, messageIdLong);
+            try (ResultSet events = getMessageEvents.executeQuery()) {
+                // Message details are the same on every row, so take them from the newest
+                if (!events.next()) {
+                    return null;
+                }
+
+                long authorId = events.getLong("fk_user");
+                long channelId = events.getLong("fk_channel");
+                long createdTimestamp = events.getLong("m_timestamp");
+                String jumpUrl = events.getString("jump_link");
+                String referencedMessageId = events.getString("fk_reply_to_message");
+                ArrayList<Revision> revisions = new ArrayList<Revision>();
+                
+                do {
+                    String action = events.getString("action");
+                    revisions.add(new Revision(events.getLong("e_timestamp"), action != null && action.equals("edit"), events.getString("content")));
+                } while (events.next());
+
+                try (PreparedStatement getAttachments = rConn.prepareStatement(MESSAGE_ATTACHMENTS_SQL)) {
+                    getAttachments.setLong(1, messageIdLong);
+                    
+                    try (ResultSet attachments = getAttachments.executeQuery()) {
+                        ArrayList<AttachmentObject> attachmentList = new ArrayList<AttachmentObject>();
                         
-                        try (ResultSet attachments = getAttachments.executeQuery()) {
-                            ArrayList<AttachmentObject> attachmentList = new ArrayList<AttachmentObject>();
-                            
-                            while (attachments.next()) {
-                                AttachmentObject attachment = new AttachmentObject(
-                                    String.valueOf(attachments.getLong("discord_id")),
-                                    DateTimeUtils.longToOffsetDateTime(attachments.getLong("timestamp")), 
-                                    String.valueOf(messageIdLong),
-                                    attachments.getString("filename"),
-                                    attachments.getString("content_type"),
-                                    attachments.getString("proxy_url")
-                                );
-            
-                                attachmentList.add(attachment);
-                            }
-            
-                            String action = latestEvent.getString("action");
-            
-                            ret.add(new MessageObject(
-                                messageIdLong, 
-                                latestEvent.getLong("fk_user"), 
-                                DateTimeUtils.longToOffsetDateTime(latestEvent.getLong("m_timestamp")),
-                                (action != null && action.equals("edit") ? DateTimeUtils.longToOffsetDateTime(latestEvent.getLong("e_timestamp")) : null), 
-                                latestEvent.getLong("fk_channel"),
-                                latestEvent.getString("content"),
-                                latestEvent.getString("jump_link"), 
-                                latestEvent.getString("fk_reply_to_message"), 
-                                attachmentList
-                            ));
+                        while (attachments.next()) {
+                            AttachmentObject attachment = new AttachmentObject(
+                                String.valueOf(attachments.getLong("discord_id")),
+                                DateTimeUtils.longToOffsetDateTime(attachments.getLong("timestamp")), 
+                                String.valueOf(messageIdLong),
+                                attachments.getString("filename"),
+                                attachments.getString("content_type"),
+                                attachments.getString("proxy_url")
+                            );
+        
+                            attachmentList.add(attachment);
                         }
+        
+                        ret = new CachedMessage(messageIdLong, authorId, channelId, createdTimestamp, jumpUrl, referencedMessageId, attachmentList, revisions);
                     }
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getAllMessageRevisions", e);
+            Messaging.logException("Database", "loadMessage", e);
         }
         
         return ret;
     }
 
+    static final String IDENTICAL_MESSAGES_SINCE_SQL = """
+        SELECT
+            e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
+            m.fk_channel, m.jump_link, m.fk_reply_to_message
+        FROM message_event AS e
+        INNER JOIN message AS m ON e.fk_message = m.message_id
+        WHERE e.fk_user = ?
+        AND e.content = ?
+        AND e.action = 'send'
+        AND e.timestamp >= ?
+        ORDER BY e.timestamp DESC;
+        """;
+
     public static ArrayList<MessageObject> getIdenticalMessagesSinceTime(long userIdLong, String contentRaw, long timestamp) {
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
-                SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.content = ?
-                AND e.action = 'send'
-                AND e.timestamp >= ?
-                ORDER BY e.timestamp DESC;
-                """)) {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getMessageEvents = rConn.prepareStatement(IDENTICAL_MESSAGES_SINCE_SQL)) {
             getMessageEvents.setLong(1, userIdLong);
             getMessageEvents.setString(2, contentRaw);
             getMessageEvents.setLong(3, timestamp);
@@ -596,108 +638,25 @@ public class Database {
         return ret;
     }
 
-    public static MessageObject getIdenticalMessageSinceTimeInOtherChannel(long userIdLong, String contentRaw, long timestamp, long channelIdLong) {
-        MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-
-        // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
-                SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.content = ?
-                AND e.action = 'send'
-                AND e.timestamp >= ?
-                AND e.fk_message NOT IN (
-                    SELECT fk_message
-                    FROM message_event
-                    WHERE fk_message = e.fk_message
-                    AND action = 'delete'
-                )
-                AND NOT m.fk_channel = ?
-                ORDER BY e.timestamp DESC
-                LIMIT 1;
-                """)) {
-            getMessageEvents.setLong(1, userIdLong);
-            getMessageEvents.setString(2, contentRaw);
-            getMessageEvents.setLong(3, timestamp);
-            getMessageEvents.setLong(4, channelIdLong);
-            
-            try (ResultSet res = getMessageEvents.executeQuery()) {
-                if (res.next()) {
-                    ret = new MessageObject(
-                        res.getLong("fk_message"),
-                        res.getLong("fk_user"),
-                        DateTimeUtils.longToOffsetDateTime(res.getLong("timestamp")),
-                        null,
-                        res.getLong("fk_channel"),
-                        res.getString("content"),
-                        res.getString("jump_link"),
-                        null,
-                        null
-                    );
-                }
-            }
-
-            return ret;
-        } catch (SQLException e) {
-            Messaging.logException("Database", "getIdenticalMessageSinceTimeInOtherChannel", e);
-        }
-        
-        return ret;
-    }
     
-    public static HashMap<Long, Integer> getMessageAggregateCountsByChannelSinceTime(long userIdLong, long timestamp) {
-        HashMap<Long, Integer> ret = new HashMap<Long, Integer>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        
-        try (PreparedStatement getAggregateMessages = rConn.prepareStatement("""
-                SELECT
-                    COUNT(m.message_id) AS message_count, m.fk_channel
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.action = 'send'
-                AND e.timestamp >= ?
-                GROUP BY m.fk_channel
-                ORDER BY e.timestamp DESC
-                """)) {
-            getAggregateMessages.setLong(1, userIdLong);
-            getAggregateMessages.setLong(2, timestamp);
-            
-            try (ResultSet res = getAggregateMessages.executeQuery()) {
-                while (res.next()) {
-                    Long channelId = res.getLong("fk_channel");
-                    Integer messageCount = res.getInt("message_count");
-                    ret.put(channelId, messageCount);
-                }
-            }
-        } catch (SQLException e) {
-            Messaging.logException("Database", "getMessageAggregateCountsByChannelSinceTime", e);
-        }
-        
-        return ret;
-    }
+    static final String ALL_MESSAGES_SINCE_SQL = """
+        SELECT
+            e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
+            m.fk_channel, m.jump_link, m.fk_reply_to_message
+        FROM message_event AS e
+        INNER JOIN message AS m ON e.fk_message = m.message_id
+        WHERE e.fk_user = ?
+        AND e.action = 'send'
+        AND e.timestamp >= ?
+        ORDER BY e.timestamp DESC;
+        """;
 
     public static ArrayList<MessageObject> getAllMessagesSinceTime(long userIdLong, long timestamp) {
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
-                SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.action = 'send'
-                AND e.timestamp >= ?
-                ORDER BY e.timestamp DESC;
-                """)) {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getMessageEvents = rConn.prepareStatement(ALL_MESSAGES_SINCE_SQL)) {
             getMessageEvents.setLong(1, userIdLong);
             getMessageEvents.setLong(2, timestamp);
             
@@ -729,10 +688,10 @@ public class Database {
     
     public static ArrayList<MessageObject> getAllMessagesSinceTimeExcept(long userIdLong, long timestamp, long exceptedMessageId) {
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getMessageEvents = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.message_id, m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -774,19 +733,21 @@ public class Database {
         return ret;
     }
     
+    static final String ATTACHMENT_CHANNELS_SINCE_SQL = """
+        SELECT m.message_id, m.fk_user, MAX(m.timestamp) AS max_timestamp, m.fk_channel
+        FROM message_attachment AS a
+        INNER JOIN message AS m ON m.message_id = a.fk_message
+        WHERE m.fk_user = ?
+        AND m.timestamp >= ?
+        GROUP BY m.fk_channel
+        ORDER BY m.timestamp DESC;
+        """;
+
     public static ArrayList<MessageObject> getMessagesWithAttachmentsAggregateByChannelSinceTime(long userIdLong, long timestamp) {
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-
-        try (PreparedStatement getMessages = rConn.prepareStatement("""
-                SELECT m.message_id, m.fk_user, MAX(m.timestamp) AS max_timestamp, m.fk_channel
-                FROM message_attachment AS a
-                INNER JOIN message AS m ON m.message_id = a.fk_message
-                WHERE m.fk_user = ?
-                AND m.timestamp >= ?
-                GROUP BY m.fk_channel
-                ORDER BY m.timestamp DESC;
-                """)) {
+
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getMessages = rConn.prepareStatement(ATTACHMENT_CHANNELS_SINCE_SQL)) {
             getMessages.setLong(1, userIdLong);
             getMessages.setLong(2, timestamp);
             
@@ -817,9 +778,8 @@ public class Database {
     }
 
     public static boolean insertWarezEvent(WarezEventObject warezEvent, User user) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -855,9 +815,9 @@ public class Database {
 
     public static Optional<WarezEventObject> getLatestWarezAction(long userIdLong) {
         Optional<WarezEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getWarezEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getWarezEvent = rConn.prepareStatement("""
                 SELECT timestamp, fk_user, action, fk_message
                 FROM warez_event
                 WHERE fk_user = ?
@@ -887,9 +847,9 @@ public class Database {
 
     public static ArrayList<WarezEventObject> getAllWarezActionsForUser(long userIdLong) {
         ArrayList<WarezEventObject> ret = new ArrayList<WarezEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getWarezEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getWarezEvents = rConn.prepareStatement("""
                 SELECT e.timestamp, e.fk_user, e.action, e.fk_message, m.content, m.action AS message_action, COUNT(a.discord_id) AS attachments
                 FROM warez_event AS e
                 LEFT JOIN message_event AS m ON e.fk_message = m.fk_message
@@ -920,132 +880,126 @@ public class Database {
         return ret;
     }
 
-    public static ArrayList<ArrayList<WarezEventObject>> getAllWarezActionsForUserPaginated(long userIdLong) {
-        ArrayList<ArrayList<WarezEventObject>> ret = new ArrayList<ArrayList<WarezEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    static final String WAREZ_EVENTS_PAGE_SQL = """
+        SELECT e.id, e.timestamp, e.fk_user, e.action, e.fk_message, m.content, m.action AS message_action, COUNT(a.discord_id) AS attachments
+        FROM (
+            SELECT id, timestamp, fk_user, action, fk_message
+            FROM warez_event
+            WHERE fk_user = ?
+            AND (timestamp, id) < (?, ?)
+            ORDER BY timestamp DESC, id DESC
+            LIMIT ?
+        ) AS e
+        LEFT JOIN message_event AS m ON e.fk_message = m.fk_message
+        LEFT JOIN message_attachment AS a ON e.fk_message = a.fk_message
+        GROUP BY e.id
+        ORDER BY e.timestamp DESC, e.id DESC;
+        """;
 
-        // Catch outside the loop so we can just gracefully exit with whatever we got up to that point.
-        try {
-            boolean isEmpty = false;
-            long timestamp = OffsetDateTime.now().toEpochSecond();
-            int rowsReturned = 0;
-
-            do { 
-                try (PreparedStatement getWarezEvents = rConn.prepareStatement("""
-                        SELECT e.timestamp, e.fk_user, e.action, e.fk_message, m.content, m.action AS message_action, COUNT(a.discord_id) AS attachments
-                        FROM warez_event AS e
-                        LEFT JOIN message_event AS m ON e.fk_message = m.fk_message
-                        LEFT JOIN message_attachment AS a ON e.fk_message = a.fk_message
-                        WHERE e.fk_user = ?
-                        AND e.timestamp < ?
-                        GROUP BY e.id
-                        ORDER BY e.timestamp DESC
-                        LIMIT 10
-                        OFFSET ?;
-                        """)) {
-                    getWarezEvents.setLong(1, userIdLong);
-                    getWarezEvents.setLong(2, timestamp);
-                    getWarezEvents.setInt(3, rowsReturned);
-                    
-                    try (ResultSet warezEvent = getWarezEvents.executeQuery()) {
-                        ArrayList<WarezEventObject> warezEvents = new ArrayList<WarezEventObject>();
-                        
-                        while (warezEvent.next()) {
-                            WarezEventObject event = new WarezEventObject(
-                                warezEvent.getLong("timestamp"), 
-                                warezEvent.getLong("fk_user"), 
-                                WarezEventObject.Action.valueOf(warezEvent.getString("action").toUpperCase()),
-                                warezEvent.getLong("fk_message"),
-                                warezEvent.getString("content"),
-                                warezEvent.getString("message_action"),
-                                warezEvent.getLong("attachments")
-                            );
-                            warezEvents.add(event);
-                        }
-        
-                        rowsReturned += warezEvents.size();
-        
-                        if (!warezEvents.isEmpty()) {
-                            ret.add(warezEvents);
-                        } else {
-                            isEmpty = true;
-                        }
+    /**
+     * Get one page of a user's warez history, newest first.
+     * @param userIdLong
+     * @param after Last row of the page before, or {@link Page#FIRST} for the first page.
+     * @param pageSize
+     */
+    public static Page<WarezEventObject> getWarezActionsForUserPage(long userIdLong, Page.Cursor after, int pageSize) {
+        ArrayList<WarezEventObject> items = new ArrayList<WarezEventObject>();
+        Optional<Page.Cursor> next = Optional.empty();
+
+        // The page is picked from the index first, so only its own rows are joined and grouped
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getWarezEvents = rConn.prepareStatement(WAREZ_EVENTS_PAGE_SQL)) {
+            getWarezEvents.setLong(1, userIdLong);
+            getWarezEvents.setLong(2, after.timestamp());
+            getWarezEvents.setLong(3, after.id());
+            getWarezEvents.setInt(4, pageSize + 1);
+            
+            try (ResultSet warezEvent = getWarezEvents.executeQuery()) {
+                long lastTimestamp = 0;
+                long lastId = 0;
+
+                while (warezEvent.next()) {
+                    // One extra row was asked for, only to find out whether there is another page
+                    if (items.size() == pageSize) {
+                        next = Optional.of(new Page.Cursor(lastTimestamp, lastId));
+                        break;
                     }
+
+                    lastTimestamp = warezEvent.getLong("timestamp");
+                    lastId = warezEvent.getLong("id");
+                    items.add(new WarezEventObject(
+                        warezEvent.getLong("timestamp"), 
+                        warezEvent.getLong("fk_user"), 
+                        WarezEventObject.Action.valueOf(warezEvent.getString("action").toUpperCase()),
+                        warezEvent.getLong("fk_message"),
+                        warezEvent.getString("content"),
+                        warezEvent.getString("message_action"),
+                        warezEvent.getLong("attachments")
+                    ));
                 }
-            } while (!isEmpty);
+            }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getAllWarezActionsForUserPaginated", e);
+            Messaging.logException("Database", "getWarezActionsForUserPage", e);
         }
         
-        return ret;
+        return new Page<WarezEventObject>(items, next);
     }
 
     public static ArrayList<WarezChartData> getWarezAssignmentsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<WarezChartData> ret = new ArrayList<WarezChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getWarezEvent = rConn.prepareStatement("""
-                SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, action
-                FROM warez_event
-                WHERE timestamp >= ?
-                AND timestamp <= ?
-                GROUP BY STRFTIME(?, DATETIME(timestamp, 'unixepoch')), action
-                ORDER BY action ASC, timestamp ASC;
-                """)) {
-            getWarezEvent.setString(1, formatStr);
-            getWarezEvent.setLong(2, startTimestamp);
-            getWarezEvent.setLong(3, endTimestamp);
-            getWarezEvent.setString(4, formatStr);
-            
-            try (ResultSet latestEvent = getWarezEvent.executeQuery()) {
-                while (latestEvent.next()) {
-                    WarezChartData data = new WarezChartData();
-                    data.timeUnit = latestEvent.getString("timeUnit");
-                    data.events = latestEvent.getInt("events");
-                    data.action = latestEvent.getString("action");
-                    ret.add(data);
-                }
+        try {
+            ArrayList<EventRollups.Bucket> buckets = EventRollups.read(EventRollups.WAREZ, startTimestamp, endTimestamp, timeUnit);
+            // Grouped by action, the chart colours its series in the order they first appear
+            buckets.sort(Comparator.comparing(EventRollups.Bucket::label));
+
+            for (EventRollups.Bucket bucket : buckets) {
+                WarezChartData data = new WarezChartData();
+                data.timeUnit = bucket.bucket();
+                data.events = bucket.events();
+                data.action = bucket.label();
+                ret.add(data);
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getWarezAssignmentsSince", e);
+            Messaging.logException("Database", "getWarezAssignmentsBetween", e);
         }
         
         return ret;
     }
 
-    public static void insertMemberJoinEvent(GuildMemberJoinEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+    public static CompletableFuture<Void> insertMemberJoinEvent(GuildMemberJoinEvent event) {
+        // Blocking REST call, keep it off the writer thread.
+        long timeJoined = event.getGuild().retrieveMemberById(event.getMember().getId()).complete().getTimeJoined().toEpochSecond();
 
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, event.getMember().getIdLong());
-            insertUser.setLong(2, event.getMember().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, event.getUser().getName());
-            insertUser.executeUpdate();
-
-            try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                    INSERT INTO member_event (timestamp, fk_user, action)
-                    VALUES (?, ?, ?);
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMemberJoinEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertEvent.setLong(1, event.getGuild().retrieveMemberById(event.getMember().getId()).complete().getTimeJoined().toEpochSecond());
-                insertEvent.setLong(2, event.getMember().getIdLong());
-                insertEvent.setString(3, "join");
-                insertEvent.executeUpdate();
+                insertUser.setLong(1, event.getMember().getIdLong());
+                insertUser.setLong(2, event.getMember().getTimeCreated().toEpochSecond());
+                insertUser.setString(3, event.getUser().getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                        INSERT INTO member_event (timestamp, fk_user, action)
+                        VALUES (?, ?, ?);
+                        """)) {
+                    insertEvent.setLong(1, timeJoined);
+                    insertEvent.setLong(2, event.getMember().getIdLong());
+                    insertEvent.setString(3, "join");
+                    insertEvent.executeUpdate();
+                }
             }
-        } catch (SQLException e) {
-            Messaging.logException("Database", "insertMemberJoinEvent", e);
-        }
+        });
     }
 
     public static ArrayList<MemberEventObject> getRecentMemberEvents(long userId) {
         ArrayList<MemberEventObject> ret = new ArrayList<MemberEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement events = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement events = rConn.prepareStatement("""
                 SELECT timestamp, fk_user, action
                 FROM member_event
                 WHERE fk_user = ?
@@ -1071,149 +1025,129 @@ public class Database {
         return ret;
     }
 
-    public static ArrayList<ArrayList<MemberEventObject>> getAllMemberEventsPaginated(long userId) {
-        ArrayList<ArrayList<MemberEventObject>> ret = new ArrayList<ArrayList<MemberEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    static final String MEMBER_EVENTS_PAGE_SQL = """
+        SELECT id, timestamp, fk_user, action
+        FROM member_event
+        WHERE fk_user = ?
+        AND (timestamp, id) < (?, ?)
+        ORDER BY timestamp DESC, id DESC
+        LIMIT ?;
+        """;
 
-        // Catch outside the loop so we can just gracefully exit with whatever we got up to that point.
-        try {
-            boolean isEmpty = false;
-            long timestamp = OffsetDateTime.now().toEpochSecond();
-            int rowsReturned = 0;
+    /**
+     * Get one page of a user's joins, leaves and bans, newest first.
+     * @param userId
+     * @param after Last row of the page before, or {@link Page#FIRST} for the first page.
+     * @param pageSize
+     */
+    public static Page<MemberEventObject> getMemberEventsPage(long userId, Page.Cursor after, int pageSize) {
+        ArrayList<MemberEventObject> items = new ArrayList<MemberEventObject>();
+        Optional<Page.Cursor> next = Optional.empty();
+
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement events = rConn.prepareStatement(MEMBER_EVENTS_PAGE_SQL)) {
+            events.setLong(1, userId);
+            events.setLong(2, after.timestamp());
+            events.setLong(3, after.id());
+            events.setInt(4, pageSize + 1);
             
-            do {
-                try (PreparedStatement events = rConn.prepareStatement("""
-                        SELECT timestamp, fk_user, action
-                        FROM member_event
-                        WHERE fk_user = ?
-                        AND timestamp < ?
-                        ORDER BY timestamp DESC
-                        LIMIT 10
-                        OFFSET ?;
-                        """)) {
-                    events.setLong(1, userId);
-                    events.setLong(2, timestamp);
-                    events.setInt(3, rowsReturned);
-                    
-                    try (ResultSet eventsRes = events.executeQuery()) {
-                        ArrayList<MemberEventObject> memberEvents = new ArrayList<MemberEventObject>();
-                        
-                        while (eventsRes.next()) {
-                            MemberEventObject event = new MemberEventObject(
-                                eventsRes.getLong("timestamp"), 
-                                eventsRes.getLong("fk_user"), 
-                                MemberEventObject.Action.valueOf(eventsRes.getString("action").toUpperCase())
-                            );
-                            memberEvents.add(event);
-                        }
-        
-                        rowsReturned += memberEvents.size();
-        
-                        if (!memberEvents.isEmpty()) {
-                            ret.add(memberEvents);
-                        } else {
-                            isEmpty = true;
-                        }
+            try (ResultSet eventsRes = events.executeQuery()) {
+                long lastTimestamp = 0;
+                long lastId = 0;
+
+                while (eventsRes.next()) {
+                    // One extra row was asked for, only to find out whether there is another page
+                    if (items.size() == pageSize) {
+                        next = Optional.of(new Page.Cursor(lastTimestamp, lastId));
+                        break;
                     }
+
+                    lastTimestamp = eventsRes.getLong("timestamp");
+                    lastId = eventsRes.getLong("id");
+                    MemberEventObject event = new MemberEventObject(
+                        eventsRes.getLong("timestamp"), 
+                        eventsRes.getLong("fk_user"), 
+                        MemberEventObject.Action.valueOf(eventsRes.getString("action").toUpperCase())
+                    );
+                    items.add(event);
                 }
-            } while (!isEmpty);
+            }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getAllMemberEventsPaginated", e);
+            Messaging.logException("Database", "getMemberEventsPage", e);
         }
 
-        return ret;
+        return new Page<MemberEventObject>(items, next);
     }
 
     public static ArrayList<MemberChartData> getMemberEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<MemberChartData> ret = new ArrayList<MemberChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
 
-        try (PreparedStatement events = rConn.prepareStatement("""
-                SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, action
-                FROM member_event
-                WHERE timestamp >= ?
-                AND timestamp <= ?
-                GROUP BY STRFTIME(?, DATETIME(timestamp, 'unixepoch')), action
-                ORDER BY CASE
-                    WHEN action = "join" THEN 1
-                    WHEN action = "leave" THEN 2
-                    WHEN action = "ban" THEN 3
-                    END ASC,
-                    timestamp ASC;
-                """)) {
-            events.setString(1, formatStr);
-            events.setLong(2, startTimestamp);
-            events.setLong(3, endTimestamp);
-            events.setString(4, formatStr);
-            
-            try (ResultSet eventsRes = events.executeQuery()) {
-                while (eventsRes.next()) {
-                    MemberChartData data = new MemberChartData();
-                    data.timeUnit = eventsRes.getString("timeUnit");
-                    data.events = eventsRes.getInt("events");
-                    data.action = eventsRes.getString("action");
-                    ret.add(data);
-                }
+        try {
+            ArrayList<EventRollups.Bucket> buckets = EventRollups.read(EventRollups.MEMBER, startTimestamp, endTimestamp, timeUnit);
+            // Joins, then leaves, then bans, the chart colours its series in the order they first appear
+            buckets.sort(Comparator.comparingInt(bucket -> List.of("join", "leave", "ban").indexOf(bucket.label())));
+
+            for (EventRollups.Bucket bucket : buckets) {
+                MemberChartData data = new MemberChartData();
+                data.timeUnit = bucket.bucket();
+                data.events = bucket.events();
+                data.action = bucket.label();
+                ret.add(data);
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getMemberEventsSince", e);
+            Messaging.logException("Database", "getMemberEventsBetween", e);
         }
 
         return ret;
     }
 
-    public static void insertMemberRemoveEvent(GuildMemberRemoveEvent event, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, event.getUser().getIdLong());
-            insertUser.setLong(2, event.getUser().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, event.getUser().getName());
-            insertUser.executeUpdate();
-
-            try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                    INSERT INTO member_event (timestamp, fk_user, action)
-                    VALUES (?, ?, ?);
+    public static CompletableFuture<Void> insertMemberRemoveEvent(GuildMemberRemoveEvent event, OffsetDateTime time) {
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMemberRemoveEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertEvent.setLong(1, time.toEpochSecond());
-                insertEvent.setLong(2, event.getUser().getIdLong());
-                insertEvent.setString(3, "leave");
-                insertEvent.executeUpdate();
+                insertUser.setLong(1, event.getUser().getIdLong());
+                insertUser.setLong(2, event.getUser().getTimeCreated().toEpochSecond());
+                insertUser.setString(3, event.getUser().getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                        INSERT INTO member_event (timestamp, fk_user, action)
+                        VALUES (?, ?, ?);
+                        """)) {
+                    insertEvent.setLong(1, time.toEpochSecond());
+                    insertEvent.setLong(2, event.getUser().getIdLong());
+                    insertEvent.setString(3, "leave");
+                    insertEvent.executeUpdate();
+                }
             }
-        } catch (SQLException e) {
-            Messaging.logException("Database", "insertMemberRemoveEvent", e);
-        }
+        });
     }
 
-    public static void insertMemberBanEvent(GuildBanEvent event, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?) ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, event.getUser().getIdLong());
-            insertUser.setLong(2, event.getUser().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, event.getUser().getName());
-            insertUser.executeUpdate();
-
-            try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                    INSERT INTO member_event (timestamp, fk_user, action)
-                    VALUES (?, ?, ?);
+    public static CompletableFuture<Void> insertMemberBanEvent(GuildBanEvent event, OffsetDateTime time) {
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertMemberBanEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?) ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertEvent.setLong(1, time.toEpochSecond());
-                insertEvent.setLong(2, event.getUser().getIdLong());
-                insertEvent.setString(3, "ban");
-                insertEvent.executeUpdate();
+                insertUser.setLong(1, event.getUser().getIdLong());
+                insertUser.setLong(2, event.getUser().getTimeCreated().toEpochSecond());
+                insertUser.setString(3, event.getUser().getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                        INSERT INTO member_event (timestamp, fk_user, action)
+                        VALUES (?, ?, ?);
+                        """)) {
+                    insertEvent.setLong(1, time.toEpochSecond());
+                    insertEvent.setLong(2, event.getUser().getIdLong());
+                    insertEvent.setString(3, "ban");
+                    insertEvent.executeUpdate();
+                }
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMemberBanEvent", e);
-        }
+        });
     }
 
     /**
@@ -1221,9 +1155,8 @@ public class Database {
      * @param automodEvent
      */
     public static void insertAutoModEvent(AutoModExecutionEvent event, User user, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1284,9 +1217,9 @@ public class Database {
 
     public static ArrayList<AutoModEventObject> getAutoModEventsSinceTime(long userIdLong, OffsetDateTime time) {
         ArrayList<AutoModEventObject> ret = new ArrayList<AutoModEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getFilterEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getFilterEvent = rConn.prepareStatement("""
                 SELECT
                 fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
                 FROM automod_event
@@ -1329,9 +1262,9 @@ public class Database {
 
     public static ArrayList<AutoModEventObject> getAllAutoModEvents(long userIdLong) {
         ArrayList<AutoModEventObject> ret = new ArrayList<AutoModEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getFilterEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getFilterEvent = rConn.prepareStatement("""
                 SELECT
                 fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
                 FROM automod_event
@@ -1374,95 +1307,95 @@ public class Database {
         return ret;
     }
 
-    public static ArrayList<ArrayList<AutoModEventObject>> getAllAutoModEventsPaginated(long userIdLong) {
-        ArrayList<ArrayList<AutoModEventObject>> ret = new ArrayList<ArrayList<AutoModEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    static final String AUTOMOD_EVENTS_PAGE_SQL = """
+        SELECT
+        id, fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
+        FROM automod_event
+        WHERE fk_user = ?
+        AND (
+            response_type = ?
+            OR response_type = ?
+        )
+        AND (timestamp, id) < (?, ?)
+        ORDER BY timestamp DESC, id DESC
+        LIMIT ?;
+        """;
 
-        try {
-            boolean isEmpty = false;
-            long timestamp = OffsetDateTime.now().toEpochSecond();
-            int rowsReturned = 0;
-
-            do { 
-                try (PreparedStatement getAutoModEvents = rConn.prepareStatement("""
-                        SELECT
-                        fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
-                        FROM automod_event
-                        WHERE fk_user = ?
-                        AND (
-                            response_type = ?
-                            OR response_type = ?
-                        )
-                        AND timestamp < ?
-                        ORDER BY timestamp DESC
-                        LIMIT 10
-                        OFFSET ?;
-                        """)) {
-                    getAutoModEvents.setLong(1, userIdLong);
-                    getAutoModEvents.setString(2, AutoModResponse.Type.BLOCK_MESSAGE.toString());
-                    getAutoModEvents.setString(3, AutoModResponse.Type.BLOCK_MEMBER_INTERACTION.toString());
-                    getAutoModEvents.setLong(4, timestamp);
-                    getAutoModEvents.setInt(5, rowsReturned);
-                    
-                    try (ResultSet res = getAutoModEvents.executeQuery()) {
-                        ArrayList<AutoModEventObject> autoModEvents = new ArrayList<AutoModEventObject>();
-                        
-                        while (res.next()) {
-                            AutoModEventObject autoModEventObject = new AutoModEventObject(
-                                res.getLong("fk_user"),
-                                res.getLong("fk_message"),
-                                res.getLong("fk_channel"),
-                                res.getLong("alert_message_id"),
-                                res.getLong("rule_id"),
-                                res.getLong("timestamp"),
-                                res.getString("trigger"),
-                                res.getString("content"),
-                                res.getString("matched_content"),
-                                res.getString("matched_keyword"),
-                                res.getString("response_type")
-                            );
-        
-                            autoModEvents.add(autoModEventObject);
-                        }
-        
-                        rowsReturned += autoModEvents.size();
-        
-                        if (!autoModEvents.isEmpty()) {
-                            ret.add(autoModEvents);
-                        } else {
-                            isEmpty = true;
-                        }
+    /**
+     * Get one page of a user's blocked AutoMod events, newest first.
+     * @param userIdLong
+     * @param after Last row of the page before, or {@link Page#FIRST} for the first page.
+     * @param pageSize
+     */
+    public static Page<AutoModEventObject> getAutoModEventsPage(long userIdLong, Page.Cursor after, int pageSize) {
+        ArrayList<AutoModEventObject> items = new ArrayList<AutoModEventObject>();
+        Optional<Page.Cursor> next = Optional.empty();
+
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getAutoModEvents = rConn.prepareStatement(AUTOMOD_EVENTS_PAGE_SQL)) {
+            getAutoModEvents.setLong(1, userIdLong);
+            getAutoModEvents.setString(2, AutoModResponse.Type.BLOCK_MESSAGE.toString());
+            getAutoModEvents.setString(3, AutoModResponse.Type.BLOCK_MEMBER_INTERACTION.toString());
+            getAutoModEvents.setLong(4, after.timestamp());
+            getAutoModEvents.setLong(5, after.id());
+            getAutoModEvents.setInt(6, pageSize + 1);
+            
+            try (ResultSet res = getAutoModEvents.executeQuery()) {
+                long lastTimestamp = 0;
+                long lastId = 0;
+
+                while (res.next()) {
+                    // One extra row was asked for, only to find out whether there is another page
+                    if (items.size() == pageSize) {
+                        next = Optional.of(new Page.Cursor(lastTimestamp, lastId));
+                        break;
                     }
+
+                    lastTimestamp = res.getLong("timestamp");
+                    lastId = res.getLong("id");
+                    AutoModEventObject autoModEventObject = new AutoModEventObject(
+                        res.getLong("fk_user"),
+                        res.getLong("fk_message"),
+                        res.getLong("fk_channel"),
+                        res.getLong("alert_message_id"),
+                        res.getLong("rule_id"),
+                        res.getLong("timestamp"),
+                        res.getString("trigger"),
+                        res.getString("content"),
+                        res.getString("matched_content"),
+                        res.getString("matched_keyword"),
+                        res.getString("response_type")
+                    );
+
+                    items.add(autoModEventObject);
                 }
-            } while (!isEmpty);
+            }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getAllAutoModEventsPaginated", e);
+            Messaging.logException("Database", "getAutoModEventsPage", e);
         }
         
-        return ret;
+        return new Page<AutoModEventObject>(items, next);
     }
 
-    public static void insertCounter(String type, long timestamp, long value) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertCounter = wConn.prepareStatement("""
-                    INSERT INTO counter (type, timestamp, value)
-                    VALUES (?, ?, ?);
-                    """)) {
-            insertCounter.setString(1, type);
-            insertCounter.setLong(2, timestamp);
-            insertCounter.setLong(3, value);
-            insertCounter.executeUpdate();
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertCounter", e);
-        }
+    public static CompletableFuture<Void> insertCounter(String type, long timestamp, long value) {
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertCounter", wConn -> {
+            try (PreparedStatement insertCounter = wConn.prepareStatement("""
+                        INSERT INTO counter (type, timestamp, value)
+                        VALUES (?, ?, ?);
+                        """)) {
+                insertCounter.setString(1, type);
+                insertCounter.setLong(2, timestamp);
+                insertCounter.setLong(3, value);
+                insertCounter.executeUpdate();
+            }
+        });
     }
 
     public static CounterObject getLatestCounter(String type) {
         CounterObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getCounter = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getCounter = rConn.prepareStatement("""
                 SELECT
                 type, timestamp, value
                 FROM counter
@@ -1488,80 +1421,90 @@ public class Database {
         return ret;
     }
 
-    public static void insertCommandEvent(long commandIdLong, String type, String name, String group, String sub, long eventIdLong, User user, long channelIdLong, long timestamp, boolean ninja, List<OptionMapping> options) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, user.getIdLong());
-            insertUser.setLong(2, user.getTimeCreated().toEpochSecond());
-            insertUser.setString(3, user.getName());
-            insertUser.executeUpdate();
-
-            try (PreparedStatement insertCommand = wConn.prepareStatement("""
-                    INSERT INTO command (discord_id, type, name, subgroup, subcmd)
-                    VALUES (?, ?, ?, ?, ?)
+    public static CompletableFuture<Void> insertCommandEvent(long commandIdLong, String type, String name, String group, String sub, long eventIdLong, User user, long channelIdLong, long timestamp, boolean ninja, List<OptionMapping> options) {
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertCommandEvent", wConn -> {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertCommand.setLong(1, commandIdLong);
-                insertCommand.setString(2, type);
-                insertCommand.setString(3, name);
-                insertCommand.setString(4, group);
-                insertCommand.setString(5, sub);
-                insertCommand.executeUpdate();
-    
-                try (PreparedStatement insertCommandEvent = wConn.prepareStatement("""
-                        INSERT INTO command_event (discord_id, command_fk, user_fk, channel_fk, timestamp, ninja)
-                        VALUES (?, ?, ?, ?, ?, ?);
+                insertUser.setLong(1, user.getIdLong());
+                insertUser.setLong(2, user.getTimeCreated().toEpochSecond());
+                insertUser.setString(3, user.getName());
+                insertUser.executeUpdate();
+
+                try (PreparedStatement insertCommand = wConn.prepareStatement("""
+                        INSERT INTO command (discord_id, type, name, subgroup, subcmd)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (discord_id) DO NOTHING;
                         """)) {
-                    insertCommandEvent.setLong(1, eventIdLong);
-                    insertCommandEvent.setLong(2, commandIdLong);
-                    insertCommandEvent.setLong(3, user.getIdLong());
-                    insertCommandEvent.setLong(4, channelIdLong);
-                    insertCommandEvent.setLong(5, timestamp);
-                    insertCommandEvent.setBoolean(6, ninja);
-                    insertCommandEvent.executeUpdate();
-        
-                    if (options.isEmpty()) {
-                        return;
-                    }
+                    insertCommand.setLong(1, commandIdLong);
+                    insertCommand.setString(2, type);
+                    insertCommand.setString(3, name);
+                    insertCommand.setString(4, group);
+                    insertCommand.setString(5, sub);
+                    insertCommand.executeUpdate();
+    
+                    try (PreparedStatement insertCommandEvent = wConn.prepareStatement("""
+                            INSERT INTO command_event (discord_id, command_fk, user_fk, channel_fk, timestamp, ninja)
+                            VALUES (?, ?, ?, ?, ?, ?);
+                            """)) {
+                        insertCommandEvent.setLong(1, eventIdLong);
+                        insertCommandEvent.setLong(2, commandIdLong);
+                        insertCommandEvent.setLong(3, user.getIdLong());
+                        insertCommandEvent.setLong(4, channelIdLong);
+                        insertCommandEvent.setLong(5, timestamp);
+                        insertCommandEvent.setBoolean(6, ninja);
+                        insertCommandEvent.executeUpdate();
+        
+                        if (options.isEmpty()) {
+                            return;
+                        }
         
-                    StringBuilder sb = new StringBuilder("""
-                            INSERT INTO command_event_option (command_event_fk, name, value_str)
-                            VALUES
-                    """);
+                        StringBuilder sb = new StringBuilder("""
+                                INSERT INTO command_event_option (command_event_fk, name, value_str)
+                                VALUES
+                        """);
         
-                    for (int i = 0; i < options.size(); i++) {
-                        sb.append(" (?, ?, ?)");
+                        for (int i = 0; i < options.size(); i++) {
+                            sb.append(" (?, ?, ?)");
         
-                        if (i < options.size() - 1) {
-                            sb.append(",");
+                            if (i < options.size() - 1) {
+                                sb.append(",");
+                            }
                         }
-                    }
         
-                    sb.append(";");
+                        sb.append(";");
         
-                    try (PreparedStatement insertOptions = wConn.prepareStatement(sb.toString())) {
-                        int counter = 1;
+                        try (PreparedStatement insertOptions = wConn.prepareStatement(sb.toString())) {
+                            int counter = 1;
             
-                        for (OptionMapping opt : options) {
-                            insertOptions.setLong(counter++, commandIdLong);
-                            insertOptions.setString(counter++, opt.getName());
-                            insertOptions.setString(counter++, opt.getAsString());
-                        }
+                            for (OptionMapping opt : options) {
+                                insertOptions.setLong(counter++, commandIdLong);
+                                insertOptions.setString(counter++, opt.getName());
+                                insertOptions.setString(counter++, opt.getAsString());
+                            }
                         
-                        insertOptions.executeUpdate();
+                            insertOptions.executeUpdate();
+                        }
                     }
                 }
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertCommandEvent", e);
-        }
+        });
     }
 
+    static final String LATEST_COMMAND_EVENT_SQL = """
+        SELECT e.discord_id, e.command_fk, e.user_fk, e.timestamp
+        FROM command_event AS e
+        INNER JOIN command AS c ON c.discord_id = e.command_fk
+        WHERE e.channel_fk = ?
+        AND e.command_fk = ?
+        AND NOT e.user_fk = ?
+        AND e.timestamp >= ?
+        ORDER BY timestamp DESC
+        LIMIT 1;
+        """;
+
     /**
      * Get the latest command event to occur in a channel, for a given command,
      * where the user is ANYONE EXCEPT the user specified, within the ninja interval from config.
@@ -1572,19 +1515,9 @@ public class Database {
      */
     public static Optional<CommandEventObject> getLatestCommandEventNotFromUser(long channelIdLong, long commandIdLong, long userIdLong) {
         Optional<CommandEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getCommandEvent = rConn.prepareStatement("""
-                SELECT e.discord_id, e.command_fk, e.user_fk, e.timestamp
-                FROM command_event AS e
-                INNER JOIN command AS c ON c.discord_id = e.command_fk
-                WHERE e.channel_fk = ?
-                AND e.command_fk = ?
-                AND NOT e.user_fk = ?
-                AND e.timestamp >= ?
-                ORDER BY timestamp DESC
-                LIMIT 1;
-                """)) {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getCommandEvent = rConn.prepareStatement(LATEST_COMMAND_EVENT_SQL)) {
             getCommandEvent.setLong(1, channelIdLong);
             getCommandEvent.setLong(2, commandIdLong);
             getCommandEvent.setLong(3, userIdLong);
@@ -1612,30 +1545,14 @@ public class Database {
 
     public static ArrayList<AutomodChartData> getAutomodEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<AutomodChartData> ret = new ArrayList<AutomodChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getAutomodEvents = rConn.prepareStatement("""
-                SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, trigger
-                FROM automod_event
-                WHERE timestamp >= ?
-                AND timestamp <= ?
-                GROUP BY STRFTIME(?, DATETIME(timestamp, 'unixepoch')), trigger
-                ORDER BY timestamp ASC, trigger ASC;
-                """)) {
-            getAutomodEvents.setString(1, formatStr);
-            getAutomodEvents.setLong(2, startTimestamp);
-            getAutomodEvents.setLong(3, endTimestamp);
-            getAutomodEvents.setString(4, formatStr);
-            
-            try (ResultSet latestEvent = getAutomodEvents.executeQuery()) {
-                while (latestEvent.next()) {
-                    AutomodChartData data = new AutomodChartData();
-                    data.timeUnit = latestEvent.getString("timeUnit");
-                    data.events = latestEvent.getInt("events");
-                    data.trigger = latestEvent.getString("trigger");
-                    ret.add(data);
-                }
+        try {
+            for (EventRollups.Bucket bucket : EventRollups.read(EventRollups.AUTOMOD, startTimestamp, endTimestamp, timeUnit)) {
+                AutomodChartData data = new AutomodChartData();
+                data.timeUnit = bucket.bucket();
+                data.events = bucket.events();
+                data.trigger = bucket.label();
+                ret.add(data);
             }
         } catch (SQLException e) {
             Messaging.logException("Database", "getAutomodEventsBetween", e);
@@ -1645,9 +1562,8 @@ public class Database {
     }
 
     public static void insertUsernameChangeEvent(UserUpdateNameEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1672,9 +1588,8 @@ public class Database {
     }
 
     public static void insertDisplayNameChangeEvent(UserUpdateGlobalNameEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertUser = wConn.prepareStatement("""
                     INSERT INTO user (discord_id, created_datetime, username)
                     VALUES (?, ?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
@@ -1699,9 +1614,8 @@ public class Database {
     }
 
     public static void insertInteractionEvent(long eventId, long timestamp, long userId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertInteractionEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertInteractionEvent = wConn.prepareStatement("""
                     INSERT INTO interaction_event (id, timestamp, user_fk)
                     VALUES (?, ?, ?);
                     """)) {
@@ -1716,9 +1630,9 @@ public class Database {
 
     public static Optional<InteractionEventObject> getInteractionEvent(long eventId, long userId) {
         Optional<InteractionEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getInteractionEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getInteractionEvent = rConn.prepareStatement("""
                 SELECT id, timestamp, user_fk
                 FROM interaction_event
                 WHERE id = ?
@@ -1745,17 +1659,23 @@ public class Database {
         return ret;
     }
     
-    public static void insertScamHash(String sha256, String description) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertScamHash = wConn.prepareStatement("""
-                INSERT INTO scam_hash (sha256, timestamp, description, active)
-                VALUES (?, ?, ?, true)
+    public static void insertScamHash(String sha256, String description, OptionalLong dHash) {
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertScamHash = wConn.prepareStatement("""
+                INSERT INTO scam_hash (sha256, timestamp, description, active, dhash)
+                VALUES (?, ?, ?, true, ?)
                 ON CONFLICT (sha256) DO NOTHING;
                 """)) {
             insertScamHash.setString(1, sha256);
             insertScamHash.setLong(2, OffsetDateTime.now().toEpochSecond());
             insertScamHash.setString(3, description);
+            
+            if (dHash.isPresent()) {
+                insertScamHash.setLong(4, dHash.getAsLong());
+            } else {
+                insertScamHash.setNull(4, Types.BIGINT);
+            }
+            
             insertScamHash.executeUpdate();
         } catch (SQLException e) {
             Messaging.logException("Database", "insertScamHash", e);
@@ -1763,9 +1683,8 @@ public class Database {
     }
     
     public static void updateScamHash(String sha256, boolean state) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement updateScamHash = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement updateScamHash = wConn.prepareStatement("""
                 UPDATE scam_hash
                 SET active = ?
                 WHERE sha256 = ?;
@@ -1779,9 +1698,8 @@ public class Database {
     }
     
     public static void updateScamHash(String sha256, boolean state, String description) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement updateScamHash = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement updateScamHash = wConn.prepareStatement("""
                 UPDATE scam_hash
                 SET active = ?, description = ?
                 WHERE sha256 = ?;
@@ -1795,30 +1713,43 @@ public class Database {
         }
     }
     
-    public static Optional<ScamHashObject> getActiveScamHash(String sha256) {
-        Optional<ScamHashObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    public static void updateScamHashDHash(String sha256, long dHash) {
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement updateScamHash = wConn.prepareStatement("""
+                UPDATE scam_hash
+                SET dhash = ?
+                WHERE sha256 = ?;
+                """)) {
+            updateScamHash.setLong(1, dHash);
+            updateScamHash.setString(2, sha256);
+            updateScamHash.executeUpdate();
+        } catch (SQLException e) {
+            Messaging.logException("Database", "updateScamHashDHash", e);
+        }
+    }
+    
+    public static ArrayList<ScamHashObject> getActiveScamHashes() {
+        ArrayList<ScamHashObject> ret = new ArrayList<ScamHashObject>();
         
-        try (PreparedStatement getScamHash = rConn.prepareStatement("""
-                SELECT sha256, timestamp, description, active
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getScamHashes = rConn.prepareStatement("""
+                SELECT sha256, timestamp, description, active, dhash
                 FROM scam_hash
-                WHERE sha256 = ?
-                AND active = true
+                WHERE active = true
                 """)) {
-            getScamHash.setString(1, sha256);
-            
-            try (ResultSet res = getScamHash.executeQuery()) {
-                if (res.next()) {
-                    ret = Optional.of(new ScamHashObject(
+            try (ResultSet res = getScamHashes.executeQuery()) {
+                while (res.next()) {
+                    ret.add(new ScamHashObject(
                             res.getString("sha256"), 
                             res.getLong("timestamp"), 
                             res.getString("description"),
-                            res.getBoolean("active")
+                            res.getBoolean("active"),
+                            getOptionalLong(res, "dhash")
                     ));
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getActiveScamHash", e);
+            Messaging.logException("Database", "getActiveScamHashes", e);
         }
         
         return ret;
@@ -1826,10 +1757,10 @@ public class Database {
     
     public static Optional<ScamHashObject> getScamHash(String sha256) {
         Optional<ScamHashObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         
-        try (PreparedStatement getScamHash = rConn.prepareStatement("""
-                SELECT sha256, timestamp, description, active
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getScamHash = rConn.prepareStatement("""
+                SELECT sha256, timestamp, description, active, dhash
                 FROM scam_hash
                 WHERE sha256 = ?
                 """)) {
@@ -1841,7 +1772,8 @@ public class Database {
                             res.getString("sha256"), 
                             res.getLong("timestamp"), 
                             res.getString("description"),
-                            res.getBoolean("active")
+                            res.getBoolean("active"),
+                            getOptionalLong(res, "dhash")
                     ));
                 }
             }
@@ -1853,9 +1785,8 @@ public class Database {
     }
     
     public static void insertScamHashMatch(long timestamp, String sha256, long messageId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertScamHashMatch = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertScamHashMatch = wConn.prepareStatement("""
                 INSERT INTO scam_hash_match (timestamp, fk_scam_hash, fk_message)
                 VALUES (?, ?, ?);
                 """)) {
@@ -1869,9 +1800,8 @@ public class Database {
     }
     
     public static void insertHoneypotEvent(long timestamp, long userId, long messageId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertHoneypotEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertHoneypotEvent = wConn.prepareStatement("""
                 INSERT INTO honeypot_event (timestamp, fk_user, fk_message)
                 VALUES (?, ?, ?);
                 """)) {
@@ -1885,9 +1815,8 @@ public class Database {
     }
     
     public static void insertAntiBotEvent(long timestamp, long userId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertAntiBotEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertAntiBotEvent = wConn.prepareStatement("""
                 INSERT INTO antibot_event (timestamp, fk_user)
                 VALUES (?, ?);
                 """)) {
@@ -1901,10 +1830,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getSpamkickCommandEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getSpamkickCommandEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getSpamkickCommandEvents = rConn.prepareStatement("""
                 SELECT COUNT(e.discord_id) AS events, STRFTIME(?, DATETIME(e.timestamp, 'unixepoch')) AS timeUnit
                 FROM command_event AS e
             	INNER JOIN command AS cmd ON cmd.discord_id = e.command_fk
@@ -1937,10 +1866,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getHoneypotEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM honeypot_event
             	WHERE timestamp >= ?
@@ -1971,9 +1900,9 @@ public class Database {
     
     public static Optional<Integer> getHoneypotEventCountSince(long startTimestamp) {
         Optional<Integer> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         
-        try (PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS event_count
                 FROM spamkick_event
                 WHERE timestamp >= ?
@@ -1995,10 +1924,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getHashMatchesBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getHashMatches = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getHashMatches = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM scam_hash_match
             	WHERE timestamp >= ?
@@ -2030,10 +1959,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getAntiBotEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getAntiBotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getAntiBotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM antibot_event
             	WHERE timestamp >= ?
@@ -2063,9 +1992,8 @@ public class Database {
     }
     
     public static void insertSpamkickEvent(long timestamp, long userId, String type, Optional<Long> messageIdOpt) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertSpamkick = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+                PreparedStatement insertSpamkick = wConn.prepareStatement("""
                 INSERT INTO spamkick_event (timestamp, fk_user, type, fk_message)
                 VALUES (?, ?, ?, ?);
                 """)) {
@@ -2087,35 +2015,86 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getSpamkickEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getSpamkickEvents = rConn.prepareStatement("""
-                SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, type
-                FROM spamkick_event
-                WHERE timestamp >= ?
-                AND timestamp <= ?
-                GROUP BY STRFTIME(?, DATETIME(timestamp, 'unixepoch')), type
-                ORDER BY timestamp ASC;
+        try {
+            for (EventRollups.Bucket bucket : EventRollups.read(EventRollups.SPAMKICK, startTimestamp, endTimestamp, timeUnit)) {
+                SpamkickChartData data = new SpamkickChartData();
+                data.timeUnit = bucket.bucket();
+                data.events = bucket.events();
+                data.trigger = bucket.label();
+                ret.add(data);
+            }
+        } catch (SQLException e) {
+            Messaging.logException("Database", "getSpamkickEventsBetween", e);
+        }
+        
+        return ret;
+    }
+    
+    public static CompletableFuture<Void> insertCrashSignatureHits(Collection<String> names, long timestamp) {
+        long day = timestamp - Math.floorMod(timestamp, SECONDS_PER_DAY);
+        
+        return HifumiBot.getSelf().getSQLite().getWriteBehindQueue().submit("insertCrashSignatureHits", wConn -> {
+            try (PreparedStatement insertHit = wConn.prepareStatement("""
+                        INSERT INTO crash_signature_hit (name, day, hits)
+                        VALUES (?, ?, 1)
+                        ON CONFLICT (name, day) DO UPDATE SET hits = hits + 1;
+                        """)) {
+                for (String name : names) {
+                    insertHit.setString(1, name);
+                    insertHit.setLong(2, day);
+                    insertHit.addBatch();
+                }
+                
+                insertHit.executeBatch();
+            }
+        });
+    }
+    
+    /**
+     * Get how often each crash signature was hit recently, and in the same length of time before
+     * that, so rising and falling problems stand out.
+     * @param days Length of each period, counting today as the last day of the recent one.
+     * @return Every signature with hits in either period, most recent hits first.
+     */
+    public static ArrayList<CrashSignatureHitsObject> getCrashSignatureHits(int days) {
+        ArrayList<CrashSignatureHitsObject> ret = new ArrayList<CrashSignatureHitsObject>();
+        long now = OffsetDateTime.now().toEpochSecond();
+        long recentStart = now - Math.floorMod(now, SECONDS_PER_DAY) - (days - 1) * SECONDS_PER_DAY;
+        long previousStart = recentStart - days * SECONDS_PER_DAY;
+        
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getHits = rConn.prepareStatement("""
+                SELECT name,
+                SUM(CASE WHEN day >= ? THEN hits ELSE 0 END) AS recent_hits,
+                SUM(CASE WHEN day < ? THEN hits ELSE 0 END) AS previous_hits
+                FROM crash_signature_hit
+                WHERE day >= ?
+                GROUP BY name
+                ORDER BY recent_hits DESC, previous_hits DESC;
                 """)) {
-            getSpamkickEvents.setString(1, formatStr);
-            getSpamkickEvents.setLong(2, startTimestamp);
-            getSpamkickEvents.setLong(3, endTimestamp);
-            getSpamkickEvents.setString(4, formatStr);
+            getHits.setLong(1, recentStart);
+            getHits.setLong(2, recentStart);
+            getHits.setLong(3, previousStart);
             
-            try (ResultSet latestEvent = getSpamkickEvents.executeQuery()) {
-                while (latestEvent.next()) {
-                    SpamkickChartData data = new SpamkickChartData();
-                    data.timeUnit = latestEvent.getString("timeUnit");
-                    data.events = latestEvent.getInt("events");
-                    data.trigger = latestEvent.getString("type");
-                    ret.add(data);
+            try (ResultSet res = getHits.executeQuery()) {
+                while (res.next()) {
+                    ret.add(new CrashSignatureHitsObject(
+                        res.getString("name"),
+                        res.getLong("recent_hits"),
+                        res.getLong("previous_hits")
+                    ));
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getAntiBotEventsBetween", e);
+            Messaging.logException("Database", "getCrashSignatureHits", e);
         }
         
         return ret;
     }
+    
+    private static OptionalLong getOptionalLong(ResultSet res, String column) throws SQLException {
+        long value = res.getLong(column);
+        return res.wasNull() ? OptionalLong.empty() : OptionalLong.of(value);
+    }
 }
@@ -0,0 +1,207 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+
+import net.pcsx2.hifumi.HifumiBot;
+
+/**
+ * Reads event counts for charts from the event_rollup table instead of the raw event tables.
+ *
+ * Each event table has a trigger which counts every insert into a day, month and year bucket for
+ * its label (action, trigger or type), so the rollups are always in step with the events without
+ * any of the insert paths knowing about them. Migrations 043-046 backfill them from the events
+ * already stored.
+ *
+ * A range is read from the coarsest buckets which fit entirely inside it, and the ends which do
+ * not fill a whole bucket are read from the next finer unit. A year long chart by month is at
+ * most a dozen or so rows per label, however much history sits outside it.
+ */
+public class EventRollups {
+
+    public static final String WAREZ = "warez";
+    public static final String MEMBER = "member";
+    public static final String AUTOMOD = "automod";
+    public static final String SPAMKICK = "spamkick";
+
+    // Anything outside of this would not fit in the bucket labels, and nothing has happened there
+    private static final long MIN_TIMESTAMP = 0;
+    private static final long MAX_TIMESTAMP = LocalDate.of(10000, 1, 1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+
+    /**
+     * Events with one label in one bucket.
+     * @param bucket The bucket, formatted as the chart shows it: YYYY-MM-DD, YYYY-MM or YYYY.
+     * @param label
+     * @param events
+     */
+    public record Bucket(String bucket, String label, int events) { }
+
+    private enum Unit {
+        DAY("day", 10),
+        MONTH("month", 7),
+        YEAR("year", 4);
+
+        private final String name;
+        // Length of this unit's bucket label, the finer labels start with it
+        private final int labelLength;
+
+        private Unit(String name, int labelLength) {
+            this.name = name;
+            this.labelLength = labelLength;
+        }
+
+        private static Unit fromTimeUnit(String timeUnit) {
+            switch (timeUnit) {
+                case "year": {
+                    return YEAR;
+                }
+                case "month": {
+                    return MONTH;
+                }
+                default: {
+                    return DAY;
+                }
+            }
+        }
+
+        private Unit finer() {
+            return (this == YEAR ? MONTH : DAY);
+        }
+
+        private LocalDate floor(LocalDate date) {
+            switch (this) {
+                case YEAR: {
+                    return date.withDayOfYear(1);
+                }
+                case MONTH: {
+                    return date.withDayOfMonth(1);
+                }
+                default: {
+                    return date;
+                }
+            }
+        }
+
+        private LocalDate next(LocalDate date) {
+            switch (this) {
+                case YEAR: {
+                    return date.plusYears(1);
+                }
+                case MONTH: {
+                    return date.plusMonths(1);
+                }
+                default: {
+                    return date.plusDays(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Buckets of one unit starting in [start, end).
+     */
+    private record Range(Unit unit, long start, long end) { }
+
+    // Kept apart from read() so QueryPlanTest can check its plan
+    static final String ROLLUPS_SQL = """
+        SELECT bucket, label, events
+        FROM event_rollup
+        WHERE series = ?
+        AND unit = ?
+        AND bucket_start >= ?
+        AND bucket_start < ?;
+        """;
+
+    /**
+     * Count events between two timestamps.
+     * @param series One of the series constants, the event table to count.
+     * @param startTimestamp Inclusive. Rounded down to the start of its day.
+     * @param endTimestamp Exclusive.
+     * @param timeUnit "day", "month" or "year".
+     * @return Buckets sorted by time, then label.
+     */
+    static ArrayList<Bucket> read(String series, long startTimestamp, long endTimestamp, String timeUnit) throws SQLException {
+        Unit unit = Unit.fromTimeUnit(timeUnit);
+        long start = toEpochSecond(toDate(Math.max(startTimestamp, MIN_TIMESTAMP)));
+        long end = Math.min(endTimestamp, MAX_TIMESTAMP);
+        ArrayList<Range> ranges = new ArrayList<Range>();
+        plan(unit, start, end, ranges);
+
+        LinkedHashMap<String, Bucket> merged = new LinkedHashMap<String, Bucket>();
+
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+                PreparedStatement getRollups = rConn.prepareStatement(ROLLUPS_SQL)) {
+            for (Range range : ranges) {
+                getRollups.setString(1, series);
+                getRollups.setString(2, range.unit().name);
+                getRollups.setLong(3, range.start());
+                getRollups.setLong(4, range.end());
+
+                try (ResultSet res = getRollups.executeQuery()) {
+                    while (res.next()) {
+                        // Finer buckets from the ends of the range count towards the bucket they are part of
+                        String bucket = res.getString("bucket").substring(0, unit.labelLength);
+                        String label = res.getString("label");
+                        int events = res.getInt("events");
+                        merged.merge(bucket + "\n" + label, new Bucket(bucket, label, events), (a, b) -> new Bucket(a.bucket(), a.label(), a.events() + b.events()));
+                    }
+                }
+            }
+        }
+
+        ArrayList<Bucket> ret = new ArrayList<Bucket>(merged.values());
+        ret.sort(Comparator.comparing(Bucket::bucket).thenComparing(Bucket::label));
+        return ret;
+    }
+
+    /**
+     * Split [start, end) into whole buckets of unit, and the ends either side which are too short
+     * for one, recursively in finer units. start is always at the start of a day.
+     */
+    private static void plan(Unit unit, long start, long end, ArrayList<Range> ranges) {
+        if (start >= end) {
+            return;
+        }
+
+        if (unit == Unit.DAY) {
+            ranges.add(new Range(unit, start, end));
+            return;
+        }
+
+        LocalDate startDate = toDate(start);
+        LocalDate wholeStartDate = unit.floor(startDate);
+
+        if (wholeStartDate.isBefore(startDate)) {
+            wholeStartDate = unit.next(wholeStartDate);
+        }
+
+        long wholeStart = toEpochSecond(wholeStartDate);
+        long wholeEnd = toEpochSecond(unit.floor(toDate(end)));
+
+        if (wholeStart >= wholeEnd) {
+            plan(unit.finer(), start, end, ranges);
+            return;
+        }
+
+        plan(unit.finer(), start, wholeStart, ranges);
+        ranges.add(new Range(unit, wholeStart, wholeEnd));
+        plan(unit.finer(), wholeEnd, end, ranges);
+    }
+
+    private static LocalDate toDate(long epochSecond) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochSecond, 60 * 60 * 24));
+    }
+
+    private static long toEpochSecond(LocalDate date) {
+        return date.toEpochDay() * 60 * 60 * 24;
+    }
+}
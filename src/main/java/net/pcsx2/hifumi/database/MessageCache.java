@@ -0,0 +1,390 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.database.objects.AttachmentObject;
+import net.pcsx2.hifumi.database.objects.MessageObject;
+import net.pcsx2.hifumi.util.DateTimeUtils;
+
+/**
+ * Recent messages and all their revisions, so logging an edit or delete of a message sent in the
+ * last few hours does not have to go back to SQLite for what it used to say.
+ *
+ * Messages are added as they are stored, and on a miss are read through from the database. Edits
+ * are added as they are queued for writing, so the cache always shows what the database will say
+ * once the write-behind queue catches up. A message read from the database while a write for it
+ * is still queued, or which had a write queued while it was being read, is not cached, since the
+ * read may be missing that write.
+ *
+ * Bounded both by message count and by the size of the content held. Least recently used messages
+ * go first, and any not looked at for a while are dropped even when there is room.
+ */
+public class MessageCache {
+
+    /**
+     * One send or edit of a message.
+     * @param timestamp Epoch seconds.
+     * @param edit False for the original send.
+     * @param content
+     */
+    public record Revision(long timestamp, boolean edit, String content) {
+
+        private long estimateBytes() {
+            return 48 + (this.content != null ? this.content.length() * 2L : 0);
+        }
+    }
+
+    /**
+     * Everything stored about a message, shaped like the rows it is read from.
+     */
+    public static class CachedMessage {
+        private final long messageId;
+        private final long authorId;
+        private final long channelId;
+        private final long createdTimestamp;
+        private final String jumpUrl;
+        private final String referencedMessageId;
+        private final ArrayList<AttachmentObject> attachments;
+        // Newest first, the same as the database orders them
+        private final ArrayList<Revision> revisions = new ArrayList<Revision>();
+        private long bytes;
+        private long lastAccessNanos;
+
+        /**
+         * @param createdTimestamp Epoch seconds, 0 if the message was first seen by an edit or delete.
+         * @param referencedMessageId Null if the message is not a reply.
+         * @param revisions In any order.
+         */
+        public CachedMessage(long messageId, long authorId, long channelId, long createdTimestamp, String jumpUrl, String referencedMessageId, List<AttachmentObject> attachments, List<Revision> revisions) {
+            this.messageId = messageId;
+            this.authorId = authorId;
+            this.channelId = channelId;
+            this.createdTimestamp = createdTimestamp;
+            this.jumpUrl = jumpUrl;
+            this.referencedMessageId = referencedMessageId;
+            this.attachments = new ArrayList<AttachmentObject>(attachments);
+
+            for (Revision revision : revisions) {
+                this.addRevision(revision);
+            }
+
+            this.bytes = 96 + (jumpUrl != null ? jumpUrl.length() * 2L : 0);
+
+            for (AttachmentObject attachment : this.attachments) {
+                this.bytes += estimateBytes(attachment);
+            }
+
+            for (Revision revision : this.revisions) {
+                this.bytes += revision.estimateBytes();
+            }
+        }
+
+        private void addRevision(Revision revision) {
+            int idx = 0;
+
+            while (idx < this.revisions.size() && this.revisions.get(idx).timestamp() > revision.timestamp()) {
+                idx++;
+            }
+
+            this.revisions.add(idx, revision);
+        }
+
+        private static long estimateBytes(AttachmentObject attachment) {
+            return 96 + ((attachment.getName() != null ? attachment.getName().length() : 0) + (attachment.getProxyUrl() != null ? attachment.getProxyUrl().length() : 0)) * 2L;
+        }
+
+        MessageObject toLatestMessage() {
+            if (this.revisions.isEmpty()) {
+                return null;
+            }
+
+            Revision latest = this.revisions.get(0);
+            return new MessageObject(
+                this.messageId,
+                this.authorId,
+                DateTimeUtils.longToOffsetDateTime(latest.timestamp()),
+                latest.edit() ? DateTimeUtils.longToOffsetDateTime(latest.timestamp()) : null,
+                this.channelId,
+                latest.content(),
+                this.jumpUrl,
+                this.referencedMessageId,
+                new ArrayList<AttachmentObject>(this.attachments)
+            );
+        }
+
+        ArrayList<MessageObject> toAllRevisions() {
+            ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
+
+            for (Revision revision : this.revisions) {
+                ret.add(new MessageObject(
+                    this.messageId,
+                    this.authorId,
+                    DateTimeUtils.longToOffsetDateTime(this.createdTimestamp),
+                    revision.edit() ? DateTimeUtils.longToOffsetDateTime(revision.timestamp()) : null,
+                    this.channelId,
+                    revision.content(),
+                    this.jumpUrl,
+                    this.referencedMessageId,
+                    new ArrayList<AttachmentObject>(this.attachments)
+                ));
+            }
+
+            return ret;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long idleNanos;
+    /**
+     * Writes to one message, kept while any are queued or a read of it is in progress.
+     */
+    private static class WriteState {
+        // Queued but not yet committed
+        private int pending;
+        // Bumped on every write queued, so a read can tell whether one was queued since it started
+        private long generation;
+        private int loads;
+    }
+
+    private final LinkedHashMap<Long, CachedMessage> messages = new LinkedHashMap<Long, CachedMessage>(16, 0.75f, true);
+    private final HashMap<Long, WriteState> writeStates = new HashMap<Long, WriteState>();
+    private long totalBytes = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public MessageCache(int maxEntries, long maxBytes, long idleMinutes) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxBytes = maxBytes;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+    }
+
+    /**
+     * @return The latest revision, or null if the message is not cached.
+     */
+    public synchronized MessageObject getLatest(long messageId) {
+        CachedMessage cached = this.lookup(messageId);
+        return cached != null ? cached.toLatestMessage() : null;
+    }
+
+    /**
+     * @return Every revision, newest first, or null if the message is not cached.
+     */
+    public synchronized ArrayList<MessageObject> getRevisions(long messageId) {
+        CachedMessage cached = this.lookup(messageId);
+        return cached != null ? cached.toAllRevisions() : null;
+    }
+
+    private CachedMessage lookup(long messageId) {
+        long now = System.nanoTime();
+        this.expire(now);
+        CachedMessage cached = this.messages.get(messageId);
+
+        if (cached == null) {
+            this.misses.increment();
+            return null;
+        }
+
+        cached.lastAccessNanos = now;
+        this.hits.increment();
+        return cached;
+    }
+
+    /**
+     * Note that a message is about to be read from the database after a miss. Must be followed by
+     * {@link #putLoaded(long, long, CachedMessage)}, whether or not the read found anything.
+     * @return The message's write generation, to hand back to putLoaded.
+     */
+    public synchronized long beginLoad(long messageId) {
+        WriteState state = this.writeStates.computeIfAbsent(messageId, k -> new WriteState());
+        state.loads++;
+        return state.generation;
+    }
+
+    /**
+     * Cache a message read from the database after a miss, unless a write for it is still queued
+     * or was queued while it was being read.
+     * @param generation From {@link #beginLoad(long)}, taken before the read.
+     * @param message Null if the read found nothing.
+     */
+    public synchronized void putLoaded(long messageId, long generation, CachedMessage message) {
+        WriteState state = this.writeStates.get(messageId);
+        boolean written = state == null || state.pending > 0 || state.generation != generation;
+
+        if (state != null) {
+            state.loads--;
+            this.dropIfIdle(messageId, state);
+        }
+
+        if (message == null || written || message.revisions.isEmpty() || this.messages.containsKey(messageId)) {
+            return;
+        }
+
+        this.insert(message);
+    }
+
+    /**
+     * Add a message which was just queued for writing.
+     */
+    public synchronized void putSent(CachedMessage message) {
+        CachedMessage cached = this.messages.get(message.messageId);
+
+        if (cached == null) {
+            this.insert(message);
+            return;
+        }
+
+        // Stored again, such as a reply's parent the bot had not seen. The first row stays as it
+        // was, only the send event is added.
+        cached.lastAccessNanos = System.nanoTime();
+
+        for (Revision revision : message.revisions) {
+            this.addRevision(cached, revision);
+        }
+
+        this.trim();
+    }
+
+    /**
+     * Add an edit which was just queued for writing. Nothing happens if the message is not
+     * cached, a later miss will read it all from the database instead.
+     * @param attachments Attachments on the edited message. Any not seen before are added.
+     */
+    public synchronized void putEdited(long messageId, Revision revision, List<AttachmentObject> attachments) {
+        CachedMessage cached = this.messages.get(messageId);
+
+        if (cached == null) {
+            return;
+        }
+
+        // Looking it up moved it to the back of the access order, keep the times in step with that
+        cached.lastAccessNanos = System.nanoTime();
+
+        for (AttachmentObject attachment : attachments) {
+            boolean known = false;
+
+            for (AttachmentObject existing : cached.attachments) {
+                if (existing.getDiscordId().equals(attachment.getDiscordId())) {
+                    known = true;
+                    break;
+                }
+            }
+
+            if (!known) {
+                cached.attachments.add(attachment);
+                cached.bytes += CachedMessage.estimateBytes(attachment);
+                this.totalBytes += CachedMessage.estimateBytes(attachment);
+            }
+        }
+
+        this.addRevision(cached, revision);
+        this.trim();
+    }
+
+    private void addRevision(CachedMessage cached, Revision revision) {
+        cached.addRevision(revision);
+        cached.bytes += revision.estimateBytes();
+        this.totalBytes += revision.estimateBytes();
+    }
+
+    /**
+     * Drop a message, such as once it has been deleted and logged.
+     */
+    public synchronized void remove(long messageId) {
+        CachedMessage cached = this.messages.remove(messageId);
+
+        if (cached != null) {
+            this.totalBytes -= cached.bytes;
+        }
+    }
+
+    /**
+     * Note that a write for a message has been queued. Until {@link #endWrite(long)}, reads from
+     * the database for it may be missing that write and are not cached.
+     */
+    public synchronized void beginWrite(long messageId) {
+        WriteState state = this.writeStates.computeIfAbsent(messageId, k -> new WriteState());
+        state.pending++;
+        state.generation++;
+    }
+
+    /**
+     * @param failed If true, the write never made it to the database, so neither should the cache show it.
+     */
+    public synchronized void endWrite(long messageId, boolean failed) {
+        WriteState state = this.writeStates.get(messageId);
+
+        if (state != null) {
+            state.pending--;
+            this.dropIfIdle(messageId, state);
+        }
+
+        if (failed) {
+            this.remove(messageId);
+        }
+    }
+
+    private void dropIfIdle(long messageId, WriteState state) {
+        if (state.pending <= 0 && state.loads <= 0) {
+            this.writeStates.remove(messageId);
+        }
+    }
+
+    private void insert(CachedMessage message) {
+        if (this.maxEntries == 0 || message.bytes > this.maxBytes / 4) {
+            return;
+        }
+
+        message.lastAccessNanos = System.nanoTime();
+        this.messages.put(message.messageId, message);
+        this.totalBytes += message.bytes;
+        this.trim();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Long, CachedMessage>> iterator = this.messages.entrySet().iterator();
+
+        // Eldest first, which is least recently used in access order
+        while ((this.messages.size() > this.maxEntries || this.totalBytes > this.maxBytes) && iterator.hasNext()) {
+            this.totalBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<Long, CachedMessage>> iterator = this.messages.entrySet().iterator();
+
+        // Least recently used first, so the first one still in use ends the search
+        while (iterator.hasNext()) {
+            CachedMessage cached = iterator.next().getValue();
+
+            if (now - cached.lastAccessNanos < this.idleNanos) {
+                break;
+            }
+
+            this.totalBytes -= cached.bytes;
+            iterator.remove();
+            this.expirations.increment();
+        }
+    }
+
+    public synchronized String getStats() {
+        long hitCount = this.hits.sum();
+        long total = hitCount + this.misses.sum();
+        return String.format("messages: %d of %d (%d of %d KB) | hits: %d of %d (%.1f%%) | evictions: %d | expired: %d",
+            this.messages.size(), this.maxEntries, this.totalBytes / 1024, this.maxBytes / 1024, hitCount, total, total > 0 ? hitCount * 100.0 / total : 0.0, this.evictions.sum(), this.expirations.sum());
+    }
+}
@@ -0,0 +1,255 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.pcsx2.hifumi.util.Log;
+
+/**
+ * Applies schema migrations from db/migrations, recording each one in the schema_version
+ * table so it is only ever applied once.
+ *
+ * Migration files are named with a numeric version prefix, e.g. 023-create-some-index.sql,
+ * and are applied in version order. A file may contain any number of statements; each file
+ * runs in its own transaction together with its schema_version row, so a failing migration
+ * leaves nothing half applied. Since migrations only run once, they can ALTER tables and
+ * backfill data, they do not need to be written with IF NOT EXISTS. Files must not manage
+ * transactions themselves.
+ */
+public class MigrationRunner {
+
+    private static final String MIGRATION_PATH = "db/migrations/%s";
+
+    private final Connection conn;
+
+    public MigrationRunner(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Apply every migration in the list which has not been applied to this database yet.
+     * @param migrationFiles File names under db/migrations, in the order they should be applied.
+     * @throws SQLException If a migration failed. Migrations before it stay applied.
+     */
+    public void run(String[] migrationFiles) throws SQLException {
+        this.ensureVersionTable();
+        HashSet<Integer> applied = this.getAppliedVersions();
+        int highestKnown = -1;
+        int appliedCount = 0;
+        long start = System.nanoTime();
+
+        for (String migrationFile : migrationFiles) {
+            int version = parseVersion(migrationFile);
+
+            if (version <= highestKnown) {
+                throw new SQLException("Migration " + migrationFile + " is out of order, versions must be strictly increasing");
+            }
+
+            highestKnown = version;
+
+            if (applied.contains(version)) {
+                continue;
+            }
+
+            this.apply(version, migrationFile);
+            appliedCount++;
+        }
+
+        for (int version : applied) {
+            if (version > highestKnown) {
+                Log.warn("Database has migration version " + version + " applied, which this build does not know about. Was the bot downgraded?");
+            }
+        }
+
+        if (appliedCount > 0) {
+            Log.info(String.format("Applied %d migration(s) in %d ms, schema is at version %d", appliedCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), highestKnown));
+        } else {
+            Log.info("Database schema is up to date at version " + highestKnown);
+        }
+    }
+
+    private void ensureVersionTable() throws SQLException {
+        try (Statement statement = this.conn.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS
+                  "schema_version" (
+                    "version" INTEGER NOT NULL,
+                    "name" TEXT NOT NULL,
+                    "applied_timestamp" INTEGER NOT NULL,
+                    "duration_ms" INTEGER NOT NULL,
+                    PRIMARY KEY ("version")
+                );
+                """);
+        }
+    }
+
+    private HashSet<Integer> getAppliedVersions() throws SQLException {
+        HashSet<Integer> ret = new HashSet<Integer>();
+
+        try (Statement statement = this.conn.createStatement();
+                ResultSet res = statement.executeQuery("SELECT version FROM schema_version;")) {
+            while (res.next()) {
+                ret.add(res.getInt("version"));
+            }
+        }
+
+        return ret;
+    }
+
+    private void apply(int version, String migrationFile) throws SQLException {
+        List<String> statements = splitStatements(readMigration(migrationFile));
+        long start = System.nanoTime();
+        boolean autoCommit = this.conn.getAutoCommit();
+
+        try {
+            this.conn.setAutoCommit(false);
+
+            try (Statement statement = this.conn.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+            }
+
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            try (PreparedStatement insertVersion = this.conn.prepareStatement("""
+                    INSERT INTO schema_version (version, name, applied_timestamp, duration_ms)
+                    VALUES (?, ?, ?, ?);
+                    """)) {
+                insertVersion.setInt(1, version);
+                insertVersion.setString(2, migrationFile);
+                insertVersion.setLong(3, Instant.now().getEpochSecond());
+                insertVersion.setLong(4, durationMillis);
+                insertVersion.executeUpdate();
+            }
+
+            this.conn.commit();
+            Log.info(String.format("Applied migration %s (%d statement(s)) in %d ms", migrationFile, statements.size(), durationMillis));
+        } catch (SQLException e) {
+            try {
+                this.conn.rollback();
+            } catch (SQLException rollbackEx) {
+                e.addSuppressed(rollbackEx);
+            }
+
+            throw new SQLException("Migration " + migrationFile + " failed", e);
+        } finally {
+            this.conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int parseVersion(String migrationFile) throws SQLException {
+        int end = 0;
+
+        while (end < migrationFile.length() && Character.isDigit(migrationFile.charAt(end))) {
+            end++;
+        }
+
+        if (end == 0) {
+            throw new SQLException("Migration " + migrationFile + " does not start with a version number");
+        }
+
+        return Integer.parseInt(migrationFile.substring(0, end));
+    }
+
+    private static String readMigration(String migrationFile) throws SQLException {
+        String resourcePath = String.format(MIGRATION_PATH, migrationFile);
+
+        try (InputStream is = MigrationRunner.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new SQLException("Resource not found: " + resourcePath);
+            }
+
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Unable to read " + resourcePath, e);
+        }
+    }
+
+    /**
+     * Split a migration file into individual statements on semicolons, ignoring any that are
+     * inside quotes, comments, or the BEGIN ... END body of a trigger.
+     * @param sql
+     * @return Statements with surrounding whitespace trimmed, empty ones removed.
+     */
+    static List<String> splitStatements(String sql) {
+        ArrayList<String> ret = new ArrayList<String>();
+        StringBuilder current = new StringBuilder();
+        int blockDepth = 0;
+        int i = 0;
+
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`') {
+                int close = sql.indexOf(c, i + 1);
+                close = close < 0 ? sql.length() - 1 : close;
+                current.append(sql, i, close + 1);
+                i = close + 1;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int close = sql.indexOf('\n', i);
+                i = close < 0 ? sql.length() : close;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int close = sql.indexOf("*/", i + 2);
+                i = close < 0 ? sql.length() : close + 2;
+            } else if (Character.isLetter(c)) {
+                int end = i;
+
+                while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+                    end++;
+                }
+
+                String word = sql.substring(i, end).toUpperCase(Locale.ROOT);
+
+                // Inside a trigger body, CASE expressions also close with END.
+                if (word.equals("BEGIN") && isTriggerStatement(current)) {
+                    blockDepth++;
+                } else if (word.equals("CASE") && blockDepth > 0) {
+                    blockDepth++;
+                } else if (word.equals("END") && blockDepth > 0) {
+                    blockDepth--;
+                }
+
+                current.append(sql, i, end);
+                i = end;
+            } else if (c == ';' && blockDepth == 0) {
+                addStatement(ret, current);
+                current.setLength(0);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+
+        addStatement(ret, current);
+        return ret;
+    }
+
+    private static boolean isTriggerStatement(StringBuilder statement) {
+        String normalized = statement.toString().strip().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+        return normalized.startsWith("CREATE TRIGGER") || normalized.startsWith("CREATE TEMP TRIGGER") || normalized.startsWith("CREATE TEMPORARY TRIGGER");
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder statement) {
+        String trimmed = statement.toString().strip();
+
+        if (!trimmed.isEmpty()) {
+            statements.add(trimmed);
+        }
+    }
+}
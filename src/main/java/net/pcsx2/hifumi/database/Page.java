@@ -0,0 +1,32 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * One page of a history sorted newest first, and where the page after it starts.
+ *
+ * Pages are found by the timestamp and id of the last row on the page before, rather than by
+ * counting rows with OFFSET, so fetching a page deep into a long history costs the same as
+ * fetching the first one.
+ * @param items
+ * @param next Where the next page starts, or empty if this is the last page.
+ */
+public record Page<T>(ArrayList<T> items, Optional<Page.Cursor> next) {
+
+    /**
+     * The last row of a page. The next page is every row sorting after it.
+     */
+    public record Cursor(long timestamp, long id) { }
+
+    /**
+     * Sorts before every row, for fetching the first page.
+     */
+    public static final Cursor FIRST = new Cursor(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public boolean isEmpty() {
+        return this.items.isEmpty();
+    }
+}
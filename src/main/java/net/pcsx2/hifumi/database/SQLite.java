@@ -2,41 +2,102 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.database;
 
-import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import net.pcsx2.hifumi.config.Config.DatabaseOptions;
 import net.pcsx2.hifumi.util.Log;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class SQLite {
 
-    private Connection readConnection;
-    private Connection writeConnection;
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+
+    private final DatabaseOptions options;
+    private ConnectionPool readPool;
+    private ConnectionPool writePool;
+    private WriteBehindQueue writeBehindQueue;
+    private StatementCache statementCache;
+    private MessageCache messageCache;
+
+    public SQLite(String dataDirectory, DatabaseOptions options) {
+        this.options = options;
 
-    public SQLite(String dataDirectory) {
         try {
             // NOTE: this shouldn't be needed for modern versions of java, it should just dynamically look
             // at the classpath for you, but leaving it here incase im wrong
             // Class.forName("org.sqlite.JDBC");
             var jdbcString = String.format("jdbc:sqlite:%s/hifumibot.db", dataDirectory);
             
-            Log.info("Opening read connection with JBDC string: " + jdbcString);
-            this.readConnection = DriverManager.getConnection(jdbcString);
-            this.ensureDatabaseIsInitialized(this.readConnection);
-            
+            // There is exactly one writer. SQLite only allows one writer at a time anyways,
+            // so having more would just mean more connections fighting over the write lock.
             Log.info("Opening write connection with JDBC string: " + jdbcString);
-            this.writeConnection = DriverManager.getConnection(jdbcString);
-            this.ensureDatabaseIsInitialized(this.writeConnection);
+            Connection writeConnection = DriverManager.getConnection(jdbcString);
+            this.applyPragmas(writeConnection, false);
+            this.ensureDatabaseIsInitialized(writeConnection);
+            // Shared by both pools, statements are still cached per connection.
+            this.statementCache = new StatementCache(options.statementCacheSize);
+            this.writePool = new ConnectionPool("write", List.of(writeConnection), options.acquireTimeoutMillis, this.statementCache);
+            
+            // WAL mode lets readers run alongside the writer, so reads get a pool of their own.
+            int readPoolSize = Math.max(1, options.readPoolSize);
+            ArrayList<Connection> readConnections = new ArrayList<Connection>();
+            Log.info("Opening " + readPoolSize + " read connections with JDBC string: " + jdbcString);
+
+            for (int i = 0; i < readPoolSize; i++) {
+                Connection readConnection = DriverManager.getConnection(jdbcString);
+                this.applyPragmas(readConnection, true);
+                readConnections.add(readConnection);
+            }
+
+            this.readPool = new ConnectionPool("read", readConnections, options.acquireTimeoutMillis, this.statementCache);
+
+            // High volume event inserts are batched into transactions rather than committed one by one.
+            this.writeBehindQueue = new WriteBehindQueue(this, options.writeQueueCapacity, options.writeBatchMaxRows, options.writeBatchMaxDelayMillis);
+            // Edits and deletes mostly hit recent messages, which this keeps out of the read pool.
+            this.messageCache = new MessageCache(options.messageCacheMaxEntries, options.messageCacheMaxBytes, options.messageCacheIdleMinutes);
         } catch (Exception e) {
             Messaging.logException("SQlite", "(constructor)", e);
         }
     }
 
-    // NOTE: order is potentially important here
-    // each file should contain a single valid SQL statement
-    private String[] schemaMigrations = {
+    /**
+     * Apply the per-connection pragmas. journal_mode is persistent in the database file,
+     * but is set by the writer on every startup so that existing databases get converted to WAL.
+     * @param conn
+     * @param readOnly If true, the connection is additionally locked to queries only.
+     * @throws SQLException
+     */
+    private void applyPragmas(Connection conn, boolean readOnly) throws SQLException {
+        String synchronous = this.options.synchronous != null ? this.options.synchronous.toUpperCase() : "";
+
+        if (!SYNCHRONOUS_MODES.contains(synchronous)) {
+            Log.warn("Unknown synchronous mode '" + this.options.synchronous + "', falling back to NORMAL");
+            synchronous = "NORMAL";
+        }
+
+        try (Statement statement = conn.createStatement()) {
+            if (!readOnly) {
+                statement.execute("PRAGMA journal_mode = WAL;");
+            }
+
+            statement.execute("PRAGMA busy_timeout = " + Math.max(0, this.options.busyTimeoutMillis) + ";");
+            statement.execute("PRAGMA synchronous = " + synchronous + ";");
+            // Negative values are interpreted by SQLite as KiB rather than pages
+            statement.execute("PRAGMA cache_size = -" + Math.max(0, this.options.cacheSizeKiB) + ";");
+            statement.execute("PRAGMA mmap_size = " + Math.max(0, this.options.mmapSizeBytes) + ";");
+            statement.execute("PRAGMA query_only = " + (readOnly ? "ON" : "OFF") + ";");
+        }
+    }
+
+    // NOTE: order is important here, versions must be strictly increasing.
+    // Each file is applied exactly once, see MigrationRunner.
+    static final String[] SCHEMA_MIGRATIONS = {
         "000-create-user-table.sql",
         "001-create-channel-table.sql",
         "002-create-message-table.sql",
@@ -59,55 +120,99 @@ public class SQLite {
         "019-create-honeypot-event-table.sql",
         "020-create-antibot-event-table.sql",
         "021-create-spamkick-event-table.sql",
-        "022-create-spamkick-event-timestamp-index.sql"
+        "022-create-spamkick-event-timestamp-index.sql",
+        "023-create-message-event-user-action-timestamp-index.sql",
+        "024-create-message-event-message-action-timestamp-index.sql",
+        "025-create-message-attachment-message-index.sql",
+        "026-create-message-user-timestamp-index.sql",
+        "027-create-command-event-channel-command-timestamp-index.sql",
+        "028-create-command-event-command-timestamp-index.sql",
+        "029-create-member-event-user-timestamp-index.sql",
+        "030-create-member-event-timestamp-index.sql",
+        "031-create-warez-event-user-timestamp-index.sql",
+        "032-create-warez-event-timestamp-index.sql",
+        "033-create-automod-event-user-timestamp-index.sql",
+        "034-create-automod-event-timestamp-index.sql",
+        "035-create-counter-type-timestamp-index.sql",
+        "036-create-honeypot-event-timestamp-index.sql",
+        "037-create-scam-hash-match-timestamp-index.sql",
+        "038-create-antibot-event-timestamp-index.sql",
+        "039-create-command-name-index.sql",
+        "040-add-scam-hash-dhash-column.sql",
+        "041-create-crash-signature-hit-table.sql",
+        "042-create-event-rollup-table.sql",
+        "043-create-warez-event-rollup-trigger.sql",
+        "044-create-member-event-rollup-trigger.sql",
+        "045-create-automod-event-rollup-trigger.sql",
+        "046-create-spamkick-event-rollup-trigger.sql"
     };
 
     private void ensureDatabaseIsInitialized(Connection conn) {
         try {
-            conn.setAutoCommit(false); // begin transaction
-            for (var migrationFile : schemaMigrations) {
-                var resourcePath = String.format("db/migrations/%s", migrationFile);
-                var is = SQLite.class.getClassLoader().getResourceAsStream(resourcePath);
-                if (is == null) {
-                    throw new RuntimeException("Resource not found: " + resourcePath);
-                }
-                String sql = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                try (var statement = conn.createStatement()) {
-                    statement.execute(sql.trim());
-                }
-            }
-
-            conn.commit(); // commit all statements
-            conn.setAutoCommit(true);
-        } catch (Exception e) {
-            try {
-                conn.rollback(); // rollback if anything fails
-            } catch (SQLException rollbackEx) {
-                e.addSuppressed(rollbackEx); // don't lose original exception
-            }
+            new MigrationRunner(conn).run(SCHEMA_MIGRATIONS);
+        } catch (SQLException e) {
             throw new RuntimeException("Unable to ensure database is initialized properly", e);
         }
     }
 
-    public Connection getReadConnection() {
-        return this.readConnection;
+    /**
+     * Borrow a connection from the read pool. The connection must be closed
+     * when finished, which returns it to the pool.
+     * @return A connection which can only be used for queries.
+     * @throws SQLException If no read connection became available in time.
+     */
+    public Connection getReadConnection() throws SQLException {
+        return this.readPool.borrow();
     }
     
-    public Connection getWriteConnection() {
-        return this.writeConnection;
+    /**
+     * Borrow the writer. Only one thread can hold the writer at any given time,
+     * so it should be closed (returned) as soon as the write is finished.
+     * @return The write connection.
+     * @throws SQLException If the writer did not become available in time.
+     */
+    public Connection getWriteConnection() throws SQLException {
+        return this.writePool.borrow();
+    }
+
+    public ConnectionPool getReadPool() {
+        return this.readPool;
+    }
+
+    public ConnectionPool getWritePool() {
+        return this.writePool;
+    }
+
+    public StatementCache getStatementCache() {
+        return this.statementCache;
+    }
+
+    public WriteBehindQueue getWriteBehindQueue() {
+        return this.writeBehindQueue;
+    }
+
+    public MessageCache getMessageCache() {
+        return this.messageCache;
     }
 
+    /**
+     * Close all connections. The write-behind queue should already have been flushed
+     * with {@link WriteBehindQueue#shutdown()}, anything submitted after this point is lost.
+     */
     public void shutdown() {
-        try {
-            this.readConnection.close();
-        } catch (SQLException e) {
-            Messaging.logException("SQLite", "shutdown", e);
+        if (this.readPool != null) {
+            this.readPool.shutdown();
         }
         
-        try {
-            this.writeConnection.close();
-        } catch (SQLException e) {
-            Messaging.logException("SQLite", "shutdown", e);
+        if (this.writePool != null) {
+            // Let SQLite update its query planner statistics before the writer goes away.
+            try (Connection conn = this.writePool.borrow(); Statement statement = conn.createStatement()) {
+                statement.execute("PRAGMA optimize;");
+            } catch (SQLException e) {
+                Messaging.logException("SQLite", "shutdown", e);
+            }
+
+            this.writePool.shutdown();
         }
     }
 }
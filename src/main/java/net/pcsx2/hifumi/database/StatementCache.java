@@ -0,0 +1,279 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Keeps prepared statements open between uses, so SQLite only has to compile each
+ * distinct statement once per connection.
+ *
+ * Statements handed out by {@link StatementCache#prepare(Connection, String) prepare()} go
+ * back into the cache when closed instead of being finalized, so callers keep using them in
+ * try-with-resources blocks just like a regular statement. Each connection holds at most
+ * the configured number of statements, least recently used ones are closed first.
+ */
+public class StatementCache {
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse = false;
+        private boolean discarded = false;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    public static class StatementStats {
+        private final String sql;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return this.sql;
+        }
+
+        public long getHits() {
+            return this.hits.sum();
+        }
+
+        public long getMisses() {
+            return this.misses.sum();
+        }
+
+        public long getUses() {
+            return this.getHits() + this.getMisses();
+        }
+    }
+
+    private final int maxStatementsPerConnection;
+    private final ConcurrentHashMap<Connection, LinkedHashMap<String, CachedStatement>> caches = new ConcurrentHashMap<Connection, LinkedHashMap<String, CachedStatement>>();
+    private final ConcurrentHashMap<String, StatementStats> statsBySql = new ConcurrentHashMap<String, StatementStats>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder bypassCount = new LongAdder();
+
+    public StatementCache(int maxStatementsPerConnection) {
+        this.maxStatementsPerConnection = Math.max(1, maxStatementsPerConnection);
+    }
+
+    /**
+     * Get a prepared statement for this SQL on this connection, compiling it only if it is not already cached.
+     * @param conn The underlying connection, not a pool wrapper.
+     * @param sql
+     * @return A statement which returns itself to the cache when closed.
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        StatementStats stats = this.statsBySql.computeIfAbsent(sql, StatementStats::new);
+        LinkedHashMap<String, CachedStatement> cache = this.caches.computeIfAbsent(conn, c -> new LinkedHashMap<String, CachedStatement>(16, 0.75f, true));
+        CachedStatement cached;
+
+        synchronized (cache) {
+            cached = cache.get(sql);
+
+            if (cached != null && cached.inUse) {
+                // The same statement is already open further up the stack, don't share it.
+                this.bypassCount.increment();
+                return conn.prepareStatement(sql);
+            }
+
+            if (cached == null) {
+                this.missCount.increment();
+                stats.misses.increment();
+                cached = new CachedStatement(conn.prepareStatement(sql));
+                cache.put(sql, cached);
+            } else {
+                this.hitCount.increment();
+                stats.hits.increment();
+            }
+
+            cached.inUse = true;
+            // Only after marking it in use, so a newly compiled statement never evicts itself
+            this.evictOverflow(cache);
+        }
+
+        return this.wrap(cache, cached);
+    }
+
+    private void evictOverflow(LinkedHashMap<String, CachedStatement> cache) {
+        Iterator<CachedStatement> it = cache.values().iterator();
+
+        while (cache.size() > this.maxStatementsPerConnection && it.hasNext()) {
+            CachedStatement eldest = it.next();
+
+            if (!eldest.inUse) {
+                it.remove();
+                this.evictionCount.increment();
+                this.closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private PreparedStatement wrap(LinkedHashMap<String, CachedStatement> cache, CachedStatement cached) {
+        PreparedStatement statement = cached.statement;
+        boolean[] returned = { false };
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close": {
+                    if (!returned[0]) {
+                        returned[0] = true;
+                        this.release(cache, cached);
+                    }
+
+                    return null;
+                }
+                case "isClosed": {
+                    if (returned[0]) {
+                        return true;
+                    }
+
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+
+            if (returned[0]) {
+                throw new SQLException("Statement was already returned to the statement cache");
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void release(LinkedHashMap<String, CachedStatement> cache, CachedStatement cached) {
+        synchronized (cache) {
+            cached.inUse = false;
+
+            if (cached.discarded) {
+                this.closeQuietly(cached.statement);
+                return;
+            }
+
+            // Don't let the next user see leftover parameters or batches
+            try {
+                cached.statement.clearParameters();
+                cached.statement.clearBatch();
+            } catch (SQLException e) {
+                Messaging.logException("StatementCache", "release", e);
+            }
+        }
+    }
+
+    /**
+     * Close every statement cached for this connection. Must be called before the connection itself is closed.
+     * Statements which are still open are closed as soon as they are returned.
+     * @param conn
+     */
+    public void closeAll(Connection conn) {
+        LinkedHashMap<String, CachedStatement> cache = this.caches.remove(conn);
+
+        if (cache == null) {
+            return;
+        }
+
+        synchronized (cache) {
+            for (CachedStatement cached : cache.values()) {
+                cached.discarded = true;
+
+                if (!cached.inUse) {
+                    this.closeQuietly(cached.statement);
+                }
+            }
+
+            cache.clear();
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            Messaging.logException("StatementCache", "closeQuietly", e);
+        }
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    public long getBypassCount() {
+        return this.bypassCount.sum();
+    }
+
+    public int getCachedCount() {
+        int ret = 0;
+
+        for (LinkedHashMap<String, CachedStatement> cache : this.caches.values()) {
+            synchronized (cache) {
+                ret += cache.size();
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param limit
+     * @return Per statement counters, most used first.
+     */
+    public List<StatementStats> getTopStatements(int limit) {
+        ArrayList<StatementStats> ret = new ArrayList<StatementStats>(this.statsBySql.values());
+        ret.sort(Comparator.comparingLong(StatementStats::getUses).reversed());
+        return ret.subList(0, Math.min(limit, ret.size()));
+    }
+
+    public String getStats() {
+        long hits = this.getHitCount();
+        long total = hits + this.getMissCount();
+
+        return String.format("statements: %d cached | hits: %d | misses: %d (%.1f%% hit rate) | evictions: %d | uncached: %d",
+            this.getCachedCount(), hits, this.getMissCount(), total > 0 ? hits * 100.0 / total : 0.0, this.getEvictionCount(), this.getBypassCount());
+    }
+
+    /**
+     * Collapse a SQL text block down to a single short line, for display.
+     * @param sql
+     * @param maxLength
+     * @return
+     */
+    public static String summarize(String sql, int maxLength) {
+        String ret = sql.strip().replaceAll("\\s+", " ");
+        return ret.length() > maxLength ? ret.substring(0, maxLength - 3) + "..." : ret;
+    }
+}
@@ -0,0 +1,233 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.util.Log;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Collects database writes and flushes them from a dedicated thread, in a single transaction
+ * per batch. A batch is flushed once it reaches the configured row count, or once the oldest
+ * write in it has waited for the configured delay, whichever happens first.
+ *
+ * Writes are always applied in the order they were submitted. When the queue is full, submitting
+ * blocks until the writer thread has caught up.
+ */
+public class WriteBehindQueue implements Runnable {
+
+    @FunctionalInterface
+    public interface WriteTask {
+        void write(Connection conn) throws SQLException;
+    }
+
+    private record PendingWrite(String name, WriteTask task, CompletableFuture<Void> future) { }
+
+    private final SQLite sqlite;
+    private final ArrayBlockingQueue<PendingWrite> queue;
+    private final int maxBatchRows;
+    private final long maxDelayMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public WriteBehindQueue(SQLite sqlite, int capacity, int maxBatchRows, long maxDelayMillis) {
+        this.sqlite = sqlite;
+        this.queue = new ArrayBlockingQueue<PendingWrite>(Math.max(1, capacity));
+        this.maxBatchRows = Math.max(1, maxBatchRows);
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+        this.thread = new Thread(this, "hifumi-db-writer");
+        this.thread.setUncaughtExceptionHandler((t, e) -> Messaging.logException(e));
+        this.thread.start();
+    }
+
+    /**
+     * Queue a write.
+     * @param name Name reported if the write fails, usually the calling method.
+     * @param task The statements to run. Do not commit or change auto commit, the queue handles that.
+     * @return Future which completes once the write has been committed, or exceptionally if it failed.
+     */
+    public CompletableFuture<Void> submit(String name, WriteTask task) {
+        PendingWrite write = new PendingWrite(name, task, new CompletableFuture<Void>());
+        this.submittedCount.increment();
+
+        if (!this.running || !this.thread.isAlive()) {
+            this.flush(List.of(write));
+            return write.future();
+        }
+
+        if (!this.queue.offer(write)) {
+            this.blockedCount.increment();
+
+            try {
+                this.queue.put(write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.flush(List.of(write));
+                return write.future();
+            }
+        }
+
+        // If shutdown raced with us, make sure this write does not get stranded in the queue.
+        if (!this.running) {
+            this.drain();
+        }
+
+        return write.future();
+    }
+
+    @Override
+    public void run() {
+        ArrayList<PendingWrite> batch = new ArrayList<PendingWrite>(this.maxBatchRows);
+
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                PendingWrite first = this.queue.poll(1, TimeUnit.SECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.maxDelayMillis);
+
+                while (batch.size() < this.maxBatchRows) {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0 || !this.running) {
+                        break;
+                    }
+
+                    PendingWrite next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+
+                this.queue.drainTo(batch, this.maxBatchRows - batch.size());
+                this.flush(batch);
+            } catch (InterruptedException e) {
+                // Not used to signal shutdown, but don't drop what we already collected.
+                this.flush(batch);
+            } catch (Exception e) {
+                Messaging.logException("WriteBehindQueue", "run", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized void drain() {
+        ArrayList<PendingWrite> remaining = new ArrayList<PendingWrite>();
+        this.queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            this.flush(remaining);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        ArrayList<PendingWrite> failed = new ArrayList<PendingWrite>();
+        ArrayList<Exception> failures = new ArrayList<Exception>();
+
+        try (Connection wConn = this.sqlite.getWriteConnection()) {
+            wConn.setAutoCommit(false);
+
+            for (PendingWrite write : batch) {
+                // Each write gets its own savepoint, so a write which fails part way through is
+                // undone entirely instead of leaving its earlier statements in the batch.
+                Savepoint savepoint = wConn.setSavepoint();
+
+                try {
+                    write.task().write(wConn);
+                } catch (Exception e) {
+                    wConn.rollback(savepoint);
+                    failed.add(write);
+                    failures.add(e);
+                }
+
+                wConn.releaseSavepoint(savepoint);
+            }
+
+            wConn.commit();
+            wConn.setAutoCommit(true);
+        } catch (SQLException e) {
+            this.failedCount.add(batch.size());
+            Messaging.logException("WriteBehindQueue", "flush", e);
+
+            for (PendingWrite write : batch) {
+                write.future().completeExceptionally(e);
+            }
+
+            return;
+        }
+
+        this.flushCount.increment();
+        this.writtenCount.add(batch.size() - failed.size());
+        this.failedCount.add(failed.size());
+        this.largestBatch.accumulateAndGet(batch.size(), Math::max);
+
+        // Report failures only after the writer has been handed back
+        for (int i = 0; i < failed.size(); i++) {
+            failed.get(i).future().completeExceptionally(failures.get(i));
+            Messaging.logException("Database", failed.get(i).name(), failures.get(i));
+        }
+
+        for (PendingWrite write : batch) {
+            write.future().complete(null);
+        }
+    }
+
+    /**
+     * Stop accepting new writes into the queue and flush everything already in it.
+     * Writes submitted after this are applied immediately, one at a time.
+     */
+    public void shutdown() {
+        this.running = false;
+
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.thread.isAlive()) {
+            Log.warn("Database writer thread did not stop in time, flushing the rest of the queue from " + Thread.currentThread().getName());
+        }
+
+        this.drain();
+    }
+
+    public int getQueuedCount() {
+        return this.queue.size();
+    }
+
+    public String getStats() {
+        return String.format("queued: %d/%d | submitted: %d | flushes: %d | written: %d (largest batch %d) | failed: %d | producer waits: %d",
+            this.queue.size(), this.queue.size() + this.queue.remainingCapacity(), this.submittedCount.sum(), this.flushCount.sum(), this.writtenCount.sum(),
+            this.largestBatch.get(), this.failedCount.sum(), this.blockedCount.sum());
+    }
+}
@@ -0,0 +1,34 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database.objects;
+
+public class CrashSignatureHitsObject {
+
+    private String name;
+    private long recentHits;
+    private long previousHits;
+
+    public CrashSignatureHitsObject(String name, long recentHits, long previousHits) {
+        this.name = name;
+        this.recentHits = recentHits;
+        this.previousHits = previousHits;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return Hits in the period asked about.
+     */
+    public long getRecentHits() {
+        return this.recentHits;
+    }
+
+    /**
+     * @return Hits in the period of the same length just before it.
+     */
+    public long getPreviousHits() {
+        return this.previousHits;
+    }
+}
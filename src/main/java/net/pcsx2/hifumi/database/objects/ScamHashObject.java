@@ -2,18 +2,22 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.database.objects;
 
+import java.util.OptionalLong;
+
 public class ScamHashObject {
 
     private String sha256;
     private long timestamp;
     private String description;
     private boolean active;
+    private OptionalLong dHash;
     
-    public ScamHashObject(String sha256, long timestamp, String description, boolean active) {
+    public ScamHashObject(String sha256, long timestamp, String description, boolean active, OptionalLong dHash) {
         this.sha256 = sha256;
         this.timestamp = timestamp;
         this.description = description;
         this.active = active;
+        this.dHash = dHash;
     }
 
     public String getSHA256() {
@@ -31,4 +35,8 @@ public class ScamHashObject {
     public boolean isActive() {
         return this.active;
     }
+    
+    public OptionalLong getDHash() {
+        return this.dHash;
+    }
 }
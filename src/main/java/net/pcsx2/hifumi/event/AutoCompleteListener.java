@@ -0,0 +1,35 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.event;
+
+import java.util.HashMap;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.util.Messaging;
+
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+public class AutoCompleteListener extends ListenerAdapter {
+
+    private final HashMap<String, AbstractSlashCommand> slashCommands = HifumiBot.getSelf().getCommandIndex().getSlashCommands();
+
+    @Override
+    public void onCommandAutoCompleteInteraction(CommandAutoCompleteInteractionEvent event) {
+        // Answered right here instead of on the scheduler. Completions are in memory lookups
+        // which take well under a millisecond, and Discord only waits 3 seconds for them, so
+        // they shouldn't queue up behind slower work.
+        AbstractSlashCommand command = slashCommands.get(event.getName());
+
+        if (command == null) {
+            return;
+        }
+
+        try {
+            command.handleAutoCompleteEvent(event);
+        } catch (Exception e) {
+            Messaging.logException("AutoCompleteListener", "onCommandAutoCompleteInteraction", e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.command.slash.CommandCrashLog;
 import net.pcsx2.hifumi.command.slash.CommandEmulog;
 import net.pcsx2.hifumi.command.slash.CommandServerMetadata;
 import net.pcsx2.hifumi.command.slash.CommandWhois;
@@ -69,6 +70,12 @@ public class ButtonEventListener extends ListenerAdapter {
                     event.deferEdit().queue();
                     commandEmulog.handleButtonEvent(event);
                     break;
+                case "crashlog_prev":
+                case "crashlog_next":
+                    CommandCrashLog commandCrashLog = (CommandCrashLog) slashCommands.get("crashlog");
+                    event.deferEdit().queue();
+                    commandCrashLog.handleButtonEvent(event);
+                    break;
                 case "timeout":
                     try {
                         if (event.getMember().hasPermission(Permission.MODERATE_MEMBERS)) {
@@ -4,7 +4,7 @@ package net.pcsx2.hifumi.event;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -60,7 +60,7 @@ public class MessageEventListener extends ListenerAdapter {
                 }
             }
             
-            Database.insertMessage(event.getMessage());
+            CompletableFuture<Void> messageStored = Database.insertMessage(event.getMessage());
 
             // If the sender was the bot, do not process any further.
             if (isHifumi) {
@@ -77,17 +77,17 @@ public class MessageEventListener extends ListenerAdapter {
             if (HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.GUEST, event.getMember())) {
                 if (Messaging.hasEmulog(event.getMessage())) {
                     EmulogParser ep = new EmulogParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(ep);
+                    HifumiBot.getSelf().getScheduler().runParser(ep);
                 }
 
                 if (Messaging.hasPnach(event.getMessage())) {
                     PnachParser pp = new PnachParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(pp);
+                    HifumiBot.getSelf().getScheduler().runParser(pp);
                 }
 
                 if (Messaging.hasCrashLog(event.getMessage())) {
                     CrashParser crashp = new CrashParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(crashp);
+                    HifumiBot.getSelf().getScheduler().runParser(crashp);
                 }
 
                 if (Messaging.hasIni(event.getMessage())) {
@@ -97,18 +97,12 @@ public class MessageEventListener extends ListenerAdapter {
 
             // If the user is not considered privileged, then:
             if (!HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.MOD, event.getMember())) {
-                // Check if this is a single duplicate message from the last 5 minutes, but ignore short messages which are probably just emotes or basic greetings, etc.
-                if (event.getMessage().getContentDisplay().length() > 10) {
-                    MessageObject messageCopy = Database.getIdenticalMessageSinceTimeInOtherChannel(event.getAuthor().getIdLong(), event.getMessage().getContentRaw(), OffsetDateTime.now().minusMinutes(5).toEpochSecond(), event.getChannel().getIdLong());
-
-                    if (messageCopy != null) {
-                        HifumiBot.getSelf().getJDA().getTextChannelById(messageCopy.getChannelId()).deleteMessageById(messageCopy.getMessageId()).queue();
-                        Messaging.sendMessage(event.getChannel(), "It looks like you've re-posted the same message that you have already recently sent. Please avoid spamming multiple channels. I've gone ahead and deleted your previous message for you.", event.getMessage(), true);
-                    }
-                }
+                // Track the message before filtering, so the filters count this message too
+                HifumiBot.getSelf().getChannelActivityTracker().record(event.getAuthor().getIdLong(), event.getChannel().getIdLong(), event.getMessage().getTimeCreated().toEpochSecond());
+                HifumiBot.getSelf().getDuplicateMessageDetector().record(event.getAuthor().getIdLong(), event.getMessageIdLong(), event.getChannel().getIdLong(), event.getMessage().getContentRaw(), event.getMessage().getTimeCreated().toEpochSecond());
 
                 // Run through message filters
-                HifumiBot.getSelf().getScheduler().addToMessageFilterFIFO(new MessageFilteringRunnable(event.getMessage()));
+                HifumiBot.getSelf().getScheduler().addToMessageFilterQueue(new MessageFilteringRunnable(event.getMessage(), messageStored));
                 
                 // Notify users if they are pinging the bot
                 if (Messaging.hasBotPing(event.getMessage())) {
@@ -139,7 +133,10 @@ public class MessageEventListener extends ListenerAdapter {
     public void onMessageDelete(MessageDeleteEvent event) {
         HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
             Database.insertMessageDeleteEvent(event);
+            HifumiBot.getSelf().getDuplicateMessageDetector().forget(event.getMessageIdLong());
             MessageObject deletedMessage = Database.getLatestMessage(event.getMessageId());
+            // Nothing looks a message up once its delete is logged
+            HifumiBot.getSelf().getSQLite().getMessageCache().remove(event.getMessageIdLong());
 
             // Don't log the bot's own deletes.
             if (deletedMessage != null && deletedMessage.getAuthorId() == HifumiBot.getSelf().getJDA().getSelfUser().getIdLong()) {
@@ -155,8 +152,13 @@ public class MessageEventListener extends ListenerAdapter {
         HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
             Database.insertMessageBulkDeleteEvent(event);
 
+            for (String messageId : event.getMessageIds()) {
+                HifumiBot.getSelf().getDuplicateMessageDetector().forget(Long.valueOf(messageId));
+            }
+
             for (String messageId : event.getMessageIds()) {
                 MessageObject deletedMessage = Database.getLatestMessage(messageId);
+                HifumiBot.getSelf().getSQLite().getMessageCache().remove(Long.valueOf(messageId));
 
                 // Don't log the bot's own deletes.
                 if (deletedMessage.getAuthorId() == HifumiBot.getSelf().getJDA().getSelfUser().getIdLong()) {
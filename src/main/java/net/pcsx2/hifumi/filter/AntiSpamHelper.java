@@ -5,7 +5,6 @@ package net.pcsx2.hifumi.filter;
 import java.awt.Color;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -16,7 +15,6 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.moderation.ModActions;
 import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.Messaging;
@@ -99,9 +97,9 @@ public class AntiSpamHelper implements IFilterHelper {
         long cooldownSeconds = HifumiBot.getSelf().getConfig().spamOptions.cooldownSeconds;
         OffsetDateTime cooldownSubtracted = this.message.getTimeCreated().minusSeconds(cooldownSeconds);
         long cooldownEpochSeconds = cooldownSubtracted.toEpochSecond();
-        HashMap<Long, Integer> aggregateResults = Database.getMessageAggregateCountsByChannelSinceTime(this.message.getAuthor().getIdLong(), cooldownEpochSeconds);
+        int channelCount = HifumiBot.getSelf().getChannelActivityTracker().countChannelsSince(this.message.getAuthor().getIdLong(), cooldownEpochSeconds);
 
-        if (aggregateResults.size() >= HifumiBot.getSelf().getConfig().spamOptions.maxMessages) {
+        if (channelCount >= HifumiBot.getSelf().getConfig().spamOptions.maxMessages) {
             return true;
         }
 
@@ -0,0 +1,160 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which channels each user has recently sent messages in, so the anti-spam filter
+ * can count them without going to the database.
+ *
+ * Each user gets a ring of one second buckets covering the spam window. A bucket holds the
+ * distinct channels the user sent a message in during that second, so a lookup only touches
+ * a fixed number of buckets no matter how much history the user has. Users who have not sent
+ * anything for a full window have nothing worth keeping and are dropped by {@link #evictIdle()}.
+ */
+public class ChannelActivityTracker {
+
+    // Evict inline if this many users are tracked at once, e.g. during a raid
+    private static final int EVICT_AT_USERS = 10000;
+
+    private static class UserWindow {
+        private final long[] bucketSeconds;
+        private final long[][] bucketChannels;
+        private final int[] bucketSizes;
+        private volatile long lastSecond = Long.MIN_VALUE;
+
+        private UserWindow(int bucketCount) {
+            this.bucketSeconds = new long[bucketCount];
+            this.bucketChannels = new long[bucketCount][];
+            this.bucketSizes = new int[bucketCount];
+            Arrays.fill(this.bucketSeconds, Long.MIN_VALUE);
+        }
+
+        private synchronized void add(long channelId, long epochSecond) {
+            int idx = (int) Math.floorMod(epochSecond, (long) this.bucketSeconds.length);
+
+            if (this.bucketSeconds[idx] != epochSecond) {
+                // Arrived so late that the bucket has already been reused for a newer second
+                if (this.bucketSeconds[idx] > epochSecond) {
+                    return;
+                }
+
+                this.bucketSeconds[idx] = epochSecond;
+                this.bucketSizes[idx] = 0;
+            }
+
+            long[] channels = this.bucketChannels[idx];
+            int size = this.bucketSizes[idx];
+
+            for (int i = 0; i < size; i++) {
+                if (channels[i] == channelId) {
+                    this.lastSecond = Math.max(this.lastSecond, epochSecond);
+                    return;
+                }
+            }
+
+            if (channels == null) {
+                channels = this.bucketChannels[idx] = new long[2];
+            } else if (size == channels.length) {
+                channels = this.bucketChannels[idx] = Arrays.copyOf(channels, size * 2);
+            }
+
+            channels[size] = channelId;
+            this.bucketSizes[idx] = size + 1;
+            this.lastSecond = Math.max(this.lastSecond, epochSecond);
+        }
+
+        private synchronized int countChannelsSince(long sinceSecond) {
+            long[] seen = new long[4];
+            int seenCount = 0;
+
+            for (int b = 0; b < this.bucketSeconds.length; b++) {
+                if (this.bucketSeconds[b] < sinceSecond) {
+                    continue;
+                }
+
+                long[] channels = this.bucketChannels[b];
+
+                bucket:
+                for (int i = 0; i < this.bucketSizes[b]; i++) {
+                    for (int s = 0; s < seenCount; s++) {
+                        if (seen[s] == channels[i]) {
+                            continue bucket;
+                        }
+                    }
+
+                    if (seenCount == seen.length) {
+                        seen = Arrays.copyOf(seen, seenCount * 2);
+                    }
+
+                    seen[seenCount++] = channels[i];
+                }
+            }
+
+            return seenCount;
+        }
+    }
+
+    private final int windowSeconds;
+    private final int bucketCount;
+    private final ConcurrentHashMap<Long, UserWindow> users = new ConcurrentHashMap<Long, UserWindow>();
+
+    /**
+     * @param windowSeconds The longest window that will be asked about.
+     */
+    public ChannelActivityTracker(int windowSeconds) {
+        this.windowSeconds = Math.max(1, windowSeconds);
+        // One extra bucket so the second the window starts in is still covered,
+        // and one more for messages which show up slightly out of order.
+        this.bucketCount = this.windowSeconds + 2;
+    }
+
+    /**
+     * Record that a user sent a message in a channel.
+     * @param userId
+     * @param channelId
+     * @param epochSecond When the message was sent.
+     */
+    public void record(long userId, long channelId, long epochSecond) {
+        this.users.computeIfAbsent(userId, id -> new UserWindow(this.bucketCount)).add(channelId, epochSecond);
+
+        if (this.users.size() > EVICT_AT_USERS) {
+            this.evictIdle();
+        }
+    }
+
+    /**
+     * Count how many different channels a user has sent messages in since a point in time.
+     * @param userId
+     * @param sinceEpochSecond Inclusive. Anything further back than the tracker's window is not seen.
+     * @return
+     */
+    public int countChannelsSince(long userId, long sinceEpochSecond) {
+        UserWindow window = this.users.get(userId);
+
+        if (window == null) {
+            return 0;
+        }
+
+        return window.countChannelsSince(sinceEpochSecond);
+    }
+
+    /**
+     * Drop every user who has not sent a message within the window.
+     */
+    public void evictIdle() {
+        long cutoff = Instant.now().getEpochSecond() - this.bucketCount;
+        this.users.values().removeIf(window -> window.lastSecond < cutoff);
+    }
+
+    public int getTrackedUserCount() {
+        return this.users.size();
+    }
+
+    public int getWindowSeconds() {
+        return this.windowSeconds;
+    }
+}
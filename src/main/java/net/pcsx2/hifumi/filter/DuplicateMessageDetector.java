@@ -0,0 +1,260 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.pcsx2.hifumi.config.Config.DuplicateMessageOptions;
+
+/**
+ * Remembers a 64-bit fingerprint of each user's recent messages, so a message re-posted in
+ * another channel can be found without comparing message content in the database.
+ *
+ * By default only exact copies match. Optionally, messages can be compared after normalizing
+ * case, punctuation and whitespace, and near duplicates can be matched using a SimHash of the
+ * normalized text's character shingles, which changes by only a few bits when a character or
+ * two of the message changes.
+ */
+public class DuplicateMessageDetector {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int SHINGLE_LENGTH = 3;
+    // Nobody legitimately sends this many long messages in the window; cap memory per user regardless.
+    private static final int MAX_ENTRIES_PER_USER = 50;
+
+    public record Match(long messageId, long channelId) { }
+
+    private record Entry(long messageId, long channelId, long hash, long simHash, long epochSecond) { }
+
+    private final DuplicateMessageOptions options;
+    private final ConcurrentHashMap<Long, ArrayDeque<Entry>> entriesByUser = new ConcurrentHashMap<Long, ArrayDeque<Entry>>();
+    private final ConcurrentHashMap<Long, Long> userByMessage = new ConcurrentHashMap<Long, Long>();
+
+    public DuplicateMessageDetector(DuplicateMessageOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * @param content
+     * @return True if the message is long enough to be worth checking for duplicates.
+     */
+    public boolean isEligible(String content) {
+        return content != null && content.length() > this.options.minLength;
+    }
+
+    /**
+     * Remember a message. Messages which are too short to be checked are ignored.
+     * @param userId
+     * @param messageId
+     * @param channelId
+     * @param content
+     * @param epochSecond
+     */
+    public void record(long userId, long messageId, long channelId, String content, long epochSecond) {
+        if (!this.isEligible(content)) {
+            return;
+        }
+
+        Entry entry = new Entry(messageId, channelId, this.hash(content), this.simHash(content), epochSecond);
+        ArrayDeque<Entry> entries = this.entriesByUser.computeIfAbsent(userId, id -> new ArrayDeque<Entry>());
+
+        synchronized (entries) {
+            entries.addLast(entry);
+
+            if (entries.size() > MAX_ENTRIES_PER_USER) {
+                this.userByMessage.remove(entries.removeFirst().messageId());
+            }
+        }
+
+        this.userByMessage.put(messageId, userId);
+    }
+
+    /**
+     * Find the newest copy of a message which the same user sent in a different channel within the window.
+     * @param userId
+     * @param messageId The message being checked, which is never returned.
+     * @param channelId
+     * @param content
+     * @return The copy, or null if there is none.
+     */
+    public Match findInOtherChannel(long userId, long messageId, long channelId, String content) {
+        ArrayDeque<Entry> entries = this.entriesByUser.get(userId);
+
+        if (entries == null || !this.isEligible(content)) {
+            return null;
+        }
+
+        long since = Instant.now().getEpochSecond() - this.getWindowSeconds();
+        long hash = this.hash(content);
+        long simHash = this.simHash(content);
+
+        synchronized (entries) {
+            Iterator<Entry> it = entries.descendingIterator();
+
+            while (it.hasNext()) {
+                Entry entry = it.next();
+
+                if (entry.epochSecond() < since) {
+                    break;
+                }
+
+                if (entry.messageId() == messageId || entry.channelId() == channelId) {
+                    continue;
+                }
+
+                if (entry.hash() == hash) {
+                    return new Match(entry.messageId(), entry.channelId());
+                }
+
+                if (simHash != 0 && entry.simHash() != 0 && Long.bitCount(entry.simHash() ^ simHash) <= this.options.nearDuplicateMaxBits) {
+                    return new Match(entry.messageId(), entry.channelId());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Forget a message, e.g. because it was deleted.
+     * @param messageId
+     */
+    public void forget(long messageId) {
+        Long userId = this.userByMessage.remove(messageId);
+
+        if (userId == null) {
+            return;
+        }
+
+        ArrayDeque<Entry> entries = this.entriesByUser.get(userId);
+
+        if (entries != null) {
+            synchronized (entries) {
+                entries.removeIf(entry -> entry.messageId() == messageId);
+            }
+        }
+    }
+
+    /**
+     * Drop every message older than the window, and users with nothing left.
+     */
+    public void evictExpired() {
+        long since = Instant.now().getEpochSecond() - this.getWindowSeconds();
+
+        this.entriesByUser.values().removeIf(entries -> {
+            synchronized (entries) {
+                while (!entries.isEmpty() && entries.peekFirst().epochSecond() < since) {
+                    this.userByMessage.remove(entries.removeFirst().messageId());
+                }
+
+                return entries.isEmpty();
+            }
+        });
+    }
+
+    public int getTrackedUserCount() {
+        return this.entriesByUser.size();
+    }
+
+    public int getTrackedMessageCount() {
+        return this.userByMessage.size();
+    }
+
+    private long getWindowSeconds() {
+        return Math.max(1, this.options.windowMinutes) * 60L;
+    }
+
+    private long hash(String content) {
+        String text = content;
+
+        if (this.options.matchNormalized) {
+            String normalized = normalize(content);
+            // Messages made only of symbols or emotes would all normalize to nothing
+            text = normalized.isEmpty() ? content : normalized;
+        }
+
+        long ret = FNV_OFFSET;
+
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            ret ^= (b & 0xff);
+            ret *= FNV_PRIME;
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param content
+     * @return The SimHash, or 0 if near duplicate matching is off or there is too little text to shingle.
+     */
+    private long simHash(String content) {
+        if (this.options.nearDuplicateMaxBits <= 0) {
+            return 0;
+        }
+
+        String text = normalize(content);
+
+        if (text.length() < SHINGLE_LENGTH) {
+            return 0;
+        }
+
+        int[] weights = new int[64];
+
+        for (int i = 0; i + SHINGLE_LENGTH <= text.length(); i++) {
+            long shingle = FNV_OFFSET;
+
+            for (int j = i; j < i + SHINGLE_LENGTH; j++) {
+                shingle ^= text.charAt(j);
+                shingle *= FNV_PRIME;
+            }
+
+            // FNV's low bits are weak for short inputs, mix before using individual bits
+            shingle ^= shingle >>> 33;
+            shingle *= 0xff51afd7ed558ccdL;
+            shingle ^= shingle >>> 33;
+
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((shingle >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+
+        long ret = 0;
+
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                ret |= 1L << bit;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Lowercase, drop anything that isn't a letter, digit or whitespace, and collapse whitespace.
+     * @param content
+     * @return
+     */
+    private static String normalize(String content) {
+        StringBuilder sb = new StringBuilder(content.length());
+        boolean lastWasSpace = true;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                lastWasSpace = false;
+            } else if (Character.isWhitespace(c) && !lastWasSpace) {
+                sb.append(' ');
+                lastWasSpace = true;
+            }
+        }
+
+        return sb.toString().strip();
+    }
+}
@@ -0,0 +1,36 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.filter.DuplicateMessageDetector.Match;
+import net.pcsx2.hifumi.util.Messaging;
+
+public class DuplicateMessageHelper implements IFilterHelper {
+
+    private final Message message;
+
+    public DuplicateMessageHelper(Message message) {
+        this.message = message;
+    }
+
+    /**
+     * Check if this is a single duplicate message from the last few minutes, and if so delete the previous copy.
+     * This is only a cleanup, so it never stops the other filters from running.
+     * @return Always false
+     */
+    @Override
+    public boolean run() {
+        DuplicateMessageDetector detector = HifumiBot.getSelf().getDuplicateMessageDetector();
+        Match messageCopy = detector.findInOtherChannel(this.message.getAuthor().getIdLong(), this.message.getIdLong(), this.message.getChannel().getIdLong(), this.message.getContentRaw());
+
+        if (messageCopy != null) {
+            detector.forget(messageCopy.messageId());
+            HifumiBot.getSelf().getJDA().getTextChannelById(messageCopy.channelId()).deleteMessageById(messageCopy.messageId()).queue();
+            Messaging.sendMessage(this.message.getChannel(), "It looks like you've re-posted the same message that you have already recently sent. Please avoid spamming multiple channels. I've gone ahead and deleted your previous message for you.", this.message, true);
+        }
+
+        return false;
+    }
+}
@@ -4,18 +4,33 @@ package net.pcsx2.hifumi.filter;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.pcsx2.hifumi.util.MemberUtils;
 
 public class MessageFilteringRunnable implements Runnable {
+    private static final long STORE_WAIT_SECONDS = 10;
+
     private final Message message;
+    private final CompletableFuture<Void> messageStored;
     
-    public MessageFilteringRunnable(Message message) {
+    /**
+     * @param message
+     * @param messageStored Future from {@link net.pcsx2.hifumi.database.Database#insertMessage(Message) insertMessage},
+     * filters which read the user's message history will not run until the message is in the database.
+     */
+    public MessageFilteringRunnable(Message message, CompletableFuture<Void> messageStored) {
         this.message = message;
+        this.messageStored = messageStored;
     }
     
+    public long getAuthorIdLong() {
+        return this.message.getAuthor().getIdLong();
+    }
+
     @Override
     public void run() {
         Optional<Member> memberOpt = MemberUtils.getOrRetrieveMember(this.message.getGuild(), this.message.getAuthor().getIdLong());
@@ -30,18 +45,39 @@ public class MessageFilteringRunnable implements Runnable {
             return;
         }
         
+        // These work from memory or the message itself, so they never wait on the database
         List<IFilterHelper> helpers = List.of(
+            new DuplicateMessageHelper(this.message),
             new HoneypotHelper(this.message),
             new ScamHashHelper(this.message),
-            new AntiAttachmentHelper(this.message),
-            new AntiSpamHelper(this.message),
-            //new AntiForwardHelper(this.message),
-            new AntiBotHelper(this.message)
+            new AntiSpamHelper(this.message)
+            //new AntiForwardHelper(this.message)
         );
         
         for (IFilterHelper helper : helpers) {
             if (helper.run()) {
-                break;
+                return;
+            }
+        }
+
+        // These compare against the user's message history, which has to include this message.
+        try {
+            this.messageStored.get(STORE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // Squelch, the failure was already reported by the write queue. Filter on what we have.
+        }
+
+        List<IFilterHelper> historyHelpers = List.of(
+            new AntiAttachmentHelper(this.message),
+            new AntiBotHelper(this.message)
+        );
+
+        for (IFilterHelper helper : historyHelpers) {
+            if (helper.run()) {
+                return;
             }
         }
     }
@@ -15,10 +15,13 @@ import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.ScamHashObject;
 import net.pcsx2.hifumi.moderation.ModActions;
 import net.pcsx2.hifumi.util.AttachmentUtils;
+import net.pcsx2.hifumi.util.AttachmentUtils.ImageHashes;
+import net.pcsx2.hifumi.util.BkTree.Match;
 import net.pcsx2.hifumi.util.EmbedUtil;
 import net.pcsx2.hifumi.util.Messaging;
 
@@ -29,6 +32,8 @@ public class ScamHashHelper implements IFilterHelper {
     private final Message message;
     
     private String sha256;
+    private String matchedSha256;
+    private int hashDistance = 0;
     private String hashDescription;
     
     public ScamHashHelper(Message message) {
@@ -48,17 +53,31 @@ public class ScamHashHelper implements IFilterHelper {
     }
 
     private boolean evaluate() {
+        int maxDistance = HifumiBot.getSelf().getConfig().scamHashOptions.perceptualMaxDistance;
+        
         for (Attachment attachment : this.message.getAttachments()) {
-            Optional<String> sha256Opt = AttachmentUtils.generateImageSHA256(attachment);
+            Optional<ImageHashes> hashesOpt = AttachmentUtils.generateImageHashes(attachment);
             
-            if (sha256Opt.isPresent()) {
-                this.sha256 = sha256Opt.get();
-                Optional<ScamHashObject> scamHashOpt = Database.getActiveScamHash(this.sha256);
+            if (hashesOpt.isPresent()) {
+                ImageHashes hashes = hashesOpt.get();
+                this.sha256 = hashes.sha256();
+                Optional<ScamHashObject> scamHashOpt = HifumiBot.getSelf().getScamHashIndex().getActive(this.sha256);
                 
                 if (scamHashOpt.isPresent()) {
                     this.hashDescription = scamHashOpt.get().getDescription();
                     return true;
                 }
+                
+                if (hashes.dHash().isPresent()) {
+                    Match<ScamHashObject> similar = HifumiBot.getSelf().getScamHashIndex().findSimilar(hashes.dHash().getAsLong(), maxDistance);
+                    
+                    if (similar != null) {
+                        this.matchedSha256 = similar.value().getSHA256();
+                        this.hashDistance = similar.distance();
+                        this.hashDescription = similar.value().getDescription();
+                        return true;
+                    }
+                }
             }
         }
         
@@ -85,7 +104,14 @@ public class ScamHashHelper implements IFilterHelper {
         eb.addField("User ID", user.getId(), true);
         eb.addField("Username", user.getName(), true);
         eb.addField("Display Name (as mention)", user.getAsMention(), true);
-        eb.addField("Matched SHA3-256 Hash", this.sha256, false);
+        
+        if (this.matchedSha256 != null) {
+            eb.addField("Attachment SHA3-256 Hash", this.sha256, false);
+            eb.addField("Visually Matched SHA3-256 Hash", this.matchedSha256 + " (" + this.hashDistance + " of 64 bits differ)", false);
+        } else {
+            eb.addField("Matched SHA3-256 Hash", this.sha256, false);
+        }
+        
         eb.addField("Hash Description", this.hashDescription, false);
         eb.setColor(Color.YELLOW);
         
@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.objects.ScamHashObject;
+import net.pcsx2.hifumi.util.BkTree;
+import net.pcsx2.hifumi.util.BkTree.Match;
+
+/**
+ * In memory copy of every active row in scam_hash, so checking an attachment's hashes never
+ * touches the database.
+ *
+ * Exact SHA3-256 digests are looked up in a map. Perceptual hashes are kept in a BK-tree, so
+ * finding the closest one within a few bits stays fast as the list grows.
+ *
+ * The whole set is reloaded with {@link #refresh()} whenever /scamhash changes a row. Lookups
+ * read an immutable snapshot, so they never wait on a refresh.
+ */
+public class ScamHashIndex {
+
+    private record Snapshot(Map<String, ScamHashObject> bySha256, BkTree<ScamHashObject> byDHash) { }
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), new BkTree<ScamHashObject>());
+
+    /**
+     * Reload the active hashes from the database.
+     */
+    public void refresh() {
+        HashMap<String, ScamHashObject> bySha256 = new HashMap<String, ScamHashObject>();
+        BkTree<ScamHashObject> byDHash = new BkTree<ScamHashObject>();
+
+        for (ScamHashObject scamHash : Database.getActiveScamHashes()) {
+            bySha256.put(scamHash.getSHA256().toLowerCase(Locale.ROOT), scamHash);
+
+            if (scamHash.getDHash().isPresent()) {
+                byDHash.add(scamHash.getDHash().getAsLong(), scamHash);
+            }
+        }
+
+        this.snapshot = new Snapshot(Map.copyOf(bySha256), byDHash);
+    }
+
+    /**
+     * @param sha256 Hex digest, in either case.
+     * @return The matching active hash, if there is one.
+     */
+    public Optional<ScamHashObject> getActive(String sha256) {
+        return Optional.ofNullable(this.snapshot.bySha256().get(sha256.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * @param dHash
+     * @param maxDistance How many bits may differ, inclusive.
+     * @return The active hash with the closest perceptual hash, or null if none are close enough.
+     */
+    public Match<ScamHashObject> findSimilar(long dHash, int maxDistance) {
+        return this.snapshot.byDHash().findNearest(dHash, maxDistance);
+    }
+
+    public int getActiveCount() {
+        return this.snapshot.bySha256().size();
+    }
+
+    public int getPerceptualCount() {
+        return this.snapshot.byDHash().size();
+    }
+}
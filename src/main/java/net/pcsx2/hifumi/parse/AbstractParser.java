@@ -2,6 +2,23 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.parse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
+import net.pcsx2.hifumi.parse.ParseResultCache.Upload;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.Attachment;
 import okhttp3.MediaType;
 
 public abstract class AbstractParser implements Runnable {
@@ -9,4 +26,139 @@ public abstract class AbstractParser implements Runnable {
     protected static final int MAX_LINE_LENGTH = 80;
     protected static final String LINE_NUM_SEPARATOR = ", ";
     protected static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000 * 10;
+    private static final int READ_TIMEOUT_MILLIS = 1000 * 30;
+
+    protected interface ContentParser {
+        public ParseResult parse(InputStream in) throws IOException;
+    }
+
+    /**
+     * Thrown from a parser's download after the parser was interrupted.
+     */
+    protected static class ParseCancelledException extends InterruptedIOException {
+        private static final long serialVersionUID = 1L;
+
+        private ParseCancelledException() {
+            super("Parse was cancelled");
+        }
+    }
+
+    /**
+     * @return The message the attachment was posted in.
+     */
+    public abstract Message getMessage();
+
+    /**
+     * @return The attachment to parse, or null if the message did not have one this parser reads.
+     */
+    public abstract Attachment getAttachment();
+
+    /**
+     * @return Most bytes of the attachment this parser reads before giving up on the rest, or -1
+     * if it always reads the whole attachment.
+     */
+    public long getMaxReadBytes() {
+        return -1;
+    }
+
+    /**
+     * Hashes everything read through it, remembering whether the end was reached. Gives up with
+     * a ParseCancelledException once the parser thread is interrupted, such as by a timeout.
+     */
+    private static class HashingInputStream extends DigestInputStream {
+        private boolean reachedEnd = false;
+
+        private HashingInputStream(InputStream in) {
+            super(in, newDigest());
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkInterrupted();
+            int read = super.read();
+            this.reachedEnd |= read == -1;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkInterrupted();
+            int read = super.read(b, off, len);
+            this.reachedEnd |= read == -1;
+            return read;
+        }
+
+        private static void checkInterrupted() throws ParseCancelledException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ParseCancelledException();
+            }
+        }
+
+        private String getHash() {
+            return HexFormat.of().formatHex(this.getMessageDigest().digest());
+        }
+    }
+
+    /**
+     * Parse an attachment, or reuse the result from an earlier upload of the same file.
+     * @param kind
+     * @param version Version of the rules the parser checks against.
+     * @param attachment
+     * @param url
+     * @param parser Reads the attachment. Not called at all if a cached result is used.
+     * @return What the parser found, this time or last time.
+     * @throws IOException
+     */
+    protected static ParseResult parseCached(Kind kind, long version, Attachment attachment, URL url, ContentParser parser) throws IOException {
+        ParseResultCache cache = HifumiBot.getSelf().getParseResultCache();
+        Upload upload = new Upload(kind, version, attachment.getFileName(), attachment.getSize());
+
+        if (cache.mightContain(upload)) {
+            String hash;
+
+            try (HashingInputStream in = new HashingInputStream(openStream(url))) {
+                in.transferTo(OutputStream.nullOutputStream());
+                hash = in.getHash();
+            }
+
+            ParseResult cached = cache.get(upload, hash);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            // Some other file with the same name and size; rare enough to just download it again
+        } else {
+            cache.recordMiss();
+        }
+
+        try (HashingInputStream in = new HashingInputStream(openStream(url))) {
+            ParseResult result = parser.parse(in);
+
+            // Only a file read to the end has a hash to file the result under
+            if (in.reachedEnd) {
+                cache.put(upload, in.getHash(), result);
+            }
+
+            return result;
+        }
+    }
+
+    protected static InputStream openStream(URL url) throws IOException {
+        // Interrupting a thread does not wake it from a blocked socket read, so never block for long
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        return connection.getInputStream();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to have SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
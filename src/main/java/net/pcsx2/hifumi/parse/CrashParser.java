@@ -3,14 +3,22 @@
 package net.pcsx2.hifumi.parse;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.parse.CrashSignatureSet.CompiledSignature;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.entities.Message;
@@ -23,7 +31,7 @@ public class CrashParser extends AbstractParser {
     private final Message message;
     private Attachment attachment;
 
-    private ArrayList<String> errors;
+    private final CrashSignatureSet signatureSet;
 
     public CrashParser(final Message message) {
         this.message = message;
@@ -36,6 +44,19 @@ public class CrashParser extends AbstractParser {
                 break;
             }
         }
+
+        // Signatures changed part way through a parse apply from the next one
+        this.signatureSet = HifumiBot.getSelf().getCrashSignatureSet();
+    }
+
+    @Override
+    public Message getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public Attachment getAttachment() {
+        return this.attachment;
     }
 
     public void run() {
@@ -53,85 +74,69 @@ public class CrashParser extends AbstractParser {
         }
 
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
-            Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your crash log for known problems...");
-            String originalLine;
-            String normalizedLine;
-            this.errors = new ArrayList<String>();
+            ParseResult result = parseCached(Kind.CRASH, signatureSet.getVersion(), attachment, url, this::parse);
 
-            while ((originalLine = reader.readLine()) != null) {
-                normalizedLine = originalLine.toLowerCase();
-                
-                if (normalizedLine.contains("fcvap32.dll") || normalizedLine.contains("fcvap64.dll") || normalizedLine.contains("ezfrd32.dll") || normalizedLine.contains("ezfrd64.dll") || normalizedLine.contains("ez6401.dll")) {
-                    this.errors.add(
-                        "[Fatal] Bad USB gamepad vibration driver. This driver is known to cause most 64 bit applications to crash without warning.\n" +
-                        "Go to the file referenced below, and delete it from your PC:\n" +
-                        normalizedLine
-                    );
-                }
-
-                if (normalizedLine.contains("oldnewexplorer.dll") || normalizedLine.contains("oldnewexplorer32.dll") || normalizedLine.contains("oldnewexplorer64.dll")) {
-                    this.errors.add(
-                        "[Fatal] OldNewExplorer detected. OldNewExplorer causes many modern applications to crash, due to unsafe modifications to Windows' implementation of file and folder pickers.\n" +
-                        "OldNewExplorer must be fully uninstalled and your system rebooted. PCSX2 will not function until the uninstall is fully complete and all Windows system files are restored to their proper states.\n" +
-                        normalizedLine
-                    );
-                }
-
-                if (normalizedLine.contains("vulkan_dzn.dll")) {
-                    this.errors.add(
-                        "[Fatal] Vulkan Compatibility Pack detected. This app package uses a Vulkan on DX12 implementation which does not actually conform to Vulkan specifications. Using the Vulkan renderer or opening the Settings menu in PCSX2 will likely crash.\n" +
-                        "Open your Start menu, hit Settings, Apps, then find `OpenCL™, OpenGL®, and Vulkan® Compatibility Pack` in the list and uninstall. Once uninstalled, reboot your PC."
-                    );
-                }
-
-                if (normalizedLine.contains("owclient.dll") || normalizedLine.contains("ow-graphics-vulkan.dll") || normalizedLine.contains("ow-graphics-hook64.dll")) {
-                    this.errors.add(
-                        "[Fatal] Overwolf detected. This program's overlay hooks often crash the GPU driver.\n" +
-                        "To avoid crashing, uninstall Overwolf."
-                    );
-                }
-
-                if(normalizedLine.contains("rtsshooks64.dll"))
-                {
-                    this.errors.add(
-                        "[Fatal] RivaTuner statistics server detected. This program is known to cause memory leaks when using DX12 on certain hardware.\n" +
-                        "If PCSX2 appears to be leaking memory, uninstall RivaTuner."
-                    );
-                }
-            }
-
-            reader.close();
-
-            if (!errors.isEmpty()) {
-                StringBuilder bodyBuilder = new StringBuilder();
-                bodyBuilder.append("\n")
-                        .append("============================= Crash Log Parse Results =============================")
-                        .append("\n\n");
-
-                for (String error : this.errors) {
-                    bodyBuilder.append(error)
-                            .append("\n\n")
-                            .append("--------------------------------------------------------------------------------")
-                            .append("\n\n");
-                }
-
-                bodyBuilder.append("\n\n")
-                            .append("=========================== End Crash Log Parse Results ===========================")
-                            .append("\n");
-                
-                if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                        Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Crash_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
-                } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your crash log generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
-                }
+            if (!result.hasBody()) {
+                Messaging.sendMessage(message.getChannel(), result.reply());
+            } else if (result.body().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
+                Messaging.sendMessage(message.getChannel(), result.reply(), "Crash_" + message.getAuthor().getName() + ".txt", result.body());
             } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: Crash log does not contain any DLL files known to be problematic.");
+                Messaging.sendMessage(message.getChannel(), ":warning: Your crash log generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
             }
+        } catch (ParseCancelledException e) {
+            // Timed out, and the parser executor has already said so
         } catch (Exception e) {
             Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
             Messaging.logException("CrashParser", "run", e);
             return;
         }
     }
+
+    private ParseResult parse(InputStream download) throws IOException {
+        List<CompiledSignature> signatures = signatureSet.getSignatures();
+        ArrayList<String> errors = new ArrayList<String>();
+        LinkedHashSet<String> hitNames = new LinkedHashSet<String>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(download))) {
+            Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your crash log for known problems...");
+            CrashSignatureSet.Scanner scanner = signatureSet.newScanner();
+            String originalLine;
+
+            while ((originalLine = reader.readLine()) != null) {
+                final String normalizedLine = originalLine.toLowerCase();
+                scanner.scan(normalizedLine, signatureIdx -> {
+                    CompiledSignature signature = signatures.get(signatureIdx);
+                    hitNames.add(signature.name());
+                    errors.add("[Fatal] " + signature.message() + (signature.includeLine() ? "\n" + normalizedLine : ""));
+                });
+            }
+        }
+
+        // Only counted once the whole log was read, and a cached result is not parsed again, so
+        // each crash log counts once however many times it is uploaded
+        if (!hitNames.isEmpty()) {
+            Database.insertCrashSignatureHits(hitNames, OffsetDateTime.now().toEpochSecond());
+        }
+
+        if (errors.isEmpty()) {
+            return new ParseResult(":white_check_mark: Crash log does not contain any DLL files known to be problematic.", null);
+        }
+
+        StringBuilder bodyBuilder = new StringBuilder();
+        bodyBuilder.append("\n")
+                .append("============================= Crash Log Parse Results =============================")
+                .append("\n\n");
+
+        for (String error : errors) {
+            bodyBuilder.append(error)
+                    .append("\n\n")
+                    .append("--------------------------------------------------------------------------------")
+                    .append("\n\n");
+        }
+
+        bodyBuilder.append("\n\n")
+                    .append("=========================== End Crash Log Parse Results ===========================")
+                    .append("\n");
+        return new ParseResult(":information_source: Found something! Results are in this text file!", bodyBuilder.toString());
+    }
 }
@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import net.pcsx2.hifumi.config.CrashParserConfig.Signature;
+
+/**
+ * The crash parser signatures, compiled once into a single matcher so a crash log is checked
+ * with one pass over each line no matter how many signatures there are.
+ *
+ * Built when the signatures change and never modified, so any number of parsers can share it.
+ */
+public class CrashSignatureSet {
+
+    public record CompiledSignature(String name, String message, boolean includeLine) { }
+
+    private static final AtomicLong versions = new AtomicLong();
+
+    private final long version;
+    private final CompiledSignature[] signatures;
+    private final MultiStringMatcher matcher;
+    // Signature each string in the matcher belongs to
+    private final int[] owners;
+
+    public CrashSignatureSet(List<Signature> signatures) {
+        this.version = versions.incrementAndGet();
+        this.signatures = new CompiledSignature[signatures.size()];
+        ArrayList<String> strings = new ArrayList<String>();
+        ArrayList<Integer> owners = new ArrayList<Integer>();
+
+        for (int signatureIdx = 0; signatureIdx < signatures.size(); signatureIdx++) {
+            Signature signature = signatures.get(signatureIdx);
+            this.signatures[signatureIdx] = new CompiledSignature(signature.name, signature.message, signature.includeLine);
+
+            for (String toMatch : signature.toMatch) {
+                strings.add(toMatch.toLowerCase());
+                owners.add(signatureIdx);
+            }
+        }
+
+        this.matcher = new MultiStringMatcher(strings);
+        this.owners = owners.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public List<CompiledSignature> getSignatures() {
+        return Arrays.asList(this.signatures);
+    }
+
+    /**
+     * @return Somewhere to check lines from, for use by one thread at a time.
+     */
+    public Scanner newScanner() {
+        return new Scanner();
+    }
+
+    public class Scanner {
+
+        private final int[] candidates = new int[signatures.length];
+        private final int[] seen = new int[signatures.length];
+        private final IntConsumer onString = this::addCandidate;
+        private int lineNumber = 0;
+        private int candidateCount = 0;
+
+        private Scanner() { }
+
+        private void addCandidate(int stringIdx) {
+            int signatureIdx = owners[stringIdx];
+
+            if (this.seen[signatureIdx] != this.lineNumber) {
+                this.seen[signatureIdx] = this.lineNumber;
+                this.candidates[this.candidateCount++] = signatureIdx;
+            }
+        }
+
+        /**
+         * @param normalizedLine The line, lower cased.
+         * @param onMatch Given the index of every signature found in the line, once each and in
+         * signature order.
+         */
+        public void scan(String normalizedLine, IntConsumer onMatch) {
+            // Rolls over after about four billion lines, far more than any crash log has
+            this.lineNumber++;
+            this.candidateCount = 0;
+            matcher.find(normalizedLine, this.onString);
+            Arrays.sort(this.candidates, 0, this.candidateCount);
+
+            for (int i = 0; i < this.candidateCount; i++) {
+                onMatch.accept(this.candidates[i]);
+            }
+        }
+    }
+}
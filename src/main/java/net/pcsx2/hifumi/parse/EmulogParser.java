@@ -3,16 +3,20 @@
 package net.pcsx2.hifumi.parse;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.config.Config.ParserOptions;
+import net.pcsx2.hifumi.parse.EmulogRuleSet.CompiledRule;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.entities.Message;
@@ -23,8 +27,58 @@ public class EmulogParser extends AbstractParser {
     private final Message message;
     private Attachment attachment;
 
-    private HashMap<Rule, Pattern> patterns;
-    private HashMap<Rule, ArrayList<String>> lines;
+    private final EmulogRuleSet ruleSet;
+    private final long maxBytes;
+    private final int maxLinesPerRule;
+
+    /**
+     * Stops at a byte limit as if the stream had ended there, remembering whether there was more.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+        private boolean truncated = false;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int read = this.read(b, 0, 1);
+            return read == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.remaining <= 0) {
+                if (!this.truncated && super.read() != -1) {
+                    this.truncated = true;
+                }
+
+                return -1;
+            }
+
+            int read = super.read(b, off, (int) Math.min(len, this.remaining));
+
+            if (read > 0) {
+                this.remaining -= read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes would not count towards the limit; callers fall back to reading instead.
+            return 0;
+        }
+
+        private boolean isTruncated() {
+            return this.truncated;
+        }
+    }
 
     public EmulogParser(final Message message) {
         this.message = message;
@@ -36,13 +90,26 @@ public class EmulogParser extends AbstractParser {
             }
         }
 
-        patterns = new HashMap<Rule, Pattern>();
-        lines = new HashMap<Rule, ArrayList<String>>();
-        
-        for (Rule rule : HifumiBot.getSelf().getEmulogParserConfig().rules) {
-            patterns.put(rule, Pattern.compile(rule.toMatch.toLowerCase()));
-            lines.put(rule, new ArrayList<String>());
-        }
+        // Rules changed part way through a parse apply from the next one
+        this.ruleSet = HifumiBot.getSelf().getEmulogRuleSet();
+        ParserOptions options = HifumiBot.getSelf().getConfig().parserOptions;
+        this.maxBytes = options.emulogMaxBytes;
+        this.maxLinesPerRule = options.emulogMaxLinesPerRule;
+    }
+
+    @Override
+    public Message getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public Attachment getAttachment() {
+        return this.attachment;
+    }
+
+    @Override
+    public long getMaxReadBytes() {
+        return this.maxBytes;
     }
 
     @Override
@@ -61,88 +128,108 @@ public class EmulogParser extends AbstractParser {
         }
 
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
+            ParseResult result = parseCached(Kind.EMULOG, ruleSet.getVersion(), attachment, url, this::parse);
+
+            if (!result.hasBody()) {
+                Messaging.sendMessage(message.getChannel(), result.reply());
+            } else if (result.body().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
+                Messaging.sendMessage(message.getChannel(), result.reply(), "Emulog_" + message.getAuthor().getName() + ".txt", result.body());
+            } else {
+                Messaging.sendMessage(message.getChannel(), ":warning: Your emulog generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
+            }
+        } catch (ParseCancelledException e) {
+            // Timed out, and the parser executor has already said so
+        } catch (Exception e) {
+            Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
+            Messaging.logException("EmulogParser", "run", e);
+            return;
+        }
+    }
+
+    private ParseResult parse(InputStream download) throws IOException {
+        List<CompiledRule> rules = ruleSet.getRules();
+        ArrayList<ArrayList<String>> lines = new ArrayList<ArrayList<String>>();
+        int[] matchCounts = new int[rules.size()];
+        boolean truncated = false;
+
+        for (int i = 0; i < rules.size(); i++) {
+            lines.add(new ArrayList<String>());
+        }
+
+        // Read and checked a line at a time, so only the lines being kept are ever held on to
+        try (LimitedInputStream in = new LimitedInputStream(download, maxBytes);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
             Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your emulog.txt for information/errors...");
+            EmulogRuleSet.Scanner scanner = ruleSet.newScanner();
             String originalLine;
-            String normalizedLine;
 
             while ((originalLine = reader.readLine()) != null) {
-                normalizedLine = originalLine.toLowerCase();
-                
-                for (Rule rule : patterns.keySet()) {
-                    Pattern p = patterns.get(rule);
-                    Matcher m = p.matcher(normalizedLine);
-                    
-                    if (m.matches()) {
-                        addError(rule, originalLine);
+                final String line = originalLine;
+                scanner.scan(originalLine.toLowerCase(), ruleIdx -> {
+                    if (matchCounts[ruleIdx]++ < maxLinesPerRule) {
+                        lines.get(ruleIdx).add(line);
                     }
-                }
+                });
             }
 
-            reader.close();
-
-            StringBuilder bodyBuilder = new StringBuilder();
-            bodyBuilder.append("\n")
-                    .append("============================= Emulog Parse Results =============================")
-                    .append("\n");
-            bodyBuilder.append("(*) = Information (!) = Warning (X) = Critical").append("\n\n");
-            boolean hasLines = false;
-
-            for (Rule rule : lines.keySet()) {
-                ArrayList<String> arr = lines.get(rule);
-
-                if (arr.size() > 0) {
-                    hasLines = true;
-                    bodyBuilder
-                            .append("--------------------------------------------------------------------------------")
-                            .append("\n");
-                    
-                    switch (rule.severity) {
-                    case 0:
-                        bodyBuilder.append("(*) ");
-                        break;
-                    case 1:
-                        bodyBuilder.append("(!) ");
-                        break;
-                    case 2:
-                        bodyBuilder.append("(X) ");
-                        break;
-                    default:
-                        bodyBuilder.append("(?) ");
-                        break;
-                    }
-                    
-                    bodyBuilder.append(rule.message).append("\n\n");
+            truncated = in.isTruncated();
+        }
 
-                    for (String str : arr) {
-                        bodyBuilder.append(str).append("\n");
-                    }
-                }
-            }
+        StringBuilder bodyBuilder = new StringBuilder();
+        bodyBuilder.append("\n")
+                .append("============================= Emulog Parse Results =============================")
+                .append("\n");
+        bodyBuilder.append("(*) = Information (!) = Warning (X) = Critical").append("\n\n");
+        boolean hasLines = false;
 
-            if (hasLines) {
-                bodyBuilder.append("\n\n")
-                        .append("=========================== End Emulog Parse Results ===========================")
+        if (truncated) {
+            bodyBuilder.append("Only the first " + (maxBytes / 1024 / 1024) + " MiB of this emulog were checked.").append("\n\n");
+        }
+
+        for (int ruleIdx = 0; ruleIdx < rules.size(); ruleIdx++) {
+            CompiledRule rule = rules.get(ruleIdx);
+            ArrayList<String> arr = lines.get(ruleIdx);
+
+            if (arr.size() > 0) {
+                hasLines = true;
+                bodyBuilder
+                        .append("--------------------------------------------------------------------------------")
                         .append("\n");
+                
+                switch (rule.severity()) {
+                case 0:
+                    bodyBuilder.append("(*) ");
+                    break;
+                case 1:
+                    bodyBuilder.append("(!) ");
+                    break;
+                case 2:
+                    bodyBuilder.append("(X) ");
+                    break;
+                default:
+                    bodyBuilder.append("(?) ");
+                    break;
+                }
+                
+                bodyBuilder.append(rule.message()).append("\n\n");
 
-                if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                    Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Emulog_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
-                } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your emulog generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
+                for (String str : arr) {
+                    bodyBuilder.append(str).append("\n");
+                }
+
+                if (matchCounts[ruleIdx] > arr.size()) {
+                    bodyBuilder.append("... and ").append(matchCounts[ruleIdx] - arr.size()).append(" more lines like these").append("\n");
                 }
-            } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: Nothing to report! Either this emulog is empty, or things just went really well!");
             }
-        } catch (Exception e) {
-            Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
-            Messaging.logException("EmulogParser", "run", e);
-            return;
         }
-    }
 
-    private void addError(Rule rule, String line) {
-        ArrayList<String> arr = lines.get(rule);
-        arr.add(line);
-        lines.put(rule, arr);
+        if (!hasLines) {
+            return new ParseResult(":white_check_mark: Nothing to report! Either this emulog is empty, or things just went really well!", null);
+        }
+
+        bodyBuilder.append("\n\n")
+                .append("=========================== End Emulog Parse Results ===========================")
+                .append("\n");
+        return new ParseResult(":information_source: Found something! Results are in this text file!", bodyBuilder.toString());
     }
 }
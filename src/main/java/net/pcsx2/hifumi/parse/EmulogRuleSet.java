@@ -0,0 +1,348 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.util.Log;
+
+/**
+ * The emulog parser rules, compiled once so a log can be checked without trying every rule's
+ * regex on every line.
+ *
+ * Most rules are a piece of text with some wildcards around it, so any line they match has to
+ * contain that text. Those pieces of text are put into one Aho-Corasick automaton, which finds
+ * every piece in a line with a single pass over it. A rule's regex is then only tried on lines
+ * containing its text. Rules where no such text can be worked out are tried on every line. The
+ * regex always has the last word, the automaton only skips lines it could never match.
+ *
+ * Built when the rules change and never modified, so any number of parsers can share it.
+ */
+public class EmulogRuleSet {
+
+    public record CompiledRule(String name, String message, int severity, Pattern pattern) { }
+
+    // Longer text filters no better and only makes the automaton bigger
+    private static final int MAX_LITERAL_LENGTH = 16;
+    // Case insensitive and comments mode change what plain text in a pattern means
+    private static final Pattern UNSAFE_FLAGS_PATTERN = Pattern.compile("\\(\\?[a-z-]*[ix]");
+    private static final String SINGLE_CHAR_ESCAPES = "dswbhvtnrfaezg";
+    private static final AtomicLong versions = new AtomicLong();
+
+    private final long version;
+    private final CompiledRule[] rules;
+    // Rules with no required text, tried on every line
+    private final int[] unfiltered;
+    // Finds the required text of every other rule
+    private final MultiStringMatcher literalMatcher;
+
+    /**
+     * @param rules Rules which fail to compile are logged and left out.
+     */
+    public EmulogRuleSet(List<Rule> rules) {
+        this.version = versions.incrementAndGet();
+        ArrayList<CompiledRule> compiled = new ArrayList<CompiledRule>();
+        ArrayList<String> literals = new ArrayList<String>();
+
+        for (Rule rule : rules) {
+            String normalized = rule.toMatch.toLowerCase();
+
+            try {
+                compiled.add(new CompiledRule(rule.name, rule.message, rule.severity, Pattern.compile(normalized)));
+                literals.add(requiredLiteral(normalized));
+            } catch (PatternSyntaxException e) {
+                Log.warn("Skipping emulog rule " + rule.name + ", its pattern does not compile: " + e.getDescription());
+            }
+        }
+
+        this.rules = compiled.toArray(new CompiledRule[0]);
+
+        ArrayList<Integer> unfiltered = new ArrayList<Integer>();
+
+        for (int ruleIdx = 0; ruleIdx < literals.size(); ruleIdx++) {
+            if (literals.get(ruleIdx).isEmpty()) {
+                unfiltered.add(ruleIdx);
+            }
+        }
+
+        this.unfiltered = unfiltered.stream().mapToInt(Integer::intValue).toArray();
+        // Literal indices line up with rule indices, and the matcher never finds the empty ones
+        this.literalMatcher = new MultiStringMatcher(literals);
+    }
+
+    /**
+     * Work out some text every line matching a pattern must contain. Only plain characters in
+     * the top level of the pattern are used; anything which is optional, repeated, grouped or a
+     * class breaks the text up, and the longest unbroken piece wins. Anything this does not
+     * understand gives no text, which only costs speed.
+     * @param pattern Already lower cased.
+     * @return The text, or empty if there is none.
+     */
+    static String requiredLiteral(String pattern) {
+        String literal = longestLiteral(pattern);
+        // Any part of the text is just as required as all of it
+        return literal.length() > MAX_LITERAL_LENGTH ? literal.substring(0, MAX_LITERAL_LENGTH) : literal;
+    }
+
+    private static String longestLiteral(String pattern) {
+        if (UNSAFE_FLAGS_PATTERN.matcher(pattern).find()) {
+            return "";
+        }
+
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+
+            switch (c) {
+            case '\\':
+                if (i + 1 >= pattern.length()) {
+                    return "";
+                }
+
+                char escaped = pattern.charAt(i + 1);
+                i += 2;
+
+                if (!Character.isLetterOrDigit(escaped)) {
+                    run.append(escaped);
+                } else if (SINGLE_CHAR_ESCAPES.indexOf(escaped) >= 0) {
+                    best = longer(best, run);
+                    run.setLength(0);
+                } else {
+                    // Escapes which run on into the characters after them
+                    return longer(best, run);
+                }
+
+                continue;
+            case '|':
+                // Alternatives at the top level leave nothing every match must contain
+                return "";
+            case '*':
+            case '?':
+            case '{':
+                // The character before may not be there at all
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+
+                best = longer(best, run);
+                run.setLength(0);
+
+                if (c == '{') {
+                    int close = pattern.indexOf('}', i);
+
+                    if (close < 0) {
+                        return best;
+                    }
+
+                    i = close;
+                }
+
+                i++;
+                continue;
+            case '+':
+                best = longer(best, run);
+                run.setLength(0);
+                i++;
+                continue;
+            case '(':
+                best = longer(best, run);
+                run.setLength(0);
+                i = skipGroup(pattern, i);
+
+                if (i < 0) {
+                    return best;
+                }
+
+                continue;
+            case '[':
+                best = longer(best, run);
+                run.setLength(0);
+                i = skipClass(pattern, i);
+
+                if (i < 0) {
+                    return best;
+                }
+
+                continue;
+            case '.':
+            case '^':
+            case '$':
+            case ')':
+            case ']':
+            case '}':
+                best = longer(best, run);
+                run.setLength(0);
+                i++;
+                continue;
+            default:
+                run.append(c);
+                i++;
+            }
+        }
+
+        return longer(best, run);
+    }
+
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    /**
+     * @return The index just after the group starting at start, or -1 if it never closes.
+     */
+    private static int skipGroup(String pattern, int start) {
+        int depth = 0;
+        int i = start;
+
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                i = skipClass(pattern, i);
+
+                if (i < 0) {
+                    return -1;
+                }
+
+                continue;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+
+            i++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The index just after the character class starting at start, or -1 if it never closes.
+     */
+    private static int skipClass(String pattern, int start) {
+        int depth = 0;
+        int i = start;
+
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                depth++;
+
+                // A ] straight after the opening bracket, or after a ^, is a plain character
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '^') {
+                    i++;
+                }
+
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']') {
+                depth--;
+
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+
+            i++;
+        }
+
+        return -1;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public List<CompiledRule> getRules() {
+        return Arrays.asList(this.rules);
+    }
+
+    /**
+     * @return How many rules are only tried on lines containing their text.
+     */
+    public int getFilteredCount() {
+        return this.rules.length - this.unfiltered.length;
+    }
+
+    /**
+     * @return Somewhere to check lines from, for use by one thread at a time.
+     */
+    public Scanner newScanner() {
+        return new Scanner();
+    }
+
+    public class Scanner {
+
+        private final Matcher[] matchers = new Matcher[rules.length];
+        private final int[] candidates = new int[rules.length];
+        private final int[] seen = new int[rules.length];
+        private final IntConsumer onLiteral = this::addCandidate;
+        private int lineNumber = 0;
+        private int candidateCount = 0;
+
+        private Scanner() { }
+
+        private void addCandidate(int ruleIdx) {
+            if (this.seen[ruleIdx] != this.lineNumber) {
+                this.seen[ruleIdx] = this.lineNumber;
+                this.candidates[this.candidateCount++] = ruleIdx;
+            }
+        }
+
+        /**
+         * @param normalizedLine The line, lower cased the same way the patterns were.
+         * @param onMatch Given the index of every rule matching the line, in rule order.
+         */
+        public void scan(String normalizedLine, IntConsumer onMatch) {
+            // Rolls over after about four billion lines, long after a log would be cut off
+            this.lineNumber++;
+            this.candidateCount = 0;
+            literalMatcher.find(normalizedLine, this.onLiteral);
+            int candidateCount = this.candidateCount;
+
+            for (int ruleIdx : unfiltered) {
+                this.candidates[candidateCount++] = ruleIdx;
+            }
+
+            Arrays.sort(this.candidates, 0, candidateCount);
+
+            for (int i = 0; i < candidateCount; i++) {
+                int ruleIdx = this.candidates[i];
+
+                if (this.matchers[ruleIdx] == null) {
+                    this.matchers[ruleIdx] = rules[ruleIdx].pattern().matcher(normalizedLine);
+                } else {
+                    this.matchers[ruleIdx].reset(normalizedLine);
+                }
+
+                if (this.matchers[ruleIdx].matches()) {
+                    onMatch.accept(ruleIdx);
+                }
+            }
+        }
+    }
+}
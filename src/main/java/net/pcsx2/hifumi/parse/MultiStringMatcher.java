@@ -0,0 +1,146 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds which of a set of strings appear in a piece of text, with one pass over the text no
+ * matter how many strings there are.
+ *
+ * An Aho-Corasick automaton, with every transition worked out ahead of time for ASCII and only
+ * the trie edges for anything else, which fall back along fail links. Built once and never
+ * modified, so any number of threads can share it.
+ */
+public class MultiStringMatcher {
+
+    private static final int ASCII = 128;
+
+    private final int[][] asciiNext;
+    private final HashMap<Character, Integer>[] otherNext;
+    private final int[] fail;
+    // Strings ending at each node, including through fail links
+    private final int[][] outputs;
+
+    /**
+     * @param strings Strings to look for, matched exactly as given. Empty strings are never found.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiStringMatcher(List<String> strings) {
+        // Build the trie
+        ArrayList<HashMap<Character, Integer>> children = new ArrayList<HashMap<Character, Integer>>();
+        ArrayList<ArrayList<Integer>> ends = new ArrayList<ArrayList<Integer>>();
+        children.add(new HashMap<Character, Integer>());
+        ends.add(new ArrayList<Integer>());
+
+        for (int stringIdx = 0; stringIdx < strings.size(); stringIdx++) {
+            String str = strings.get(stringIdx);
+
+            if (str.isEmpty()) {
+                continue;
+            }
+
+            int node = 0;
+
+            for (int i = 0; i < str.length(); i++) {
+                Integer next = children.get(node).get(str.charAt(i));
+
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(str.charAt(i), next);
+                    children.add(new HashMap<Character, Integer>());
+                    ends.add(new ArrayList<Integer>());
+                }
+
+                node = next;
+            }
+
+            ends.get(node).add(stringIdx);
+        }
+
+        // Breadth first, so a node's fail link is always finished before the node needs it
+        int nodeCount = children.size();
+        this.asciiNext = new int[nodeCount][ASCII];
+        this.otherNext = new HashMap[nodeCount];
+        this.fail = new int[nodeCount];
+        this.outputs = new int[nodeCount][];
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(0);
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            HashMap<Character, Integer> nodeChildren = children.get(node);
+            this.otherNext[node] = new HashMap<Character, Integer>();
+
+            for (int c = 0; c < ASCII; c++) {
+                Integer child = nodeChildren.get((char) c);
+
+                if (child != null) {
+                    this.asciiNext[node][c] = child;
+                } else {
+                    this.asciiNext[node][c] = node == 0 ? 0 : this.asciiNext[this.fail[node]][c];
+                }
+            }
+
+            for (HashMap.Entry<Character, Integer> edge : nodeChildren.entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                if (c >= ASCII) {
+                    this.otherNext[node].put(c, child);
+                }
+
+                this.fail[child] = node == 0 ? 0 : this.step(this.fail[node], c);
+                queue.add(child);
+            }
+
+            ArrayList<Integer> out = new ArrayList<Integer>(ends.get(node));
+
+            if (node != 0) {
+                for (int stringIdx : this.outputs[this.fail[node]]) {
+                    out.add(stringIdx);
+                }
+            }
+
+            this.outputs[node] = out.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int step(int node, char c) {
+        if (c < ASCII) {
+            return this.asciiNext[node][c];
+        }
+
+        while (true) {
+            Integer next = this.otherNext[node].get(c);
+
+            if (next != null) {
+                return next;
+            } else if (node == 0) {
+                return 0;
+            }
+
+            node = this.fail[node];
+        }
+    }
+
+    /**
+     * @param text
+     * @param onMatch Given the index of a string every time it is found, so once per occurrence.
+     */
+    public void find(CharSequence text, IntConsumer onMatch) {
+        int node = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            node = this.step(node, text.charAt(i));
+
+            for (int stringIdx : this.outputs[node]) {
+                onMatch.accept(stringIdx);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+/**
+ * What a parser found in an attachment, ready to send.
+ * @param reply The message to send.
+ * @param body The results file to attach, or null if there is nothing to attach.
+ */
+public record ParseResult(String reply, String body) {
+
+    public boolean hasBody() {
+        return this.body != null;
+    }
+
+    /**
+     * @return Roughly how much memory this takes.
+     */
+    public long estimateBytes() {
+        return 64 + (this.reply.length() + (this.body != null ? this.body.length() : 0)) * 2L;
+    }
+}
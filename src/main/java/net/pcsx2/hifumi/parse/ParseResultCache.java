@@ -0,0 +1,135 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of parsing attachments, so a file uploaded again while someone is getting support
+ * gets its answer without being parsed again.
+ *
+ * Results are keyed by what the upload looked like before downloading it (the parser, the
+ * version of that parser's rules, the file name and size) plus a hash of its contents. Only an
+ * upload matching a cached result on everything but the hash is worth hashing before parsing;
+ * anything else is hashed while it is parsed. Least recently used results are dropped once the
+ * total size goes over the limit.
+ */
+public class ParseResultCache {
+
+    public enum Kind {
+        EMULOG,
+        CRASH,
+        PNACH,
+        SETTINGS_INI
+    }
+
+    /**
+     * Everything known about an upload before downloading it.
+     */
+    public record Upload(Kind kind, long version, String fileName, long size) { }
+
+    private record Key(Upload upload, String digest) { }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, ParseResult> results = new LinkedHashMap<Key, ParseResult>(16, 0.75f, true);
+    private final HashMap<Upload, Integer> uploadCounts = new HashMap<Upload, Integer>();
+    private long totalBytes = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ParseResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return True if some cached result came from an upload like this one, meaning it is worth
+     * hashing the upload to look for it.
+     */
+    public synchronized boolean mightContain(Upload upload) {
+        return this.uploadCounts.containsKey(upload);
+    }
+
+    /**
+     * @return The cached result, or null if there is none. Counted as a hit or a miss.
+     */
+    public synchronized ParseResult get(Upload upload, String digest) {
+        ParseResult result = this.results.get(new Key(upload, digest));
+
+        if (result != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Count a parse which did not need to look in the cache at all.
+     */
+    public void recordMiss() {
+        this.misses.increment();
+    }
+
+    public synchronized void put(Upload upload, String digest, ParseResult result) {
+        long bytes = result.estimateBytes();
+
+        // One huge result would push out everything else for the sake of one file
+        if (bytes > this.maxBytes / 4) {
+            return;
+        }
+
+        ParseResult old = this.results.put(new Key(upload, digest), result);
+
+        if (old != null) {
+            this.totalBytes -= old.estimateBytes();
+        } else {
+            this.uploadCounts.merge(upload, 1, Integer::sum);
+        }
+
+        this.totalBytes += bytes;
+        Iterator<Map.Entry<Key, ParseResult>> iterator = this.results.entrySet().iterator();
+
+        // Eldest first, which is least recently used in access order
+        while (this.totalBytes > this.maxBytes && iterator.hasNext()) {
+            this.removeAccounting(iterator.next());
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Drop every result from one parser, after its rules have changed. Results from the old
+     * rules could no longer be found anyway since the version changes, this frees their memory.
+     */
+    public synchronized void invalidate(Kind kind) {
+        Iterator<Map.Entry<Key, ParseResult>> iterator = this.results.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Key, ParseResult> entry = iterator.next();
+
+            if (entry.getKey().upload().kind() == kind) {
+                this.removeAccounting(entry);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void removeAccounting(Map.Entry<Key, ParseResult> entry) {
+        this.totalBytes -= entry.getValue().estimateBytes();
+        this.uploadCounts.computeIfPresent(entry.getKey().upload(), (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public synchronized String getStats() {
+        long hitCount = this.hits.sum();
+        long total = hitCount + this.misses.sum();
+        return String.format("results: %d cached (%d of %d KB) | hits: %d | parses: %d (%.1f%% hit rate) | evictions: %d",
+            this.results.size(), this.totalBytes / 1024, this.maxBytes / 1024, hitCount, this.misses.sum(), total > 0 ? hitCount * 100.0 / total : 0.0, this.evictions.sum());
+    }
+}
@@ -4,6 +4,7 @@ package net.pcsx2.hifumi.parse;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
@@ -14,6 +15,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 
 import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.entities.Message;
@@ -46,6 +48,16 @@ public class PnachParser extends AbstractParser {
         }
     }
 
+    @Override
+    public Message getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public Attachment getAttachment() {
+        return this.attachment;
+    }
+
     @Override
     public void run() {
         URL url = null;
@@ -58,7 +70,26 @@ public class PnachParser extends AbstractParser {
         }
 
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
+            ParseResult result = parseCached(Kind.PNACH, 0, attachment, url, this::parse);
+
+            if (!result.hasBody()) {
+                Messaging.sendMessage(message.getChannel(), result.reply());
+            } else if (result.body().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
+                Messaging.sendMessage(message.getChannel(), result.reply(), "Pnach_" + message.getAuthor().getName() + ".txt", result.body());
+            } else {
+                Messaging.sendMessage(message.getChannel(), ":warning: Your pnach generated such a large results file that I can't upload it. A human is gonna have to read through your pnach manually.");
+            }
+        } catch (ParseCancelledException e) {
+            // Timed out, and the parser executor has already said so
+        } catch (IOException e) {
+            Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
+            Messaging.logException("EmulogParser", "run", e);
+            return;
+        }
+    }
+
+    private ParseResult parse(InputStream download) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(download))) {
             Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Testing your PNACH ( " + attachment.getFileName() + " )");
             Pattern p = Pattern.compile(CRC_FILE_NAME_PATTERN, Pattern.CASE_INSENSITIVE);
 
@@ -195,49 +226,38 @@ public class PnachParser extends AbstractParser {
                     addError(PnachParserError.NO_EQUALS, line);
                 }
             }
+        }
 
-            reader.close();
-
-            StringBuilder bodyBuilder = new StringBuilder();
-            bodyBuilder.append("\n")
-                    .append("============================== Pnach Parse Results =============================")
-                    .append("\n")
-                    .append("(*) = Information (!) = Warning (X) = Critical").append("\n\n");
-            boolean hasLines = false;
+        StringBuilder bodyBuilder = new StringBuilder();
+        bodyBuilder.append("\n")
+                .append("============================== Pnach Parse Results =============================")
+                .append("\n")
+                .append("(*) = Information (!) = Warning (X) = Critical").append("\n\n");
+        boolean hasLines = false;
 
-            for (PnachParserError epe : errorMap.keySet()) {
-                ArrayList<String> lines = errorMap.get(epe);
+        for (PnachParserError epe : errorMap.keySet()) {
+            ArrayList<String> lines = errorMap.get(epe);
 
-                if (lines.size() > 0) {
-                    hasLines = true;
-                    bodyBuilder.append("--------------------------------------------------------------------------------")
-                            .append("\n")
-                            .append(epe.getDisplayString()).append("\n\n");
+            if (lines.size() > 0) {
+                hasLines = true;
+                bodyBuilder.append("--------------------------------------------------------------------------------")
+                        .append("\n")
+                        .append(epe.getDisplayString()).append("\n\n");
 
-                    for (String str : lines) {
-                        bodyBuilder.append(str).append("\n");
-                    }
+                for (String str : lines) {
+                    bodyBuilder.append(str).append("\n");
                 }
             }
+        }
 
-            if (hasLines) {
-                bodyBuilder.append("\n\n")
-                        .append("============================ End Pnach Parse Results ===========================")
-                        .append("\n");
-
-                if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                    Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Pnach_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
-                } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your pnach generated such a large results file that I can't upload it. A human is gonna have to read through your pnach manually.");
-                }
-            } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: All good, nothing to report!");
-            }
-        } catch (IOException e) {
-            Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
-            Messaging.logException("EmulogParser", "run", e);
-            return;
+        if (!hasLines) {
+            return new ParseResult(":white_check_mark: All good, nothing to report!", null);
         }
+
+        bodyBuilder.append("\n\n")
+                .append("============================ End Pnach Parse Results ===========================")
+                .append("\n");
+        return new ParseResult(":information_source: Found something! Results are in this text file!", bodyBuilder.toString());
     }
 
     private void addError(PnachParserError ppe, String line) {
@@ -4,13 +4,16 @@ package net.pcsx2.hifumi.parse;
 
 import static java.util.stream.Collectors.toMap;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.text.WordUtils;
@@ -22,6 +25,7 @@ import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.config.SettingsIniParserConfig.Rule;
 import net.pcsx2.hifumi.config.SettingsIniParserConfig.Section;
 import net.pcsx2.hifumi.config.SettingsIniParserConfig.Setting;
+import net.pcsx2.hifumi.parse.ParseResultCache.Kind;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class SettingsIniParser extends AbstractParser {
@@ -30,29 +34,66 @@ public class SettingsIniParser extends AbstractParser {
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile("[A-Za-z]{4}-[0-9]{5}_[A-Za-z0-9]{8}.ini");
 
     public static void init(Message message) {
-        int iniCounter = 0;
+        ArrayList<Attachment> inis = new ArrayList<Attachment>();
 
         for (Attachment att : message.getAttachments()) {
-            if (iniCounter >= 2) {
-                // Stop after the second file as not to spam the server
-                break;
+            if (att.getFileName().equals(GLOBAL_SETTINGS_FILE_NAME) || FILE_NAME_PATTERN.matcher(att.getFileName()).matches()) {
+                inis.add(att);
             }
+        }
 
-            if (att.getFileName().equals(GLOBAL_SETTINGS_FILE_NAME)) {
-                SettingsIniParser globalParser = new SettingsIniParser(message, att);
-                HifumiBot.getSelf().getScheduler().runOnce(globalParser);
-                iniCounter++;
-                continue;
+        if (inis.isEmpty()) {
+            return;
+        }
+
+        // The token check runs on the main pool rather than through the parser executor, which can
+        // refuse, time out or size limit a parse. None of those may leave a token posted publicly.
+        HifumiBot.getSelf().getScheduler().runOnce(() -> {
+            for (Attachment att : inis) {
+                if (hasAchievementsToken(att)) {
+                    Messaging.sendPrivateMessage(message.getAuthor(), "The ini file you posted in the PCSX2 server contained your RetroAchievements login token inside. For your safety, your message was deleted so no one else can see it.");
+                    message.delete().queue();
+                    return;
+                }
             }
 
-            Matcher m = FILE_NAME_PATTERN.matcher(att.getFileName());
-            
-            if (m.matches()) {
-                SettingsIniParser propertiesParser = new SettingsIniParser(message, att);
-                HifumiBot.getSelf().getScheduler().runOnce(propertiesParser);
+            int iniCounter = 0;
+
+            for (Attachment att : inis) {
+                if (iniCounter >= 2) {
+                    // Stop after the second file as not to spam the server
+                    break;
+                }
+
+                HifumiBot.getSelf().getScheduler().runParser(new SettingsIniParser(message, att));
                 iniCounter++;
             }
+        });
+    }
+
+    /**
+     * Stream through an ini looking for a Token in its Achievements section, without loading the
+     * whole file or parsing anything else.
+     */
+    private static boolean hasAchievementsToken(Attachment attachment) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(openStream(new URI(attachment.getUrl()).toURL()), StandardCharsets.UTF_8))) {
+            String section = null;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    section = line.substring(1, line.length() - 1).trim();
+                } else if ("Achievements".equals(section) && line.indexOf('=') > 0 && line.substring(0, line.indexOf('=')).trim().equals("Token")) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            Messaging.logException("SettingsIniParser", "hasAchievementsToken", e);
         }
+
+        return false;
     }
     
     private final Message message;
@@ -67,6 +108,16 @@ public class SettingsIniParser extends AbstractParser {
         this.errors = new HashMap<String, HashMap<String, ArrayList<String>>>();
     }
 
+    @Override
+    public Message getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public Attachment getAttachment() {
+        return this.attachment;
+    }
+
     public void run() {
         if (this.message == null || this.attachment == null) {
             return;
@@ -82,22 +133,27 @@ public class SettingsIniParser extends AbstractParser {
         }
         
         try {
-            Ini iniFile = new Ini(url);
-            this.ini = iniFile.entrySet().stream().collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
-            this.safetyCheck();
-            this.evaluate();
-            this.displayErrors();
+            ParseResult result = parseCached(Kind.SETTINGS_INI, 0, attachment, url, this::parse);
+
+            if (!result.hasBody()) {
+                Messaging.sendMessage(this.message.getChannel(), result.reply(), this.message, true);
+            } else if (result.body().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
+                Messaging.sendMessage(this.message.getChannel(), result.reply(), this.attachment.getFileName() + "_" + message.getAuthor().getName() + ".txt", result.body(), null, null, this.message, true);
+            } else {
+                Messaging.sendMessage(this.message.getChannel(), ":warning: Your settings generated such a large results file that I can't upload it here. A human will have to read through your settings manually.", this.message, true);
+            }
+        } catch (ParseCancelledException e) {
+            // Timed out, and the parser executor has already said so
         } catch (IOException e) {
             Messaging.sendMessage(message.getChannel(), ":x: An I/O error occurred while processing " + attachment.getFileName());
         }
     }
 
-    private void safetyCheck() {
-        // Delete the original message if the ini contains an achievements token
-        if (ini.containsKey("Achievements") && ini.get("Achievements").containsKey("Token")) {
-            Messaging.sendPrivateMessage(this.message.getAuthor(), "The ini file you posted in the PCSX2 server contained your RetroAchievements login token inside. For your safety, your message was deleted so no one else can see it.");
-            this.message.delete().queue();
-        }
+    private ParseResult parse(InputStream download) throws IOException {
+        Ini iniFile = new Ini(download);
+        this.ini = iniFile.entrySet().stream().collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+        this.evaluate();
+        return this.summarize();
     }
 
     private void evaluate() {
@@ -169,10 +225,9 @@ public class SettingsIniParser extends AbstractParser {
         }
     }
 
-    private void displayErrors() {
+    private ParseResult summarize() {
         if (errors.isEmpty()) {
-            Messaging.sendMessage(this.message.getChannel(), ":white_check_mark: Nothing to report! Your settings appear to be clean.", this.message, true);
-            return;
+            return new ParseResult(":white_check_mark: Nothing to report! Your settings appear to be clean.", null);
         }
 
         StringBuilder sb = new StringBuilder("Settings analysis for " + this.attachment.getFileName() + "\n");
@@ -194,12 +249,6 @@ public class SettingsIniParser extends AbstractParser {
         
         sb.append("================================================================================").append("\n");
 
-        String body = sb.toString();
-
-        if (body.getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-            Messaging.sendMessage(this.message.getChannel(), ":information_source: Found something! Results are in this text file!", this.attachment.getFileName() + "_" + message.getAuthor().getName() + ".txt", body, null, null, this.message, true);
-        } else {
-            Messaging.sendMessage(this.message.getChannel(), ":warning: Your settings generated such a large results file that I can't upload it here. A human will have to read through your settings manually.", this.message, true);
-        }
+        return new ParseResult(":information_source: Found something! Results are in this text file!", sb.toString());
     }
 }
@@ -7,12 +7,21 @@ import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.imageio.ImageIO;
 
@@ -22,6 +31,70 @@ import net.dv8tion.jda.api.utils.FileUpload;
 
 public class AttachmentUtils {
 
+    // Scam images are small; anything bigger than this is not worth downloading to hash.
+    public static final long MAX_HASH_BYTES = 1024L * 1024L * 16L;
+    private static final int HASH_CACHE_SIZE = 4096;
+    
+    private static final LinkedHashMap<String, ImageHashes> hashCache = new LinkedHashMap<String, ImageHashes>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageHashes> eldest) {
+            return this.size() > HASH_CACHE_SIZE;
+        }
+    };
+    private static final LongAdder hashCacheHits = new LongAdder();
+    private static final LongAdder hashCacheMisses = new LongAdder();
+    private static final LongAdder hashAborts = new LongAdder();
+    
+    private static class TooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+    
+    /**
+     * Fails every read once more than the limit has been read. The image decoder
+     * swallows exceptions, so this keeps failing until the caller sees it.
+     */
+    private static class CappedInputStream extends FilterInputStream {
+        private final long limit;
+        private long total = 0;
+        
+        private CappedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int read = this.read(b, 0, 1);
+            return read == -1 ? -1 : b[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.total > this.limit) {
+                throw new TooLargeException();
+            }
+            
+            int read = super.read(b, off, (int) Math.min(len, this.limit - this.total + 1));
+            
+            if (read > 0) {
+                this.total += read;
+                
+                if (this.total > this.limit) {
+                    throw new TooLargeException();
+                }
+            }
+            
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes would never reach the digest; callers fall back to reading instead.
+            return 0;
+        }
+    }
+
     public static ArrayList<FileUpload> getMinifiedAttachments(Message message) {
         ArrayList<FileUpload> files = new ArrayList<FileUpload>();
         
@@ -57,31 +130,84 @@ public class AttachmentUtils {
         return files;
     }
     
-    public static Optional<String> generateImageSHA256(Attachment attachment) {
+    /**
+     * SHA3-256 digest of an attachment's bytes, plus a perceptual hash if it is an image.
+     */
+    public record ImageHashes(String sha256, OptionalLong dHash) { }
+    
+    /**
+     * Hash an attachment's content with SHA3-256, downloading it in chunks and hashing as it arrives.
+     * Images are also decoded from the same download to get a perceptual hash, see {@link PerceptualHash}.
+     * 
+     * Hashes are remembered by attachment ID, so the same upload is never downloaded twice. A
+     * re-post of an image is a new upload with a new ID, and is downloaded again.
+     * Attachments larger than {@link #MAX_HASH_BYTES} are not hashed at all.
+     * @param attachment
+     * @return Hashes with a lowercase hex digest, or empty if the attachment is too large or could not be read.
+     */
+    public static Optional<ImageHashes> generateImageHashes(Attachment attachment) {
+        if (attachment.getSize() > MAX_HASH_BYTES) {
+            return Optional.empty();
+        }
+        
+        String cacheKey = getHashCacheKey(attachment);
+        
+        synchronized (hashCache) {
+            ImageHashes cached = hashCache.get(cacheKey);
+            
+            if (cached != null) {
+                hashCacheHits.increment();
+                return Optional.of(cached);
+            }
+        }
+        
+        hashCacheMisses.increment();
+        
         try {
             URL url = URL.of(URI.create(attachment.getProxyUrl()), null);
+            MessageDigest digest = MessageDigest.getInstance("SHA3-256");
             
-            try (InputStream is = url.openStream()) {
-                MessageDigest digest = MessageDigest.getInstance("SHA3-256");
-                byte[] hashBytes = digest.digest(is.readAllBytes());
-                StringBuilder hexString = new StringBuilder(2 * hashBytes.length);
+            try (InputStream is = new DigestInputStream(new CappedInputStream(url.openStream(), MAX_HASH_BYTES), digest)) {
+                OptionalLong dHash = OptionalLong.empty();
                 
-                for (int i = 0; i < hashBytes.length; i++) {
-                    String hex = Integer.toHexString(0xff & hashBytes[i]);
-                    
-                    if (hex.length() == 1) {
-                        hexString.append('0');
-                    }
-                    
-                    hexString.append(hex);
+                if (attachment.isImage()) {
+                    dHash = PerceptualHash.dHash(is);
+                }
+                
+                // Digest whatever the image decoder did not need to read
+                is.transferTo(OutputStream.nullOutputStream());
+                ImageHashes hashes = new ImageHashes(HexFormat.of().formatHex(digest.digest()), dHash);
+                
+                synchronized (hashCache) {
+                    hashCache.put(cacheKey, hashes);
                 }
                 
-                return Optional.of(hexString.toString());
+                return Optional.of(hashes);
             }
+        } catch (TooLargeException e) {
+            hashAborts.increment();
         } catch (Exception e) {
             // Squelch
         }
         
         return Optional.empty();
     }
+    
+    private static String getHashCacheKey(Attachment attachment) {
+        // Two different uploads can share a name, size, type and dimensions, but never an ID
+        return attachment.getId();
+    }
+    
+    public static String getHashCacheStats() {
+        long hits = hashCacheHits.sum();
+        long total = hits + hashCacheMisses.sum();
+        int size;
+        
+        synchronized (hashCache) {
+            size = hashCache.size();
+        }
+        
+        return String.format("digests: %d of %d cached | hits: %d | downloads: %d (%.1f%% hit rate) | over size cap: %d",
+            size, HASH_CACHE_SIZE, hits, hashCacheMisses.sum(), total > 0 ? hits * 100.0 / total : 0.0, hashAborts.sum());
+    }
 }
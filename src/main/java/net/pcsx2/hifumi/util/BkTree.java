@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.ArrayDeque;
+
+/**
+ * Burkhard-Keller tree over 64-bit hashes, using Hamming distance. Finding every hash within
+ * a small distance of a query only visits the few branches whose distance from their parent
+ * could possibly be in range, instead of comparing against every hash.
+ *
+ * Not thread safe while being built. Once built, any number of threads can search it.
+ */
+public class BkTree<V> {
+
+    public record Match<V>(long hash, V value, int distance) { }
+
+    private static class Node<V> {
+        private final long hash;
+        private final V value;
+        // Indexed by distance from this node, 0 to 64. Allocated on first child.
+        private Node<V>[] children;
+
+        private Node(long hash, V value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private Node<V> root;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public void add(long hash, V value) {
+        Node<V> node = new Node<V>(hash, value);
+        this.size++;
+
+        if (this.root == null) {
+            this.root = node;
+            return;
+        }
+
+        Node<V> current = this.root;
+
+        while (true) {
+            int distance = Long.bitCount(current.hash ^ hash);
+
+            if (current.children == null) {
+                current.children = (Node<V>[]) new Node[65];
+            }
+
+            if (current.children[distance] == null) {
+                current.children[distance] = node;
+                return;
+            }
+
+            current = current.children[distance];
+        }
+    }
+
+    /**
+     * Find the closest hash within a distance of this one.
+     * @param hash
+     * @param maxDistance Inclusive.
+     * @return The closest match, or null if nothing is within range. Ties go to whichever is found first.
+     */
+    public Match<V> findNearest(long hash, int maxDistance) {
+        if (this.root == null || maxDistance < 0) {
+            return null;
+        }
+
+        Match<V> best = null;
+        ArrayDeque<Node<V>> pending = new ArrayDeque<Node<V>>();
+        pending.push(this.root);
+
+        while (!pending.isEmpty()) {
+            Node<V> node = pending.pop();
+            int distance = Long.bitCount(node.hash ^ hash);
+
+            if (distance <= maxDistance && (best == null || distance < best.distance())) {
+                best = new Match<V>(node.hash, node.value, distance);
+
+                if (distance == 0) {
+                    return best;
+                }
+            }
+
+            if (node.children == null) {
+                continue;
+            }
+
+            // Triangle inequality; a child at distance d from this node can only be in range if |d - distance| <= limit.
+            int limit = best != null ? best.distance() - 1 : maxDistance;
+
+            for (int d = Math.max(0, distance - limit); d <= Math.min(64, distance + limit); d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    public int size() {
+        return this.size;
+    }
+}
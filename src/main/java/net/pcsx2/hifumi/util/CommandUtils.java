@@ -2,8 +2,13 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.util;
 
+import org.apache.commons.lang3.StringUtils;
+
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 public class CommandUtils {
 
@@ -56,4 +61,28 @@ public class CommandUtils {
         
         return false;
     }
+    
+    /**
+     * Build the optional "region" option used by commands that search GameIndex.yaml.
+     * Values are region prefixes, so "PAL" covers every PAL variant.
+     * @return
+     */
+    public static OptionData newGameRegionOption() {
+        return new OptionData(OptionType.STRING, "region", "Only show games from this region", false)
+                .addChoice("NTSC-U (North America)", "NTSC-U")
+                .addChoice("NTSC-J (Japan)", "NTSC-J")
+                .addChoice("NTSC-K (Korea)", "NTSC-K")
+                .addChoice("NTSC-C (China)", "NTSC-C")
+                .addChoice("PAL (Europe, Oceania)", "PAL");
+    }
+    
+    /**
+     * Build an autocomplete choice, shortening the name and value to what Discord allows.
+     * @param name - What the user sees
+     * @param value - What the option is filled in with
+     * @return
+     */
+    public static Command.Choice newChoice(String name, String value) {
+        return new Command.Choice(StringUtils.abbreviate(name, OptionData.MAX_CHOICE_NAME_LENGTH), StringUtils.abbreviate(value, OptionData.MAX_CHOICE_VALUE_LENGTH));
+    }
 }
@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.OptionalLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * 64-bit difference hash (dHash) of an image. The image is reduced to a 9x8 grid of average
+ * brightness, and each bit records whether a cell is brighter than the cell to its right.
+ *
+ * Re-encoding, resizing, small crops and colour tweaks only flip a few bits, so two hashes a
+ * small Hamming distance apart are very likely the same picture.
+ */
+public class PerceptualHash {
+
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+    // Decode at roughly this many pixels per side at most, there is no point decoding more detail than this.
+    private static final int DECODE_TARGET_SIDE = 256;
+    // Hashes with hardly any bits (or hardly any unset bits) are blank or flat images, which would match each other.
+    private static final int MIN_SET_BITS = 4;
+    private static final int MAX_SET_BITS = 64 - MIN_SET_BITS;
+
+    /**
+     * Decode an image from a stream and hash it. Large images are subsampled while decoding,
+     * so the full resolution image is never held in memory.
+     * @param is Read only as far as the decoder needs, and not closed.
+     * @return The hash, or empty if the stream is not a readable image or the image is too plain to hash.
+     */
+    public static OptionalLong dHash(InputStream is) {
+        try (ImageInputStream iis = new MemoryCacheImageInputStream(is)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+
+            if (!readers.hasNext()) {
+                return OptionalLong.empty();
+            }
+
+            ImageReader reader = readers.next();
+
+            try {
+                reader.setInput(iis, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / DECODE_TARGET_SIDE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return dHash(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Squelch
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @param img
+     * @return The hash, or empty if the image is too plain to hash.
+     */
+    public static OptionalLong dHash(BufferedImage img) {
+        int width = img.getWidth(), height = img.getHeight();
+
+        if (width < GRID_WIDTH || height < GRID_HEIGHT) {
+            return OptionalLong.empty();
+        }
+
+        double[][] grid = new double[GRID_HEIGHT][GRID_WIDTH];
+
+        for (int gy = 0; gy < GRID_HEIGHT; gy++) {
+            int y0 = gy * height / GRID_HEIGHT, y1 = (gy + 1) * height / GRID_HEIGHT;
+
+            for (int gx = 0; gx < GRID_WIDTH; gx++) {
+                int x0 = gx * width / GRID_WIDTH, x1 = (gx + 1) * width / GRID_WIDTH;
+                double sum = 0;
+
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        sum += luminance(img.getRGB(x, y));
+                    }
+                }
+
+                grid[gy][gx] = sum / ((x1 - x0) * (y1 - y0));
+            }
+        }
+
+        long ret = 0;
+
+        for (int gy = 0; gy < GRID_HEIGHT; gy++) {
+            for (int gx = 0; gx < GRID_WIDTH - 1; gx++) {
+                ret <<= 1;
+
+                if (grid[gy][gx] > grid[gy][gx + 1]) {
+                    ret |= 1;
+                }
+            }
+        }
+
+        int setBits = Long.bitCount(ret);
+
+        if (setBits < MIN_SET_BITS || setBits > MAX_SET_BITS) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(ret);
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double luminance(int argb) {
+        int alpha = (argb >>> 24) & 0xff;
+        double lum = 0.299 * ((argb >> 16) & 0xff) + 0.587 * ((argb >> 8) & 0xff) + 0.114 * (argb & 0xff);
+        // Blend transparent pixels onto white, so they have a well defined brightness
+        return (lum * alpha + 255.0 * (255 - alpha)) / 255.0;
+    }
+}
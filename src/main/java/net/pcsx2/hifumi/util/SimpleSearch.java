@@ -2,45 +2,168 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
 
-import org.apache.commons.text.similarity.JaccardSimilarity;
-
+/**
+ * Word based search over a fixed list of names, such as Passmark's CPU and GPU lists.
+ *
+ * A name scores half a point for every query word it contains anywhere, a point for every one
+ * of its words equal to a query word, plus the Jaccard similarity of the characters used by the
+ * name and the query. Names scoring under half a point are not results.
+ *
+ * Everything about the names is worked out once when built: their normalized text, which
+ * characters they use, and an index from each word to the names containing it. A search only
+ * touches the names sharing words with the query, plus one pass over the character sets. Built
+ * once per refresh and never modified, so any number of threads can search at once.
+ */
 public class SimpleSearch {
 
-    private static JaccardSimilarity jaccard = new JaccardSimilarity();
+    public record Result(String name, float score) { }
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("[-_]");
+    private static final Pattern STRIP_PATTERN = Pattern.compile("[^\\w\\s]");
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s");
+    private static final float MIN_SCORE = 0.5f;
+    // Worst first, so a bounded heap can drop its head
+    private static final Comparator<Result> RESULT_ORDER = Comparator
+            .comparingDouble(Result::score)
+            .thenComparing(Result::name, Comparator.reverseOrder());
+
+    private final String[] names;
+    private final boolean[] empty;
+    // Normalized text is only ever ASCII letters, digits and whitespace, so which characters
+    // a name uses fits in 128 bits.
+    private final long[] charsLow;
+    private final long[] charsHigh;
+    // Word to the names containing it, a name appearing once per time it uses the word
+    private final HashMap<String, int[]> postings;
+    private final String[] words;
+
+    public SimpleSearch(Collection<String> searchAgainst) {
+        this.names = searchAgainst.toArray(new String[0]);
+        this.empty = new boolean[this.names.length];
+        this.charsLow = new long[this.names.length];
+        this.charsHigh = new long[this.names.length];
+        HashMap<String, ArrayList<Integer>> building = new HashMap<String, ArrayList<Integer>>();
+
+        for (int i = 0; i < this.names.length; i++) {
+            String normalized = normalize(this.names[i]);
+            this.empty[i] = normalized.isEmpty();
+            long[] chars = charSet(normalized);
+            this.charsLow[i] = chars[0];
+            this.charsHigh[i] = chars[1];
+
+            for (String word : WHITESPACE_PATTERN.split(normalized)) {
+                if (!word.isEmpty()) {
+                    building.computeIfAbsent(word, k -> new ArrayList<Integer>()).add(i);
+                }
+            }
+        }
+
+        this.postings = new HashMap<String, int[]>(building.size() * 2);
 
-    public static synchronized HashMap<String, Float> search(Collection<String> searchAgainst, String query) {
-        HashMap<String, Float> ret = new HashMap<String, Float>();
-        query = query.toLowerCase().trim().replaceAll("[-_]", " ").replaceAll("[^\\w\\s]", "");
+        for (HashMap.Entry<String, ArrayList<Integer>> posting : building.entrySet()) {
+            this.postings.put(posting.getKey(), posting.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
 
-        for (String str : searchAgainst) {
-            String normalized = str.toLowerCase().trim().replaceAll("[-_]", " ").replaceAll("[^\\w\\s]", "");
+        this.words = this.postings.keySet().toArray(new String[0]);
+    }
 
-            float toPush = 0;
+    /**
+     * @param query
+     * @param limit Most results to return.
+     * @return Best match first.
+     */
+    public List<Result> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        float[] scores = new float[this.names.length];
+        int[] lastToken = new int[this.names.length];
+        int tokenNumber = 0;
 
-            String[] tokenizedQuery = query.split("\\s");
+        for (String token : WHITESPACE_PATTERN.split(normalizedQuery)) {
+            if (token.isBlank()) {
+                continue;
+            }
 
-            for (String token : tokenizedQuery) {
-                if (token.isBlank())
-                    continue;
+            tokenNumber++;
 
-                // Contains
-                if (normalized.contains(token))
-                    toPush += 0.5;
+            // Tokens never contain whitespace, so a name contains one only if one of its words does
+            for (String word : this.words) {
+                if (word.contains(token)) {
+                    for (int nameIdx : this.postings.get(word)) {
+                        if (lastToken[nameIdx] != tokenNumber) {
+                            lastToken[nameIdx] = tokenNumber;
+                            scores[nameIdx] += 0.5f;
+                        }
+                    }
+                }
+            }
+
+            int[] exact = this.postings.get(token);
 
-                // Whole word match
-                for (String part : normalized.replaceAll("[^\\d\\w]", " ").split(" ")) {
-                    if (part.equals(token))
-                        toPush += 1;
+            if (exact != null) {
+                for (int nameIdx : exact) {
+                    scores[nameIdx] += 1;
                 }
             }
+        }
+
+        long[] queryChars = charSet(normalizedQuery);
+        PriorityQueue<Result> top = new PriorityQueue<Result>(limit + 1, RESULT_ORDER);
+
+        for (int i = 0; i < this.names.length; i++) {
+            float score = (float) (scores[i] + this.jaccard(i, queryChars, normalizedQuery.isEmpty()));
+
+            if (score >= MIN_SCORE) {
+                top.add(new Result(this.names[i], score));
+
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        ArrayList<Result> ret = new ArrayList<Result>(top);
+        ret.sort(RESULT_ORDER.reversed());
+        return ret;
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Jaccard similarity of the sets of characters used by a name and the query.
+     */
+    private double jaccard(int nameIdx, long[] queryChars, boolean queryEmpty) {
+        if (this.empty[nameIdx] || queryEmpty) {
+            return this.empty[nameIdx] && queryEmpty ? 1 : 0;
+        }
+
+        int intersection = Long.bitCount(this.charsLow[nameIdx] & queryChars[0]) + Long.bitCount(this.charsHigh[nameIdx] & queryChars[1]);
+        int union = Long.bitCount(this.charsLow[nameIdx] | queryChars[0]) + Long.bitCount(this.charsHigh[nameIdx] | queryChars[1]);
+        return 1.0 * intersection / union;
+    }
+
+    private static String normalize(String str) {
+        String ret = str.toLowerCase(Locale.ROOT).trim();
+        ret = SEPARATOR_PATTERN.matcher(ret).replaceAll(" ");
+        return STRIP_PATTERN.matcher(ret).replaceAll("");
+    }
 
-            toPush += jaccard.apply(normalized, query);
+    private static long[] charSet(String normalized) {
+        long[] ret = new long[2];
 
-            if (toPush >= 0.5)
-                ret.put(str, toPush);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            ret[c >> 6] |= 1L << (c & 63);
         }
 
         return ret;
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshots of downloaded data, kept in the data directory so it is available straight
+ * away after a restart.
+ *
+ * Every file starts with a magic number and a format version. A file with the wrong magic or
+ * an older version is treated as missing, so changing a format only needs a version bump.
+ */
+public class SnapshotFile {
+
+    public interface Writer {
+        public void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Write a snapshot. It goes to a temporary file first and is then moved over the old one,
+     * so a crash part way through never leaves a half written snapshot behind.
+     * @param path
+     * @param magic
+     * @param version
+     * @param writer Writes everything after the header.
+     * @throws IOException
+     */
+    public static void write(Path path, int magic, int version, Writer writer) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            writer.write(out);
+        }
+
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map a snapshot into memory, read only.
+     * @param path
+     * @param magic
+     * @param version
+     * @return Positioned just after the header, or null if there is no snapshot in this format.
+     * @throws IOException
+     */
+    public static ByteBuffer map(Path path, int magic, int version) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buf = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+            if (buf.remaining() < 8 || buf.getInt() != magic || buf.getInt() != version) {
+                Log.info("Ignoring snapshot " + path.getFileName() + ", it is from a different format version");
+                return null;
+            }
+
+            return buf;
+        }
+    }
+
+    /**
+     * Length prefixed UTF-8, with a length of -1 for null.
+     */
+    public static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[checkCount(length, in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a count of things that follow, each taking at least a byte.
+     */
+    public static int readCount(ByteBuffer in) {
+        return checkCount(in.getInt(), in);
+    }
+
+    /**
+     * Guard against a corrupt count allocating far more than the buffer could possibly hold.
+     */
+    public static int checkCount(int count, ByteBuffer in) {
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Bad count " + count + " with " + in.remaining() + " bytes left");
+        }
+
+        return count;
+    }
+}
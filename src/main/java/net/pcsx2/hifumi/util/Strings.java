@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.util;
 
+import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -36,4 +37,33 @@ public class Strings {
         }
         return value;
     }
+
+    /**
+     * Lowercase, strip accents, turn anything that isn't a letter or digit into a space, and collapse spaces.
+     * @param text
+     * @return
+     */
+    public static String normalizeSearchText(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean lastWasSpace = true;
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                lastWasSpace = false;
+            } else if (!lastWasSpace) {
+                sb.append(' ');
+                lastWasSpace = true;
+            }
+        }
+
+        return sb.toString().strip();
+    }
 }
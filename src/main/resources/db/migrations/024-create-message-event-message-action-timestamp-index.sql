@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_message_event_message_action_timestamp" ON "message_event" (
+    "fk_message",
+    "action",
+    "timestamp" DESC
+);
\ No newline at end of file
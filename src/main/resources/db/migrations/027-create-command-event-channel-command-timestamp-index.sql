@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_command_event_channel_command_timestamp" ON "command_event" (
+    "channel_fk",
+    "command_fk",
+    "timestamp" DESC
+);
\ No newline at end of file
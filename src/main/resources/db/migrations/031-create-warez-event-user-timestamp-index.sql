@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_warez_event_user_timestamp" ON "warez_event" (
+    "fk_user",
+    "timestamp" DESC
+);
\ No newline at end of file
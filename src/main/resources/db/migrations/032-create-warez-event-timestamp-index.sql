@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_warez_event_timestamp" ON "warez_event" (
+    "timestamp" DESC
+);
\ No newline at end of file
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_automod_event_user_timestamp" ON "automod_event" (
+    "fk_user",
+    "timestamp" DESC
+);
\ No newline at end of file
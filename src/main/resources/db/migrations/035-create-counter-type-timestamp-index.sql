@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_counter_type_timestamp" ON "counter" (
+    "type",
+    "timestamp" DESC
+);
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_scam_hash_match_timestamp" ON "scam_hash_match" (
+    "timestamp" DESC
+);
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_antibot_event_timestamp" ON "antibot_event" (
+    "timestamp" DESC
+);
\ No newline at end of file
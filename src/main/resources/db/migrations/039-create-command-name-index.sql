@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_command_name" ON "command" (
+    "name"
+);
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE "scam_hash"
+  ADD COLUMN "dhash" INTEGER;
\ No newline at end of file
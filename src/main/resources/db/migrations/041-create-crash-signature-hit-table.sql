@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS
+  "crash_signature_hit" (
+    "name"  TEXT NOT NULL,
+    "day"   INTEGER NOT NULL,
+    "hits"  INTEGER NOT NULL,
+    PRIMARY KEY("name", "day")
+);
\ No newline at end of file
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS
+  "event_rollup" (
+    "series" TEXT NOT NULL,
+    "unit" TEXT NOT NULL,
+    "bucket_start" INTEGER NOT NULL,
+    "label" TEXT NOT NULL,
+    "bucket" TEXT NOT NULL,
+    "events" INTEGER NOT NULL,
+    PRIMARY KEY ("series", "unit", "bucket_start", "label")
+);
\ No newline at end of file
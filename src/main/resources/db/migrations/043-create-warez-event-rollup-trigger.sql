@@ -0,0 +1,25 @@
+CREATE TRIGGER "warez_event_rollup"
+AFTER INSERT ON "warez_event"
+BEGIN
+    INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+    VALUES
+        ('warez', 'day', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of day'), NEW.action, STRFTIME('%Y-%m-%d', NEW.timestamp, 'unixepoch'), 1),
+        ('warez', 'month', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of month'), NEW.action, STRFTIME('%Y-%m', NEW.timestamp, 'unixepoch'), 1),
+        ('warez', 'year', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of year'), NEW.action, STRFTIME('%Y', NEW.timestamp, 'unixepoch'), 1)
+    ON CONFLICT (series, unit, bucket_start, label) DO UPDATE SET events = events + 1;
+END;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'warez', 'day', UNIXEPOCH(timestamp, 'unixepoch', 'start of day') AS bucket_start, action, STRFTIME('%Y-%m-%d', timestamp, 'unixepoch'), COUNT(*)
+FROM warez_event
+GROUP BY bucket_start, action;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'warez', 'month', UNIXEPOCH(timestamp, 'unixepoch', 'start of month') AS bucket_start, action, STRFTIME('%Y-%m', timestamp, 'unixepoch'), COUNT(*)
+FROM warez_event
+GROUP BY bucket_start, action;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'warez', 'year', UNIXEPOCH(timestamp, 'unixepoch', 'start of year') AS bucket_start, action, STRFTIME('%Y', timestamp, 'unixepoch'), COUNT(*)
+FROM warez_event
+GROUP BY bucket_start, action;
\ No newline at end of file
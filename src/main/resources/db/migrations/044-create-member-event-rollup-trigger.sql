@@ -0,0 +1,25 @@
+CREATE TRIGGER "member_event_rollup"
+AFTER INSERT ON "member_event"
+BEGIN
+    INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+    VALUES
+        ('member', 'day', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of day'), NEW.action, STRFTIME('%Y-%m-%d', NEW.timestamp, 'unixepoch'), 1),
+        ('member', 'month', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of month'), NEW.action, STRFTIME('%Y-%m', NEW.timestamp, 'unixepoch'), 1),
+        ('member', 'year', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of year'), NEW.action, STRFTIME('%Y', NEW.timestamp, 'unixepoch'), 1)
+    ON CONFLICT (series, unit, bucket_start, label) DO UPDATE SET events = events + 1;
+END;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'member', 'day', UNIXEPOCH(timestamp, 'unixepoch', 'start of day') AS bucket_start, action, STRFTIME('%Y-%m-%d', timestamp, 'unixepoch'), COUNT(*)
+FROM member_event
+GROUP BY bucket_start, action;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'member', 'month', UNIXEPOCH(timestamp, 'unixepoch', 'start of month') AS bucket_start, action, STRFTIME('%Y-%m', timestamp, 'unixepoch'), COUNT(*)
+FROM member_event
+GROUP BY bucket_start, action;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'member', 'year', UNIXEPOCH(timestamp, 'unixepoch', 'start of year') AS bucket_start, action, STRFTIME('%Y', timestamp, 'unixepoch'), COUNT(*)
+FROM member_event
+GROUP BY bucket_start, action;
\ No newline at end of file
@@ -0,0 +1,25 @@
+CREATE TRIGGER "automod_event_rollup"
+AFTER INSERT ON "automod_event"
+BEGIN
+    INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+    VALUES
+        ('automod', 'day', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of day'), NEW."trigger", STRFTIME('%Y-%m-%d', NEW.timestamp, 'unixepoch'), 1),
+        ('automod', 'month', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of month'), NEW."trigger", STRFTIME('%Y-%m', NEW.timestamp, 'unixepoch'), 1),
+        ('automod', 'year', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of year'), NEW."trigger", STRFTIME('%Y', NEW.timestamp, 'unixepoch'), 1)
+    ON CONFLICT (series, unit, bucket_start, label) DO UPDATE SET events = events + 1;
+END;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'automod', 'day', UNIXEPOCH(timestamp, 'unixepoch', 'start of day') AS bucket_start, "trigger", STRFTIME('%Y-%m-%d', timestamp, 'unixepoch'), COUNT(*)
+FROM automod_event
+GROUP BY bucket_start, "trigger";
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'automod', 'month', UNIXEPOCH(timestamp, 'unixepoch', 'start of month') AS bucket_start, "trigger", STRFTIME('%Y-%m', timestamp, 'unixepoch'), COUNT(*)
+FROM automod_event
+GROUP BY bucket_start, "trigger";
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'automod', 'year', UNIXEPOCH(timestamp, 'unixepoch', 'start of year') AS bucket_start, "trigger", STRFTIME('%Y', timestamp, 'unixepoch'), COUNT(*)
+FROM automod_event
+GROUP BY bucket_start, "trigger";
\ No newline at end of file
@@ -0,0 +1,25 @@
+CREATE TRIGGER "spamkick_event_rollup"
+AFTER INSERT ON "spamkick_event"
+BEGIN
+    INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+    VALUES
+        ('spamkick', 'day', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of day'), NEW.type, STRFTIME('%Y-%m-%d', NEW.timestamp, 'unixepoch'), 1),
+        ('spamkick', 'month', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of month'), NEW.type, STRFTIME('%Y-%m', NEW.timestamp, 'unixepoch'), 1),
+        ('spamkick', 'year', UNIXEPOCH(NEW.timestamp, 'unixepoch', 'start of year'), NEW.type, STRFTIME('%Y', NEW.timestamp, 'unixepoch'), 1)
+    ON CONFLICT (series, unit, bucket_start, label) DO UPDATE SET events = events + 1;
+END;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'spamkick', 'day', UNIXEPOCH(timestamp, 'unixepoch', 'start of day') AS bucket_start, type, STRFTIME('%Y-%m-%d', timestamp, 'unixepoch'), COUNT(*)
+FROM spamkick_event
+GROUP BY bucket_start, type;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'spamkick', 'month', UNIXEPOCH(timestamp, 'unixepoch', 'start of month') AS bucket_start, type, STRFTIME('%Y-%m', timestamp, 'unixepoch'), COUNT(*)
+FROM spamkick_event
+GROUP BY bucket_start, type;
+
+INSERT INTO event_rollup (series, unit, bucket_start, label, bucket, events)
+SELECT 'spamkick', 'year', UNIXEPOCH(timestamp, 'unixepoch', 'start of year') AS bucket_start, type, STRFTIME('%Y', timestamp, 'unixepoch'), COUNT(*)
+FROM spamkick_event
+GROUP BY bucket_start, type;
\ No newline at end of file
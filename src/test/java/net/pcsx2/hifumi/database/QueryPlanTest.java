@@ -0,0 +1,95 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over the hot read queries against a database built from every
+ * migration, and fails if any of them would read a table in full instead of through an index.
+ */
+class QueryPlanTest {
+
+    /**
+     * @param boundedScans Names SQLite may SCAN anyway, such as a subquery already limited to a page.
+     */
+    private record HotQuery(String name, String sql, Set<String> boundedScans) { }
+
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+        new HotQuery("loadMessage revisions", Database.MESSAGE_REVISIONS_SQL, Set.of()),
+        new HotQuery("loadMessage attachments", Database.MESSAGE_ATTACHMENTS_SQL, Set.of()),
+        new HotQuery("getIdenticalMessagesSinceTime", Database.IDENTICAL_MESSAGES_SINCE_SQL, Set.of()),
+        new HotQuery("getAllMessagesSinceTime", Database.ALL_MESSAGES_SINCE_SQL, Set.of()),
+        new HotQuery("getMessagesWithAttachmentsAggregateByChannelSinceTime", Database.ATTACHMENT_CHANNELS_SINCE_SQL, Set.of()),
+        new HotQuery("getLatestCommandEventNotFromUser", Database.LATEST_COMMAND_EVENT_SQL, Set.of()),
+        // e is the one page picked from warez_event's index by the subquery
+        new HotQuery("getWarezActionsForUserPage", Database.WAREZ_EVENTS_PAGE_SQL, Set.of("e")),
+        new HotQuery("getMemberEventsPage", Database.MEMBER_EVENTS_PAGE_SQL, Set.of()),
+        new HotQuery("getAutoModEventsPage", Database.AUTOMOD_EVENTS_PAGE_SQL, Set.of()),
+        new HotQuery("EventRollups.read", EventRollups.ROLLUPS_SQL, Set.of())
+    );
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        new MigrationRunner(conn).run(SQLite.SCHEMA_MIGRATIONS);
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        conn.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQueriesUseIndexes() {
+        return HOT_QUERIES.stream().map(query -> DynamicTest.dynamicTest(query.name(), () -> {
+            List<String> plan = explain(query.sql());
+            assertFalse(plan.isEmpty(), "No plan for " + query.name());
+
+            for (String detail : plan) {
+                // "SCAN x USING INDEX" and "SEARCH x ..." are fine, a bare "SCAN x" reads every row
+                if (detail.startsWith("SCAN ") && !detail.contains(" USING ")) {
+                    String scanned = detail.substring("SCAN ".length()).split(" ")[0];
+                    assertTrue(query.boundedScans().contains(scanned), query.name() + " does a full scan (" + detail + "), plan was " + plan);
+                }
+            }
+        }));
+    }
+
+    private static List<String> explain(String sql) throws SQLException {
+        ArrayList<String> ret = new ArrayList<String>();
+
+        try (PreparedStatement explain = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            // The plan does not depend on the values, but every parameter has to be bound
+            for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                explain.setObject(i, null);
+            }
+
+            try (ResultSet res = explain.executeQuery()) {
+                while (res.next()) {
+                    ret.add(res.getString("detail"));
+                }
+            }
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,93 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Made up CPU and GPU names in the shapes Passmark's charts use. A fixed seed keeps the lists the
+ * same on every run, at about the size of the real charts.
+ */
+public class PassmarkNames {
+
+    public static final List<String> CPU_QUERIES = List.of(
+        "5800x3d", "ryzen 7 5800x3d", "i5 12400f", "i5-12400F", "core i7 4790k", "i9", "xeon e5 2680 v4",
+        "ryzen 5 pro", "apple m2", "snapdragon", "7950x", "intel", "amd ryzen", "4.00ghz", "pentium g4560",
+        "celeron n4020", "zzz"
+    );
+
+    public static final List<String> GPU_QUERIES = List.of(
+        "rtx 4090", "rtx 3060 ti", "gtx 1050", "rx 6700 xt", "rx 580", "radeon", "geforce", "uhd 630",
+        "intel uhd graphics 620", "arc a770", "quadro p2000", "1660 super", "vega 8", "radeon pro w6800",
+        "iris xe", "zzz"
+    );
+
+    private static final long SEED = 0x5eed;
+
+    public static List<String> cpus() {
+        Random random = new Random(SEED);
+        LinkedHashSet<String> ret = new LinkedHashSet<String>(List.of(
+            "AMD Ryzen 7 5800X3D", "AMD Ryzen 9 7950X", "AMD Ryzen 5 PRO 4650GE", "Intel Core i5-12400F",
+            "Intel Core i7-4790K @ 4.00GHz", "Intel Core i9-13900K", "Intel Xeon E5-2680 v4 @ 2.40GHz",
+            "Intel Pentium G4560 @ 3.50GHz", "Intel Celeron N4020 @ 1.10GHz", "Apple M1 Pro 10 Core 3200 MHz",
+            "Apple M2 8 Core 3500 MHz", "Qualcomm Snapdragon 8cx Gen 3"
+        ));
+        String[] ryzen = { "3", "5", "7", "9" };
+        String[] ryzenSuffix = { "", "X", "X3D", "G", "GE", "H", "HS", "U" };
+        String[] core = { "i3", "i5", "i7", "i9" };
+        String[] coreSuffix = { "", "K", "KF", "F", "T", "H", "HK", "U", "G7" };
+        String[] xeon = { "E3", "E5", "E7", "W", "Gold", "Silver", "Platinum" };
+
+        while (ret.size() < 4500) {
+            switch (random.nextInt(4)) {
+                case 0 -> ret.add("AMD Ryzen " + ryzen[random.nextInt(ryzen.length)] + (random.nextInt(5) == 0 ? " PRO " : " ")
+                        + (1000 + random.nextInt(9000) / 100 * 100 + random.nextInt(10) * 5) + ryzenSuffix[random.nextInt(ryzenSuffix.length)]);
+                case 1 -> ret.add("Intel Core " + core[random.nextInt(core.length)] + "-" + (2000 + random.nextInt(12000))
+                        + coreSuffix[random.nextInt(coreSuffix.length)] + clock(random));
+                case 2 -> ret.add("Intel Xeon " + xeon[random.nextInt(xeon.length)] + "-" + (1000 + random.nextInt(9000))
+                        + (random.nextBoolean() ? " v" + (1 + random.nextInt(4)) : "") + clock(random));
+                default -> ret.add((random.nextBoolean() ? "Intel Pentium G" : "Intel Celeron N") + (1000 + random.nextInt(9000)) + clock(random));
+            }
+        }
+
+        return new ArrayList<String>(ret);
+    }
+
+    public static List<String> gpus() {
+        Random random = new Random(SEED);
+        LinkedHashSet<String> ret = new LinkedHashSet<String>(List.of(
+            "GeForce RTX 4090", "GeForce RTX 3060 Ti", "GeForce GTX 1050 Ti", "GeForce GTX 1660 SUPER",
+            "Radeon RX 6700 XT", "Radeon RX 580", "Radeon RX Vega 8", "Radeon Pro W6800", "Intel UHD Graphics 620",
+            "Intel UHD Graphics 630", "Intel Iris Xe", "Intel Arc A770", "Quadro P2000"
+        ));
+        String[] geforce = { "GT", "GTX", "RTX" };
+        String[] geforceSuffix = { "", " Ti", " SUPER", " Laptop GPU", " Ti Laptop GPU", " Max-Q" };
+        String[] radeon = { "HD", "R7", "R9", "RX", "Pro W", "Pro WX" };
+        String[] radeonSuffix = { "", " XT", " XTX", " GRE", " M", "S" };
+
+        while (ret.size() < 2500) {
+            switch (random.nextInt(4)) {
+                case 0 -> ret.add("GeForce " + geforce[random.nextInt(geforce.length)] + " " + (100 + random.nextInt(4900))
+                        + geforceSuffix[random.nextInt(geforceSuffix.length)]);
+                case 1 -> ret.add("Radeon " + radeon[random.nextInt(radeon.length)] + " " + (200 + random.nextInt(9800))
+                        + radeonSuffix[random.nextInt(radeonSuffix.length)]);
+                case 2 -> ret.add("Quadro " + (random.nextBoolean() ? "P" : "T") + (100 + random.nextInt(7000)));
+                default -> ret.add("Intel " + (random.nextBoolean() ? "UHD Graphics " : "HD Graphics ") + (500 + random.nextInt(300)));
+            }
+        }
+
+        return new ArrayList<String>(ret);
+    }
+
+    private static String clock(Random random) {
+        if (random.nextBoolean()) {
+            return "";
+        }
+
+        return String.format(Locale.ROOT, " @ %d.%02dGHz", 1 + random.nextInt(4), random.nextInt(20) * 5);
+    }
+}
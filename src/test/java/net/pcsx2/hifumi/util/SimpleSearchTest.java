@@ -0,0 +1,58 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import net.pcsx2.hifumi.util.SimpleSearch.Result;
+
+/**
+ * Checks the indexed search gives /cpu and /gpu the same five results, with the same scores, as
+ * the search it replaced.
+ */
+class SimpleSearchTest {
+
+    // CommandCPU and CommandGPU show this many
+    private static final int MAX_RESULTS = 5;
+
+    @TestFactory
+    Stream<DynamicTest> cpuTopResultsMatchLegacy() {
+        return matchLegacy("cpu", PassmarkNames.cpus(), PassmarkNames.CPU_QUERIES);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> gpuTopResultsMatchLegacy() {
+        return matchLegacy("gpu", PassmarkNames.gpus(), PassmarkNames.GPU_QUERIES);
+    }
+
+    private static Stream<DynamicTest> matchLegacy(String kind, List<String> names, List<String> queries) {
+        SimpleSearch search = new SimpleSearch(names);
+
+        return queries.stream().map(query -> DynamicTest.dynamicTest(kind + " '" + query + "'", () -> {
+            assertEquals(legacyTop(names, query), search.search(query, MAX_RESULTS));
+        }));
+    }
+
+    /**
+     * The legacy search's best results, ties broken by name. The commands used to break ties in
+     * whatever order the HashMap gave, so that is the only ordering the two may differ in.
+     */
+    private static List<Result> legacyTop(List<String> names, String query) {
+        HashMap<String, Float> results = LegacySimpleSearch.search(names, query);
+
+        return results.entrySet().stream()
+                .sorted(Map.Entry.<String, Float>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_RESULTS)
+                .map(entry -> new Result(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}